@@ -0,0 +1,47 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+plugins {
+    java
+    id("com.gradleup.shadow") version "8.3.5"
+}
+
+description = "Java agent adding bridges to the members of the classes processed by Catadioptre"
+
+val junitVersion: String by project
+
+dependencies {
+    implementation("org.ow2.asm:asm:9.7.1")
+    testImplementation("org.junit.jupiter:junit-jupiter:$junitVersion")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks {
+    // The agent is attached with the shaded archive, where ASM is relocated to not conflict with the ASM of the tests.
+    jar {
+        archiveClassifier.set("plain")
+    }
+
+    shadowJar {
+        archiveClassifier.set("")
+        relocate("org.objectweb.asm", "io.aerisconsulting.catadioptre.agent.asm")
+        manifest {
+            attributes("Premain-Class" to "io.aerisconsulting.catadioptre.agent.CatadioptreAgent")
+        }
+    }
+
+    assemble {
+        dependsOn(shadowJar)
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.agent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+/**
+ * Visitor adding a public static bridge for each proxied field and method declared in a class, as well as the marker
+ * of the bridged classes. All the overloads of a proxied method are bridged.
+ * <p>
+ * All the bridges receive the instance as first argument, which is ignored for the static members:
+ * <ul>
+ *     <li>{@code catadioptre$get$<field>(Owner)} returns the value of the field,</li>
+ *     <li>{@code catadioptre$set$<field>(Owner, value)} changes the value of a non-final field,</li>
+ *     <li>{@code catadioptre$invoke$<method>(Owner, arguments...)} executes the method.</li>
+ * </ul>
+ * The names are shared with the runtime of Catadioptre, which looks the bridges up.
+ *
+ * @author Eric Jessé
+ */
+final class BridgeClassVisitor extends ClassVisitor {
+
+	static final String MARKER_FIELD = "catadioptre$bridged";
+
+	static final String GETTER_PREFIX = "catadioptre$get$";
+
+	static final String SETTER_PREFIX = "catadioptre$set$";
+
+	static final String INVOKER_PREFIX = "catadioptre$invoke$";
+
+	private static final int BRIDGE_ACCESS = Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC;
+
+	private final Set<String> proxiedFields;
+
+	private final Set<String> proxiedMethods;
+
+	private final List<Member> fields = new ArrayList<>();
+
+	private final List<Member> methods = new ArrayList<>();
+
+	private String owner;
+
+	/**
+	 * @param classVisitor the visitor to delegate to
+	 * @param proxiedFields the names of the fields to bridge
+	 * @param proxiedMethods the names of the methods to bridge
+	 */
+	BridgeClassVisitor(final ClassVisitor classVisitor, final Set<String> proxiedFields,
+			final Set<String> proxiedMethods) {
+		super(Opcodes.ASM9, classVisitor);
+		this.proxiedFields = proxiedFields;
+		this.proxiedMethods = proxiedMethods;
+	}
+
+	@Override
+	public void visit(final int version, final int access, final String name, final String signature,
+			final String superName, final String[] interfaces) {
+		owner = name;
+		super.visit(version, access, name, signature, superName, interfaces);
+	}
+
+	@Override
+	public FieldVisitor visitField(final int access, final String name, final String descriptor,
+			final String signature, final Object value) {
+		if ((access & Opcodes.ACC_SYNTHETIC) == 0 && proxiedFields.contains(name)) {
+			fields.add(new Member(access, name, descriptor));
+		}
+		return super.visitField(access, name, descriptor, signature, value);
+	}
+
+	@Override
+	public MethodVisitor visitMethod(final int access, final String name, final String descriptor,
+			final String signature, final String[] exceptions) {
+		if ((access & (Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE | Opcodes.ACC_ABSTRACT)) == 0
+				&& name.charAt(0) != '<' && proxiedMethods.contains(name)) {
+			methods.add(new Member(access, name, descriptor));
+		}
+		return super.visitMethod(access, name, descriptor, signature, exceptions);
+	}
+
+	@Override
+	public void visitEnd() {
+		final FieldVisitor marker = super.visitField(BRIDGE_ACCESS | Opcodes.ACC_FINAL, MARKER_FIELD,
+				Type.BOOLEAN_TYPE.getDescriptor(), null, 1);
+		marker.visitEnd();
+		for (final Member field : fields) {
+			writeGetter(field);
+			// The final fields can only be changed in the constructors and static initializers.
+			if ((field.access & Opcodes.ACC_FINAL) == 0) {
+				writeSetter(field);
+			}
+		}
+		for (final Member method : methods) {
+			writeInvoker(method);
+		}
+		super.visitEnd();
+	}
+
+	private void writeGetter(final Member field) {
+		final Type type = Type.getType(field.descriptor);
+		final MethodVisitor bridge = super.visitMethod(BRIDGE_ACCESS, GETTER_PREFIX + field.name,
+				Type.getMethodDescriptor(type, Type.getObjectType(owner)), null, null);
+		bridge.visitCode();
+		if (field.isStatic()) {
+			bridge.visitFieldInsn(Opcodes.GETSTATIC, owner, field.name, field.descriptor);
+		} else {
+			bridge.visitVarInsn(Opcodes.ALOAD, 0);
+			bridge.visitFieldInsn(Opcodes.GETFIELD, owner, field.name, field.descriptor);
+		}
+		bridge.visitInsn(type.getOpcode(Opcodes.IRETURN));
+		bridge.visitMaxs(0, 0);
+		bridge.visitEnd();
+	}
+
+	private void writeSetter(final Member field) {
+		final Type type = Type.getType(field.descriptor);
+		final MethodVisitor bridge = super.visitMethod(BRIDGE_ACCESS, SETTER_PREFIX + field.name,
+				Type.getMethodDescriptor(Type.VOID_TYPE, Type.getObjectType(owner), type), null, null);
+		bridge.visitCode();
+		if (field.isStatic()) {
+			bridge.visitVarInsn(type.getOpcode(Opcodes.ILOAD), 1);
+			bridge.visitFieldInsn(Opcodes.PUTSTATIC, owner, field.name, field.descriptor);
+		} else {
+			bridge.visitVarInsn(Opcodes.ALOAD, 0);
+			bridge.visitVarInsn(type.getOpcode(Opcodes.ILOAD), 1);
+			bridge.visitFieldInsn(Opcodes.PUTFIELD, owner, field.name, field.descriptor);
+		}
+		bridge.visitInsn(Opcodes.RETURN);
+		bridge.visitMaxs(0, 0);
+		bridge.visitEnd();
+	}
+
+	private void writeInvoker(final Member method) {
+		final Type[] argumentTypes = Type.getArgumentTypes(method.descriptor);
+		final Type[] bridgeArgumentTypes = new Type[argumentTypes.length + 1];
+		bridgeArgumentTypes[0] = Type.getObjectType(owner);
+		System.arraycopy(argumentTypes, 0, bridgeArgumentTypes, 1, argumentTypes.length);
+		final Type returnType = Type.getReturnType(method.descriptor);
+
+		final MethodVisitor bridge = super.visitMethod(BRIDGE_ACCESS, INVOKER_PREFIX + method.name,
+				Type.getMethodDescriptor(returnType, bridgeArgumentTypes), null, null);
+		bridge.visitCode();
+		if (!method.isStatic()) {
+			bridge.visitVarInsn(Opcodes.ALOAD, 0);
+		}
+		int slot = 1;
+		for (final Type argumentType : argumentTypes) {
+			bridge.visitVarInsn(argumentType.getOpcode(Opcodes.ILOAD), slot);
+			slot += argumentType.getSize();
+		}
+		final int opcode;
+		if (method.isStatic()) {
+			opcode = Opcodes.INVOKESTATIC;
+		} else if ((method.access & Opcodes.ACC_PRIVATE) != 0) {
+			opcode = Opcodes.INVOKESPECIAL;
+		} else {
+			opcode = Opcodes.INVOKEVIRTUAL;
+		}
+		bridge.visitMethodInsn(opcode, owner, method.name, method.descriptor, false);
+		bridge.visitInsn(returnType.getOpcode(Opcodes.IRETURN));
+		bridge.visitMaxs(0, 0);
+		bridge.visitEnd();
+	}
+
+	/**
+	 * Field or method declared in the visited class.
+	 */
+	private static final class Member {
+
+		private final int access;
+
+		private final String name;
+
+		private final String descriptor;
+
+		private Member(final int access, final String name, final String descriptor) {
+			this.access = access;
+			this.name = name;
+			this.descriptor = descriptor;
+		}
+
+		private boolean isStatic() {
+			return (access & Opcodes.ACC_STATIC) != 0;
+		}
+	}
+}
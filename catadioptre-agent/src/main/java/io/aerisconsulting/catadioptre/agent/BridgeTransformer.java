@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.agent;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.instrument.ClassFileTransformer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.ProtectionDomain;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.WeakHashMap;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Transformer rewriting the classes whose members are proxied by the annotation processor of Catadioptre.
+ * <p>
+ * Since the annotation {@code Testable} is not retained in the class files, the processor lists the proxied members
+ * in a resource, which is read once for each class loader: the classes and members that are not listed are left
+ * unchanged.
+ *
+ * @author Eric Jessé
+ */
+final class BridgeTransformer implements ClassFileTransformer {
+
+	/**
+	 * Resource listing the proxied members, as written by the annotation processor.
+	 */
+	static final String MEMBERS_RESOURCE_NAME = "META-INF/catadioptre/proxied-members.properties";
+
+	private static final String FIELDS_KEY_SUFFIX = ".fields";
+
+	private static final String METHODS_KEY_SUFFIX = ".methods";
+
+	/**
+	 * Proxied members listed in the resources of each class loader, by internal name of their class.
+	 */
+	private final Map<ClassLoader, Map<String, ProxiedMembers>> proxiedMembers =
+			Collections.synchronizedMap(new WeakHashMap<>());
+
+	@Override
+	public byte[] transform(final ClassLoader loader, final String className, final Class<?> classBeingRedefined,
+			final ProtectionDomain protectionDomain, final byte[] classfileBuffer) {
+		if (loader == null || className == null || classBeingRedefined != null) {
+			return null;
+		}
+		final ProxiedMembers members = proxiedMembersOf(loader).get(className);
+		if (members == null) {
+			return null;
+		}
+		try {
+			final ClassReader reader = new ClassReader(classfileBuffer);
+			if ((reader.getAccess() & (Opcodes.ACC_INTERFACE | Opcodes.ACC_MODULE)) != 0) {
+				return null;
+			}
+			// The bridges have no branch, the frames do not have to be computed.
+			final ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+			reader.accept(new BridgeClassVisitor(writer, members.fields, members.methods), 0);
+			return writer.toByteArray();
+		} catch (RuntimeException e) {
+			// The class is loaded unchanged and its members are accessed with the reflection.
+			return null;
+		}
+	}
+
+	private Map<String, ProxiedMembers> proxiedMembersOf(final ClassLoader loader) {
+		Map<String, ProxiedMembers> members = proxiedMembers.get(loader);
+		if (members == null) {
+			// The resources are read out of the lock, since reading them can load other classes with the same loader.
+			members = readProxiedMembers(loader);
+			proxiedMembers.put(loader, members);
+		}
+		return members;
+	}
+
+	/**
+	 * Reads the proxied members listed in all the resources visible from {@code loader}, by internal name of their
+	 * class.
+	 */
+	static Map<String, ProxiedMembers> readProxiedMembers(final ClassLoader loader) {
+		final Map<String, ProxiedMembers> members = new HashMap<>();
+		try {
+			final Enumeration<URL> resources = loader.getResources(MEMBERS_RESOURCE_NAME);
+			while (resources.hasMoreElements()) {
+				final Properties properties = new Properties();
+				try (Reader reader = new InputStreamReader(resources.nextElement().openStream(),
+						StandardCharsets.UTF_8)) {
+					properties.load(reader);
+				}
+				for (final String key : properties.stringPropertyNames()) {
+					final Set<String> names;
+					final String className;
+					if (key.endsWith(FIELDS_KEY_SUFFIX)) {
+						className = key.substring(0, key.length() - FIELDS_KEY_SUFFIX.length());
+						names = members.computeIfAbsent(className, k -> new ProxiedMembers()).fields;
+					} else if (key.endsWith(METHODS_KEY_SUFFIX)) {
+						className = key.substring(0, key.length() - METHODS_KEY_SUFFIX.length());
+						names = members.computeIfAbsent(className, k -> new ProxiedMembers()).methods;
+					} else {
+						continue;
+					}
+					names.addAll(Arrays.asList(properties.getProperty(key).split(",")));
+				}
+			}
+		} catch (IOException e) {
+			// The members listed in the resources read so far are bridged, the others are accessed with the reflection.
+		}
+		return members;
+	}
+
+	/**
+	 * Names of the proxied fields and methods of a class.
+	 */
+	static final class ProxiedMembers {
+
+		final Set<String> fields = new HashSet<>();
+
+		final Set<String> methods = new HashSet<>();
+	}
+}
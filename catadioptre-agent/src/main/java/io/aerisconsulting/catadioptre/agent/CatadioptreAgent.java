@@ -0,0 +1,45 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.agent;
+
+import java.lang.instrument.Instrumentation;
+
+/**
+ * Java agent adding public static bridges to the members of the classes processed by Catadioptre, when they are
+ * loaded, so that the runtime calls the bridges instead of using the reflection.
+ * <p>
+ * The agent is attached at the start of the JVM with {@code -javaagent:catadioptre-agent.jar}. The classes loaded
+ * before the agent are not rewritten.
+ *
+ * @author Eric Jessé
+ */
+public final class CatadioptreAgent {
+
+	/**
+	 * System property informing the runtime of Catadioptre that the bridges are available.
+	 */
+	static final String BRIDGES_PROPERTY = "catadioptre.agent.bridges";
+
+	/**
+	 * This class only contains static methods.
+	 */
+	private CatadioptreAgent() {
+	}
+
+	public static void premain(final String arguments, final Instrumentation instrumentation) {
+		System.setProperty(BRIDGES_PROPERTY, "true");
+		instrumentation.addTransformer(new BridgeTransformer());
+	}
+}
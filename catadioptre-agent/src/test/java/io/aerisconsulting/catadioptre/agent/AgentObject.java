@@ -0,0 +1,53 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.agent;
+
+import java.util.Arrays;
+
+/**
+ * Class with members of all kinds, to rewrite with bridges, of which {@code notProxied} are not listed as proxied.
+ *
+ * @author Eric Jessé
+ */
+class AgentObject {
+
+	private static String staticValue = "static";
+
+	private final String finalValue = "final";
+
+	private long value = 123L;
+
+	private int notProxied = 1;
+
+	private double divide(final int dividend, final double divisor) {
+		return dividend / divisor;
+	}
+
+	protected String join(final String... values) {
+		return String.join("-", values);
+	}
+
+	private static int sum(final int... values) {
+		return Arrays.stream(values).sum();
+	}
+
+	private void fail() {
+		throw new IllegalStateException("Failure");
+	}
+
+	private int notProxied() {
+		return notProxied;
+	}
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.agent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * @author Eric Jessé
+ */
+class BridgeTransformerTest {
+
+	private final BridgeTransformer transformer = new BridgeTransformer();
+
+	@Test
+	void shouldReadTheProxiedMembers() {
+		// when
+		final Map<String, BridgeTransformer.ProxiedMembers> members = BridgeTransformer.readProxiedMembers(
+				getClass().getClassLoader());
+
+		//then
+		Assertions.assertEquals(Set.of("io/aerisconsulting/catadioptre/agent/AgentObject"), members.keySet());
+		final BridgeTransformer.ProxiedMembers agentObjectMembers = members.get(
+				"io/aerisconsulting/catadioptre/agent/AgentObject");
+		Assertions.assertEquals(Set.of("staticValue", "finalValue", "value"), agentObjectMembers.fields);
+		Assertions.assertEquals(Set.of("divide", "join", "sum", "fail"), agentObjectMembers.methods);
+	}
+
+	@Test
+	void shouldNotRewriteTheClassesWithoutProxiedMembers() throws IOException {
+		// when
+		final byte[] transformed = transformer.transform(getClass().getClassLoader(),
+				"io/aerisconsulting/catadioptre/agent/BridgeTransformerTest", null, null,
+				bytesOf(BridgeTransformerTest.class));
+
+		//then
+		Assertions.assertNull(transformed);
+	}
+
+	@Test
+	void shouldNotRewriteTheClassesOfTheBootstrapLoader() throws IOException {
+		// when
+		final byte[] transformed = transformer.transform(null, "io/aerisconsulting/catadioptre/agent/AgentObject",
+				null, null, bytesOf(AgentObject.class));
+
+		//then
+		Assertions.assertNull(transformed);
+	}
+
+	@Test
+	void shouldAddTheMarkerOfTheBridgedClasses() throws Exception {
+		// given
+		final Class<?> bridged = loadBridged();
+
+		// when
+		final Field marker = bridged.getDeclaredField(BridgeClassVisitor.MARKER_FIELD);
+		marker.setAccessible(true);
+
+		//then
+		Assertions.assertTrue(Modifier.isStatic(marker.getModifiers()));
+		Assertions.assertTrue(marker.isSynthetic());
+		Assertions.assertEquals(true, marker.get(null));
+	}
+
+	@Test
+	void shouldAddTheBridgesOfTheFields() throws Exception {
+		// given
+		final Class<?> bridged = loadBridged();
+		final Object instance = newInstance(bridged);
+
+		// when
+		bridge(bridged, BridgeClassVisitor.SETTER_PREFIX + "value", bridged, long.class).invoke(null, instance, 456L);
+		bridge(bridged, BridgeClassVisitor.SETTER_PREFIX + "staticValue", bridged, String.class)
+				.invoke(null, null, "other");
+
+		//then
+		Assertions.assertEquals(456L,
+				bridge(bridged, BridgeClassVisitor.GETTER_PREFIX + "value", bridged).invoke(null, instance));
+		Assertions.assertEquals("other",
+				bridge(bridged, BridgeClassVisitor.GETTER_PREFIX + "staticValue", bridged).invoke(null, instance));
+		Assertions.assertEquals("final",
+				bridge(bridged, BridgeClassVisitor.GETTER_PREFIX + "finalValue", bridged).invoke(null, instance));
+		Assertions.assertThrows(NoSuchMethodException.class,
+				() -> bridged.getDeclaredMethod(BridgeClassVisitor.SETTER_PREFIX + "finalValue", bridged,
+						String.class));
+	}
+
+	@Test
+	void shouldAddTheBridgesOfTheMethods() throws Exception {
+		// given
+		final Class<?> bridged = loadBridged();
+		final Object instance = newInstance(bridged);
+
+		// when
+		final Object quotient = bridge(bridged, BridgeClassVisitor.INVOKER_PREFIX + "divide", bridged, int.class,
+				double.class).invoke(null, instance, 9, 2.0);
+		final Object joined = bridge(bridged, BridgeClassVisitor.INVOKER_PREFIX + "join", bridged, String[].class)
+				.invoke(null, instance, new String[]{"a", "b"});
+		final Object sum = bridge(bridged, BridgeClassVisitor.INVOKER_PREFIX + "sum", bridged, int[].class)
+				.invoke(null, null, new int[]{1, 2, 3});
+
+		//then
+		Assertions.assertEquals(4.5, quotient);
+		Assertions.assertEquals("a-b", joined);
+		Assertions.assertEquals(6, sum);
+	}
+
+	@Test
+	void shouldNotAddTheBridgesOfTheMembersNotProxied() throws Exception {
+		// when
+		final Class<?> bridged = loadBridged();
+
+		//then
+		Assertions.assertThrows(NoSuchMethodException.class,
+				() -> bridged.getDeclaredMethod(BridgeClassVisitor.GETTER_PREFIX + "notProxied", bridged));
+		Assertions.assertThrows(NoSuchMethodException.class,
+				() -> bridged.getDeclaredMethod(BridgeClassVisitor.SETTER_PREFIX + "notProxied", bridged, int.class));
+		Assertions.assertThrows(NoSuchMethodException.class,
+				() -> bridged.getDeclaredMethod(BridgeClassVisitor.INVOKER_PREFIX + "notProxied", bridged));
+	}
+
+	@Test
+	void shouldThrowTheExceptionOfTheMethodFromTheBridge() throws Exception {
+		// given
+		final Class<?> bridged = loadBridged();
+		final Method bridge = bridge(bridged, BridgeClassVisitor.INVOKER_PREFIX + "fail", bridged);
+		final Object instance = newInstance(bridged);
+
+		// when
+		final InvocationTargetException exception = Assertions.assertThrows(InvocationTargetException.class,
+				() -> bridge.invoke(null, instance));
+
+		//then
+		Assertions.assertTrue(exception.getCause() instanceof IllegalStateException);
+	}
+
+	/**
+	 * Loads a rewritten copy of {@link AgentObject} in an isolated class loader.
+	 */
+	private Class<?> loadBridged() throws IOException {
+		final byte[] transformed = transformer.transform(getClass().getClassLoader(),
+				"io/aerisconsulting/catadioptre/agent/AgentObject", null, null, bytesOf(AgentObject.class));
+		Assertions.assertNotNull(transformed);
+		return new ClassLoader(getClass().getClassLoader()) {
+			Class<?> define() {
+				return defineClass(AgentObject.class.getName(), transformed, 0, transformed.length);
+			}
+		}.define();
+	}
+
+	private static Method bridge(final Class<?> type, final String name, final Class<?>... parameterTypes)
+			throws NoSuchMethodException {
+		final Method bridge = type.getDeclaredMethod(name, parameterTypes);
+		Assertions.assertTrue(Modifier.isPublic(bridge.getModifiers()));
+		Assertions.assertTrue(Modifier.isStatic(bridge.getModifiers()));
+		Assertions.assertTrue(bridge.isSynthetic());
+		// The rewritten class is package-private.
+		bridge.setAccessible(true);
+		return bridge;
+	}
+
+	private static Object newInstance(final Class<?> type) throws ReflectiveOperationException {
+		final Constructor<?> constructor = type.getDeclaredConstructor();
+		constructor.setAccessible(true);
+		return constructor.newInstance();
+	}
+
+	private static byte[] bytesOf(final Class<?> type) throws IOException {
+		try (InputStream input = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+			return input.readAllBytes();
+		}
+	}
+}
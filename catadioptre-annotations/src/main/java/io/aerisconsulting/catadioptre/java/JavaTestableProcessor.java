@@ -16,23 +16,36 @@ package io.aerisconsulting.catadioptre.java;
 
 import com.squareup.javapoet.*;
 import com.squareup.javapoet.TypeSpec.Builder;
+import io.aerisconsulting.catadioptre.MemberIndex;
 import io.aerisconsulting.catadioptre.ReflectionFieldUtils;
 import io.aerisconsulting.catadioptre.ReflectionMethodUtils;
 import io.aerisconsulting.catadioptre.Testable;
+import io.aerisconsulting.catadioptre.processing.GeneratedSourceWriter;
+import io.aerisconsulting.catadioptre.processing.ProcessingReport;
+import io.aerisconsulting.catadioptre.processing.ProcessingReport.RoundStatistics;
+import io.aerisconsulting.catadioptre.processing.ProcessingReport.TypeStatistics;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.ProcessingEnvironment;
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.*;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
 import javax.tools.Diagnostic;
 import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
 import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -43,16 +56,27 @@ import java.util.stream.Collectors;
  * @author Eric Jessé
  */
 @SupportedAnnotationTypes("io.aerisconsulting.catadioptre.Testable")
+@SupportedOptions(ProcessingReport.OPTION_NAME)
 public class JavaTestableProcessor extends AbstractProcessor {
 
     private static final String INSTANCE_PARAM_TYPE = "INSTANCE";
 
     private Elements elementUtils;
 
+    private Types typeUtils;
+
     private File generatedDir;
 
     private JavaSpecificationUtils specificationUtils;
 
+    private final ProcessingReport report = new ProcessingReport("java");
+
+    /**
+     * Names of the proxied members of all the rounds, by internal name of their class followed by {@code .fields} or
+     * {@code .methods}, sorted to write them reproducibly.
+     */
+    private final Map<String, String> proxiedMembers = new TreeMap<>();
+
     @Override
     public SourceVersion getSupportedSourceVersion() {
         // The maximal supported is the 21. But when running with a lower JDK, the enum SourceVersion.RELEASE_21
@@ -65,6 +89,7 @@ public class JavaTestableProcessor extends AbstractProcessor {
     public synchronized void init(final ProcessingEnvironment processingEnv) {
         super.init(processingEnv);
         elementUtils = processingEnv.getElementUtils();
+        typeUtils = processingEnv.getTypeUtils();
         specificationUtils = new JavaSpecificationUtils();
 
         try {
@@ -82,19 +107,32 @@ public class JavaTestableProcessor extends AbstractProcessor {
 
     @Override
     public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeProxiedMembers();
+            report.writeIfRequested(processingEnv);
+            return false;
+        }
         final Set<? extends Element> annotatedElements = roundEnv.getElementsAnnotatedWith(Testable.class);
         if (annotatedElements.isEmpty() || generatedDir == null) {
             return false;
         }
+        final RoundStatistics roundStatistics = report.startRound();
 
-        // Groups the annotated elements by declaring class.
-        final Map<TypeElement, Set<Element>> annotatedElementsByDeclaringType = new HashMap<>();
-        annotatedElements.stream()
-                .forEach(element -> annotatedElementsByDeclaringType
-                        .computeIfAbsent((TypeElement) element.getEnclosingElement(), k -> new HashSet<>())
-                        .add(element));
+        // Groups the annotated elements by declaring class, the classes being sorted by name and their members
+        // kept in the order of the source, so that the generated sources are reproducible.
+        final Map<TypeElement, List<Element>> annotatedElementsByDeclaringType =
+                new TreeMap<>(Comparator.comparing(type -> type.getQualifiedName().toString()));
+        annotatedElements.forEach(element -> annotatedElementsByDeclaringType
+                .computeIfAbsent((TypeElement) element.getEnclosingElement(), k -> new ArrayList<>())
+                .add(element));
 
-        annotatedElementsByDeclaringType.forEach(this::generateProxyMethods);
+        annotatedElementsByDeclaringType.forEach((declaringType, elements) -> {
+            final List<? extends Element> enclosedElements = declaringType.getEnclosedElements();
+            elements.sort(Comparator.comparingInt(enclosedElements::indexOf));
+            generateProxyMethods(declaringType, elements,
+                    roundStatistics.type(declaringType.getQualifiedName().toString()));
+        });
+        roundStatistics.end();
         return true;
     }
 
@@ -102,23 +140,39 @@ public class JavaTestableProcessor extends AbstractProcessor {
      * Generates all the proxy methods for the annotated members of the class.
      *
      * @param declaringType the class declaring the members to proxy
-     * @param elements      the annotated elements
+     * @param elements      the annotated elements, in the order of their declaration
+     * @param statistics    the statistics of the generation for the class
      */
-    private void generateProxyMethods(final TypeElement declaringType, final Set<Element> elements) {
+    private void generateProxyMethods(final TypeElement declaringType, final List<Element> elements,
+                                      final TypeStatistics statistics) {
         final String packageName = elementUtils.getPackageOf(declaringType).toString();
         final String testableClassName = "Testable" + declaringType.getSimpleName().toString();
         final Builder testableTypeSpec = TypeSpec.classBuilder(testableClassName);
         testableTypeSpec.addMethod(MethodSpec.constructorBuilder().addModifiers(Modifier.PRIVATE).build());
 
+        statistics.addProcessedElements(elements.size());
         final AtomicBoolean generateFile = new AtomicBoolean();
+        final List<VariableElement> indexedFields = new ArrayList<>();
+        final List<ExecutableElement> indexedMethods = new ArrayList<>();
+        final Set<String> proxiedMethods = new LinkedHashSet<>();
         elements.forEach(element -> {
+            final int proxiesCount = testableTypeSpec.methodSpecs.size();
             if (element instanceof ExecutableElement) {
                 final ExecutableElement methodElement = (ExecutableElement) element;
-                if (JavaVisibilityUtils.canBePublic(methodElement)) {
+                final long visibilityAnalysisStart = System.nanoTime();
+                final boolean canBePublic = JavaVisibilityUtils.canBePublic(methodElement);
+                statistics.addVisibilityAnalysisTime(System.nanoTime() - visibilityAnalysisStart);
+                if (canBePublic) {
                     generateFile.set(true);
                     addTestableMethod(testableTypeSpec, declaringType, methodElement, Modifier.PUBLIC);
+                    proxiedMethods.add(methodElement.getSimpleName().toString());
+                    if (!isOverloaded(declaringType, methodElement)) {
+                        indexedMethods.add(methodElement);
+                    }
                 } else {
                     final String methodSignature = declaringType.getQualifiedName() + "." + methodElement;
+                    statistics.addSkippedMember(methodElement.toString(),
+                            "one of the used type has a too low visibility");
                     processingEnv.getMessager().printMessage(
                             Diagnostic.Kind.WARNING,
                             "[Catadioptre] Cannot generate the proxy method for the function " + methodSignature
@@ -127,12 +181,18 @@ public class JavaTestableProcessor extends AbstractProcessor {
                 }
             } else if (element instanceof VariableElement) {
                 final VariableElement variableElement = (VariableElement) element;
-                if (JavaVisibilityUtils.canBePublic(variableElement)) {
+                final long visibilityAnalysisStart = System.nanoTime();
+                final boolean canBePublic = JavaVisibilityUtils.canBePublic(variableElement);
+                statistics.addVisibilityAnalysisTime(System.nanoTime() - visibilityAnalysisStart);
+                if (canBePublic) {
                     generateFile.set(true);
                     addTestableField(testableTypeSpec, declaringType, variableElement, Modifier.PUBLIC);
+                    indexedFields.add(variableElement);
                 } else {
                     final String fieldSignature =
                             declaringType.getQualifiedName() + "." + variableElement.getSimpleName();
+                    statistics.addSkippedMember(variableElement.getSimpleName().toString(),
+                            "the type of the declaring class or the field has a too low visibility");
                     processingEnv.getMessager().printMessage(
                             Diagnostic.Kind.WARNING,
                             "[Catadioptre] Cannot generate the proxy method for the function " + fieldSignature
@@ -140,13 +200,21 @@ public class JavaTestableProcessor extends AbstractProcessor {
                     );
                 }
             }
+            statistics.addGeneratedProxies(testableTypeSpec.methodSpecs.size() - proxiesCount);
         });
 
         // Then writes the content of the generated class to the file.
         if (generateFile.get()) {
             try {
+                final long writingStart = System.nanoTime();
                 final JavaFile testableClassFile = JavaFile.builder(packageName, testableTypeSpec.build()).build();
-                testableClassFile.writeTo(generatedDir);
+                final String content = testableClassFile.toString();
+                // The file is only rewritten when its content changed, to keep the consuming compilation up-to-date.
+                final boolean written = GeneratedSourceWriter.writeIfChanged(generatedDir, packageName,
+                        testableClassName + ".java", content);
+                statistics.addWriting(System.nanoTime() - writingStart, content, written);
+                writeMemberIndex(declaringType, packageName, indexedFields, indexedMethods, statistics);
+                recordProxiedMembers(declaringType, indexedFields, proxiedMethods);
             } catch (IOException e) {
                 processingEnv.getMessager()
                         .printMessage(Kind.ERROR,
@@ -156,6 +224,131 @@ public class JavaTestableProcessor extends AbstractProcessor {
         }
     }
 
+    /**
+     * Verifies whether the class declares other methods with the same name as {@code method}.
+     */
+    private boolean isOverloaded(final TypeElement declaringType, final ExecutableElement method) {
+        return declaringType.getEnclosedElements().stream()
+                .filter(e -> e.getKind() == ElementKind.METHOD && e.getSimpleName().equals(method.getSimpleName()))
+                .count() > 1;
+    }
+
+    /**
+     * Writes the {@link MemberIndex} of the class, which resolves the proxied members without scanning the class at
+     * runtime.
+     *
+     * @param declaringType the class declaring the members to index
+     * @param packageName   the package of the class
+     * @param fields        the fields to index
+     * @param methods       the methods to index, which are not overloaded in the class
+     * @param statistics    the statistics of the generation for the class
+     */
+    private void writeMemberIndex(final TypeElement declaringType, final String packageName,
+                                  final List<VariableElement> fields, final List<ExecutableElement> methods,
+                                  final TypeStatistics statistics) throws IOException {
+        final long writingStart = System.nanoTime();
+        final String binaryName = elementUtils.getBinaryName(declaringType).toString();
+        final String indexClassName = (packageName.isEmpty() ? binaryName
+                : binaryName.substring(packageName.length() + 1)).replace('$', '_') + MemberIndex.CLASS_NAME_SUFFIX;
+        final ClassName declaringClass = ClassName.get(declaringType);
+
+        final CodeBlock.Builder fieldResolutions = CodeBlock.builder();
+        fields.forEach(field -> fieldResolutions.add("case $S:\n", field.getSimpleName())
+                .indent()
+                .addStatement("return $T.class.getDeclaredField($S)", declaringClass, field.getSimpleName())
+                .unindent());
+        final CodeBlock.Builder methodResolutions = CodeBlock.builder();
+        methods.forEach(method -> {
+            final CodeBlock parameterTypes = method.getParameters().stream()
+                    .map(p -> CodeBlock.of(", $T.class", TypeName.get(typeUtils.erasure(p.asType()))))
+                    .collect(CodeBlock.joining(""));
+            methodResolutions.add("case $S:\n", method.getSimpleName())
+                    .indent()
+                    .addStatement("return $T.class.getDeclaredMethod($S$L)", declaringClass, method.getSimpleName(),
+                            parameterTypes)
+                    .unindent();
+        });
+
+        final TypeSpec indexTypeSpec = TypeSpec.classBuilder(indexClassName)
+                .addModifiers(Modifier.PUBLIC, Modifier.FINAL)
+                .addSuperinterface(MemberIndex.class)
+                .addMethod(buildIndexMethod("getField", Field.class, NoSuchFieldException.class,
+                        fieldResolutions.build()))
+                .addMethod(buildIndexMethod("getMethod", Method.class, NoSuchMethodException.class,
+                        methodResolutions.build()))
+                .build();
+        final String content = JavaFile.builder(packageName, indexTypeSpec).build().toString();
+        final boolean written = GeneratedSourceWriter.writeIfChanged(generatedDir, packageName,
+                indexClassName + ".java", content);
+        statistics.addWriting(System.nanoTime() - writingStart, content, written);
+    }
+
+    /**
+     * Records the names of the proxied members of the class, to list them in the resource
+     * {@link MemberIndex#MEMBERS_RESOURCE_NAME}.
+     *
+     * @param declaringType the class declaring the proxied members
+     * @param fields        the proxied fields
+     * @param methods       the names of the proxied methods, including the overloaded ones
+     */
+    private void recordProxiedMembers(final TypeElement declaringType, final List<VariableElement> fields,
+                                      final Set<String> methods) {
+        final String internalName = elementUtils.getBinaryName(declaringType).toString().replace('.', '/');
+        if (!fields.isEmpty()) {
+            proxiedMembers.put(internalName + ".fields",
+                    fields.stream().map(field -> field.getSimpleName().toString()).collect(Collectors.joining(",")));
+        }
+        if (!methods.isEmpty()) {
+            proxiedMembers.put(internalName + ".methods", String.join(",", methods));
+        }
+    }
+
+    /**
+     * Writes the resource {@link MemberIndex#MEMBERS_RESOURCE_NAME} listing the proxied members of all the rounds,
+     * which are the only members the agent of Catadioptre adds bridges to.
+     */
+    private void writeProxiedMembers() {
+        if (proxiedMembers.isEmpty()) {
+            return;
+        }
+        final StringBuilder content = new StringBuilder();
+        proxiedMembers.forEach((key, names) -> content.append(key).append('=').append(names).append('\n'));
+        try {
+            final FileObject resource = processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "", MemberIndex.MEMBERS_RESOURCE_NAME);
+            try (OutputStream output = resource.openOutputStream()) {
+                output.write(content.toString().getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.WARNING,
+                    "[Catadioptre] Could not write the list of the proxied members: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds a method of the {@link MemberIndex}, returning the member resolved for its name, or null.
+     */
+    private MethodSpec buildIndexMethod(final String name, final Class<?> memberType,
+                                        final Class<? extends Exception> exceptionType,
+                                        final CodeBlock resolutions) {
+        final MethodSpec.Builder methodBuilder = MethodSpec.methodBuilder(name)
+                .addAnnotation(Override.class)
+                .addModifiers(Modifier.PUBLIC)
+                .addParameter(ParameterSpec.builder(String.class, "name", Modifier.FINAL).build())
+                .addException(exceptionType)
+                .returns(memberType);
+        if (resolutions.isEmpty()) {
+            methodBuilder.addStatement("return null");
+        } else {
+            methodBuilder.beginControlFlow("switch (name)")
+                    .addCode(resolutions)
+                    .addCode("default:\n")
+                    .addStatement("$>return null$<")
+                    .endControlFlow();
+        }
+        return methodBuilder.build();
+    }
+
     /**
      * Builds all the proxy methods to access to a field.
      *
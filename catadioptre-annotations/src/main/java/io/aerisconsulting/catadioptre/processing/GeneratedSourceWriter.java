@@ -0,0 +1,86 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.processing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+/**
+ * Writes the generated sources onto the disk, only when their content changed since the previous generation.
+ * <p>
+ * Leaving the unchanged files untouched keeps their timestamps, so that the compilation tasks consuming the
+ * generated sources remain up-to-date when nothing changed.
+ *
+ * @author Eric Jessé
+ */
+public final class GeneratedSourceWriter {
+
+	/**
+	 * This class only contains static methods.
+	 */
+	private GeneratedSourceWriter() {
+	}
+
+	/**
+	 * Writes {@code content} into the file {@code fileName} of the package {@code packageName}, under
+	 * {@code rootDirectory}.
+	 *
+	 * @param rootDirectory the root directory of the generated sources
+	 * @param packageName the package of the generated type, empty for the default package
+	 * @param fileName the name of the file to write, including its extension
+	 * @param content the content of the file
+	 * @return {@code true} when the file was written, {@code false} when it already existed with the same content
+	 */
+	public static boolean writeIfChanged(final File rootDirectory, final String packageName, final String fileName,
+			final String content) throws IOException {
+		File directory = rootDirectory;
+		if (!packageName.isEmpty()) {
+			directory = new File(rootDirectory, packageName.replace('.', File.separatorChar));
+		}
+		return writeIfChanged(new File(directory, fileName), content);
+	}
+
+	/**
+	 * Writes {@code content} into {@code file} using UTF-8, unless the file already exists with the same content.
+	 *
+	 * @param file the file to write
+	 * @param content the content of the file
+	 * @return {@code true} when the file was written, {@code false} when it already existed with the same content
+	 */
+	public static boolean writeIfChanged(final File file, final String content) throws IOException {
+		final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+		// The existing file is only read when it has the same size, otherwise it is anyway different.
+		if (file.isFile() && file.length() == bytes.length
+				&& Arrays.equals(bytes, Files.readAllBytes(file.toPath()))) {
+			return false;
+		}
+		final File directory = file.getParentFile();
+		if (directory != null && !directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("The directory " + directory + " could not be created");
+		}
+		Files.write(file.toPath(), bytes);
+		return true;
+	}
+
+	/**
+	 * Returns the number of bytes of {@code content} once written with UTF-8.
+	 */
+	static long byteLength(final String content) {
+		return content.getBytes(StandardCharsets.UTF_8).length;
+	}
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.processing;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.Diagnostic.Kind;
+
+/**
+ * Statistics of the work done by a processor, written as a JSON file when the processor option
+ * {@value #OPTION_NAME} is set with the directory where to write the report.
+ * <p>
+ * Usage: {@code -Acatadioptre.report=/path/to/build/reports/catadioptre}
+ *
+ * @author Eric Jessé
+ */
+public final class ProcessingReport {
+
+	/**
+	 * Option of the processors to specify the directory where the report is written.
+	 */
+	public static final String OPTION_NAME = "catadioptre.report";
+
+	private final String processorName;
+
+	private final List<RoundStatistics> rounds = new ArrayList<>();
+
+	/**
+	 * Creates a new report for the processor called {@code processorName}, which is also the name of the report
+	 * file.
+	 */
+	public ProcessingReport(final String processorName) {
+		this.processorName = processorName;
+	}
+
+	/**
+	 * Starts the statistics for a new processing round.
+	 */
+	public RoundStatistics startRound() {
+		final RoundStatistics round = new RoundStatistics(rounds.size() + 1);
+		rounds.add(round);
+		return round;
+	}
+
+	/**
+	 * Writes the report into the directory specified by the option {@value #OPTION_NAME}, if any.
+	 *
+	 * @param processingEnv the environment of the processor
+	 */
+	public void writeIfRequested(final ProcessingEnvironment processingEnv) {
+		final String directory = processingEnv.getOptions().get(OPTION_NAME);
+		if (directory == null || directory.trim().isEmpty()) {
+			return;
+		}
+		final File reportFile = new File(directory.trim(), processorName + "-processor.json");
+		try {
+			GeneratedSourceWriter.writeIfChanged(reportFile, toJson());
+			processingEnv.getMessager()
+					.printMessage(Kind.NOTE, "[Catadioptre] The processing report was written to " + reportFile);
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Kind.WARNING,
+					"[Catadioptre] The processing report could not be written to " + reportFile + ": "
+							+ e.getMessage());
+		}
+	}
+
+	/**
+	 * Converts the report to JSON.
+	 */
+	String toJson() {
+		final StringBuilder json = new StringBuilder(1024);
+		json.append("{\n  \"processor\": ").append(quote(processorName)).append(",\n  \"rounds\": [");
+		for (int i = 0; i < rounds.size(); i++) {
+			json.append(i == 0 ? "\n" : ",\n");
+			rounds.get(i).appendJson(json);
+		}
+		json.append(rounds.isEmpty() ? "]\n}\n" : "\n  ]\n}\n");
+		return json.toString();
+	}
+
+	private static String quote(final String value) {
+		final StringBuilder result = new StringBuilder(value.length() + 2).append('"');
+		for (final char c : value.toCharArray()) {
+			if (c == '"' || c == '\\') {
+				result.append('\\').append(c);
+			} else if (c < 0x20) {
+				result.append(String.format("\\u%04x", (int) c));
+			} else {
+				result.append(c);
+			}
+		}
+		return result.append('"').toString();
+	}
+
+	/**
+	 * Statistics of a single processing round.
+	 */
+	public static final class RoundStatistics {
+
+		private final int number;
+
+		private final long start = System.nanoTime();
+
+		private long durationNanos;
+
+		private final Map<String, TypeStatistics> types = new LinkedHashMap<>();
+
+		private RoundStatistics(final int number) {
+			this.number = number;
+		}
+
+		/**
+		 * Returns the statistics for the declaring type with the provided qualified name, creating them if
+		 * required.
+		 */
+		public TypeStatistics type(final String qualifiedName) {
+			return types.computeIfAbsent(qualifiedName, TypeStatistics::new);
+		}
+
+		/**
+		 * Marks the end of the round.
+		 */
+		public void end() {
+			durationNanos = System.nanoTime() - start;
+		}
+
+		private void appendJson(final StringBuilder json) {
+			json.append("    {\n      \"round\": ").append(number)
+					.append(",\n      \"durationNanos\": ").append(durationNanos)
+					.append(",\n      \"types\": [");
+			boolean first = true;
+			for (final TypeStatistics type : types.values()) {
+				json.append(first ? "\n" : ",\n");
+				type.appendJson(json);
+				first = false;
+			}
+			json.append(first ? "]\n    }" : "\n      ]\n    }");
+		}
+	}
+
+	/**
+	 * Statistics of the generation of the proxies for a single declaring type.
+	 */
+	public static final class TypeStatistics {
+
+		private final String qualifiedName;
+
+		private int processedElements;
+
+		private int generatedProxies;
+
+		private final Map<String, String> skippedMembers = new LinkedHashMap<>();
+
+		private long metadataParsingNanos;
+
+		private long visibilityAnalysisNanos;
+
+		private long writingNanos;
+
+		private long generatedBytes;
+
+		private long writtenBytes;
+
+		private TypeStatistics(final String qualifiedName) {
+			this.qualifiedName = qualifiedName;
+		}
+
+		/**
+		 * Counts {@code count} more annotated elements as processed.
+		 */
+		public void addProcessedElements(final int count) {
+			processedElements += count;
+		}
+
+		/**
+		 * Counts {@code count} more proxies as generated.
+		 */
+		public void addGeneratedProxies(final int count) {
+			generatedProxies += count;
+		}
+
+		/**
+		 * Records that no proxy could be generated for the {@code member}, because of the provided {@code reason}.
+		 */
+		public void addSkippedMember(final String member, final String reason) {
+			skippedMembers.put(member, reason);
+		}
+
+		/**
+		 * Adds the time spent to read the Kotlin metadata of the type.
+		 */
+		public void addMetadataParsingTime(final long nanos) {
+			metadataParsingNanos += nanos;
+		}
+
+		/**
+		 * Adds the time spent to analyze the visibility of the types used by the members.
+		 */
+		public void addVisibilityAnalysisTime(final long nanos) {
+			visibilityAnalysisNanos += nanos;
+		}
+
+		/**
+		 * Records the writing of the generated file.
+		 *
+		 * @param nanos the time spent to render and write the file
+		 * @param content the content of the generated file
+		 * @param written {@code true} when the file was actually written, {@code false} when it was up-to-date
+		 */
+		public void addWriting(final long nanos, final String content, final boolean written) {
+			writingNanos += nanos;
+			final long bytes = GeneratedSourceWriter.byteLength(content);
+			generatedBytes += bytes;
+			if (written) {
+				writtenBytes += bytes;
+			}
+		}
+
+		private void appendJson(final StringBuilder json) {
+			json.append("        {\n          \"type\": ").append(quote(qualifiedName))
+					.append(",\n          \"processedElements\": ").append(processedElements)
+					.append(",\n          \"generatedProxies\": ").append(generatedProxies)
+					.append(",\n          \"skippedProxies\": [");
+			boolean first = true;
+			for (final Map.Entry<String, String> skipped : skippedMembers.entrySet()) {
+				json.append(first ? "\n" : ",\n")
+						.append("            { \"member\": ").append(quote(skipped.getKey()))
+						.append(", \"reason\": ").append(quote(skipped.getValue())).append(" }");
+				first = false;
+			}
+			json.append(first ? "]" : "\n          ]")
+					.append(",\n          \"metadataParsingNanos\": ").append(metadataParsingNanos)
+					.append(",\n          \"visibilityAnalysisNanos\": ").append(visibilityAnalysisNanos)
+					.append(",\n          \"writingNanos\": ").append(writingNanos)
+					.append(",\n          \"generatedBytes\": ").append(generatedBytes)
+					.append(",\n          \"writtenBytes\": ").append(writtenBytes)
+					.append("\n        }");
+		}
+	}
+}
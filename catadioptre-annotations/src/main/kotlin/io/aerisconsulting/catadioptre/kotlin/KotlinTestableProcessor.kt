@@ -15,6 +15,7 @@
 package io.aerisconsulting.catadioptre.kotlin
 
 import com.squareup.kotlinpoet.ClassName
+import com.squareup.kotlinpoet.CodeBlock
 import com.squareup.kotlinpoet.DelicateKotlinPoetApi
 import com.squareup.kotlinpoet.FileSpec
 import com.squareup.kotlinpoet.FunSpec
@@ -23,6 +24,8 @@ import com.squareup.kotlinpoet.ParameterSpec
 import com.squareup.kotlinpoet.ParameterizedTypeName
 import com.squareup.kotlinpoet.ParameterizedTypeName.Companion.parameterizedBy
 import com.squareup.kotlinpoet.PropertySpec
+import com.squareup.kotlinpoet.SET
+import com.squareup.kotlinpoet.STRING
 import com.squareup.kotlinpoet.TypeName
 import com.squareup.kotlinpoet.TypeSpec
 import com.squareup.kotlinpoet.TypeVariableName
@@ -33,11 +36,15 @@ import com.squareup.kotlinpoet.javapoet.JTypeName
 import com.squareup.kotlinpoet.javapoet.KotlinPoetJavaPoetPreview
 import com.squareup.kotlinpoet.javapoet.toJTypeName
 import com.squareup.kotlinpoet.javapoet.toKTypeName
+import com.squareup.kotlinpoet.joinToCode
 import com.squareup.kotlinpoet.jvm.jvmName
 import com.squareup.kotlinpoet.metadata.classinspectors.ElementsClassInspector
 import com.squareup.kotlinpoet.metadata.specs.ClassInspector
 import com.squareup.kotlinpoet.metadata.specs.toTypeSpec
 import io.aerisconsulting.catadioptre.KTestable
+import io.aerisconsulting.catadioptre.processing.GeneratedSourceWriter
+import io.aerisconsulting.catadioptre.processing.ProcessingReport
+import io.aerisconsulting.catadioptre.processing.ProcessingReport.TypeStatistics
 import java.io.File
 import java.util.Locale
 import javax.annotation.processing.AbstractProcessor
@@ -53,6 +60,7 @@ import javax.lang.model.type.TypeMirror
 import javax.lang.model.util.Elements
 import javax.lang.model.util.Types
 import javax.tools.Diagnostic
+import kotlin.system.measureNanoTime
 
 /**
  *
@@ -62,7 +70,7 @@ import javax.tools.Diagnostic
  */
 @DelicateKotlinPoetApi("Awareness of delicate aspect")
 @SupportedAnnotationTypes(KotlinTestableProcessor.ANNOTATION_CLASS_NAME)
-@SupportedOptions(KotlinTestableProcessor.KAPT_KOTLIN_GENERATED_OPTION_NAME)
+@SupportedOptions(KotlinTestableProcessor.KAPT_KOTLIN_GENERATED_OPTION_NAME, ProcessingReport.OPTION_NAME)
 internal class KotlinTestableProcessor : AbstractProcessor() {
 
     private var initialized = false
@@ -79,6 +87,8 @@ internal class KotlinTestableProcessor : AbstractProcessor() {
 
     private lateinit var classInspector: ClassInspector
 
+    private val report = ProcessingReport("kotlin")
+
     companion object {
 
         const val ANNOTATION_CLASS_NAME = "io.aerisconsulting.catadioptre.KTestable"
@@ -92,6 +102,13 @@ internal class KotlinTestableProcessor : AbstractProcessor() {
 
         private val JAVA_COMPARATOR = java.util.Comparator::class.asTypeName()
 
+        private val MEMBER_INDEX = ClassName(CATADIOPTRE_UTILS_PACKAGE_NAME, "KMemberIndex")
+
+        /**
+         * Suffix of the names of the generated indices, as defined by `KMemberIndex.CLASS_NAME_SUFFIX`.
+         */
+        private const val MEMBER_INDEX_SUFFIX = "_KCatadioptreIndex"
+
     }
 
     override fun getSupportedSourceVersion(): SourceVersion {
@@ -129,6 +146,10 @@ internal class KotlinTestableProcessor : AbstractProcessor() {
     }
 
     override fun process(annotations: MutableSet<out TypeElement>, roundEnv: RoundEnvironment): Boolean {
+        if (roundEnv.processingOver()) {
+            report.writeIfRequested(processingEnv)
+            return false
+        }
         val annotatedElements = roundEnv.getElementsAnnotatedWith(KTestable::class.java)
         if (!initialized && annotatedElements.isNotEmpty()) {
             val types =
@@ -143,16 +164,32 @@ internal class KotlinTestableProcessor : AbstractProcessor() {
 
         val kaptKotlinGeneratedDir = processingEnv.options[KAPT_KOTLIN_GENERATED_OPTION_NAME] ?: return false
         generatedDir = File(File(kaptKotlinGeneratedDir).parentFile, "catadioptre")
+        val roundStatistics = report.startRound()
+        // The classes are sorted by name and their members kept in the order of the source,
+        // so that the generated sources are reproducible.
         annotatedElements
             .filter { it.kind == ElementKind.METHOD }
             .map { it as ExecutableElement }
-            .groupBy { it.enclosingElement }
+            .groupBy { it.enclosingElement as TypeElement }
+            .toSortedMap(compareBy { it.qualifiedName.toString() })
+            .mapValues { (enclosingElement, elements) ->
+                val enclosedElements = enclosingElement.enclosedElements
+                elements.sortedBy { enclosedElements.indexOf(it) }
+            }
             .forEach { (enclosingElement, elements) ->
-                val typeSpec = (enclosingElement as TypeElement).toTypeSpec(
-                    lenient = true,
-                    classInspector = classInspector
-                )
+                val statistics = roundStatistics.type(enclosingElement.qualifiedName.toString())
+                statistics.addProcessedElements(elements.size)
+                val typeSpec: TypeSpec
+                statistics.addMetadataParsingTime(measureNanoTime {
+                    typeSpec = enclosingElement.toTypeSpec(
+                        lenient = true,
+                        classInspector = classInspector
+                    )
+                })
                 if (typeSpec.isCompanion || typeSpec.kind == TypeSpec.Kind.OBJECT) {
+                    elements.forEach {
+                        statistics.addSkippedMember("${it.simpleName}", "object types are not supported yet")
+                    }
                     processingEnv.messager.printMessage(
                         Diagnostic.Kind.WARNING,
                         "No Catadioptre proxy could be generated for the members of ${enclosingElement.asClassName()}, because object types are not supported yet."
@@ -162,15 +199,32 @@ internal class KotlinTestableProcessor : AbstractProcessor() {
                     val testableClassName = "Testable" + enclosingElement.simpleName.toString()
                     val testableClassFile = FileSpec.builder("${packageName}.catadioptre", testableClassName)
                         .addImport("$packageName", enclosingElement.simpleName.toString())
+                    val indexedProperties = mutableSetOf<String>()
+                    val indexedFunctions = mutableSetOf<String>()
                     generatesProxyMethods(
                         enclosingElement,
                         typeSpec,
                         elements,
-                        testableClassFile
+                        testableClassFile,
+                        statistics,
+                        indexedProperties,
+                        indexedFunctions
                     )
-                    testableClassFile.build().writeTo(generatedDir)
+                    val writingStart = System.nanoTime()
+                    val fileSpec = testableClassFile.build()
+                    val content = fileSpec.toString()
+                    // The file is only rewritten when its content changed, to keep the consuming compilation up-to-date.
+                    val written = GeneratedSourceWriter.writeIfChanged(
+                        generatedDir,
+                        fileSpec.packageName,
+                        "${fileSpec.name}.kt",
+                        content
+                    )
+                    statistics.addWriting(System.nanoTime() - writingStart, content, written)
+                    writeMemberIndex(enclosingElement, indexedProperties, indexedFunctions, statistics)
                 }
             }
+        roundStatistics.end()
 
         return true
     }
@@ -182,17 +236,27 @@ internal class KotlinTestableProcessor : AbstractProcessor() {
      * @param typeSpec the KotlinPoet [TypeSpec] corresponding to the [enclosingElement]
      * @param elements annotated elements for which extension functions have to be generated
      * @param testableClassFile specification for the file that will contain the extension functions
+     * @param statistics the statistics of the generation for the class
+     * @param indexedProperties the names of the proxied properties, to add to the index of the class
+     * @param indexedFunctions the names of the proxied functions that can be indexed
      */
     private fun generatesProxyMethods(
         enclosingElement: TypeElement,
         typeSpec: TypeSpec,
         elements: List<ExecutableElement>,
-        testableClassFile: FileSpec.Builder
+        testableClassFile: FileSpec.Builder,
+        statistics: TypeStatistics,
+        indexedProperties: MutableSet<String>,
+        indexedFunctions: MutableSet<String>
     ) {
         val remainingElements = elements.toMutableList()
         val (receiverTypeElement, receiverSpec) = if (typeSpec.isCompanion) {
             val typeElement = enclosingElement.enclosingElement as TypeElement
-            typeElement to typeElement.toTypeSpec(true, classInspector)
+            val receiverSpec: TypeSpec
+            statistics.addMetadataParsingTime(measureNanoTime {
+                receiverSpec = typeElement.toTypeSpec(true, classInspector)
+            })
+            typeElement to receiverSpec
         } else {
             enclosingElement to typeSpec
         }
@@ -204,7 +268,10 @@ internal class KotlinTestableProcessor : AbstractProcessor() {
                 element to method
             }
         }.forEach { (element, function) ->
-            val methodVisibility = kotlinVisibilityUtils.detectLowestVisibility(typeSpec, element)
+            val methodVisibility: KModifier
+            statistics.addVisibilityAnalysisTime(measureNanoTime {
+                methodVisibility = kotlinVisibilityUtils.detectLowestVisibility(typeSpec, element)
+            })
             if (methodVisibility != KModifier.PRIVATE) {
                 generateTestableFunction(
                     typeElement = receiverTypeElement,
@@ -213,7 +280,15 @@ internal class KotlinTestableProcessor : AbstractProcessor() {
                     visibility = methodVisibility,
                     testableClassFile = testableClassFile
                 )
+                statistics.addGeneratedProxies(1)
+                val functionName = function.spec.name
+                if (typeSpec.funSpecs.count { it.name == functionName } == 1
+                    && !isDeclaredBySupertypes(enclosingElement, functionName)
+                ) {
+                    indexedFunctions += functionName
+                }
             } else {
+                statistics.addSkippedMember("${function.element}", "one of the used types is private")
                 processingEnv.messager.printMessage(
                     Diagnostic.Kind.WARNING,
                     "[Catadioptre] No proxy could be generated for the function ${enclosingElement.asClassName()}.${function.element}, because one of the used types is private"
@@ -229,8 +304,12 @@ internal class KotlinTestableProcessor : AbstractProcessor() {
                 element to property
             }
         }.forEach { (element, propSpec) ->
-            val visibility = kotlinVisibilityUtils.detectLowestVisibility(typeSpec, propSpec.type)
+            val visibility: KModifier
+            statistics.addVisibilityAnalysisTime(measureNanoTime {
+                visibility = kotlinVisibilityUtils.detectLowestVisibility(typeSpec, propSpec.type)
+            })
             if (visibility != KModifier.PRIVATE) {
+                val proxiesCount = testableClassFile.members.size
                 generateTestableProperty(
                     typeElement = receiverTypeElement,
                     typeSpec = receiverSpec,
@@ -239,7 +318,10 @@ internal class KotlinTestableProcessor : AbstractProcessor() {
                     visibility = visibility,
                     testableClassFile = testableClassFile
                 )
+                statistics.addGeneratedProxies(testableClassFile.members.size - proxiesCount)
+                indexedProperties += propSpec.name
             } else {
+                statistics.addSkippedMember(propSpec.name, "its type is private")
                 processingEnv.messager.printMessage(
                     Diagnostic.Kind.WARNING,
                     "[Catadioptre] No proxy could be generated for the property ${enclosingElement.asClassName()}.${propSpec.name}, because its type is private"
@@ -248,6 +330,7 @@ internal class KotlinTestableProcessor : AbstractProcessor() {
         }
 
         remainingElements.forEach {
+            statistics.addSkippedMember("${it.simpleName}", "some source elements were not found")
             processingEnv.messager.printMessage(
                 Diagnostic.Kind.WARNING,
                 "[Catadioptre] No proxy could be generated for member ${enclosingElement.asClassName()}.${it.simpleName}, because some source elements (Kotlin function, property getter) were not found"
@@ -255,6 +338,65 @@ internal class KotlinTestableProcessor : AbstractProcessor() {
         }
     }
 
+    /**
+     * Verifies whether a supertype of [typeElement] declares a method called [functionName], including the Kotlin
+     * functions whose JVM name is mangled.
+     */
+    private fun isDeclaredBySupertypes(typeElement: TypeElement, functionName: String): Boolean {
+        return typeUtils.directSupertypes(typeElement.asType())
+            .mapNotNull { typeUtils.asElement(it) as? TypeElement }
+            .any { supertype ->
+                supertype.enclosedElements.any {
+                    it.kind == ElementKind.METHOD && "${it.simpleName}".let { name ->
+                        name == functionName || name.startsWith("$functionName$")
+                    }
+                } || isDeclaredBySupertypes(supertype, functionName)
+            }
+    }
+
+    /**
+     * Writes the `KMemberIndex` of the class, which lets the runtime resolve the proxied members from the members
+     * declared by the class.
+     *
+     * @param enclosingElement the class declaring the indexed members
+     * @param properties the names of the properties to index
+     * @param functions the names of the functions to index
+     * @param statistics the statistics of the generation for the class
+     */
+    private fun writeMemberIndex(
+        enclosingElement: TypeElement,
+        properties: Set<String>,
+        functions: Set<String>,
+        statistics: TypeStatistics
+    ) {
+        if (properties.isEmpty() && functions.isEmpty()) {
+            return
+        }
+        val writingStart = System.nanoTime()
+        val packageName = "${elementUtils.getPackageOf(enclosingElement).qualifiedName}"
+        val binaryName = "${elementUtils.getBinaryName(enclosingElement)}"
+        val indexName = (if (packageName.isEmpty()) binaryName else binaryName.substring(packageName.length + 1))
+            .replace('$', '_') + MEMBER_INDEX_SUFFIX
+        val fileSpec = FileSpec.builder(packageName, indexName)
+            .addType(
+                TypeSpec.objectBuilder(indexName)
+                    .addSuperinterface(MEMBER_INDEX)
+                    .addProperty(buildIndexProperty("properties", properties))
+                    .addProperty(buildIndexProperty("functions", functions))
+                    .build()
+            )
+            .build()
+        val content = fileSpec.toString()
+        val written = GeneratedSourceWriter.writeIfChanged(generatedDir, packageName, "$indexName.kt", content)
+        statistics.addWriting(System.nanoTime() - writingStart, content, written)
+    }
+
+    private fun buildIndexProperty(name: String, values: Set<String>): PropertySpec {
+        return PropertySpec.builder(name, SET.parameterizedBy(STRING), KModifier.OVERRIDE)
+            .initializer("setOf(%L)", values.map { CodeBlock.of("%S", it) }.joinToCode(", "))
+            .build()
+    }
+
     /**
      * Generates the specification for the extension function that calls the invisible one, using reflection,
      * while keeping the same signature.
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+import org.jetbrains.kotlin.gradle.dsl.JvmTarget
+import org.jetbrains.kotlin.gradle.tasks.KotlinCompile
+
+plugins {
+    java
+    kotlin("jvm")
+    kotlin("kapt")
+}
+
+description = "Benchmarks of the annotation processors and runtimes of Catadioptre"
+
+kotlin {
+    compilerOptions {
+        jvmTarget.set(JvmTarget.JVM_11)
+        freeCompilerArgs.add("-Xsuppress-version-warnings")
+    }
+}
+
+val jmhVersion: String by project
+val kotlinCoroutinesVersion: String by project
+
+// The JMH benchmarks of the runtimes are kept in dedicated source sets, with their own classpath,
+// since the Java and Kotlin runtimes declare classes with the same names.
+val jmh: SourceSet by sourceSets.creating
+val jmhKotlin: SourceSet by sourceSets.creating
+
+// The proxies generated for the fixtures of java-test and kotlin-test are compiled with the benchmarks.
+evaluationDependsOn(":kotlin-test")
+val javaTestProject = project(":java-test")
+val kotlinTestProject = project(":kotlin-test")
+jmh.java.srcDir(javaTestProject.layout.buildDirectory.dir("generated/sources/annotationProcessor/java/catadioptre"))
+kotlin.sourceSets["jmhKotlin"].kotlin.srcDir(
+    kotlinTestProject.layout.buildDirectory.dir("generated/source/kaptKotlin/catadioptre")
+)
+
+dependencies {
+    implementation(kotlin("stdlib"))
+    implementation(project(":catadioptre-annotations"))
+    implementation("dev.zacsweers.kctfork:core:0.5.0")
+
+    "jmhImplementation"(sourceSets["main"].output)
+    "jmhImplementation"(project(":catadioptre-java"))
+    "jmhImplementation"(javaTestProject)
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+
+    "jmhKotlinImplementation"(kotlin("stdlib"))
+    "jmhKotlinImplementation"(sourceSets["main"].output)
+    "jmhKotlinImplementation"(project(":catadioptre-kotlin"))
+    "jmhKotlinImplementation"(kotlinTestProject)
+    "jmhKotlinImplementation"("org.jetbrains.kotlinx:kotlinx-coroutines-core:$kotlinCoroutinesVersion")
+    "jmhKotlinImplementation"("org.openjdk.jmh:jmh-core:$jmhVersion")
+    "kaptJmhKotlin"("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+}
+
+tasks.named("compileJmhJava") {
+    dependsOn(":java-test:compileJava")
+}
+
+tasks.withType<KotlinCompile>().matching { it.name.contains("JmhKotlin") }.configureEach {
+    dependsOn(":kotlin-test:kaptKotlin")
+    // Gives access to the internal fixtures of kotlin-test and to their internal proxies.
+    friendPaths.from(kotlinTestProject.layout.buildDirectory.dir("classes/kotlin/main"))
+    friendPaths.from(kotlinTestProject.tasks.named("jar"))
+}
+
+val benchmarksReportDir = layout.buildDirectory.dir("reports/benchmarks")
+
+// Example: ./gradlew :catadioptre-benchmarks:processorBenchmark -PprocessorBenchmark.args="classes=200 members=20"
+tasks.register<JavaExec>("processorBenchmark") {
+    group = "benchmark"
+    description = "Measures the compilation of synthetic sources with the Java and Kotlin annotation processors"
+    mainClass.set("io.aerisconsulting.catadioptre.benchmarks.processing.ProcessorBenchmark")
+    classpath = sourceSets["main"].runtimeClasspath
+    maxHeapSize = "2g"
+    args(providers.gradleProperty("processorBenchmark.args").map { it.split(' ').filter(String::isNotBlank) }
+        .getOrElse(emptyList()))
+    args("output=${benchmarksReportDir.get().file("processor-benchmark.json").asFile}")
+}
+
+// Example: ./gradlew :catadioptre-benchmarks:jmh -Pjmh.includes=FieldAccessBenchmark -Pjmh.args="-f 1"
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks of the Java runtime, with the allocation profiler"
+    mainClass.set("org.openjdk.jmh.Main")
+    classpath = jmh.runtimeClasspath
+    args(providers.gradleProperty("jmh.includes").getOrElse(".*"))
+    args(providers.gradleProperty("jmh.args").map { it.split(' ').filter(String::isNotBlank) }.getOrElse(emptyList()))
+    args("-prof", "gc", "-rf", "json", "-rff", benchmarksReportDir.get().file("jmh-java.json").asFile)
+    doFirst { benchmarksReportDir.get().asFile.mkdirs() }
+}
+
+// Example: ./gradlew :catadioptre-benchmarks:jmhKotlin -Pjmh.includes=FirstCallBenchmark
+tasks.register<JavaExec>("jmhKotlin") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks of the Kotlin runtime and generated proxies, with the allocation profiler"
+    mainClass.set("org.openjdk.jmh.Main")
+    classpath = jmhKotlin.runtimeClasspath
+    args(providers.gradleProperty("jmh.includes").getOrElse(".*"))
+    args(providers.gradleProperty("jmh.args").map { it.split(' ').filter(String::isNotBlank) }.getOrElse(emptyList()))
+    args("-prof", "gc", "-rf", "json", "-rff", benchmarksReportDir.get().file("jmh-kotlin.json").asFile)
+    doFirst { benchmarksReportDir.get().asFile.mkdirs() }
+}
+
+// Example: ./gradlew :catadioptre-benchmarks:coldStart -PcoldStart.launches=20
+tasks.register<JavaExec>("coldStart") {
+    group = "benchmark"
+    description = "Measures the time and class loading until the first call of the Java runtime in fresh JVMs"
+    mainClass.set("io.aerisconsulting.catadioptre.benchmarks.startup.ColdStartLauncher")
+    classpath = jmh.runtimeClasspath
+    args(
+        "probe=io.aerisconsulting.catadioptre.test.JavaColdStartProbe",
+        "entryPoints=baseline,getField,setField,executeInvisible,generatedProxy",
+        "launches=${providers.gradleProperty("coldStart.launches").getOrElse("10")}",
+        "output=${benchmarksReportDir.get().file("cold-start-java.json").asFile}"
+    )
+}
+
+tasks.register<JavaExec>("coldStartKotlin") {
+    group = "benchmark"
+    description = "Measures the time and class loading until the first call of the Kotlin runtime in fresh JVMs"
+    mainClass.set("io.aerisconsulting.catadioptre.benchmarks.startup.ColdStartLauncher")
+    classpath = jmhKotlin.runtimeClasspath
+    args(
+        "probe=io.aerisconsulting.catadioptre.benchmarks.kotlin.KotlinColdStartProbe",
+        "entryPoints=baseline,getProperty,setProperty,invokeInvisible,coInvokeInvisible,generatedProxy",
+        "launches=${providers.gradleProperty("coldStart.launches").getOrElse("10")}",
+        "output=${benchmarksReportDir.get().file("cold-start-kotlin.json").asFile}"
+    )
+}
+
+tasks.withType<AbstractPublishToMaven> {
+    enabled = false
+}
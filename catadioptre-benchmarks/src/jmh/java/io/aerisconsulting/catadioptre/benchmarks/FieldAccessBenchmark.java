@@ -0,0 +1,165 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks;
+
+import io.aerisconsulting.catadioptre.ReflectionFieldUtils;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link ReflectionFieldUtils}, compared with a direct access to the fields and with
+ * {@link MethodHandle}s.
+ *
+ * @author Eric Jessé
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FieldAccessBenchmark {
+
+	private static final MethodHandle PRIMITIVE_GETTER;
+
+	private static final MethodHandle PRIMITIVE_SETTER;
+
+	private static final MethodHandle REFERENCE_GETTER;
+
+	private static final MethodHandle REFERENCE_SETTER;
+
+	static {
+		try {
+			final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(HierarchyRoot.class,
+					MethodHandles.lookup());
+			PRIMITIVE_GETTER = lookup.findGetter(HierarchyRoot.class, "primitiveField", int.class);
+			PRIMITIVE_SETTER = lookup.findSetter(HierarchyRoot.class, "primitiveField", int.class);
+			REFERENCE_GETTER = lookup.findGetter(HierarchyRoot.class, "referenceField", String.class);
+			REFERENCE_SETTER = lookup.findSetter(HierarchyRoot.class, "referenceField", String.class);
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/**
+	 * Shallow: the fields are declared by the class of the instance, deep: they are declared five levels above.
+	 */
+	@Param({"shallow", "deep"})
+	public String hierarchy;
+
+	private HierarchyRoot target;
+
+	private int primitiveValue = 456;
+
+	private String referenceValue = "other";
+
+	@Setup
+	public void setUp() {
+		target = "deep".equals(hierarchy) ? new HierarchyLeaf() : new HierarchyRoot();
+	}
+
+	@Benchmark
+	public int getPrimitive() {
+		return ReflectionFieldUtils.getField(target, "primitiveField");
+	}
+
+	@Benchmark
+	public int getPrimitiveDirect() {
+		return target.directGetPrimitive();
+	}
+
+	@Benchmark
+	public int getPrimitiveMethodHandle() throws Throwable {
+		return (int) PRIMITIVE_GETTER.invokeExact(target);
+	}
+
+	@Benchmark
+	public String getReference() {
+		return ReflectionFieldUtils.getField(target, "referenceField");
+	}
+
+	@Benchmark
+	public String getReferenceDirect() {
+		return target.directGetReference();
+	}
+
+	@Benchmark
+	public String getReferenceMethodHandle() throws Throwable {
+		return (String) REFERENCE_GETTER.invokeExact(target);
+	}
+
+	@Benchmark
+	public HierarchyRoot setPrimitive() {
+		return ReflectionFieldUtils.setField(target, "primitiveField", primitiveValue);
+	}
+
+	@Benchmark
+	public HierarchyRoot setPrimitiveDirect() {
+		target.directSetPrimitive(primitiveValue);
+		return target;
+	}
+
+	@Benchmark
+	public HierarchyRoot setPrimitiveMethodHandle() throws Throwable {
+		PRIMITIVE_SETTER.invokeExact(target, primitiveValue);
+		return target;
+	}
+
+	@Benchmark
+	public HierarchyRoot setReference() {
+		return ReflectionFieldUtils.setField(target, "referenceField", referenceValue);
+	}
+
+	@Benchmark
+	public HierarchyRoot setReferenceDirect() {
+		target.directSetReference(referenceValue);
+		return target;
+	}
+
+	@Benchmark
+	public HierarchyRoot setReferenceMethodHandle() throws Throwable {
+		REFERENCE_SETTER.invokeExact(target, referenceValue);
+		return target;
+	}
+
+	@Benchmark
+	public HierarchyRoot clearReference() {
+		return ReflectionFieldUtils.clearField(target, "referenceField");
+	}
+
+	@Benchmark
+	public HierarchyRoot clearReferenceDirect() {
+		target.directSetReference(null);
+		return target;
+	}
+
+	@Benchmark
+	public HierarchyRoot clearReferenceMethodHandle() throws Throwable {
+		REFERENCE_SETTER.invokeExact(target, (String) null);
+		return target;
+	}
+}
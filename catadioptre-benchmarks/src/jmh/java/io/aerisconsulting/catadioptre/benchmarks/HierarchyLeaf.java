@@ -0,0 +1,31 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks;
+
+/**
+ * Class inheriting the members of {@link HierarchyRoot} through several levels of hierarchy, which all have to be
+ * scanned when searching the members by reflection.
+ *
+ * @author Eric Jessé
+ */
+public class HierarchyLeaf extends HierarchyLevels.Level4 {
+
+	@SuppressWarnings("unused")
+	private long leafField;
+
+	@SuppressWarnings("unused")
+	private void leafMethod() {
+	}
+}
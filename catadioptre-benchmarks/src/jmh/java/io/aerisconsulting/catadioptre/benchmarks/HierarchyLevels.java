@@ -0,0 +1,50 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks;
+
+/**
+ * Intermediate levels of hierarchy between {@link HierarchyRoot} and {@link HierarchyLeaf}.
+ *
+ * @author Eric Jessé
+ */
+final class HierarchyLevels {
+
+	private HierarchyLevels() {
+	}
+
+	static class Level1 extends HierarchyRoot {
+
+		@SuppressWarnings("unused")
+		private long level1Field;
+	}
+
+	static class Level2 extends Level1 {
+
+		@SuppressWarnings("unused")
+		private long level2Field;
+	}
+
+	static class Level3 extends Level2 {
+
+		@SuppressWarnings("unused")
+		private long level3Field;
+	}
+
+	static class Level4 extends Level3 {
+
+		@SuppressWarnings("unused")
+		private long level4Field;
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks;
+
+import java.util.List;
+
+/**
+ * Class declaring the private members used by the benchmarks.
+ * <p>
+ * The package-private methods {@code direct*} give access to the same members without reflection, as a baseline.
+ *
+ * @author Eric Jessé
+ */
+@SuppressWarnings({"unused", "FieldMayBeFinal"})
+public class HierarchyRoot {
+
+	private int primitiveField = 123;
+
+	private String referenceField = "value";
+
+	private int noArgument() {
+		return primitiveField;
+	}
+
+	private int primitive1(int value) {
+		return value + primitiveField;
+	}
+
+	private double primitive3(int first, long second, double third) {
+		return first + second + third;
+	}
+
+	private String reference1(String value) {
+		return value;
+	}
+
+	private Object reference3(String first, List<String> second, Object third) {
+		return third;
+	}
+
+	private int varargs(String... values) {
+		return values.length;
+	}
+
+	int directGetPrimitive() {
+		return primitiveField;
+	}
+
+	void directSetPrimitive(int value) {
+		primitiveField = value;
+	}
+
+	String directGetReference() {
+		return referenceField;
+	}
+
+	void directSetReference(String value) {
+		referenceField = value;
+	}
+
+	int directNoArgument() {
+		return noArgument();
+	}
+
+	int directPrimitive1(int value) {
+		return primitive1(value);
+	}
+
+	double directPrimitive3(int first, long second, double third) {
+		return primitive3(first, second, third);
+	}
+
+	String directReference1(String value) {
+		return reference1(value);
+	}
+
+	Object directReference3(String first, List<String> second, Object third) {
+		return reference3(first, second, third);
+	}
+
+	int directVarargs(String... values) {
+		return varargs(values);
+	}
+}
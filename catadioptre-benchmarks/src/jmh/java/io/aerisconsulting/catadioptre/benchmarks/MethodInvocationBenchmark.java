@@ -0,0 +1,213 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks;
+
+import io.aerisconsulting.catadioptre.Argument;
+import io.aerisconsulting.catadioptre.ReflectionMethodUtils;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link ReflectionMethodUtils#executeInvisible(Object, String, Object...)}, compared with a direct
+ * call of the methods and with {@link MethodHandle}s.
+ *
+ * @author Eric Jessé
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MethodInvocationBenchmark {
+
+	private static final MethodHandle NO_ARGUMENT;
+
+	private static final MethodHandle PRIMITIVE_1;
+
+	private static final MethodHandle PRIMITIVE_3;
+
+	private static final MethodHandle REFERENCE_1;
+
+	private static final MethodHandle REFERENCE_3;
+
+	private static final MethodHandle VARARGS;
+
+	static {
+		try {
+			final MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(HierarchyRoot.class,
+					MethodHandles.lookup());
+			NO_ARGUMENT = lookup.findVirtual(HierarchyRoot.class, "noArgument", MethodType.methodType(int.class));
+			PRIMITIVE_1 = lookup.findVirtual(HierarchyRoot.class, "primitive1",
+					MethodType.methodType(int.class, int.class));
+			PRIMITIVE_3 = lookup.findVirtual(HierarchyRoot.class, "primitive3",
+					MethodType.methodType(double.class, int.class, long.class, double.class));
+			REFERENCE_1 = lookup.findVirtual(HierarchyRoot.class, "reference1",
+					MethodType.methodType(String.class, String.class));
+			REFERENCE_3 = lookup.findVirtual(HierarchyRoot.class, "reference3",
+					MethodType.methodType(Object.class, String.class, List.class, Object.class));
+			VARARGS = lookup.findVirtual(HierarchyRoot.class, "varargs",
+					MethodType.methodType(int.class, String[].class));
+		} catch (ReflectiveOperationException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+
+	/**
+	 * Shallow: the methods are declared by the class of the instance, deep: they are declared five levels above.
+	 */
+	@Param({"shallow", "deep"})
+	public String hierarchy;
+
+	private HierarchyRoot target;
+
+	private int intValue = 12;
+
+	private long longValue = 34L;
+
+	private double doubleValue = 5.6;
+
+	private String stringValue = "value";
+
+	private List<String> listValue = Arrays.asList("first", "second");
+
+	private Object objectValue = new Object();
+
+	@Setup
+	public void setUp() {
+		target = "deep".equals(hierarchy) ? new HierarchyLeaf() : new HierarchyRoot();
+	}
+
+	@Benchmark
+	public int noArgument() {
+		return ReflectionMethodUtils.executeInvisible(target, "noArgument");
+	}
+
+	@Benchmark
+	public int noArgumentDirect() {
+		return target.directNoArgument();
+	}
+
+	@Benchmark
+	public int noArgumentMethodHandle() throws Throwable {
+		return (int) NO_ARGUMENT.invokeExact(target);
+	}
+
+	@Benchmark
+	public int primitive1() {
+		return ReflectionMethodUtils.executeInvisible(target, "primitive1", intValue);
+	}
+
+	@Benchmark
+	public int primitive1Direct() {
+		return target.directPrimitive1(intValue);
+	}
+
+	@Benchmark
+	public int primitive1MethodHandle() throws Throwable {
+		return (int) PRIMITIVE_1.invokeExact(target, intValue);
+	}
+
+	@Benchmark
+	public double primitive3() {
+		return ReflectionMethodUtils.executeInvisible(target, "primitive3", intValue, longValue, doubleValue);
+	}
+
+	@Benchmark
+	public double primitive3Direct() {
+		return target.directPrimitive3(intValue, longValue, doubleValue);
+	}
+
+	@Benchmark
+	public double primitive3MethodHandle() throws Throwable {
+		return (double) PRIMITIVE_3.invokeExact(target, intValue, longValue, doubleValue);
+	}
+
+	@Benchmark
+	public String reference1() {
+		return ReflectionMethodUtils.executeInvisible(target, "reference1", stringValue);
+	}
+
+	@Benchmark
+	public String reference1Direct() {
+		return target.directReference1(stringValue);
+	}
+
+	@Benchmark
+	public String reference1MethodHandle() throws Throwable {
+		return (String) REFERENCE_1.invokeExact(target, stringValue);
+	}
+
+	@Benchmark
+	public Object reference3() {
+		return ReflectionMethodUtils.executeInvisible(target, "reference3", stringValue, listValue, objectValue);
+	}
+
+	@Benchmark
+	public Object reference3Direct() {
+		return target.directReference3(stringValue, listValue, objectValue);
+	}
+
+	@Benchmark
+	public Object reference3MethodHandle() throws Throwable {
+		return (Object) REFERENCE_3.invokeExact(target, stringValue, listValue, objectValue);
+	}
+
+	@Benchmark
+	public String nullArgument() {
+		return ReflectionMethodUtils.executeInvisible(target, "reference1", Argument.ofNull(String.class));
+	}
+
+	@Benchmark
+	public String nullArgumentDirect() {
+		return target.directReference1(null);
+	}
+
+	@Benchmark
+	public String nullArgumentMethodHandle() throws Throwable {
+		return (String) REFERENCE_1.invokeExact(target, (String) null);
+	}
+
+	@Benchmark
+	public int varargs() {
+		return ReflectionMethodUtils.executeInvisible(target, "varargs",
+				Argument.ofVarargs(String.class, stringValue, stringValue, stringValue));
+	}
+
+	@Benchmark
+	public int varargsDirect() {
+		return target.directVarargs(stringValue, stringValue, stringValue);
+	}
+
+	@Benchmark
+	public int varargsMethodHandle() throws Throwable {
+		return (int) VARARGS.invokeExact(target, new String[]{stringValue, stringValue, stringValue});
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.test;
+
+import io.aerisconsulting.catadioptre.ReflectionFieldUtils;
+import io.aerisconsulting.catadioptre.ReflectionMethodUtils;
+import io.aerisconsulting.catadioptre.benchmarks.HierarchyRoot;
+import io.aerisconsulting.catadioptre.benchmarks.startup.ColdStartProbe;
+import java.util.Collections;
+import java.util.Optional;
+
+/**
+ * Probe of the cold start of the Java runtime and of the generated proxies.
+ * <p>
+ * The probe is declared in the package of the fixtures of java-test, to access their package-private proxies.
+ *
+ * @author Eric Jessé
+ */
+public final class JavaColdStartProbe {
+
+	private JavaColdStartProbe() {
+	}
+
+	public static void main(final String[] args) throws Exception {
+		final String entryPoint = args[0];
+		ColdStartProbe.measure(entryPoint, () -> call(entryPoint));
+	}
+
+	private static Object call(final String entryPoint) {
+		switch (entryPoint) {
+			case "baseline":
+				return new HierarchyRoot().toString();
+			case "getField":
+				return ReflectionFieldUtils.getField(new HierarchyRoot(), "referenceField");
+			case "setField":
+				return ReflectionFieldUtils.setField(new HierarchyRoot(), "referenceField", "other");
+			case "executeInvisible":
+				return ReflectionMethodUtils.executeInvisible(new HierarchyRoot(), "primitive3", 12, 34L, 5.6);
+			case "generatedProxy":
+				final PublicType instance = new PublicType(Collections.emptyMap(), 1.0, Optional.of("value"));
+				return TestablePublicType.multiplySum(instance, 2.0, new Double[]{1.0, 3.0, 6.0});
+			default:
+				throw new IllegalArgumentException("Unknown entry point " + entryPoint);
+		}
+	}
+}
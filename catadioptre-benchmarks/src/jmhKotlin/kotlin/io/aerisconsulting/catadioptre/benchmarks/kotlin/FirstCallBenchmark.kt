@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks.kotlin
+
+import io.aerisconsulting.catadioptre.coInvokeInvisible
+import io.aerisconsulting.catadioptre.getProperty
+import io.aerisconsulting.catadioptre.invokeInvisible
+import io.aerisconsulting.catadioptre.setProperty
+import io.aerisconsulting.catadioptre.test.InternalType
+import io.aerisconsulting.catadioptre.test.catadioptre.defaultProperty
+import io.aerisconsulting.catadioptre.test.catadioptre.multiplySum
+import kotlinx.coroutines.runBlocking
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+
+/**
+ * Benchmarks of the first call of the Kotlin runtime and of the generated proxies in a fresh JVM, including the
+ * loading of kotlin-reflect and the parsing of the Kotlin metadata.
+ *
+ * @author Eric Jessé
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+@State(Scope.Thread)
+open class FirstCallBenchmark {
+
+    @Benchmark
+    fun getProperty(): Int = HierarchyRoot() getProperty "primitiveProperty"
+
+    @Benchmark
+    fun setProperty(): Any = HierarchyRoot().setProperty("referenceProperty", "other")
+
+    @Benchmark
+    fun invokeInvisible(): Double = HierarchyRoot().invokeInvisible("primitive3", 12, 34L, 5.6)
+
+    @Benchmark
+    fun coInvokeInvisible(): Int = runBlocking { HierarchyRoot().coInvokeInvisible("suspending", 12) }
+
+    @Benchmark
+    fun generatedPropertyProxy(): Map<String, Double>? = InternalType().defaultProperty()
+
+    @Benchmark
+    fun generatedFunctionProxy(): Double = InternalType().multiplySum(2.0, 1.0, 3.0, 6.0)
+}
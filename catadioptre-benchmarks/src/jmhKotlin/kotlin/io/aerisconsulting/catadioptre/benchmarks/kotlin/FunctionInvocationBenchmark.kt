@@ -0,0 +1,129 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks.kotlin
+
+import io.aerisconsulting.catadioptre.coInvokeInvisible
+import io.aerisconsulting.catadioptre.invokeInvisible
+import io.aerisconsulting.catadioptre.invokeNoArgs
+import io.aerisconsulting.catadioptre.named
+import io.aerisconsulting.catadioptre.nullOf
+import io.aerisconsulting.catadioptre.omitted
+import io.aerisconsulting.catadioptre.vararg
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.runBlocking
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+
+/**
+ * Benchmarks of the functions of `ReflectionFunctionUtils`, compared with a direct call of the functions.
+ *
+ * @author Eric Jessé
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+open class FunctionInvocationBenchmark {
+
+    /**
+     * Shallow: the functions are declared by the class of the instance, deep: they are declared by its superclass.
+     */
+    @Param("shallow", "deep")
+    lateinit var hierarchy: String
+
+    private lateinit var target: HierarchyRoot
+
+    private var intValue = 12
+
+    private var longValue = 34L
+
+    private var doubleValue = 5.6
+
+    private var stringValue = "value"
+
+    @Setup
+    fun setUp() {
+        target = if (hierarchy == "deep") HierarchyLeaf() else HierarchyRoot()
+    }
+
+    @Benchmark
+    fun noArgument(): Int = target invokeNoArgs "noArgument"
+
+    @Benchmark
+    fun noArgumentDirect(): Int = target.directNoArgument()
+
+    @Benchmark
+    fun primitive3(): Double = target.invokeInvisible("primitive3", intValue, longValue, doubleValue)
+
+    @Benchmark
+    fun primitive3Direct(): Double = target.directPrimitive3(intValue, longValue, doubleValue)
+
+    @Benchmark
+    fun reference1(): String? = target.invokeInvisible("reference1", stringValue)
+
+    @Benchmark
+    fun reference1Direct(): String? = target.directReference1(stringValue)
+
+    @Benchmark
+    fun nullArgument(): String? = target.invokeInvisible("reference1", nullOf<String>())
+
+    @Benchmark
+    fun nullArgumentDirect(): String? = target.directReference1(null)
+
+    @Benchmark
+    fun namedArguments(): Int =
+        target.invokeInvisible("withDefault", named("multiplier", intValue), named("value", intValue))
+
+    @Benchmark
+    fun namedArgumentsDirect(): Int = target.directWithDefault(intValue, intValue)
+
+    @Benchmark
+    fun omittedArgument(): Int = target.invokeInvisible("withDefault", intValue, omitted<Int>())
+
+    @Benchmark
+    fun omittedArgumentDirect(): Int = target.directWithDefault(intValue)
+
+    @Benchmark
+    fun varargs(): Int = target.invokeInvisible("varargs", vararg(stringValue, stringValue, stringValue))
+
+    @Benchmark
+    fun varargsDirect(): Int = target.directVarargs(stringValue, stringValue, stringValue)
+
+    @Benchmark
+    fun suspendRunBlocking(): Int = runBlocking { target.coInvokeInvisible("suspending", intValue) }
+
+    @Benchmark
+    fun suspendRunBlockingDirect(): Int = runBlocking { target.directSuspending(intValue) }
+
+    @Benchmark
+    fun suspendUnconfined(): Int = runBlocking(Dispatchers.Unconfined) {
+        target.coInvokeInvisible("suspending", intValue)
+    }
+
+    @Benchmark
+    fun suspendUnconfinedDirect(): Int = runBlocking(Dispatchers.Unconfined) { target.directSuspending(intValue) }
+}
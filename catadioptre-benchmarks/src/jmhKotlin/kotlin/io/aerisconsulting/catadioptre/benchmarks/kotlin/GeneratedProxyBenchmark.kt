@@ -0,0 +1,114 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks.kotlin
+
+import io.aerisconsulting.catadioptre.test.Converted
+import io.aerisconsulting.catadioptre.test.InternalType
+import io.aerisconsulting.catadioptre.test.PublicType
+import io.aerisconsulting.catadioptre.test.Specification
+import io.aerisconsulting.catadioptre.test.WithGeneric
+import io.aerisconsulting.catadioptre.test.catadioptre.callMethodThrowingException
+import io.aerisconsulting.catadioptre.test.catadioptre.clearDefaultProperty
+import io.aerisconsulting.catadioptre.test.catadioptre.defaultArgumentTypedProperty
+import io.aerisconsulting.catadioptre.test.catadioptre.defaultProperty
+import io.aerisconsulting.catadioptre.test.catadioptre.divideSum
+import io.aerisconsulting.catadioptre.test.catadioptre.filterMap
+import io.aerisconsulting.catadioptre.test.catadioptre.getAnything
+import io.aerisconsulting.catadioptre.test.catadioptre.multiplySum
+import io.aerisconsulting.catadioptre.test.catadioptre.processGenericStar
+import io.aerisconsulting.catadioptre.test.catadioptre.sumAsDouble
+import kotlinx.coroutines.runBlocking
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+
+/**
+ * Benchmarks of the extension functions generated by the Kotlin processor for the fixtures of the module
+ * `kotlin-test`.
+ *
+ * The functions of `PublicType` printing to the standard output are not measured, since the printing would be the
+ * main cost.
+ *
+ * @author Eric Jessé
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+open class GeneratedProxyBenchmark {
+
+    private val internalType = InternalType()
+
+    private val publicType = PublicType()
+
+    private val withGeneric = WithGeneric()
+
+    private val mapValue = mapOf("other" to 2.0)
+
+    private val convertedValues = mapOf<String, Converted>("key" to object : Converted {})
+
+    private val specification = SelfSpecification()
+
+    @Benchmark
+    fun getProperty(): Map<String, Double>? = internalType.defaultProperty()
+
+    @Benchmark
+    fun getInheritedTypedProperty(): Double? = internalType.defaultArgumentTypedProperty()
+
+    @Benchmark
+    fun setProperty(): Any = internalType.defaultProperty(mapValue)
+
+    @Benchmark
+    fun clearProperty(): Any = internalType.clearDefaultProperty()
+
+    @Benchmark
+    fun varargs(): Double = internalType.multiplySum(2.0, 1.0, 3.0, 6.0)
+
+    @Benchmark
+    fun inheritedNoArgument(): Int = internalType.getAnything()
+
+    @Benchmark
+    fun inheritedTypeParameters(): Double = internalType.sumAsDouble(2.5, 3L)
+
+    @Benchmark
+    fun inheritedSuspend(): Double = runBlocking { internalType.divideSum(2.0, 1.0, 3.0, 6.0) }
+
+    @Benchmark
+    fun genericArguments(): Map<String, Converted> = withGeneric.filterMap(convertedValues)
+
+    @Benchmark
+    fun genericStar(): String = withGeneric.processGenericStar(specification)
+
+    @Benchmark
+    fun exception(): Exception? {
+        return try {
+            publicType.callMethodThrowingException("test")
+            null
+        } catch (e: IllegalStateException) {
+            e
+        }
+    }
+
+    private class SelfSpecification : Specification<Int, Any?, SelfSpecification>
+}
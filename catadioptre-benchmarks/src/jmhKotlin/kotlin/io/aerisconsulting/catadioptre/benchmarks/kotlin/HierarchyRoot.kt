@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks.kotlin
+
+/**
+ * Class declaring the private members used by the benchmarks.
+ *
+ * The internal functions `direct*` give access to the same members without reflection, as a baseline.
+ *
+ * @author Eric Jessé
+ */
+@Suppress("unused", "MemberVisibilityCanBePrivate")
+open class HierarchyRoot {
+
+    private var primitiveProperty: Int = 123
+
+    private var referenceProperty: String? = "value"
+
+    private fun noArgument(): Int = primitiveProperty
+
+    private fun primitive3(first: Int, second: Long, third: Double): Double = first + second + third
+
+    private fun reference1(value: String?): String? = value
+
+    private fun withDefault(value: Int, multiplier: Int = 2): Int = value * multiplier
+
+    private fun varargs(vararg values: String): Int = values.size
+
+    private suspend fun suspending(value: Int): Int = value + primitiveProperty
+
+    internal fun directGetPrimitive() = primitiveProperty
+
+    internal fun directSetPrimitive(value: Int) {
+        primitiveProperty = value
+    }
+
+    internal fun directGetReference() = referenceProperty
+
+    internal fun directSetReference(value: String?) {
+        referenceProperty = value
+    }
+
+    internal fun directNoArgument() = noArgument()
+
+    internal fun directPrimitive3(first: Int, second: Long, third: Double) = primitive3(first, second, third)
+
+    internal fun directReference1(value: String?) = reference1(value)
+
+    internal fun directWithDefault(value: Int) = withDefault(value)
+
+    internal fun directWithDefault(value: Int, multiplier: Int) = withDefault(value, multiplier)
+
+    internal fun directVarargs(vararg values: String) = varargs(*values)
+
+    internal suspend fun directSuspending(value: Int) = suspending(value)
+}
+
+/**
+ * Class inheriting the members of [HierarchyRoot].
+ *
+ * The Kotlin runtime only searches the private members in the class of the instance and its direct superclasses,
+ * a deeper hierarchy would not be supported.
+ *
+ * @author Eric Jessé
+ */
+class HierarchyLeaf : HierarchyRoot() {
+
+    @Suppress("unused")
+    private var leafProperty: Long = 0
+
+    @Suppress("unused")
+    private fun leafFunction() = Unit
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks.kotlin
+
+import io.aerisconsulting.catadioptre.benchmarks.startup.ColdStartProbe
+import io.aerisconsulting.catadioptre.coInvokeInvisible
+import io.aerisconsulting.catadioptre.getProperty
+import io.aerisconsulting.catadioptre.invokeInvisible
+import io.aerisconsulting.catadioptre.setProperty
+import io.aerisconsulting.catadioptre.test.InternalType
+import io.aerisconsulting.catadioptre.test.catadioptre.multiplySum
+import kotlinx.coroutines.runBlocking
+
+/**
+ * Probe of the cold start of the Kotlin runtime and of the generated proxies.
+ *
+ * @author Eric Jessé
+ */
+object KotlinColdStartProbe {
+
+    @JvmStatic
+    fun main(args: Array<String>) {
+        val entryPoint = args[0]
+        ColdStartProbe.measure(entryPoint) { call(entryPoint) }
+    }
+
+    private fun call(entryPoint: String): Any? {
+        return when (entryPoint) {
+            "baseline" -> HierarchyRoot().directGetReference()
+            "getProperty" -> HierarchyRoot().getProperty<String?>("referenceProperty")
+            "setProperty" -> HierarchyRoot().setProperty("referenceProperty", "other")
+            "invokeInvisible" -> HierarchyRoot().invokeInvisible<Double>("primitive3", 12, 34L, 5.6)
+            "coInvokeInvisible" -> runBlocking { HierarchyRoot().coInvokeInvisible<Int>("suspending", 12) }
+            "generatedProxy" -> InternalType().multiplySum(2.0, 1.0, 3.0, 6.0)
+            else -> throw IllegalArgumentException("Unknown entry point $entryPoint")
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks.kotlin
+
+import io.aerisconsulting.catadioptre.clearProperty
+import io.aerisconsulting.catadioptre.getProperty
+import io.aerisconsulting.catadioptre.setProperty
+import io.aerisconsulting.catadioptre.withProperty
+import org.openjdk.jmh.annotations.Benchmark
+import org.openjdk.jmh.annotations.BenchmarkMode
+import org.openjdk.jmh.annotations.Fork
+import org.openjdk.jmh.annotations.Measurement
+import org.openjdk.jmh.annotations.Mode
+import org.openjdk.jmh.annotations.OutputTimeUnit
+import org.openjdk.jmh.annotations.Param
+import org.openjdk.jmh.annotations.Scope
+import org.openjdk.jmh.annotations.Setup
+import org.openjdk.jmh.annotations.State
+import org.openjdk.jmh.annotations.Warmup
+import java.util.concurrent.TimeUnit
+
+/**
+ * Benchmarks of the functions of `ReflectionPropertyUtils`, compared with a direct access to the properties.
+ *
+ * @author Eric Jessé
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+open class PropertyAccessBenchmark {
+
+    /**
+     * Shallow: the properties are declared by the class of the instance, deep: they are declared by its superclass.
+     */
+    @Param("shallow", "deep")
+    lateinit var hierarchy: String
+
+    private lateinit var target: HierarchyRoot
+
+    private var primitiveValue = 456
+
+    private var referenceValue = "other"
+
+    @Setup
+    fun setUp() {
+        target = if (hierarchy == "deep") HierarchyLeaf() else HierarchyRoot()
+    }
+
+    @Benchmark
+    fun getPrimitive(): Int = target getProperty "primitiveProperty"
+
+    @Benchmark
+    fun getPrimitiveDirect(): Int = target.directGetPrimitive()
+
+    @Benchmark
+    fun getReference(): String? = target getProperty "referenceProperty"
+
+    @Benchmark
+    fun getReferenceDirect(): String? = target.directGetReference()
+
+    @Benchmark
+    fun setPrimitive(): HierarchyRoot = target.setProperty("primitiveProperty", primitiveValue)
+
+    @Benchmark
+    fun setPrimitiveDirect(): HierarchyRoot = target.apply { directSetPrimitive(primitiveValue) }
+
+    @Benchmark
+    fun setReference(): HierarchyRoot = target.setProperty("referenceProperty", referenceValue)
+
+    @Benchmark
+    fun setReferenceBeing(): HierarchyRoot = target.apply { this withProperty "referenceProperty" being referenceValue }
+
+    @Benchmark
+    fun setReferenceDirect(): HierarchyRoot = target.apply { directSetReference(referenceValue) }
+
+    @Benchmark
+    fun clearReference(): HierarchyRoot = target clearProperty "referenceProperty"
+
+    @Benchmark
+    fun clearReferenceDirect(): HierarchyRoot = target.apply { directSetReference(null) }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks.startup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Launches fresh JVMs running a probe, to measure the time and the class loading until the first successful call of
+ * each entry point of Catadioptre.
+ * <p>
+ * Usage: {@code ColdStartLauncher probe=my.Probe entryPoints=baseline,getField launches=10 output=cold-start.json}
+ * <p>
+ * The JVMs are started with the classpath of the launcher and the entry points are run in turn for each launch, so
+ * that a drift of the machine affects all of them alike. The entry point {@code baseline} of the probes calls
+ * no Catadioptre code and measures the cost of the JVM and of the probe itself.
+ *
+ * @author Eric Jessé
+ */
+public final class ColdStartLauncher {
+
+	/**
+	 * This class only contains static methods.
+	 */
+	private ColdStartLauncher() {
+	}
+
+	public static void main(final String[] args) throws Exception {
+		final Map<String, String> options = new HashMap<>();
+		for (final String arg : args) {
+			final int separator = arg.indexOf('=');
+			if (separator > 0) {
+				options.put(arg.substring(0, separator).trim(), arg.substring(separator + 1).trim());
+			}
+		}
+		final String probe = options.get("probe");
+		if (probe == null || !options.containsKey("entryPoints")) {
+			throw new IllegalArgumentException("The arguments probe and entryPoints are mandatory");
+		}
+		final List<String> entryPoints = Arrays.stream(options.get("entryPoints").split(","))
+				.map(String::trim)
+				.filter(s -> !s.isEmpty())
+				.collect(Collectors.toList());
+		final int launches = Integer.parseInt(options.getOrDefault("launches", "10"));
+
+		final Map<String, List<long[]>> measurements = new LinkedHashMap<>();
+		for (int launch = 1; launch <= launches; launch++) {
+			for (final String entryPoint : entryPoints) {
+				measurements.computeIfAbsent(entryPoint, e -> new ArrayList<>()).add(launch(probe, entryPoint));
+			}
+			System.out.println("Launch " + launch + "/" + launches + " completed");
+		}
+
+		System.out.println();
+		System.out.println(String.format(Locale.ROOT, "%-25s %22s %16s %22s %20s", "Entry point",
+				"Time to first call (ms)", "First call (ms)", "Classes loaded by call", "Total loaded classes"));
+		final StringBuilder json = new StringBuilder("{\n  \"probe\": \"").append(probe)
+				.append("\",\n  \"launches\": ").append(launches).append(",\n  \"entryPoints\": [");
+		boolean first = true;
+		for (final Map.Entry<String, List<long[]>> entry : measurements.entrySet()) {
+			final long timeToFirstCall = median(entry.getValue(), 0);
+			final long callNanos = median(entry.getValue(), 1);
+			final long classesLoadedByCall = median(entry.getValue(), 2);
+			final long totalLoadedClasses = median(entry.getValue(), 3);
+			System.out.println(String.format(Locale.ROOT, "%-25s %22d %16.2f %22d %20d", entry.getKey(),
+					timeToFirstCall, callNanos / 1_000_000.0, classesLoadedByCall, totalLoadedClasses));
+			json.append(first ? "\n" : ",\n")
+					.append("    { \"entryPoint\": \"").append(entry.getKey())
+					.append("\", \"timeToFirstCallMillis\": ").append(timeToFirstCall)
+					.append(", \"firstCallNanos\": ").append(callNanos)
+					.append(", \"classesLoadedByCall\": ").append(classesLoadedByCall)
+					.append(", \"totalLoadedClasses\": ").append(totalLoadedClasses)
+					.append(" }");
+			first = false;
+		}
+		json.append("\n  ]\n}\n");
+
+		final String output = options.get("output");
+		if (output != null) {
+			final File outputFile = new File(output);
+			if (outputFile.getParentFile() != null) {
+				Files.createDirectories(outputFile.getParentFile().toPath());
+			}
+			Files.write(outputFile.toPath(), json.toString().getBytes(StandardCharsets.UTF_8));
+			System.out.println();
+			System.out.println("The results were written to " + outputFile.getAbsolutePath());
+		}
+	}
+
+	/**
+	 * Runs the probe in a new JVM and returns the time to the first call in milliseconds, the duration of the call in
+	 * nanoseconds, the number of classes loaded by the call and the total number of loaded classes.
+	 */
+	private static long[] launch(final String probe, final String entryPoint)
+			throws IOException, InterruptedException {
+		final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		final Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), probe,
+				entryPoint)
+				.redirectErrorStream(true)
+				.start();
+		final List<String> lines;
+		try (BufferedReader reader = new BufferedReader(
+				new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+			lines = reader.lines().collect(Collectors.toList());
+		}
+		final int exitCode = process.waitFor();
+		final String result = lines.stream()
+				.filter(line -> line.startsWith(ColdStartProbe.PREFIX + " " + entryPoint + " "))
+				.findFirst()
+				.orElse(null);
+		if (exitCode != 0 || result == null) {
+			throw new IllegalStateException("The probe failed for the entry point " + entryPoint + " with the exit code "
+					+ exitCode + ":\n" + String.join("\n", lines));
+		}
+		final String[] values = result.split(" ");
+		return new long[]{Long.parseLong(values[2]), Long.parseLong(values[3]), Long.parseLong(values[4]),
+				Long.parseLong(values[5])};
+	}
+
+	private static long median(final List<long[]> measurements, final int index) {
+		final long[] values = measurements.stream().mapToLong(m -> m[index]).sorted().toArray();
+		return values[values.length / 2];
+	}
+}
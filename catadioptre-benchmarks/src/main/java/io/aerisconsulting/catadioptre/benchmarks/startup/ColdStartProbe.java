@@ -0,0 +1,67 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks.startup;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.util.concurrent.Callable;
+
+/**
+ * Measures the first call of an entry point in the current JVM and prints the result for the
+ * {@link ColdStartLauncher}.
+ * <p>
+ * The probes are the main classes started by the launcher, with the name of the entry point to call as single
+ * argument.
+ *
+ * @author Eric Jessé
+ */
+public final class ColdStartProbe {
+
+	static final String PREFIX = "[cold-start]";
+
+	/**
+	 * This class only contains static methods.
+	 */
+	private ColdStartProbe() {
+	}
+
+	/**
+	 * Executes {@code call} and prints the time since the start of the JVM, the duration of the call, the number of
+	 * classes loaded by the call and the total number of loaded classes.
+	 * <p>
+	 * The lambda infrastructure and the management beans are already initialized before the call, as they would
+	 * be by the test framework in an actual test JVM.
+	 *
+	 * @param entryPoint the name of the entry point, as printed in the report
+	 * @param call the first call of the entry point
+	 */
+	public static void measure(final String entryPoint, final Callable<?> call) throws Exception {
+		final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+		final RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+
+		final long loadedClassesBefore = classLoading.getTotalLoadedClassCount();
+		final long start = System.nanoTime();
+		if (call.call() == null) {
+			throw new IllegalStateException("The entry point " + entryPoint + " returned no value");
+		}
+		final long callNanos = System.nanoTime() - start;
+		final long uptimeMillis = runtime.getUptime();
+		final long loadedClasses = classLoading.getTotalLoadedClassCount();
+
+		System.out.println(PREFIX + " " + entryPoint + " " + uptimeMillis + " " + callNanos + " "
+				+ (loadedClasses - loadedClassesBefore) + " " + loadedClasses);
+	}
+}
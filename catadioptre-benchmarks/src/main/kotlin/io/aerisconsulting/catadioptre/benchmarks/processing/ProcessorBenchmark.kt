@@ -0,0 +1,247 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks.processing
+
+import com.tschuchort.compiletesting.KotlinCompilation
+import io.aerisconsulting.catadioptre.java.JavaTestableProcessor
+import org.jetbrains.kotlin.compiler.plugin.ExperimentalCompilerApi
+import java.io.File
+import java.io.OutputStream
+import java.lang.management.ManagementFactory
+import java.util.Locale
+import javax.annotation.processing.Processor
+import javax.tools.ToolProvider
+
+/**
+ * Harness to measure the cost of the annotation processors when compiling synthetic sources in-process.
+ *
+ * The Java sources are compiled with [javax.tools.JavaCompiler] and [JavaTestableProcessor], the Kotlin sources
+ * with kapt and `KotlinTestableProcessor`. KSP is not supported by the processors yet.
+ *
+ * Each compilation is measured for its wall time, the bytes allocated by the compiling thread and the size of
+ * the generated proxies. The same sources are also compiled without processor, to isolate the cost of the
+ * processing from the one of the compilation.
+ *
+ * @author Eric Jessé
+ */
+@OptIn(ExperimentalCompilerApi::class)
+internal class ProcessorBenchmark(
+    private val shape: SourceShape,
+    private val workingDir: File
+) {
+
+    private val threadMXBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+
+    private val javaSources: List<File> by lazy {
+        SyntheticSources.writeJavaSources(shape, File(workingDir, "sources/java"))
+    }
+
+    private val kotlinSources: List<File> by lazy {
+        SyntheticSources.writeKotlinSources(shape, File(workingDir, "sources/kotlin"))
+    }
+
+    private var compilationCount = 0
+
+    /**
+     * Compiles the Java sources once and returns the measurement.
+     *
+     * @param withProcessor when set to false, the sources are compiled without any annotation processing
+     */
+    fun compileJava(withProcessor: Boolean): Measurement {
+        val outputDir = nextOutputDir("java")
+        val sourceOutput = File(outputDir, "generated/java").apply { mkdirs() }
+        val classOutput = File(outputDir, "classes").apply { mkdirs() }
+        val compiler = ToolProvider.getSystemJavaCompiler()
+
+        return measure("java", withProcessor, File(outputDir, "generated/catadioptre")) {
+            compiler.getStandardFileManager(null, null, null).use { fileManager ->
+                val options = listOfNotNull(
+                    "-proc:none".takeUnless { withProcessor },
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-s", sourceOutput.absolutePath,
+                    "-d", classOutput.absolutePath
+                )
+                val task = compiler.getTask(
+                    null, fileManager, null, options, null,
+                    fileManager.getJavaFileObjectsFromFiles(javaSources)
+                )
+                if (withProcessor) {
+                    task.setProcessors(listOf(JavaTestableProcessor()))
+                }
+                check(task.call()) { "The compilation of the Java sources failed" }
+            }
+        }
+    }
+
+    /**
+     * Compiles the Kotlin sources once and returns the measurement.
+     *
+     * @param withProcessor when set to false, the sources are compiled without kapt
+     */
+    fun compileKotlin(withProcessor: Boolean): Measurement {
+        val compilation = KotlinCompilation().apply {
+            workingDir = nextOutputDir("kotlin")
+            sources = kotlinSources.map(com.tschuchort.compiletesting.SourceFile::fromPath)
+            annotationProcessors = if (withProcessor) listOf(createKotlinProcessor()) else emptyList()
+            inheritClassPath = true
+            messageOutputStream = OutputStream.nullOutputStream()
+        }
+        // The processor writes the proxies in a sibling folder of the Kotlin sources generated by kapt.
+        val generatedDir = File(compilation.kaptKotlinGeneratedDir.parentFile, "catadioptre")
+
+        return measure("kotlin", withProcessor, generatedDir) {
+            val result = compilation.compile()
+            check(result.exitCode == KotlinCompilation.ExitCode.OK) {
+                "The compilation of the Kotlin sources failed: ${result.messages}"
+            }
+        }
+    }
+
+    private fun nextOutputDir(language: String) = File(workingDir, "compilations/$language-${compilationCount++}")
+
+    private inline fun measure(
+        language: String,
+        withProcessor: Boolean,
+        generatedDir: File,
+        compilation: () -> Unit
+    ): Measurement {
+        val threadId = Thread.currentThread().id
+        val allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId)
+        val start = System.nanoTime()
+        compilation()
+        val wallTimeNanos = System.nanoTime() - start
+        val allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore
+
+        val generatedFiles = generatedDir.walkTopDown().filter { it.isFile }.toList()
+        return Measurement(
+            language = language,
+            withProcessor = withProcessor,
+            wallTimeNanos = wallTimeNanos,
+            allocatedBytes = allocatedBytes,
+            generatedFiles = generatedFiles.size,
+            generatedBytes = generatedFiles.sumOf { it.length() }
+        )
+    }
+
+    /**
+     * The Kotlin processor is internal to the annotations module and has to be created by reflection.
+     */
+    private fun createKotlinProcessor(): Processor {
+        return Class.forName("io.aerisconsulting.catadioptre.kotlin.KotlinTestableProcessor")
+            .getDeclaredConstructor()
+            .apply { isAccessible = true }
+            .newInstance() as Processor
+    }
+
+    /**
+     * Result of a single compilation.
+     */
+    data class Measurement(
+        val language: String,
+        val withProcessor: Boolean,
+        val wallTimeNanos: Long,
+        val allocatedBytes: Long,
+        val generatedFiles: Int,
+        val generatedBytes: Long
+    ) {
+
+        fun toJson(): String {
+            return """{ "language": "$language", "withProcessor": $withProcessor, "wallTimeNanos": $wallTimeNanos, """ +
+                    """"allocatedBytes": $allocatedBytes, "generatedFiles": $generatedFiles, "generatedBytes": $generatedBytes }"""
+        }
+
+        override fun toString(): String {
+            return String.format(
+                Locale.ROOT, "%-6s %-15s %10.1f ms %12.1f MB %6d files %10d bytes",
+                language,
+                if (withProcessor) "with processor" else "without",
+                wallTimeNanos / 1_000_000.0,
+                allocatedBytes / (1024.0 * 1024.0),
+                generatedFiles,
+                generatedBytes
+            )
+        }
+    }
+
+    companion object {
+
+        /**
+         * Runs the benchmark with arguments such as `classes=100 members=20 genericDepth=2 suspendFunctions=false
+         * companionObjects=false languages=java,kotlin warmups=3 iterations=5 output=build/report.json`.
+         */
+        @JvmStatic
+        fun main(args: Array<String>) {
+            val options = args.filter { it.contains('=') }
+                .associate { it.substringBefore('=').trim() to it.substringAfter('=').trim() }
+            val defaultShape = SourceShape()
+            val shape = SourceShape(
+                classes = options["classes"]?.toInt() ?: defaultShape.classes,
+                members = options["members"]?.toInt() ?: defaultShape.members,
+                genericDepth = options["genericDepth"]?.toInt() ?: defaultShape.genericDepth,
+                suspendFunctions = options["suspendFunctions"]?.toBoolean() ?: defaultShape.suspendFunctions,
+                companionObjects = options["companionObjects"]?.toBoolean() ?: defaultShape.companionObjects
+            )
+            val languages = (options["languages"] ?: "java,kotlin").split(',').map { it.trim().lowercase() }
+            val warmups = options["warmups"]?.toInt() ?: 2
+            val iterations = options["iterations"]?.toInt() ?: 5
+            val workingDir = options["workingDir"]?.let(::File)
+                ?: kotlin.io.path.createTempDirectory("catadioptre-processor-benchmark").toFile()
+
+            println("Processing synthetic sources: $shape")
+            val benchmark = ProcessorBenchmark(shape, workingDir)
+            val measurements = languages.flatMap { language ->
+                listOf(true, false).flatMap { withProcessor ->
+                    val compile = when (language) {
+                        "java" -> { -> benchmark.compileJava(withProcessor) }
+                        "kotlin" -> { -> benchmark.compileKotlin(withProcessor) }
+                        else -> throw IllegalArgumentException("Unsupported language $language")
+                    }
+                    repeat(warmups) { compile() }
+                    (1..iterations).map { compile().also(::println) }
+                }
+            }
+
+            println()
+            measurements.groupBy { it.language to it.withProcessor }.forEach { (key, values) ->
+                val (language, withProcessor) = key
+                println(
+                    String.format(
+                        Locale.ROOT, "%-6s %-15s median %10.1f ms %12.1f MB",
+                        language, if (withProcessor) "with processor" else "without",
+                        values.map { it.wallTimeNanos }.sorted()[values.size / 2] / 1_000_000.0,
+                        values.map { it.allocatedBytes }.sorted()[values.size / 2] / (1024.0 * 1024.0)
+                    )
+                )
+            }
+
+            options["output"]?.let(::File)?.apply {
+                parentFile?.mkdirs()
+                writeText(
+                    """{
+                    |  "shape": { "classes": ${shape.classes}, "members": ${shape.members}, "genericDepth": ${shape.genericDepth}, "suspendFunctions": ${shape.suspendFunctions}, "companionObjects": ${shape.companionObjects} },
+                    |  "measurements": [
+                    |${measurements.joinToString(",\n") { "    " + it.toJson() }}
+                    |  ]
+                    |}
+                    |""".trimMargin()
+                )
+                println("\nThe results were written to $absolutePath")
+            }
+            if (options["workingDir"] == null) {
+                workingDir.deleteRecursively()
+            }
+        }
+    }
+}
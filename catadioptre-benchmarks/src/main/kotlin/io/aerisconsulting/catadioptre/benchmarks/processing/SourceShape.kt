@@ -0,0 +1,47 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks.processing
+
+/**
+ * Shape of the synthetic sources to process.
+ *
+ * @property classes number of generated classes
+ * @property members number of annotated members in each class, alternating properties and functions
+ * @property genericDepth depth of the nested generic types used by the annotated members, 0 for plain types
+ * @property suspendFunctions when set to true, half of the Kotlin functions are suspend functions
+ * @property companionObjects when set to true, each Kotlin class has a companion object with an annotated
+ * function, and half of the Java members are static
+ *
+ * @author Eric Jessé
+ */
+internal data class SourceShape(
+    val classes: Int = 50,
+    val members: Int = 10,
+    val genericDepth: Int = 1,
+    val suspendFunctions: Boolean = true,
+    val companionObjects: Boolean = true
+) {
+
+    init {
+        require(classes > 0) { "The number of classes should be strictly positive" }
+        require(members > 0) { "The number of members should be strictly positive" }
+        require(genericDepth >= 0) { "The generic depth should be positive or zero" }
+    }
+
+    override fun toString(): String {
+        return "$classes classes x $members members, generic depth $genericDepth, " +
+                "suspend functions: $suspendFunctions, companion objects: $companionObjects"
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.benchmarks.processing
+
+import java.io.File
+
+/**
+ * Generator of synthetic sources annotated with [io.aerisconsulting.catadioptre.Testable] and
+ * [io.aerisconsulting.catadioptre.KTestable], following a [SourceShape].
+ *
+ * @author Eric Jessé
+ */
+internal object SyntheticSources {
+
+    const val PACKAGE_NAME = "benchmark.synthetic"
+
+    /**
+     * Writes the Java sources of the [shape] into [directory] and returns the created files.
+     */
+    fun writeJavaSources(shape: SourceShape, directory: File): List<File> {
+        val packageDir = File(directory, PACKAGE_NAME.replace('.', File.separatorChar)).apply { mkdirs() }
+        return (0 until shape.classes).map { index ->
+            val className = "SyntheticType$index"
+            File(packageDir, "$className.java").apply { writeText(javaClass(shape, className)) }
+        }
+    }
+
+    /**
+     * Writes the Kotlin sources of the [shape] into [directory] and returns the created files.
+     */
+    fun writeKotlinSources(shape: SourceShape, directory: File): List<File> {
+        val packageDir = File(directory, PACKAGE_NAME.replace('.', File.separatorChar)).apply { mkdirs() }
+        return (0 until shape.classes).map { index ->
+            val className = "SyntheticType$index"
+            File(packageDir, "$className.kt").apply { writeText(kotlinClass(shape, className)) }
+        }
+    }
+
+    private fun javaClass(shape: SourceShape, className: String): String {
+        val type = nestedType("List", "String", shape.genericDepth)
+        val members = (0 until shape.members).joinToString("\n") { index ->
+            val modifiers = if (shape.companionObjects && index % 4 >= 2) "private static" else "private"
+            if (index % 2 == 0) {
+                """
+                |	@Testable
+                |	$modifiers $type field$index;
+                |""".trimMargin()
+            } else {
+                """
+                |	@Testable
+                |	$modifiers $type method$index(final $type value, final int count, final String... others) {
+                |		return value;
+                |	}
+                |""".trimMargin()
+            }
+        }
+        return """
+            |package $PACKAGE_NAME;
+            |
+            |import io.aerisconsulting.catadioptre.Testable;
+            |import java.util.List;
+            |
+            |public class $className {
+            |
+            |$members
+            |}
+            |""".trimMargin()
+    }
+
+    private fun kotlinClass(shape: SourceShape, className: String): String {
+        val type = nestedType("List", "String", shape.genericDepth)
+        val members = (0 until shape.members).joinToString("\n") { index ->
+            if (index % 2 == 0) {
+                """
+                |    @KTestable
+                |    private var property$index: $type? = null
+                |""".trimMargin()
+            } else {
+                val modifiers = if (shape.suspendFunctions && index % 4 == 3) "private suspend" else "private"
+                """
+                |    @KTestable
+                |    $modifiers fun function$index(value: $type, count: Int = 1, vararg others: String?): $type {
+                |        return value
+                |    }
+                |""".trimMargin()
+            }
+        }
+        val companion = if (shape.companionObjects) {
+            """
+            |
+            |    companion object {
+            |
+            |        @KTestable
+            |        private fun companionFunction(value: $type): $type {
+            |            return value
+            |        }
+            |    }
+            |""".trimMargin()
+        } else {
+            ""
+        }
+        return """
+            |package $PACKAGE_NAME
+            |
+            |import io.aerisconsulting.catadioptre.KTestable
+            |
+            |class $className {
+            |
+            |$members$companion
+            |}
+            |""".trimMargin()
+    }
+
+    /**
+     * Creates a type where [container] is nested [depth] times around [leaf], such as `List<List<String>>`.
+     */
+    private fun nestedType(container: String, leaf: String, depth: Int): String {
+        return (0 until depth).fold(leaf) { type, _ -> "$container<$type>" }
+    }
+}
@@ -1,5 +1,6 @@
 plugins {
     java
+    `java-test-fixtures`
 }
 
 description = "Reflection utils to use your private and protected methods and fields in Java tests"
@@ -7,7 +8,14 @@ description = "Reflection utils to use your private and protected methods and fi
 val junitVersion: String by project
 
 dependencies {
+    testFixturesImplementation("org.junit.jupiter:junit-jupiter-api:$junitVersion")
+
     testImplementation("org.mockito:mockito-core:3.+")
     testImplementation("org.junit.jupiter:junit-jupiter:$junitVersion")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
+
+// The test fixtures are shared with the tests of the other modules, but not published.
+val javaComponent = components["java"] as AdhocComponentWithVariants
+javaComponent.withVariantsFromConfiguration(configurations["testFixturesApiElements"]) { skip() }
+javaComponent.withVariantsFromConfiguration(configurations["testFixturesRuntimeElements"]) { skip() }
@@ -0,0 +1,711 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accessors of the members, calling the method handles unreflected with the private lookup of their declaring classes,
+ * so that the members do not have to be made accessible to the core reflection.
+ * <p>
+ * The opt-in engine binds the method handles to each member, once the member was accessed more often than a threshold,
+ * similarly to the inflation of the core reflection of the JDK. It is enabled with the system property
+ * {@code catadioptre.accessors.spinning} and the threshold configured with
+ * {@code catadioptre.accessors.spinning.threshold} (15 by default).
+ * <p>
+ * When the classes were rewritten by the agent of Catadioptre, the method handles are bound to the public static
+ * bridges that it added, as of the first access and whether the engine is enabled or not.
+ * <p>
+ * On the JVMs supporting the hidden classes, each method handle is held by a static final field of a hidden class
+ * defined for its member, so that the JIT compiler inlines it as a constant into the accessor.
+ *
+ * @author Eric Jessé
+ */
+final class AccessorSpinning {
+
+	/**
+	 * System property to enable the engine.
+	 */
+	static final String ENABLED_PROPERTY = "catadioptre.accessors.spinning";
+
+	/**
+	 * System property to configure the number of accesses to a member before its accessor is spun.
+	 */
+	static final String THRESHOLD_PROPERTY = "catadioptre.accessors.spinning.threshold";
+
+	/**
+	 * System property set by the agent of Catadioptre when it adds the bridges to the classes.
+	 */
+	static final String BRIDGES_PROPERTY = "catadioptre.agent.bridges";
+
+	/**
+	 * Engine configured by the system properties.
+	 */
+	static final AccessorSpinning CONFIGURED = new AccessorSpinning(Boolean.getBoolean(ENABLED_PROPERTY),
+			Integer.getInteger(THRESHOLD_PROPERTY, 15), Boolean.getBoolean(BRIDGES_PROPERTY));
+
+	/**
+	 * Names of the marker and of the bridges added by the agent.
+	 */
+	static final String BRIDGE_MARKER = "catadioptre$bridged";
+
+	static final String GETTER_BRIDGE_PREFIX = "catadioptre$get$";
+
+	static final String SETTER_BRIDGE_PREFIX = "catadioptre$set$";
+
+	static final String INVOKER_BRIDGE_PREFIX = "catadioptre$invoke$";
+
+	private static final ClassValue<Boolean> BRIDGED_TYPES = new ClassValue<>() {
+		@Override
+		protected Boolean computeValue(final Class<?> type) {
+			try {
+				type.getDeclaredField(BRIDGE_MARKER);
+				return true;
+			} catch (NoSuchFieldException e) {
+				return false;
+			}
+		}
+	};
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+	private static final Object[] NO_ARGUMENTS = new Object[0];
+
+	/**
+	 * Internal name of the classes holding the bound method handles, suffixed by the JVM for each hidden class.
+	 */
+	private static final String BOUND_ACCESSOR_NAME = "io/aerisconsulting/catadioptre/AccessorSpinning$BoundAccessor";
+
+	/**
+	 * {@code Lookup.defineHiddenClass(byte[], boolean, ClassOption...)}, or null before Java 15.
+	 */
+	private static final MethodHandle DEFINE_HIDDEN_CLASS = defineHiddenClassHandle();
+
+	/**
+	 * Method handle passed to the static initializer of the hidden class being defined.
+	 */
+	private static final ThreadLocal<MethodHandle> BOUND_HANDLES = new ThreadLocal<>();
+
+	/**
+	 * Primitive types in the order of their widening conversions, {@code char} being widened to {@code int} and
+	 * beyond.
+	 */
+	private static final List<Class<?>> WIDENING_RANKS = Arrays.asList(byte.class, short.class, int.class, long.class,
+			float.class, double.class);
+
+	private static final Map<Class<?>, Class<?>> PRIMITIVE_TYPES = Map.of(Byte.class, byte.class, Short.class,
+			short.class, Integer.class, int.class, Long.class, long.class, Float.class, float.class, Double.class,
+			double.class);
+
+	private final boolean enabled;
+
+	private final int threshold;
+
+	private final boolean bridges;
+
+	/**
+	 * Accesses counted and accessors spun for each member, attached to their declaring class.
+	 */
+	private final LookupCache<Member, Inflation> inflations = new LookupCache<>();
+
+	AccessorSpinning(final boolean enabled, final int threshold) {
+		this(enabled, threshold, false);
+	}
+
+	AccessorSpinning(final boolean enabled, final int threshold, final boolean bridges) {
+		this.enabled = enabled;
+		this.threshold = threshold;
+		this.bridges = bridges;
+	}
+
+	/**
+	 * Reads the value of {@code field} on {@code instance}.
+	 */
+	Object get(final Field field, final Object instance) throws IllegalAccessException {
+		return get(field, inflationOf(field), instance);
+	}
+
+	/**
+	 * Reads the value of {@code field} on {@code instance}, counting the access in {@code inflation}, as returned by
+	 * {@link #inflationOf(Member)}.
+	 */
+	Object get(final Field field, final Inflation inflation, final Object instance) throws IllegalAccessException {
+		final Accessor getter = accessor(inflation, field, Kind.GETTER);
+		verifyInstance(field, instance);
+		try {
+			return getter.get(instance);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new CatadioptreException(t);
+		}
+	}
+
+	/**
+	 * Writes {@code value} into {@code field} on {@code instance}.
+	 */
+	void set(final Field field, final Object instance, final Object value) throws IllegalAccessException {
+		set(field, inflationOf(field), instance, value);
+	}
+
+	/**
+	 * Writes {@code value} into {@code field} on {@code instance}, counting the access in {@code inflation}.
+	 */
+	void set(final Field field, final Inflation inflation, final Object instance, final Object value)
+			throws IllegalAccessException {
+		final Accessor setter = accessor(inflation, field, Kind.SETTER);
+		verifyInstance(field, instance);
+		if (!isConvertible(value, field.getType())) {
+			throw new IllegalArgumentException("The value cannot be converted to " + field.getType().getName());
+		}
+		try {
+			setter.set(instance, value);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new CatadioptreException(t);
+		}
+	}
+
+	/**
+	 * Invokes {@code method} on {@code instance}, wrapping the exceptions of the method as
+	 * {@link Method#invoke(Object, Object...)} does.
+	 */
+	Object invoke(final Method method, final Object instance, final Object[] arguments)
+			throws IllegalAccessException, InvocationTargetException {
+		return invoke(method, inflationOf(method), instance, arguments);
+	}
+
+	/**
+	 * Invokes {@code method} on {@code instance}, counting the call in {@code inflation}.
+	 */
+	Object invoke(final Method method, final Inflation inflation, final Object instance, final Object[] arguments)
+			throws IllegalAccessException, InvocationTargetException {
+		final Accessor invoker = accessor(inflation, method, Kind.INVOKER);
+		final Object[] values = arguments != null ? arguments : NO_ARGUMENTS;
+		verifyInstance(method, instance);
+		verifyArguments(method, inflation, values);
+		try {
+			return invoker.invoke(instance, values);
+		} catch (Throwable t) {
+			// The instance and arguments were verified, so that the failure comes from the method.
+			throw new InvocationTargetException(t);
+		}
+	}
+
+	/**
+	 * Verifies that {@code instance} can be passed to {@code member}, failing as the core reflection does.
+	 */
+	private static void verifyInstance(final Member member, final Object instance) {
+		if (!Modifier.isStatic(member.getModifiers()) && !member.getDeclaringClass().isInstance(instance)) {
+			if (instance == null) {
+				throw new NullPointerException("The member " + member.getName() + " requires an instance");
+			}
+			throw new IllegalArgumentException("The member " + member.getName() + " requires an instance of "
+					+ member.getDeclaringClass().getName());
+		}
+	}
+
+	/**
+	 * Verifies that {@code arguments} can be passed to {@code method}, failing as
+	 * {@link Method#invoke(Object, Object...)} does, so that the adaptations of the method handle cannot fail.
+	 */
+	private static void verifyArguments(final Method method, final Inflation inflation, final Object[] arguments) {
+		final Class<?>[] parameterTypes = inflation.parameterTypes;
+		if (arguments.length != parameterTypes.length) {
+			throw new IllegalArgumentException("The method " + method.getName() + " requires "
+					+ parameterTypes.length + " arguments, but " + arguments.length + " were passed");
+		}
+		for (int i = 0; i < arguments.length; i++) {
+			// The arguments of the exact types of the parameters, boxed, are the most frequent.
+			if (arguments[i] != null && arguments[i].getClass() == inflation.argumentTypes[i]) {
+				continue;
+			}
+			if (!isConvertible(arguments[i], parameterTypes[i])) {
+				throw new IllegalArgumentException("The argument " + i + " of the method " + method.getName()
+						+ " cannot be converted to " + parameterTypes[i].getName());
+			}
+		}
+	}
+
+	/**
+	 * Verifies whether {@code value} can be assigned to the type, with the unboxing and widening conversions of the
+	 * core reflection.
+	 */
+	private static boolean isConvertible(final Object value, final Class<?> type) {
+		if (!type.isPrimitive()) {
+			return value == null || type.isInstance(value);
+		}
+		if (value == null) {
+			return false;
+		}
+		if (type == boolean.class || type == char.class) {
+			return type == boolean.class ? value instanceof Boolean : value instanceof Character;
+		}
+		final int valueRank = value instanceof Character ? WIDENING_RANKS.indexOf(int.class)
+				: WIDENING_RANKS.indexOf(PRIMITIVE_TYPES.getOrDefault(value.getClass(), void.class));
+		return valueRank >= 0 && valueRank <= WIDENING_RANKS.indexOf(type);
+	}
+
+	/**
+	 * Verifies whether the accessor of {@code member} was already spun.
+	 */
+	boolean isInflated(final Member member) {
+		final Inflation inflation = inflations.get(member.getDeclaringClass(), member);
+		return inflation != null && inflation.accessor != null;
+	}
+
+	/**
+	 * Returns the accesses to {@code member} and its accessors.
+	 * <p>
+	 * The accesses are shared by all the callers of the member, which can keep them with the resolved member to spare
+	 * their lookup on each access.
+	 */
+	Inflation inflationOf(final Member member) {
+		Inflation inflation = inflations.get(member.getDeclaringClass(), member);
+		if (inflation == null) {
+			inflation = new Inflation(member, bridges && BRIDGED_TYPES.get(member.getDeclaringClass()));
+			inflations.put(member.getDeclaringClass(), member, inflation);
+		}
+		return inflation;
+	}
+
+	/**
+	 * Returns the spun accessor of the member, or the accessor calling its unreflected method handle until it is spun.
+	 */
+	private Accessor accessor(final Inflation inflation, final Member member, final Kind kind)
+			throws IllegalAccessException {
+		final Accessor spun = inflate(inflation, member, kind);
+		if (spun != null) {
+			return spun;
+		}
+		final boolean setter = kind == Kind.SETTER;
+		Accessor accessor = setter ? inflation.unreflectedSetter : inflation.unreflected;
+		if (accessor == null) {
+			// Concurrent callers might unreflect the same member, the last accessor is kept.
+			accessor = new HandleAccessor(spin(member, kind));
+			if (setter) {
+				inflation.unreflectedSetter = accessor;
+			} else {
+				inflation.unreflected = accessor;
+			}
+		}
+		return accessor;
+	}
+
+	/**
+	 * Counts an access to the member and returns its accessor once the threshold is passed, or null before or when the
+	 * engine is disabled. The accessors of the bridged members are returned as of the first access.
+	 */
+	private Accessor inflate(final Inflation inflation, final Member member, final Kind kind) {
+		final boolean bridged = inflation.bridged;
+		if (!enabled && !bridged) {
+			return null;
+		}
+		final boolean setter = kind == Kind.SETTER;
+		Accessor accessor = setter ? inflation.setter : inflation.accessor;
+		final boolean failed = setter ? inflation.setterFailed : inflation.accessorFailed;
+		if (accessor == null && !failed && (bridged || inflation.calls.incrementAndGet() > threshold)) {
+			try {
+				MethodHandle handle = bridged ? bridge(member, kind) : null;
+				if (handle == null) {
+					handle = spin(member, kind);
+				}
+				accessor = bind(handle, kind);
+			} catch (IllegalAccessException | CatadioptreException e) {
+				// The member remains accessed with the core reflection.
+				if (setter) {
+					inflation.setterFailed = true;
+				} else {
+					inflation.accessorFailed = true;
+				}
+				return null;
+			}
+			if (setter) {
+				inflation.setter = accessor;
+			} else {
+				inflation.accessor = accessor;
+			}
+		}
+		return accessor;
+	}
+
+	/**
+	 * Creates the method handle accessing to {@code member}, adapted to generic types so that it can be called exactly.
+	 * The instance is ignored by the accessors of the static members.
+	 */
+	private static MethodHandle spin(final Member member, final Kind kind) throws IllegalAccessException {
+		final MethodHandles.Lookup lookup = ModuleAccess.lookupFor(member);
+		MethodHandle handle;
+		switch (kind) {
+			case GETTER:
+				handle = lookup.unreflectGetter((Field) member);
+				break;
+			case SETTER:
+				final Field field = (Field) member;
+				// As with the core reflection, the final instance fields are only written when they are accessible.
+				handle = lookup.unreflectSetter(Modifier.isFinal(field.getModifiers()) && !Modifier.isStatic(
+						field.getModifiers()) ? ModuleAccess.makeAccessible(field) : field);
+				break;
+			default:
+				final Method method = (Method) member;
+				// The variable arguments are already passed as an array.
+				handle = lookup.unreflect(method).asFixedArity()
+						.asSpreader(Object[].class, method.getParameterCount());
+		}
+		if (Modifier.isStatic(member.getModifiers())) {
+			handle = MethodHandles.dropArguments(handle, 0, Object.class);
+		}
+		switch (kind) {
+			case GETTER:
+				return handle.asType(GETTER_TYPE);
+			case SETTER:
+				return handle.asType(SETTER_TYPE);
+			default:
+				return handle.asType(INVOKER_TYPE);
+		}
+	}
+
+	/**
+	 * Creates the method handle calling the bridge of {@code member} added by the agent, or returns null when there is
+	 * none, such as for the setters of the final fields.
+	 */
+	private static MethodHandle bridge(final Member member, final Kind kind) throws IllegalAccessException {
+		final Class<?> type = member.getDeclaringClass();
+		final Method bridge;
+		try {
+			switch (kind) {
+				case GETTER:
+					bridge = type.getDeclaredMethod(GETTER_BRIDGE_PREFIX + member.getName(), type);
+					break;
+				case SETTER:
+					bridge = type.getDeclaredMethod(SETTER_BRIDGE_PREFIX + member.getName(), type,
+							((Field) member).getType());
+					break;
+				default:
+					final Class<?>[] parameterTypes = ((Method) member).getParameterTypes();
+					final Class<?>[] bridgeParameterTypes = new Class<?>[parameterTypes.length + 1];
+					bridgeParameterTypes[0] = type;
+					System.arraycopy(parameterTypes, 0, bridgeParameterTypes, 1, parameterTypes.length);
+					bridge = type.getDeclaredMethod(INVOKER_BRIDGE_PREFIX + member.getName(), bridgeParameterTypes);
+			}
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+		// The bridges always receive the instance first, which is ignored for the static members.
+		final MethodHandle handle = ModuleAccess.lookupIn(type).unreflect(bridge);
+		switch (kind) {
+			case GETTER:
+				return handle.asType(GETTER_TYPE);
+			case SETTER:
+				return handle.asType(SETTER_TYPE);
+			default:
+				return handle.asSpreader(Object[].class, bridge.getParameterCount() - 1).asType(INVOKER_TYPE);
+		}
+	}
+
+	/**
+	 * Binds {@code handle} as a constant of a hidden class implementing the accessor, or wraps it when the hidden
+	 * classes are not supported.
+	 */
+	private static Accessor bind(final MethodHandle handle, final Kind kind) {
+		if (DEFINE_HIDDEN_CLASS == null) {
+			return new HandleAccessor(handle);
+		}
+		final Object options = Array.newInstance(DEFINE_HIDDEN_CLASS.type().parameterType(3).getComponentType(), 0);
+		BOUND_HANDLES.set(handle);
+		try {
+			// The class is initialized while it is defined, taking the handle from the current thread.
+			final MethodHandles.Lookup lookup = (MethodHandles.Lookup) DEFINE_HIDDEN_CLASS.invoke(
+					MethodHandles.lookup(), boundAccessorClass(kind), true, options);
+			return (Accessor) lookup.findConstructor(lookup.lookupClass(), MethodType.methodType(void.class))
+					.invoke();
+		} catch (Throwable t) {
+			throw new CatadioptreException(t);
+		} finally {
+			BOUND_HANDLES.remove();
+		}
+	}
+
+	/**
+	 * Returns the method handle to hold in the hidden class being initialized, called by its static initializer.
+	 */
+	static MethodHandle boundHandle() {
+		return BOUND_HANDLES.get();
+	}
+
+	private static MethodHandle defineHiddenClassHandle() {
+		try {
+			final Class<?> optionsType = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+			return MethodHandles.publicLookup().findVirtual(MethodHandles.Lookup.class, "defineHiddenClass",
+					MethodType.methodType(MethodHandles.Lookup.class, byte[].class, boolean.class,
+							Array.newInstance(optionsType, 0).getClass())).asFixedArity();
+		} catch (ReflectiveOperationException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Generates a class implementing the method of {@link Accessor} for {@code kind} by calling exactly the method
+	 * handle held in its static final field {@code HANDLE}.
+	 */
+	private static byte[] boundAccessorClass(final Kind kind) {
+		final String methodName;
+		final String descriptor;
+		// return HANDLE.invokeExact(arguments...);
+		final int[] accessorCode;
+		switch (kind) {
+			case GETTER:
+				methodName = "get";
+				descriptor = GETTER_TYPE.toMethodDescriptorString();
+				accessorCode = new int[]{0xB2, 0, 10, 0x2B, 0xB6, 0, 26, 0xB0};
+				break;
+			case SETTER:
+				methodName = "set";
+				descriptor = SETTER_TYPE.toMethodDescriptorString();
+				accessorCode = new int[]{0xB2, 0, 10, 0x2B, 0x2C, 0xB6, 0, 26, 0xB1};
+				break;
+			default:
+				methodName = "invoke";
+				descriptor = INVOKER_TYPE.toMethodDescriptorString();
+				accessorCode = new int[]{0xB2, 0, 10, 0x2B, 0x2C, 0xB6, 0, 26, 0xB0};
+		}
+		final int slots = kind == Kind.GETTER ? 2 : 3;
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(0xCAFEBABE);
+			out.writeShort(0);
+			// Java 11.
+			out.writeShort(55);
+			// Constant pool, with the indexes referenced by the code below.
+			out.writeShort(30);
+			writeUtf8(out, BOUND_ACCESSOR_NAME);
+			writeReference(out, 7, 1);
+			writeUtf8(out, "java/lang/Object");
+			writeReference(out, 7, 3);
+			writeUtf8(out, "io/aerisconsulting/catadioptre/AccessorSpinning$Accessor");
+			writeReference(out, 7, 5);
+			writeUtf8(out, "HANDLE");
+			writeUtf8(out, "Ljava/lang/invoke/MethodHandle;");
+			writeReferences(out, 12, 7, 8);
+			// #10: HANDLE.
+			writeReferences(out, 9, 2, 9);
+			writeUtf8(out, "<init>");
+			writeUtf8(out, "()V");
+			writeReferences(out, 12, 11, 12);
+			// #14: Object.<init>().
+			writeReferences(out, 10, 4, 13);
+			writeUtf8(out, "io/aerisconsulting/catadioptre/AccessorSpinning");
+			writeReference(out, 7, 15);
+			writeUtf8(out, "boundHandle");
+			writeUtf8(out, "()Ljava/lang/invoke/MethodHandle;");
+			writeReferences(out, 12, 17, 18);
+			// #20: AccessorSpinning.boundHandle().
+			writeReferences(out, 10, 16, 19);
+			writeUtf8(out, "java/lang/invoke/MethodHandle");
+			writeReference(out, 7, 21);
+			writeUtf8(out, "invokeExact");
+			writeUtf8(out, descriptor);
+			writeReferences(out, 12, 23, 24);
+			// #26: MethodHandle.invokeExact with the type of the accessor.
+			writeReferences(out, 10, 22, 25);
+			writeUtf8(out, methodName);
+			writeUtf8(out, "<clinit>");
+			writeUtf8(out, "Code");
+			// Final class implementing Accessor.
+			out.writeShort(0x0030);
+			out.writeShort(2);
+			out.writeShort(4);
+			out.writeShort(1);
+			out.writeShort(6);
+			// private static final MethodHandle HANDLE.
+			out.writeShort(1);
+			out.writeShort(0x001A);
+			out.writeShort(7);
+			out.writeShort(8);
+			out.writeShort(0);
+			out.writeShort(3);
+			// public <init>(): super();
+			writeMethod(out, 0x0001, 11, 12, 1, 1, 0x2A, 0xB7, 0, 14, 0xB1);
+			// static <clinit>(): HANDLE = AccessorSpinning.boundHandle();
+			writeMethod(out, 0x0008, 28, 12, 1, 0, 0xB8, 0, 20, 0xB3, 0, 10, 0xB1);
+			// public accessor method.
+			writeMethod(out, 0x0001, 27, 24, slots, slots, accessorCode);
+			out.writeShort(0);
+		} catch (IOException e) {
+			throw new CatadioptreException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void writeUtf8(final DataOutputStream out, final String value) throws IOException {
+		out.writeByte(1);
+		out.writeUTF(value);
+	}
+
+	private static void writeReference(final DataOutputStream out, final int tag, final int index)
+			throws IOException {
+		out.writeByte(tag);
+		out.writeShort(index);
+	}
+
+	private static void writeReferences(final DataOutputStream out, final int tag, final int first,
+			final int second) throws IOException {
+		writeReference(out, tag, first);
+		out.writeShort(second);
+	}
+
+	private static void writeMethod(final DataOutputStream out, final int flags, final int name,
+			final int descriptor, final int maxStack, final int maxLocals, final int... code) throws IOException {
+		out.writeShort(flags);
+		out.writeShort(name);
+		out.writeShort(descriptor);
+		out.writeShort(1);
+		out.writeShort(29);
+		out.writeInt(12 + code.length);
+		out.writeShort(maxStack);
+		out.writeShort(maxLocals);
+		out.writeInt(code.length);
+		for (final int instruction : code) {
+			out.writeByte(instruction);
+		}
+		out.writeShort(0);
+		out.writeShort(0);
+	}
+
+	private enum Kind {
+		GETTER, SETTER, INVOKER
+	}
+
+	/**
+	 * Spun accessor of a member, with the types of the method handles called exactly.
+	 */
+	interface Accessor {
+
+		default Object get(final Object instance) throws Throwable {
+			throw new UnsupportedOperationException();
+		}
+
+		default void set(final Object instance, final Object value) throws Throwable {
+			throw new UnsupportedOperationException();
+		}
+
+		default Object invoke(final Object instance, final Object[] arguments) throws Throwable {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	/**
+	 * Accessor calling a method handle held in a field, before the member is spun or when the hidden classes are not
+	 * supported.
+	 */
+	private static final class HandleAccessor implements Accessor {
+
+		private final MethodHandle handle;
+
+		private HandleAccessor(final MethodHandle handle) {
+			this.handle = handle;
+		}
+
+		@Override
+		public Object get(final Object instance) throws Throwable {
+			return handle.invokeExact(instance);
+		}
+
+		@Override
+		public void set(final Object instance, final Object value) throws Throwable {
+			handle.invokeExact(instance, value);
+		}
+
+		@Override
+		public Object invoke(final Object instance, final Object[] arguments) throws Throwable {
+			return handle.invokeExact(instance, arguments);
+		}
+	}
+
+	/**
+	 * Accesses to a member, the accessors calling its unreflected method handles and the accessors spun once the
+	 * threshold is passed.
+	 */
+	static final class Inflation {
+
+		private final AtomicInteger calls = new AtomicInteger();
+
+		/**
+		 * Whether the accessors call the bridges added by the agent.
+		 */
+		private final boolean bridged;
+
+		/**
+		 * Types of the parameters of a method, to verify the arguments before calling its invoker.
+		 */
+		private final Class<?>[] parameterTypes;
+
+		/**
+		 * Types of the parameters of a method, the primitive ones being boxed.
+		 */
+		private final Class<?>[] argumentTypes;
+
+		/**
+		 * Unreflected getter of a field or invoker of a method, used until the accessor is spun.
+		 */
+		private volatile Accessor unreflected;
+
+		private volatile Accessor unreflectedSetter;
+
+		/**
+		 * Spun getter of a field or invoker of a method.
+		 */
+		private volatile Accessor accessor;
+
+		private volatile Accessor setter;
+
+		/**
+		 * Whether the getter or invoker could not be spun.
+		 */
+		private volatile boolean accessorFailed;
+
+		/**
+		 * Whether the setter could not be spun, such as for a final field.
+		 */
+		private volatile boolean setterFailed;
+
+		private Inflation(final Member member, final boolean bridged) {
+			this.bridged = bridged;
+			this.parameterTypes = member instanceof Method ? ((Method) member).getParameterTypes() : null;
+			this.argumentTypes = parameterTypes != null ? MethodType.methodType(void.class, parameterTypes).wrap()
+					.parameterArray() : null;
+		}
+	}
+}
@@ -33,7 +33,7 @@ public class Argument {
 	}
 
 	public static Argument ofNotNull(final Object value) {
-		return new Argument(value, value.getClass());
+		return new Argument(value, UserClasses.of(value.getClass()));
 	}
 
 	public static Argument ofNull(final Class<?> type) {
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * General operations on the runtime of Catadioptre.
+ *
+ * @author Eric Jessé
+ */
+public final class Catadioptre {
+
+	/**
+	 * This class only contains static methods.
+	 */
+	private Catadioptre() {
+	}
+
+	/**
+	 * Discards all the fields and methods resolved by {@link ReflectionFieldUtils} and {@link ReflectionMethodUtils}.
+	 * <p>
+	 * The caches are released with the class loaders of the classes, this method is only required to reclaim memory in
+	 * a long-lived class loader. The entries of all the classes are discarded eagerly, including the ones of classes
+	 * that are never accessed again.
+	 */
+	public static void clearCaches() {
+		LookupCache.clearAll();
+	}
+
+	/**
+	 * Resolves and makes accessible all the fields and methods declared by {@code types} and their ancestors, in
+	 * parallel on the common {@link java.util.concurrent.ForkJoinPool}, and caches them for {@link ReflectionFieldUtils}
+	 * and {@link ReflectionMethodUtils}.
+	 * <p>
+	 * Calling this method before a phase of parallel tests avoids that all the workers resolve the same members at
+	 * once. The methods are cached for arguments of the exact (boxed) types of their parameters. The members that
+	 * cannot be made accessible are ignored, the errors are reported when they are used.
+	 *
+	 * @param types the classes of the instances that will be accessed
+	 */
+	public static void preload(final Class<?>... types) {
+		final List<Runnable> resolutions = Arrays.stream(types)
+				.parallel()
+				.flatMap(type -> resolutionsOf(type).stream())
+				.collect(Collectors.toList());
+		resolutions.parallelStream().forEach(resolution -> {
+			try {
+				resolution.run();
+			} catch (RuntimeException e) {
+				// The member is resolved again and the error reported when it is used.
+			}
+		});
+	}
+
+	/**
+	 * Returns the JVM options {@code --add-opens} missing to access the members of the classes used so far, such as
+	 * {@code --add-opens java.base/java.util=ALL-UNNAMED}.
+	 * <p>
+	 * The access to each class is verified once: the members of a class in a package that is not open to Catadioptre
+	 * fail with a {@link CatadioptreException} naming the option to add, instead of requiring broad options.
+	 */
+	public static Set<String> missingOpens() {
+		return ModuleAccess.missingOpens();
+	}
+
+	private static List<Runnable> resolutionsOf(final Class<?> type) {
+		final List<Runnable> resolutions = new ArrayList<>();
+		Class<?> declaringClass = type;
+		while (declaringClass != null && !declaringClass.equals(Object.class)) {
+			for (final Field field : declaringClass.getDeclaredFields()) {
+				resolutions.add(() -> ReflectionFieldUtils.preloadField(type, field.getName()));
+			}
+			for (final Method method : declaringClass.getDeclaredMethods()) {
+				resolutions.add(() -> ReflectionMethodUtils.preloadMethod(type, method));
+			}
+			declaringClass = declaringClass.getSuperclass();
+		}
+		return resolutions;
+	}
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.lang.reflect.Member;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Events of the JDK Flight Recorder emitted when accessing the members with {@link ReflectionFieldUtils} and
+ * {@link ReflectionMethodUtils}.
+ * <p>
+ * The events are disabled by default and have to be enabled in the recording settings, for example with
+ * {@code -XX:StartFlightRecording:settings=profile,+catadioptre.FieldAccess#enabled=true} or in JDK Mission Control.
+ * When an event is disabled or no recording is running, its creation is skipped and a shared instance ignoring the
+ * calls is returned instead, so that the accesses do not allocate.
+ *
+ * @author Eric Jessé
+ */
+final class CatadioptreEvents {
+
+	/**
+	 * This class only contains the events.
+	 */
+	private CatadioptreEvents() {
+	}
+
+	/**
+	 * Base of the events, describing the accessed member and its resolution.
+	 */
+	@Category("Catadioptre")
+	@Enabled(false)
+	abstract static class MemberEvent extends Event {
+
+		@Label("Declaring Class")
+		Class<?> declaringClass;
+
+		@Label("Member Name")
+		String memberName;
+
+		@Label("Resolution Time")
+		@Timespan(Timespan.NANOSECONDS)
+		long resolutionTime;
+
+		@Label("Cache Hit")
+		@Description("Whether the member was found in the cache of the resolved members")
+		boolean cacheHit;
+
+		transient long startNanos;
+
+		/**
+		 * Whether the event was created to be recorded, false for the shared instances ignoring the calls.
+		 */
+		transient boolean recorded;
+
+		/**
+		 * Begins the timing of the event and of the resolution of the member.
+		 */
+		final void beginResolution() {
+			recorded = true;
+			begin();
+			if (isEnabled()) {
+				startNanos = System.nanoTime();
+			}
+		}
+
+		/**
+		 * Describes the member once resolved.
+		 */
+		final void resolved(final Member member, final boolean cacheHit) {
+			if (recorded && isEnabled()) {
+				this.resolutionTime = System.nanoTime() - startNanos;
+				this.declaringClass = member.getDeclaringClass();
+				this.memberName = member.getName();
+				this.cacheHit = cacheHit;
+			}
+		}
+
+		/**
+		 * Commits the event when it is recorded.
+		 */
+		final void complete() {
+			if (recorded) {
+				commit();
+			}
+		}
+	}
+
+	/**
+	 * Base of the events of the accesses to the members, committed whether the access succeeded or not.
+	 */
+	abstract static class AccessEvent extends MemberEvent {
+
+		@Label("Succeeded")
+		@Description("Whether the access completed without throwing an exception")
+		boolean succeeded = true;
+
+		@Label("Exception Class")
+		@Description("Class of the exception thrown by the access, when it failed")
+		Class<?> exceptionClass;
+
+		/**
+		 * Describes the exception thrown by the access, before the event is completed.
+		 */
+		final void failed(final Throwable failure) {
+			if (recorded && isEnabled()) {
+				succeeded = false;
+				exceptionClass = failure.getClass();
+			}
+		}
+	}
+
+	@Name("catadioptre.FieldAccess")
+	@Label("Field Access")
+	@Description("Read or write of a field with ReflectionFieldUtils")
+	static final class FieldAccess extends AccessEvent {
+
+		private static final EventType TYPE = EventType.getEventType(FieldAccess.class);
+
+		private static final FieldAccess DISABLED = new FieldAccess();
+
+		@Label("Write")
+		boolean write;
+
+		static FieldAccess start(final boolean write) {
+			if (!TYPE.isEnabled()) {
+				return DISABLED;
+			}
+			final FieldAccess event = new FieldAccess();
+			event.write = write;
+			event.beginResolution();
+			return event;
+		}
+	}
+
+	@Name("catadioptre.MethodInvoke")
+	@Label("Method Invocation")
+	@Description("Invocation of a method with ReflectionMethodUtils")
+	static final class MethodInvoke extends AccessEvent {
+
+		private static final EventType TYPE = EventType.getEventType(MethodInvoke.class);
+
+		private static final MethodInvoke DISABLED = new MethodInvoke();
+
+		static MethodInvoke start() {
+			if (!TYPE.isEnabled()) {
+				return DISABLED;
+			}
+			final MethodInvoke event = new MethodInvoke();
+			event.beginResolution();
+			return event;
+		}
+	}
+
+	@Name("catadioptre.Lookup")
+	@Label("Member Lookup")
+	@Description("Resolution of a field or a method, from the cache or by scanning the class hierarchy")
+	static final class Lookup extends MemberEvent {
+
+		private static final EventType TYPE = EventType.getEventType(Lookup.class);
+
+		private static final Lookup DISABLED = new Lookup();
+
+		@Label("Member Kind")
+		String memberKind;
+
+		@Label("Found")
+		boolean found;
+
+		static Lookup start(final String memberKind) {
+			if (!TYPE.isEnabled()) {
+				return DISABLED;
+			}
+			final Lookup event = new Lookup();
+			event.memberKind = memberKind;
+			event.beginResolution();
+			return event;
+		}
+
+		/**
+		 * Commits the event for a member that was found.
+		 */
+		void found(final Member member, final boolean cacheHit) {
+			if (recorded) {
+				resolved(member, cacheHit);
+				found = true;
+				commit();
+			}
+		}
+
+		/**
+		 * Commits the event for a member that could not be found.
+		 */
+		void notFound(final Class<?> instanceClass, final String name, final boolean cacheHit) {
+			if (recorded) {
+				if (isEnabled()) {
+					resolutionTime = System.nanoTime() - startNanos;
+					declaringClass = instanceClass;
+					memberName = name;
+					this.cacheHit = cacheHit;
+				}
+				commit();
+			}
+		}
+	}
+}
@@ -0,0 +1,343 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Counters of the lookups and invocations of the members accessed with {@link ReflectionFieldUtils} and
+ * {@link ReflectionMethodUtils}, to identify the reflective accesses that cost the most.
+ * <p>
+ * The metrics are disabled by default and then only cost a volatile read per call. They are enabled either with
+ * {@link #enable()} or the system property {@code catadioptre.metrics=true}. The system property
+ * {@code catadioptre.metrics.summary=N} enables them as well and prints the N most expensive members when the JVM
+ * shuts down.
+ * <p>
+ * The metrics of the members are kept by description, so that they do not retain the classes and their class loaders:
+ * the metrics of a class loaded by several class loaders are merged.
+ *
+ * @author Eric Jessé
+ */
+public final class CatadioptreMetrics {
+
+	/**
+	 * System property to enable the metrics.
+	 */
+	public static final String ENABLED_PROPERTY = "catadioptre.metrics";
+
+	/**
+	 * System property with the number of members to list in the summary printed when the JVM shuts down.
+	 */
+	public static final String SUMMARY_PROPERTY = "catadioptre.metrics.summary";
+
+	/**
+	 * Value returned by {@link #start()} when the metrics are disabled.
+	 */
+	static final long NOT_MEASURED = Long.MIN_VALUE;
+
+	private static final LongAdder FIELD_LOOKUPS = new LongAdder();
+
+	private static final LongAdder METHOD_LOOKUPS = new LongAdder();
+
+	private static final LongAdder CACHE_HITS = new LongAdder();
+
+	private static final LongAdder CACHE_MISSES = new LongAdder();
+
+	private static final LongAdder FAILED_LOOKUPS = new LongAdder();
+
+	private static final LongAdder RESOLUTION_NANOS = new LongAdder();
+
+	/**
+	 * Metrics of the members, by description.
+	 */
+	private static final Map<String, MemberMetrics> MEMBERS = new ConcurrentHashMap<>();
+
+	/**
+	 * Descriptions of the members, attached to their declaring class so that they are released with its class loader.
+	 */
+	private static final ClassValue<Map<Member, String>> DESCRIPTIONS = new ClassValue<Map<Member, String>>() {
+		@Override
+		protected Map<Member, String> computeValue(final Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private static final AtomicBoolean SUMMARY_ON_SHUTDOWN = new AtomicBoolean();
+
+	private static volatile boolean enabled = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	static {
+		final int summarySize = Integer.getInteger(SUMMARY_PROPERTY, 0);
+		if (summarySize > 0) {
+			enabled = true;
+			printSummaryOnShutdown(summarySize);
+		}
+	}
+
+	/**
+	 * This class only contains static methods.
+	 */
+	private CatadioptreMetrics() {
+	}
+
+	/**
+	 * Starts recording the metrics.
+	 */
+	public static void enable() {
+		enabled = true;
+	}
+
+	/**
+	 * Stops recording the metrics, the values already recorded are kept.
+	 */
+	public static void disable() {
+		enabled = false;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Discards all the recorded values.
+	 */
+	public static void reset() {
+		FIELD_LOOKUPS.reset();
+		METHOD_LOOKUPS.reset();
+		CACHE_HITS.reset();
+		CACHE_MISSES.reset();
+		FAILED_LOOKUPS.reset();
+		RESOLUTION_NANOS.reset();
+		MEMBERS.clear();
+	}
+
+	public static long getFieldLookups() {
+		return FIELD_LOOKUPS.sum();
+	}
+
+	public static long getMethodLookups() {
+		return METHOD_LOOKUPS.sum();
+	}
+
+	public static long getCacheHits() {
+		return CACHE_HITS.sum();
+	}
+
+	public static long getCacheMisses() {
+		return CACHE_MISSES.sum();
+	}
+
+	/**
+	 * Returns the number of lookups of fields or methods that could not be found.
+	 */
+	public static long getFailedLookups() {
+		return FAILED_LOOKUPS.sum();
+	}
+
+	/**
+	 * Returns the total time spent resolving fields and methods, in nanoseconds.
+	 */
+	public static long getResolutionNanos() {
+		return RESOLUTION_NANOS.sum();
+	}
+
+	/**
+	 * Returns the metrics of all the members resolved since the last reset.
+	 */
+	public static List<MemberMetrics> getMembers() {
+		return new ArrayList<>(MEMBERS.values());
+	}
+
+	/**
+	 * Returns the {@code count} members with the highest time spent in their resolution and invocations.
+	 */
+	public static List<MemberMetrics> getMostExpensiveMembers(final int count) {
+		return MEMBERS.values().stream()
+				.sorted(Comparator.comparingLong(MemberMetrics::getTotalNanos).reversed())
+				.limit(count)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Builds a human-readable summary of the metrics, listing the {@code count} most expensive members.
+	 */
+	public static String summary(final int count) {
+		final StringBuilder summary = new StringBuilder(String.format(Locale.ROOT,
+				"Catadioptre Java: %d field lookups, %d method lookups, %d cache hits, %d cache misses, %d failed lookups, "
+						+ "%.3f ms of resolution", getFieldLookups(), getMethodLookups(), getCacheHits(), getCacheMisses(),
+				getFailedLookups(), getResolutionNanos() / 1_000_000.0));
+		final List<MemberMetrics> members = getMostExpensiveMembers(count);
+		if (!members.isEmpty()) {
+			summary.append(String.format(Locale.ROOT, "%n%12s %12s %12s  %s", "Total (ms)", "Lookups", "Invocations",
+					"Member"));
+			for (final MemberMetrics member : members) {
+				summary.append(String.format(Locale.ROOT, "%n%12.3f %12d %12d  %s", member.getTotalNanos() / 1_000_000.0,
+						member.getLookups(), member.getInvocations(), member.getMember()));
+			}
+		}
+		return summary.toString();
+	}
+
+	/**
+	 * Prints the {@link #summary(int)} on the standard output when the JVM shuts down. Only the first call registers
+	 * the hook.
+	 */
+	public static void printSummaryOnShutdown(final int count) {
+		if (SUMMARY_ON_SHUTDOWN.compareAndSet(false, true)) {
+			Runtime.getRuntime().addShutdownHook(
+					new Thread(() -> System.out.println(summary(count)), "catadioptre-metrics-summary"));
+		}
+	}
+
+	/**
+	 * Returns the time at the beginning of a measured operation, or {@link #NOT_MEASURED} when the metrics are
+	 * disabled.
+	 */
+	static long start() {
+		return enabled ? System.nanoTime() : NOT_MEASURED;
+	}
+
+	static void recordLookup(final Member member, final boolean cacheHit, final long start) {
+		if (start != NOT_MEASURED) {
+			final long elapsed = System.nanoTime() - start;
+			(member instanceof Field ? FIELD_LOOKUPS : METHOD_LOOKUPS).increment();
+			(cacheHit ? CACHE_HITS : CACHE_MISSES).increment();
+			RESOLUTION_NANOS.add(elapsed);
+			metricsOf(member).recordLookup(elapsed);
+		}
+	}
+
+	static void recordFailedLookup(final Class<? extends Member> memberType, final long start) {
+		if (start != NOT_MEASURED) {
+			(memberType == Field.class ? FIELD_LOOKUPS : METHOD_LOOKUPS).increment();
+			CACHE_MISSES.increment();
+			FAILED_LOOKUPS.increment();
+			RESOLUTION_NANOS.add(System.nanoTime() - start);
+		}
+	}
+
+	static void recordInvocation(final Member member, final long start) {
+		if (start != NOT_MEASURED) {
+			final long elapsed = System.nanoTime() - start;
+			metricsOf(member).recordInvocation(elapsed);
+		}
+	}
+
+	/**
+	 * Returns the metrics of {@code member}, only locking the maps when they do not exist yet.
+	 */
+	private static MemberMetrics metricsOf(final Member member) {
+		final Map<Member, String> descriptions = DESCRIPTIONS.get(member.getDeclaringClass());
+		String description = descriptions.get(member);
+		if (description == null) {
+			description = descriptions.computeIfAbsent(member, CatadioptreMetrics::describe);
+		}
+		final MemberMetrics metrics = MEMBERS.get(description);
+		return metrics != null ? metrics : MEMBERS.computeIfAbsent(description, MemberMetrics::new);
+	}
+
+	/**
+	 * Describes {@code member} as {@code declaring.Class#name} for the fields and
+	 * {@code declaring.Class#name(parameter.Types)} for the methods, with the qualified names of the types so that the
+	 * overloads with types of the same simple name are distinguished.
+	 */
+	private static String describe(final Member member) {
+		final String name = member.getDeclaringClass().getName() + "#" + member.getName();
+		if (member instanceof Method) {
+			return name + Arrays.stream(((Method) member).getParameterTypes())
+					.map(Class::getTypeName)
+					.collect(Collectors.joining(", ", "(", ")"));
+		}
+		return name;
+	}
+
+	/**
+	 * Metrics of a single field or method.
+	 */
+	public static final class MemberMetrics {
+
+		private final String member;
+
+		private final LongAdder lookups = new LongAdder();
+
+		private final LongAdder resolutionNanos = new LongAdder();
+
+		private final LongAdder invocations = new LongAdder();
+
+		private final LongAdder invocationNanos = new LongAdder();
+
+		private MemberMetrics(final String member) {
+			this.member = member;
+		}
+
+		private void recordLookup(final long nanos) {
+			lookups.increment();
+			resolutionNanos.add(nanos);
+		}
+
+		private void recordInvocation(final long nanos) {
+			invocations.increment();
+			invocationNanos.add(nanos);
+		}
+
+		/**
+		 * Returns the description of the member, as {@code declaring.Class#name} for the fields and
+		 * {@code declaring.Class#name(parameter.Types)} for the methods.
+		 */
+		public String getMember() {
+			return member;
+		}
+
+		public long getLookups() {
+			return lookups.sum();
+		}
+
+		public long getResolutionNanos() {
+			return resolutionNanos.sum();
+		}
+
+		public long getInvocations() {
+			return invocations.sum();
+		}
+
+		public long getInvocationNanos() {
+			return invocationNanos.sum();
+		}
+
+		/**
+		 * Returns the total time spent resolving and invoking the member, in nanoseconds.
+		 */
+		public long getTotalNanos() {
+			return getResolutionNanos() + getInvocationNanos();
+		}
+
+		@Override
+		public String toString() {
+			return member;
+		}
+	}
+}
@@ -14,15 +14,103 @@
  */
 package io.aerisconsulting.catadioptre;
 
+import java.util.Locale;
+
 /**
  * Catadioptre exception that encapsulates checked and unchecked exceptions thrown when invoking original methods.
+ * <p>
+ * The system property {@value #RETHROW_PROPERTY} or {@link #setRethrowMode(RethrowMode)} select how the exceptions
+ * are rethrown, see {@link RethrowMode}.
  *
  * @author Gabriel Moraes
  */
 public class CatadioptreOriginalCauseException extends RuntimeException {
 
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * System property with the {@link RethrowMode} of the exceptions, {@code wrapped} by default.
+	 */
+	public static final String RETHROW_PROPERTY = "catadioptre.exceptions.rethrow";
+
+	private static volatile RethrowMode rethrowMode = configuredRethrowMode();
+
 	public CatadioptreOriginalCauseException(final Throwable cause) {
 		super(cause);
 	}
 
+	/**
+	 * Creates an exception that does not capture its own stack trace, the one of its cause being kept.
+	 */
+	protected CatadioptreOriginalCauseException(final Throwable cause, final boolean writableStackTrace) {
+		super(cause == null ? null : cause.toString(), cause, true, writableStackTrace);
+	}
+
+	/**
+	 * Changes how the exceptions thrown by the invoked methods are rethrown.
+	 */
+	public static void setRethrowMode(final RethrowMode mode) {
+		rethrowMode = mode;
+	}
+
+	/**
+	 * Returns how the exceptions thrown by the invoked methods are rethrown.
+	 */
+	public static RethrowMode getRethrowMode() {
+		return rethrowMode;
+	}
+
+	/**
+	 * Returns the exception to throw for {@code cause}, thrown by an invoked method, or throws {@code cause} itself
+	 * when the exceptions are {@link RethrowMode#UNWRAPPED}.
+	 */
+	static RuntimeException rethrow(final Throwable cause) {
+		switch (rethrowMode) {
+			case UNWRAPPED:
+				throw CatadioptreOriginalCauseException.<RuntimeException>sneakyThrow(cause);
+			case STACKLESS:
+				return new CatadioptreOriginalCauseException(cause, false);
+			default:
+				return new CatadioptreOriginalCauseException(cause);
+		}
+	}
+
+	/**
+	 * Throws {@code throwable} without declaring it, even when it is a checked exception.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E extends Throwable> E sneakyThrow(final Throwable throwable) throws E {
+		throw (E) throwable;
+	}
+
+	private static RethrowMode configuredRethrowMode() {
+		final String mode = System.getProperty(RETHROW_PROPERTY);
+		try {
+			return mode == null ? RethrowMode.WRAPPED : RethrowMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			return RethrowMode.WRAPPED;
+		}
+	}
+
+	/**
+	 * Ways to rethrow the exceptions thrown by the invoked methods.
+	 */
+	public enum RethrowMode {
+
+		/**
+		 * The exception is wrapped into a {@link CatadioptreOriginalCauseException} with its own stack trace.
+		 */
+		WRAPPED,
+
+		/**
+		 * The exception is wrapped into a {@link CatadioptreOriginalCauseException} without stack trace, which is
+		 * cheaper to create when the methods are expected to throw many times.
+		 */
+		STACKLESS,
+
+		/**
+		 * The exception is rethrown as is, even when it is a checked exception that the caller does not declare.
+		 */
+		UNWRAPPED
+	}
 }
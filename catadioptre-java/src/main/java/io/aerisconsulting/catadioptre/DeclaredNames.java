@@ -0,0 +1,77 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Names of the fields and methods declared by each class, computed once and shared by all the lookups and call sites.
+ * <p>
+ * The classes of a hierarchy that do not declare a member with the searched name are skipped, so that the member
+ * resolved for a new subclass is the one already cached for the first ancestor declaring that name, without scanning
+ * the hierarchy again.
+ *
+ * @author Eric Jessé
+ */
+final class DeclaredNames {
+
+	private static final ClassValue<DeclaredNames> NAMES = new ClassValue<DeclaredNames>() {
+		@Override
+		protected DeclaredNames computeValue(final Class<?> type) {
+			return new DeclaredNames(type);
+		}
+	};
+
+	private final Set<String> fields;
+
+	private final Set<String> methods;
+
+	private DeclaredNames(final Class<?> type) {
+		this.fields = Arrays.stream(type.getDeclaredFields()).map(Field::getName).collect(Collectors.toSet());
+		this.methods = Arrays.stream(type.getDeclaredMethods()).map(Method::getName).collect(Collectors.toSet());
+	}
+
+	/**
+	 * Returns the first class of the hierarchy of {@code type} declaring a field called {@code name}, or
+	 * {@code type} when there is none.
+	 */
+	static Class<?> ofField(final Class<?> type, final String name) {
+		for (Class<?> declaringClass = type; declaringClass != null && declaringClass != Object.class;
+				declaringClass = declaringClass.getSuperclass()) {
+			if (NAMES.get(declaringClass).fields.contains(name)) {
+				return declaringClass;
+			}
+		}
+		return type;
+	}
+
+	/**
+	 * Returns the first class of the hierarchy of {@code type} declaring a method called {@code name}, or
+	 * {@code type} when there is none.
+	 */
+	static Class<?> ofMethod(final Class<?> type, final String name) {
+		for (Class<?> declaringClass = type; declaringClass != null && declaringClass != Object.class;
+				declaringClass = declaringClass.getSuperclass()) {
+			if (NAMES.get(declaringClass).methods.contains(name)) {
+				return declaringClass;
+			}
+		}
+		return type;
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.lang.reflect.Field;
+
+/**
+ * Call site reading and writing a field with the same name on instances of different classes, typically kept in a
+ * static constant.
+ * <p>
+ * The fields resolved for the first classes of receivers are kept in a {@link PolymorphicInlineCache}, the other ones
+ * are shared with {@link ReflectionFieldUtils}. The subclasses generated by the mocking and proxying libraries are
+ * resolved as the classes they extend and share their entries, and the subclasses that do not declare the field share
+ * the entry of their ancestor declaring it.
+ * <p>
+ * Usage: {@code private static final FieldCallSite VALUE = FieldCallSite.of("value"); int value = VALUE.get(myInstance);}
+ *
+ * @author Eric Jessé
+ */
+public final class FieldCallSite {
+
+	private final String name;
+
+	private final PolymorphicInlineCache<ReflectionFieldUtils.DeclaredField> cache;
+
+	private FieldCallSite(final String name) {
+		this.name = name;
+		this.cache = new PolymorphicInlineCache<>(receiverClass -> ReflectionFieldUtils.resolveField(receiverClass, name));
+	}
+
+	/**
+	 * Creates a call site for the field called {@code name}.
+	 */
+	public static FieldCallSite of(final String name) {
+		return new FieldCallSite(name);
+	}
+
+	/**
+	 * Reads the value from the field on {@code instance}.
+	 */
+	public <R> R get(final Object instance) {
+		final CatadioptreEvents.FieldAccess event = CatadioptreEvents.FieldAccess.start(false);
+		return ReflectionFieldUtils.read(find(UserClasses.of(instance.getClass()), event), instance, event);
+	}
+
+	/**
+	 * Sets {@code value} in the field on {@code instance}.
+	 *
+	 * @return the instance in order to chain the calls
+	 */
+	public <T> T set(final T instance, final Object value) {
+		final CatadioptreEvents.FieldAccess event = CatadioptreEvents.FieldAccess.start(true);
+		ReflectionFieldUtils.write(find(UserClasses.of(instance.getClass()), event), instance, value, event);
+		return instance;
+	}
+
+	/**
+	 * Verifies whether the field was accessed on more classes than the inline cache keeps.
+	 */
+	boolean isMegamorphic() {
+		return cache.isMegamorphic();
+	}
+
+	private ReflectionFieldUtils.DeclaredField find(final Class<?> receiverClass,
+			final CatadioptreEvents.MemberEvent accessEvent) {
+		final long start = CatadioptreMetrics.start();
+		final CatadioptreEvents.Lookup lookupEvent = CatadioptreEvents.Lookup.start("field");
+		ReflectionFieldUtils.DeclaredField field = cache.getIfPresent(receiverClass);
+		final boolean cacheHit = field != null;
+		if (!cacheHit) {
+			try {
+				field = cache.resolve(receiverClass);
+			} catch (CatadioptreException e) {
+				CatadioptreMetrics.recordFailedLookup(Field.class, start);
+				lookupEvent.notFound(receiverClass, name, false);
+				throw e;
+			}
+		}
+		CatadioptreMetrics.recordLookup(field.field, cacheHit, start);
+		lookupEvent.found(field.field, cacheHit);
+		accessEvent.resolved(field.field, cacheHit);
+		return field;
+	}
+}
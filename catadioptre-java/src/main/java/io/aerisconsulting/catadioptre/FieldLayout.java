@@ -0,0 +1,514 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Precomputed layout of the fields of a class, to take snapshots of their values, restore them and copy them from an
+ * instance to another without resolving the fields by name.
+ * <p>
+ * The values of the primitive fields are stored as their raw bits in a {@code long[]}, the references in an
+ * {@code Object[]}. The fields are accessed with the method handles of their {@link VarHandle}, adapted to be called
+ * exactly without boxing. The final fields, which the {@link VarHandle}s cannot write, are written with the setter of
+ * the accessible {@link Field}, or with {@link StaticFinalFields} when they are static.
+ *
+ * @author Eric Jessé
+ */
+final class FieldLayout {
+
+	/**
+	 * Layouts of all the instance fields of each class and its ancestors, except the fields of the ancestors in
+	 * packages that are not open to Catadioptre.
+	 */
+	private static final ClassValue<FieldLayout> LAYOUTS = new ClassValue<FieldLayout>() {
+		@Override
+		protected FieldLayout computeValue(final Class<?> type) {
+			final List<Field> fields = new ArrayList<>();
+			Class<?> declaringClass = type;
+			while (declaringClass != null && !declaringClass.equals(Object.class)) {
+				final boolean inherited = declaringClass != type;
+				Arrays.stream(declaringClass.getDeclaredFields())
+						.filter(f -> !Modifier.isStatic(f.getModifiers()))
+						.filter(f -> !inherited || ModuleAccess.isAccessible(f))
+						.forEach(fields::add);
+				declaringClass = declaringClass.getSuperclass();
+			}
+			return new FieldLayout(type, fields, false);
+		}
+	};
+
+	/**
+	 * Layouts of the static fields declared by each class, except the synthetic ones and the constants.
+	 */
+	private static final ClassValue<FieldLayout> STATIC_LAYOUTS = new ClassValue<FieldLayout>() {
+		@Override
+		protected FieldLayout computeValue(final Class<?> type) {
+			final List<Field> fields = new ArrayList<>();
+			for (final Field field : type.getDeclaredFields()) {
+				final int modifiers = field.getModifiers();
+				final boolean constant = Modifier.isFinal(modifiers)
+						&& (field.getType().isPrimitive() || field.getType() == String.class);
+				if (Modifier.isStatic(modifiers) && !field.isSynthetic() && !constant) {
+					fields.add(field);
+				}
+			}
+			return new FieldLayout(type, fields, true);
+		}
+	};
+
+	/**
+	 * Layouts of the fields selected by name for each class.
+	 */
+	private static final LookupCache<List<String>, FieldLayout> SELECTED_LAYOUTS = new LookupCache<>();
+
+	final Class<?> type;
+
+	/**
+	 * Whether the layout contains static fields, which are accessed without instance.
+	 */
+	private final boolean statics;
+
+	private final Slot[] slots;
+
+	private final int primitivesCount;
+
+	private final int referencesCount;
+
+	private final List<String> fieldNames;
+
+	private FieldLayout(final Class<?> type, final List<Field> fields, final boolean statics) {
+		this.type = type;
+		this.statics = statics;
+		this.slots = new Slot[fields.size()];
+		int primitives = 0;
+		int references = 0;
+		final List<String> names = new ArrayList<>(fields.size());
+		for (int i = 0; i < slots.length; i++) {
+			final Field field = fields.get(i);
+			final boolean primitive = field.getType().isPrimitive();
+			slots[i] = new Slot(field, primitive ? primitives++ : references++);
+			names.add(field.getName());
+		}
+		this.primitivesCount = primitives;
+		this.referencesCount = references;
+		this.fieldNames = Collections.unmodifiableList(names);
+	}
+
+	/**
+	 * Returns the layout of all the instance fields of {@code type} and its ancestors. The fields inherited from
+	 * classes in packages that are not open to Catadioptre, such as {@link Thread}, are skipped and their packages are
+	 * reported by {@link ModuleAccess#missingOpens()}.
+	 */
+	static FieldLayout of(final Class<?> type) {
+		return LAYOUTS.get(type);
+	}
+
+	/**
+	 * Returns the layout of the fields of {@code type} or its ancestors called {@code names}, or of all the instance
+	 * fields when no name is provided.
+	 */
+	static FieldLayout of(final Class<?> type, final String... names) {
+		if (names.length == 0) {
+			return of(type);
+		}
+		final List<String> key = Arrays.asList(names.clone());
+		FieldLayout layout = SELECTED_LAYOUTS.get(type, key);
+		if (layout == null) {
+			final List<Field> fields = new ArrayList<>(names.length);
+			for (final String name : names) {
+				fields.add(selectField(type, name));
+			}
+			layout = new FieldLayout(type, fields, false);
+			SELECTED_LAYOUTS.put(type, key, layout);
+		}
+		return layout;
+	}
+
+	/**
+	 * Returns the layout of the static fields declared by {@code type}, except the synthetic ones and the constants,
+	 * which are the static final primitives and strings.
+	 */
+	static FieldLayout ofStatics(final Class<?> type) {
+		return STATIC_LAYOUTS.get(type);
+	}
+
+	/**
+	 * Returns the first instance field called {@code name} in the class or its ancestors.
+	 */
+	private static Field selectField(final Class<?> type, final String name) {
+		Class<?> declaringClass = type;
+		while (declaringClass != null && !declaringClass.equals(Object.class)) {
+			for (final Field field : declaringClass.getDeclaredFields()) {
+				if (field.getName().equals(name)) {
+					if (Modifier.isStatic(field.getModifiers())) {
+						throw new IllegalArgumentException("The field " + name + " is static");
+					}
+					return field;
+				}
+			}
+			declaringClass = declaringClass.getSuperclass();
+		}
+		throw new CatadioptreException(new NoSuchFieldException("Field " + name + " was not found"));
+	}
+
+	/**
+	 * Names of the fields of the layout, the fields shadowed by a subclass appearing after the shadowing ones.
+	 */
+	List<String> fieldNames() {
+		return fieldNames;
+	}
+
+	/**
+	 * Verifies whether the layout contains no field.
+	 */
+	boolean isEmpty() {
+		return slots.length == 0;
+	}
+
+	/**
+	 * Reads the values of all the fields of the layout on {@code instance}, which is ignored for static fields.
+	 */
+	FieldSnapshot snapshot(final Object instance) {
+		verifyInstance(instance);
+		final long[] primitives = new long[primitivesCount];
+		final Object[] references = new Object[referencesCount];
+		try {
+			for (final Slot slot : slots) {
+				if (slot.kind == Kind.REFERENCE) {
+					references[slot.index] = slot.readReference(instance);
+				} else {
+					primitives[slot.index] = slot.readBits(instance);
+				}
+			}
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new CatadioptreException(t);
+		}
+		return new FieldSnapshot(this, primitives, references);
+	}
+
+	/**
+	 * Writes the values taken with this layout into the fields of {@code instance}.
+	 */
+	void restore(final Object instance, final long[] primitives, final Object[] references) {
+		verifyInstance(instance);
+		try {
+			for (final Slot slot : slots) {
+				if (slot.kind == Kind.REFERENCE) {
+					slot.writeReference(instance, references[slot.index]);
+				} else {
+					slot.writeBits(instance, primitives[slot.index]);
+				}
+			}
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new CatadioptreException(t);
+		}
+	}
+
+	/**
+	 * Writes the values taken with this layout into the static fields whose values changed, and returns the fields
+	 * that could not be written with the cause. The changed final fields are reported without being written, unless
+	 * {@code finalFieldsWritten} is true.
+	 */
+	Map<Field, Throwable> restoreChangedStatics(final long[] primitives, final Object[] references,
+			final boolean finalFieldsWritten) {
+		final Map<Field, Throwable> failures = new LinkedHashMap<>();
+		for (final Slot slot : slots) {
+			final boolean writable = finalFieldsWritten || !Modifier.isFinal(slot.field.getModifiers());
+			try {
+				if (slot.kind == Kind.REFERENCE) {
+					final Object value = references[slot.index];
+					if (slot.readReference(null) != value) {
+						verifyWritable(slot, writable);
+						slot.writeReference(null, value);
+					}
+				} else {
+					final long bits = primitives[slot.index];
+					if (slot.readBits(null) != bits) {
+						verifyWritable(slot, writable);
+						slot.writeBits(null, bits);
+					}
+				}
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable t) {
+				failures.put(slot.field, t);
+			}
+		}
+		return failures;
+	}
+
+	private static void verifyWritable(final Slot slot, final boolean writable) {
+		if (!writable) {
+			throw new UnsupportedOperationException("The static final field " + slot.field.getName()
+					+ " of " + slot.field.getDeclaringClass().getName() + " is not written");
+		}
+	}
+
+	/**
+	 * Copies the values of all the fields of the layout from {@code source} to {@code target}.
+	 */
+	void copy(final Object source, final Object target) {
+		verifyInstance(source);
+		verifyInstance(target);
+		try {
+			for (final Slot slot : slots) {
+				if (slot.kind == Kind.REFERENCE) {
+					slot.writeReference(target, slot.readReference(source));
+				} else {
+					slot.writeBits(target, slot.readBits(source));
+				}
+			}
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new CatadioptreException(t);
+		}
+	}
+
+	/**
+	 * Returns the value of the first field called {@code name} in the values taken with this layout.
+	 */
+	Object value(final String name, final long[] primitives, final Object[] references) {
+		for (final Slot slot : slots) {
+			if (slot.field.getName().equals(name)) {
+				return slot.kind == Kind.REFERENCE ? references[slot.index] : slot.kind.decode(primitives[slot.index]);
+			}
+		}
+		throw new CatadioptreException(new NoSuchFieldException("Field " + name + " was not found in the snapshot"));
+	}
+
+	private void verifyInstance(final Object instance) {
+		if (!statics && !type.isInstance(instance)) {
+			throw new IllegalArgumentException("The fields of " + type.getName() + " require an instance of this class");
+		}
+	}
+
+	/**
+	 * Kinds of the values of the fields, with the encoding of the primitive values as raw bits.
+	 */
+	private enum Kind {
+		BOOLEAN {
+			@Override
+			Object decode(final long bits) {
+				return bits != 0;
+			}
+		},
+		BYTE {
+			@Override
+			Object decode(final long bits) {
+				return (byte) bits;
+			}
+		},
+		CHAR {
+			@Override
+			Object decode(final long bits) {
+				return (char) bits;
+			}
+		},
+		SHORT {
+			@Override
+			Object decode(final long bits) {
+				return (short) bits;
+			}
+		},
+		INT {
+			@Override
+			Object decode(final long bits) {
+				return (int) bits;
+			}
+		},
+		LONG {
+			@Override
+			Object decode(final long bits) {
+				return bits;
+			}
+		},
+		FLOAT {
+			@Override
+			Object decode(final long bits) {
+				return Float.intBitsToFloat((int) bits);
+			}
+		},
+		DOUBLE {
+			@Override
+			Object decode(final long bits) {
+				return Double.longBitsToDouble(bits);
+			}
+		},
+		REFERENCE {
+			@Override
+			Object decode(final long bits) {
+				throw new IllegalStateException("The references are not encoded as raw bits");
+			}
+		};
+
+		/**
+		 * Boxes the value of a primitive field from its raw bits.
+		 */
+		abstract Object decode(long bits);
+
+		static Kind of(final Class<?> type) {
+			if (!type.isPrimitive()) {
+				return REFERENCE;
+			}
+			return valueOf(type.getName().toUpperCase(Locale.ROOT));
+		}
+	}
+
+	/**
+	 * Field of the layout, with the index of its value among the primitives or the references.
+	 */
+	private static final class Slot {
+
+		private final Field field;
+
+		private final Kind kind;
+
+		private final int index;
+
+		/**
+		 * Getter of type {@code (Object)T}, where {@code T} is the primitive type of the field or {@link Object}.
+		 */
+		private final MethodHandle getter;
+
+		/**
+		 * Setter of type {@code (Object, T)void}, where {@code T} is the primitive type of the field or
+		 * {@link Object}.
+		 */
+		private final MethodHandle setter;
+
+		private Slot(final Field field, final int index) {
+			this.field = field;
+			this.kind = Kind.of(field.getType());
+			this.index = index;
+			final Class<?> valueType = kind == Kind.REFERENCE ? Object.class : field.getType();
+			try {
+				final MethodHandles.Lookup lookup = ModuleAccess.lookupFor(field);
+				final VarHandle handle = lookup.unreflectVarHandle(field);
+				this.getter = withInstance(handle.toMethodHandle(VarHandle.AccessMode.GET))
+						.asType(MethodType.methodType(valueType, Object.class));
+				final MethodHandle fieldSetter = Modifier.isFinal(field.getModifiers()) ? finalSetter(lookup)
+						: withInstance(handle.toMethodHandle(VarHandle.AccessMode.SET));
+				this.setter = fieldSetter.asType(MethodType.methodType(void.class, Object.class, valueType));
+			} catch (IllegalAccessException e) {
+				throw new CatadioptreException(e);
+			}
+		}
+
+		/**
+		 * Adds the ignored instance to the handles of a static field.
+		 */
+		private MethodHandle withInstance(final MethodHandle handle) {
+			return Modifier.isStatic(field.getModifiers()) ? MethodHandles.dropArguments(handle, 0, Object.class)
+					: handle;
+		}
+
+		/**
+		 * Returns the setter of a final field, or a setter failing with a {@link CatadioptreException} when the field
+		 * cannot be written, for example in a record.
+		 */
+		private MethodHandle finalSetter(final MethodHandles.Lookup lookup) {
+			try {
+				if (Modifier.isStatic(field.getModifiers())) {
+					return MethodHandles.dropArguments(StaticFinalFields.setterOf(field), 0, Object.class);
+				}
+				return lookup.unreflectSetter(ModuleAccess.makeAccessible(field));
+			} catch (IllegalAccessException | RuntimeException e) {
+				final CatadioptreException failure = new CatadioptreException(e);
+				return MethodHandles.dropArguments(MethodHandles.throwException(void.class, CatadioptreException.class)
+						.bindTo(failure), 0, Object.class, field.getType());
+			}
+		}
+
+		private long readBits(final Object instance) throws Throwable {
+			switch (kind) {
+				case BOOLEAN:
+					return (boolean) getter.invokeExact(instance) ? 1 : 0;
+				case BYTE:
+					return (byte) getter.invokeExact(instance);
+				case CHAR:
+					return (char) getter.invokeExact(instance);
+				case SHORT:
+					return (short) getter.invokeExact(instance);
+				case INT:
+					return (int) getter.invokeExact(instance);
+				case LONG:
+					return (long) getter.invokeExact(instance);
+				case FLOAT:
+					return Float.floatToRawIntBits((float) getter.invokeExact(instance));
+				case DOUBLE:
+					return Double.doubleToRawLongBits((double) getter.invokeExact(instance));
+				default:
+					throw new IllegalStateException("The field " + field + " is not primitive");
+			}
+		}
+
+		private Object readReference(final Object instance) throws Throwable {
+			return (Object) getter.invokeExact(instance);
+		}
+
+		private void writeBits(final Object instance, final long bits) throws Throwable {
+			switch (kind) {
+				case BOOLEAN:
+					setter.invokeExact(instance, bits != 0);
+					break;
+				case BYTE:
+					setter.invokeExact(instance, (byte) bits);
+					break;
+				case CHAR:
+					setter.invokeExact(instance, (char) bits);
+					break;
+				case SHORT:
+					setter.invokeExact(instance, (short) bits);
+					break;
+				case INT:
+					setter.invokeExact(instance, (int) bits);
+					break;
+				case LONG:
+					setter.invokeExact(instance, bits);
+					break;
+				case FLOAT:
+					setter.invokeExact(instance, Float.intBitsToFloat((int) bits));
+					break;
+				case DOUBLE:
+					setter.invokeExact(instance, Double.longBitsToDouble(bits));
+					break;
+				default:
+					throw new IllegalStateException("The field " + field + " is not primitive");
+			}
+		}
+
+		private void writeReference(final Object instance, final Object value) throws Throwable {
+			setter.invokeExact(instance, value);
+		}
+	}
+}
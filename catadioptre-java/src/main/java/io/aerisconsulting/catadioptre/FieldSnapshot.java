@@ -0,0 +1,82 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the values of the instance fields of an object, taken with
+ * {@link ReflectionFieldUtils#snapshot(Object, String...)} and restored with
+ * {@link ReflectionFieldUtils#restore(Object, FieldSnapshot)}, or of the static fields of a class registered in a
+ * {@link StaticStateRegistry}.
+ * <p>
+ * The snapshot is shallow: the objects referenced by the fields are not copied.
+ *
+ * @author Eric Jessé
+ */
+public final class FieldSnapshot {
+
+	private final FieldLayout layout;
+
+	private final long[] primitives;
+
+	private final Object[] references;
+
+	FieldSnapshot(final FieldLayout layout, final long[] primitives, final Object[] references) {
+		this.layout = layout;
+		this.primitives = primitives;
+		this.references = references;
+	}
+
+	/**
+	 * Returns the class whose fields were captured.
+	 */
+	public Class<?> getType() {
+		return layout.type;
+	}
+
+	/**
+	 * Returns the names of the captured fields, the fields shadowed by a subclass appearing after the shadowing ones.
+	 */
+	public List<String> getFieldNames() {
+		return layout.fieldNames();
+	}
+
+	/**
+	 * Returns the captured value of the field called {@code name}, the primitive values being boxed.
+	 */
+	public <R> R get(final String name) {
+		//noinspection unchecked
+		return (R) layout.value(name, primitives, references);
+	}
+
+	/**
+	 * Writes the captured values into the fields of {@code instance}.
+	 */
+	void restore(final Object instance) {
+		layout.restore(instance, primitives, references);
+	}
+
+	/**
+	 * Writes the captured values into the static fields whose values changed, and returns the fields that could not
+	 * be written with the cause. The changed final fields are reported without being written, unless
+	 * {@code finalFieldsWritten} is true.
+	 */
+	Map<Field, Throwable> restoreChangedStatics(final boolean finalFieldsWritten) {
+		return layout.restoreChangedStatics(primitives, references, finalFieldsWritten);
+	}
+}
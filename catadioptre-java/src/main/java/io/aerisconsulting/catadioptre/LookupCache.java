@@ -0,0 +1,161 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+
+/**
+ * Cache of the members resolved for each class.
+ * <p>
+ * The entries are attached to the classes with a {@link ClassValue}, so that they are released with their class
+ * loader. The values and keys must only reference classes visible from the class they are cached for.
+ * <p>
+ * The number of entries for each class is bounded by the system property
+ * {@code catadioptre.cache.max-entries-per-class} (1024 by default): when the bound is exceeded, the oldest entries of
+ * the class are evicted first. The bound is approximate under concurrent updates, it can be briefly exceeded by the
+ * number of threads caching entries for the same class. A bound of 0 disables the caching.
+ *
+ * @author Eric Jessé
+ */
+final class LookupCache<K, V> {
+
+	/**
+	 * System property to configure the maximal number of entries cached for each class.
+	 */
+	static final String MAX_ENTRIES_PROPERTY = "catadioptre.cache.max-entries-per-class";
+
+	private static final int MAX_ENTRIES = Integer.getInteger(MAX_ENTRIES_PROPERTY, 1024);
+
+	/**
+	 * Entries of all the caches, weakly referenced so that they do not retain their class loaders.
+	 */
+	private static final Set<Reference<Entries<?, ?>>> LIVE_ENTRIES = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Queue of the entries released with their class loaders, to remove from {@link #LIVE_ENTRIES}.
+	 */
+	private static final ReferenceQueue<Entries<?, ?>> RELEASED_ENTRIES = new ReferenceQueue<>();
+
+	private final ClassValue<Entries<K, V>> entries = new ClassValue<Entries<K, V>>() {
+		@Override
+		protected Entries<K, V> computeValue(final Class<?> type) {
+			expungeReleasedEntries();
+			final Entries<K, V> created = new Entries<>();
+			LIVE_ENTRIES.add(new WeakReference<>(created, RELEASED_ENTRIES));
+			return created;
+		}
+	};
+
+	/**
+	 * Returns the value cached for {@code type} and {@code key}, or null when there is none.
+	 */
+	V get(final Class<?> type, final K key) {
+		return entries.get(type).values.get(key);
+	}
+
+	/**
+	 * Caches {@code value} for {@code type} and {@code key}, evicting the oldest entries of {@code type} when the bound
+	 * is exceeded.
+	 */
+	void put(final Class<?> type, final K key, final V value) {
+		if (MAX_ENTRIES <= 0) {
+			return;
+		}
+		entries.get(type).put(key, value);
+	}
+
+	/**
+	 * Returns the value cached for {@code type} and {@code key}, or caches and returns the value created by
+	 * {@code factory} when there is none. The value created concurrently by another caller might be returned instead.
+	 */
+	V computeIfAbsent(final Class<?> type, final K key, final Function<? super K, ? extends V> factory) {
+		final V value = get(type, key);
+		if (value != null) {
+			return value;
+		}
+		final V created = factory.apply(key);
+		if (MAX_ENTRIES <= 0) {
+			return created;
+		}
+		final V cached = entries.get(type).put(key, created);
+		return cached != null ? cached : created;
+	}
+
+	/**
+	 * Eagerly discards the entries of all the caches, including the ones of classes that are not accessed anymore.
+	 * <p>
+	 * A value resolved concurrently with this call might still be cached after it.
+	 */
+	static void clearAll() {
+		expungeReleasedEntries();
+		for (final Reference<Entries<?, ?>> reference : LIVE_ENTRIES) {
+			final Entries<?, ?> live = reference.get();
+			if (live != null) {
+				live.clear();
+			}
+		}
+	}
+
+	/**
+	 * Removes the references to the entries already released with their class loaders.
+	 */
+	private static void expungeReleasedEntries() {
+		Reference<? extends Entries<?, ?>> released;
+		while ((released = RELEASED_ENTRIES.poll()) != null) {
+			LIVE_ENTRIES.remove(released);
+		}
+	}
+
+	/**
+	 * Entries cached for a single class, evicted in their insertion order.
+	 */
+	private static final class Entries<K, V> {
+
+		private final Map<K, V> values = new ConcurrentHashMap<>();
+
+		private final Queue<K> insertionOrder = new ConcurrentLinkedQueue<>();
+
+		/**
+		 * Caches {@code value} when there is no value for {@code key} yet, and returns the previous value or null.
+		 */
+		private V put(final K key, final V value) {
+			final V previous = values.putIfAbsent(key, value);
+			if (previous == null) {
+				insertionOrder.add(key);
+				while (values.size() > MAX_ENTRIES) {
+					final K oldest = insertionOrder.poll();
+					if (oldest == null) {
+						break;
+					}
+					values.remove(oldest);
+				}
+			}
+			return previous;
+		}
+
+		private void clear() {
+			insertionOrder.clear();
+			values.clear();
+		}
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Index of the annotated members of a class, generated by the annotation processor to resolve them without scanning
+ * all the members declared by the class.
+ * <p>
+ * The index of the class {@code my.package.Outer$MyClass} is the class
+ * {@code my.package.Outer_MyClass_CatadioptreIndex}, loaded by the same class loader.
+ *
+ * @author Eric Jessé
+ */
+public interface MemberIndex {
+
+	/**
+	 * Suffix of the names of the generated indices.
+	 */
+	String CLASS_NAME_SUFFIX = "_CatadioptreIndex";
+
+	/**
+	 * Resource listing the names of the proxied members of all the classes of a compilation, written by the annotation
+	 * processor for the agent of Catadioptre. Each line has the internal name of a class followed by {@code .fields}
+	 * or {@code .methods} as key, and the names separated by commas as value.
+	 */
+	String MEMBERS_RESOURCE_NAME = "META-INF/catadioptre/proxied-members.properties";
+
+	/**
+	 * Returns the field called {@code name} declared by the indexed class, or null when it is not indexed.
+	 */
+	Field getField(String name) throws NoSuchFieldException;
+
+	/**
+	 * Returns the method called {@code name} declared by the indexed class, or null when it is not indexed.
+	 * <p>
+	 * Only the methods that are not overloaded in the indexed class are indexed, so that no other method of the class
+	 * has the same name.
+	 */
+	Method getMethod(String name) throws NoSuchMethodException;
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.util.Optional;
+
+/**
+ * Finds the {@link MemberIndex} generated for the classes.
+ * <p>
+ * The index of each class is probed once and attached to the class with a {@link ClassValue}, so that it is released
+ * with its class loader.
+ *
+ * @author Eric Jessé
+ */
+final class MemberIndexes {
+
+	private static final ClassValue<Optional<MemberIndex>> INDICES = new ClassValue<Optional<MemberIndex>>() {
+		@Override
+		protected Optional<MemberIndex> computeValue(final Class<?> type) {
+			return Optional.ofNullable(load(type));
+		}
+	};
+
+	/**
+	 * This class only contains static methods.
+	 */
+	private MemberIndexes() {
+	}
+
+	/**
+	 * Returns the index generated for {@code type}, or null when there is none.
+	 */
+	static MemberIndex of(final Class<?> type) {
+		return INDICES.get(type).orElse(null);
+	}
+
+	/**
+	 * Returns the name of the index of {@code type}, in the same package.
+	 */
+	static String indexClassName(final Class<?> type) {
+		final String packageName = type.getPackageName();
+		final String binaryName = packageName.isEmpty() ? type.getName()
+				: type.getName().substring(packageName.length() + 1);
+		return (packageName.isEmpty() ? "" : packageName + ".") + binaryName.replace('$', '_')
+				+ MemberIndex.CLASS_NAME_SUFFIX;
+	}
+
+	private static MemberIndex load(final Class<?> type) {
+		final ClassLoader classLoader = type.getClassLoader();
+		if (classLoader == null || type.isArray()) {
+			return null;
+		}
+		try {
+			final Class<?> indexClass = Class.forName(indexClassName(type), false, classLoader);
+			if (!MemberIndex.class.isAssignableFrom(indexClass)) {
+				return null;
+			}
+			return (MemberIndex) indexClass.getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			// Without a usable index, the members of the class are scanned.
+			return null;
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Call site executing a method with the same signature on instances of different classes, typically kept in a static
+ * constant.
+ * <p>
+ * The method is selected once for each class of receivers with the types of parameters of the call site, as
+ * {@link ReflectionMethodUtils#executeInvisible(Object, String, Object...)} does for the types of the arguments. The
+ * methods resolved for the first classes are kept in a {@link PolymorphicInlineCache}, the other ones are shared with
+ * {@link ReflectionMethodUtils}. The subclasses generated by the mocking and proxying libraries are resolved as the
+ * classes they extend and share their entries, and the subclasses that do not declare the method share the entry of
+ * their ancestor declaring it.
+ * <p>
+ * Usage: {@code private static final MethodCallSite DIVIDE = MethodCallSite.of("divide", Number.class, int.class);
+ * double result = DIVIDE.execute(myInstance, 10, 2);}
+ *
+ * @author Eric Jessé
+ */
+public final class MethodCallSite {
+
+	private final String name;
+
+	private final PolymorphicInlineCache<ReflectionMethodUtils.DeclaredMethod> cache;
+
+	private MethodCallSite(final String name, final Argument[] argumentDefinitions) {
+		this.name = name;
+		this.cache = new PolymorphicInlineCache<>(
+				receiverClass -> ReflectionMethodUtils.resolveMethod(receiverClass, name, argumentDefinitions));
+	}
+
+	/**
+	 * Creates a call site for the method called {@code name}, with the types of the parameters of the call.
+	 */
+	public static MethodCallSite of(final String name, final Class<?>... parameterTypes) {
+		return new MethodCallSite(name, Arrays.stream(parameterTypes).map(Argument::ofNull).toArray(Argument[]::new));
+	}
+
+	/**
+	 * Executes the method on {@code instance}, with {@code arguments} of the types of the call site, which can be null.
+	 */
+	public <T> T execute(final Object instance, final Object... arguments) {
+		final CatadioptreEvents.MethodInvoke event = CatadioptreEvents.MethodInvoke.start();
+		final ReflectionMethodUtils.DeclaredMethod method = find(UserClasses.of(instance.getClass()), event);
+		return ReflectionMethodUtils.invoke(method, instance, method.verify(instance, arguments), event);
+	}
+
+	/**
+	 * Verifies whether the method was executed on more classes than the inline cache keeps.
+	 */
+	boolean isMegamorphic() {
+		return cache.isMegamorphic();
+	}
+
+	private ReflectionMethodUtils.DeclaredMethod find(final Class<?> receiverClass,
+			final CatadioptreEvents.MemberEvent accessEvent) {
+		final long start = CatadioptreMetrics.start();
+		final CatadioptreEvents.Lookup lookupEvent = CatadioptreEvents.Lookup.start("method");
+		ReflectionMethodUtils.DeclaredMethod method = cache.getIfPresent(receiverClass);
+		final boolean cacheHit = method != null;
+		if (!cacheHit) {
+			try {
+				method = cache.resolve(receiverClass);
+			} catch (CatadioptreException e) {
+				CatadioptreMetrics.recordFailedLookup(Method.class, start);
+				lookupEvent.notFound(receiverClass, name, false);
+				throw e;
+			}
+		}
+		CatadioptreMetrics.recordLookup(method.method, cacheHit, start);
+		lookupEvent.found(method.method, cacheHit);
+		accessEvent.resolved(method.method, cacheHit);
+		return method;
+	}
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Member;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Module-aware access to the private members of the classes.
+ * <p>
+ * The access to each class is verified once and attached to the class with a {@link ClassValue}: either a private
+ * {@link MethodHandles.Lookup} obtained with {@link MethodHandles#privateLookupIn(Class, MethodHandles.Lookup)}, or
+ * the {@code --add-opens} option missing to access the package of the class.
+ *
+ * @author Eric Jessé
+ */
+final class ModuleAccess {
+
+	private static final Module RUNTIME_MODULE = ModuleAccess.class.getModule();
+
+	private static final MethodHandles.Lookup RUNTIME_LOOKUP = MethodHandles.lookup();
+
+	private static final ClassValue<Access> ACCESSES = new ClassValue<Access>() {
+		@Override
+		protected Access computeValue(final Class<?> type) {
+			return verify(type);
+		}
+	};
+
+	/**
+	 * Options {@code --add-opens} missing to access all the classes used so far.
+	 */
+	private static final Set<String> MISSING_OPENS = new ConcurrentSkipListSet<>();
+
+	/**
+	 * This class only contains static methods.
+	 */
+	private ModuleAccess() {
+	}
+
+	/**
+	 * Makes {@code member} accessible to the core reflection.
+	 *
+	 * @throws CatadioptreException when the package of the declaring class is not open to Catadioptre
+	 */
+	static <T extends AccessibleObject & Member> T makeAccessible(final T member) {
+		verifyAccess(member).setAccessible(true);
+		return member;
+	}
+
+	/**
+	 * Verifies that the method handles of {@code member} can be unreflected with the lookup returned by
+	 * {@link #lookupFor(Member)}, without making it accessible.
+	 *
+	 * @throws CatadioptreException when the package of the declaring class is not open to Catadioptre
+	 */
+	static <T extends Member> T verifyAccess(final T member) {
+		if (!isExported(member)) {
+			ACCESSES.get(member.getDeclaringClass()).verify();
+		}
+		return member;
+	}
+
+	/**
+	 * Returns the private lookup in {@code type}, to create the method handles of its members.
+	 *
+	 * @throws CatadioptreException when the package of the class is not open to Catadioptre
+	 */
+	static MethodHandles.Lookup lookupIn(final Class<?> type) {
+		return ACCESSES.get(type).verify();
+	}
+
+	/**
+	 * Returns the lookup to create the method handles of {@code member}.
+	 *
+	 * @throws CatadioptreException when the package of the declaring class is not open to Catadioptre
+	 */
+	static MethodHandles.Lookup lookupFor(final Member member) {
+		return isExported(member) ? RUNTIME_LOOKUP : lookupIn(member.getDeclaringClass());
+	}
+
+	/**
+	 * Verifies whether {@code member} can be accessed, either because it is exported or because the package of its
+	 * declaring class is open to Catadioptre. The packages that are not open are reported by {@link #missingOpens()}.
+	 */
+	static boolean isAccessible(final Member member) {
+		return isExported(member) || ACCESSES.get(member.getDeclaringClass()).lookup != null;
+	}
+
+	/**
+	 * Verifies whether {@code member} is public in a public class of a package exported to Catadioptre, in which case
+	 * it can be accessed without opening the package.
+	 */
+	private static boolean isExported(final Member member) {
+		final Class<?> type = member.getDeclaringClass();
+		return Modifier.isPublic(member.getModifiers()) && Modifier.isPublic(type.getModifiers())
+				&& type.getModule().isExported(type.getPackageName(), RUNTIME_MODULE);
+	}
+
+	/**
+	 * Returns the {@code --add-opens} options missing to access the classes used so far, sorted by name.
+	 */
+	static Set<String> missingOpens() {
+		return Collections.unmodifiableSet(new TreeSet<>(MISSING_OPENS));
+	}
+
+	private static Access verify(final Class<?> type) {
+		final Module module = type.getModule();
+		final String packageName = type.getPackageName();
+		if (module.isOpen(packageName, RUNTIME_MODULE)) {
+			try {
+				return new Access(MethodHandles.privateLookupIn(type, MethodHandles.lookup()), null);
+			} catch (IllegalAccessException | RuntimeException e) {
+				// The package is open, but the class cannot be accessed nonetheless.
+				return new Access(null, e.getMessage());
+			}
+		}
+		final String missingOpens = "--add-opens " + module.getName() + "/" + packageName + "="
+				+ (RUNTIME_MODULE.isNamed() ? RUNTIME_MODULE.getName() : "ALL-UNNAMED");
+		MISSING_OPENS.add(missingOpens);
+		return new Access(null, "The package " + packageName + " of the module " + module.getName()
+				+ " is not open to Catadioptre, add the JVM option " + missingOpens);
+	}
+
+	/**
+	 * Result of the verification of the access to a class.
+	 */
+	private static final class Access {
+
+		private final MethodHandles.Lookup lookup;
+
+		private final String failure;
+
+		private Access(final MethodHandles.Lookup lookup, final String failure) {
+			this.lookup = lookup;
+			this.failure = failure;
+		}
+
+		private MethodHandles.Lookup verify() {
+			if (lookup == null) {
+				throw new CatadioptreException(new IllegalAccessException(failure));
+			}
+			return lookup;
+		}
+	}
+}
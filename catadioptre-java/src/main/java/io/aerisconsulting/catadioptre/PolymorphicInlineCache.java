@@ -0,0 +1,111 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Function;
+
+/**
+ * Polymorphic inline cache of a call site, keeping the members resolved for the first {@link #SIZE} classes of
+ * receivers in an array compared by identity.
+ * <p>
+ * Once more classes were seen, the call site becomes megamorphic: the entries of the array are kept and the other
+ * classes are resolved with {@code resolver}, which relies on the caches attached to the classes. The entries are added
+ * with a compare-and-set of the array, without locking.
+ *
+ * @author Eric Jessé
+ */
+final class PolymorphicInlineCache<V> {
+
+	/**
+	 * Number of classes of receivers kept in the inline cache.
+	 */
+	static final int SIZE = 4;
+
+	private static final Entry<?>[] NO_ENTRY = new Entry<?>[0];
+
+	@SuppressWarnings("rawtypes")
+	private static final AtomicReferenceFieldUpdater<PolymorphicInlineCache, Entry[]> ENTRIES =
+			AtomicReferenceFieldUpdater.newUpdater(PolymorphicInlineCache.class, Entry[].class, "entries");
+
+	private final Function<Class<?>, V> resolver;
+
+	@SuppressWarnings("unchecked")
+	private volatile Entry<V>[] entries = (Entry<V>[]) NO_ENTRY;
+
+	private volatile boolean megamorphic;
+
+	PolymorphicInlineCache(final Function<Class<?>, V> resolver) {
+		this.resolver = resolver;
+	}
+
+	/**
+	 * Returns the value cached inline for {@code receiverClass}, or null when there is none.
+	 */
+	V getIfPresent(final Class<?> receiverClass) {
+		return valueOf(entries, receiverClass);
+	}
+
+	/**
+	 * Resolves the value for {@code receiverClass} and caches it inline, unless the call site is megamorphic.
+	 */
+	V resolve(final Class<?> receiverClass) {
+		final V value = resolver.apply(receiverClass);
+		while (!megamorphic) {
+			final Entry<V>[] current = entries;
+			if (valueOf(current, receiverClass) != null) {
+				break;
+			} else if (current.length >= SIZE) {
+				megamorphic = true;
+			} else {
+				final Entry<V>[] updated = Arrays.copyOf(current, current.length + 1);
+				updated[current.length] = new Entry<>(receiverClass, value);
+				if (ENTRIES.compareAndSet(this, current, updated)) {
+					break;
+				}
+			}
+		}
+		return value;
+	}
+
+	private static <V> V valueOf(final Entry<V>[] entries, final Class<?> receiverClass) {
+		for (final Entry<V> entry : entries) {
+			if (entry.receiverClass == receiverClass) {
+				return entry.value;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Verifies whether more than {@link #SIZE} classes of receivers were seen.
+	 */
+	boolean isMegamorphic() {
+		return megamorphic;
+	}
+
+	private static final class Entry<V> {
+
+		private final Class<?> receiverClass;
+
+		private final V value;
+
+		private Entry(final Class<?> receiverClass, final V value) {
+			this.receiverClass = receiverClass;
+			this.value = value;
+		}
+	}
+}
@@ -15,6 +15,7 @@
 package io.aerisconsulting.catadioptre;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
 import java.util.Optional;
 
@@ -25,6 +26,21 @@ import java.util.Optional;
  */
 public class ReflectionFieldUtils {
 
+	/**
+	 * Fields already resolved for each class, by name.
+	 */
+	private static final LookupCache<String, DeclaredField> FIELDS = new LookupCache<>();
+
+	/**
+	 * Names of the fields already searched in vain for each class.
+	 */
+	private static final LookupCache<String, Boolean> MISSING_FIELDS = new LookupCache<>();
+
+	/**
+	 * Fields already resolved in the classes declaring them, by name.
+	 */
+	private static final LookupCache<String, DeclaredField> DECLARED_FIELDS = new LookupCache<>();
+
 	/**
 	 * This class only contains static methods.
 	 */
@@ -43,13 +59,49 @@ public class ReflectionFieldUtils {
 	 * @return the instance in order to chain the calls
 	 */
 	public static <T> T setField(T instance, String name, Object value) {
-		final Field field = findField(instance.getClass(), name);
+		final CatadioptreEvents.FieldAccess event = CatadioptreEvents.FieldAccess.start(true);
+		final DeclaredField field = findField(UserClasses.of(instance.getClass()), name, event);
+		write(field, instance, value, event);
+		return instance;
+	}
+
+	/**
+	 * Sets {@code value} in the field called {@code name} declared by {@code declaringClass}, on {@code instance}.
+	 * <p>
+	 * The field is not searched in the hierarchy, which allows to access a field shadowed by a subclass. The instance
+	 * is ignored for a static field and can be null.
+	 * <p>
+	 * Usage: {@code ReflectionFieldUtils.setField(myInstance, MyParentClass.class, "value", 456) }
+	 *
+	 * @param instance the instance owning the field
+	 * @param declaringClass the class declaring the field
+	 * @param name the name of the field
+	 * @param value the value to set on the field
+	 * @param <T> the type of the instance
+	 * @return the instance in order to chain the calls
+	 */
+	public static <T> T setField(T instance, Class<?> declaringClass, String name, Object value) {
+		final CatadioptreEvents.FieldAccess event = CatadioptreEvents.FieldAccess.start(true);
+		final DeclaredField field = findDeclaredField(declaringClass, name, event);
+		verifyInstance(field.field, instance);
+		write(field, instance, value, event);
+		return instance;
+	}
+
+	static void write(DeclaredField field, Object instance, Object value, CatadioptreEvents.FieldAccess event) {
+		final long start = CatadioptreMetrics.start();
 		try {
-			field.set(instance, value);
+			AccessorSpinning.CONFIGURED.set(field.field, field.inflation, instance, value);
 		} catch (IllegalAccessException e) {
+			event.failed(e);
 			throw new CatadioptreException(e);
+		} catch (RuntimeException e) {
+			event.failed(e);
+			throw e;
+		} finally {
+			CatadioptreMetrics.recordInvocation(field.field, start);
+			event.complete();
 		}
-		return instance;
 	}
 
 	/**
@@ -58,11 +110,66 @@ public class ReflectionFieldUtils {
 	 * Usage: {@code int value = ReflectionFieldUtils.getField<Integer></>(myInstance, "value") }
 	 */
 	public static <R> R getField(Object instance, String name) {
+		final CatadioptreEvents.FieldAccess event = CatadioptreEvents.FieldAccess.start(false);
+		final DeclaredField field = findField(UserClasses.of(instance.getClass()), name, event);
+		return read(field, instance, event);
+	}
+
+	/**
+	 * Reads the value from the field called {@code name} declared by {@code declaringClass}, on {@code instance}.
+	 * <p>
+	 * The field is not searched in the hierarchy, which allows to access a field shadowed by a subclass. The instance
+	 * is ignored for a static field and can be null.
+	 * <p>
+	 * Usage: {@code int value = ReflectionFieldUtils.getField<Integer></>(myInstance, MyParentClass.class, "value") }
+	 */
+	public static <R> R getField(Object instance, Class<?> declaringClass, String name) {
+		final CatadioptreEvents.FieldAccess event = CatadioptreEvents.FieldAccess.start(false);
+		final DeclaredField field = findDeclaredField(declaringClass, name, event);
+		verifyInstance(field.field, instance);
+		return read(field, instance, event);
+	}
+
+	/**
+	 * Reads the value from the field called {@code name} on {@code instance}, when the field exists.
+	 * <p>
+	 * Unlike {@link #getField(Object, String)}, a missing field is not reported with an exception, which makes the
+	 * probes of optional fields cheap, the missing fields being cached. The value is empty when the field is missing or
+	 * null.
+	 * <p>
+	 * Usage: {@code Optional<Integer> value = ReflectionFieldUtils.tryGetField(myInstance, "value") }
+	 */
+	public static <R> Optional<R> tryGetField(Object instance, String name) {
+		final CatadioptreEvents.FieldAccess event = CatadioptreEvents.FieldAccess.start(false);
+		final DeclaredField field = probeField(UserClasses.of(instance.getClass()), name, event);
+		return field == null ? Optional.empty() : Optional.ofNullable(read(field, instance, event));
+	}
+
+	/**
+	 * Verifies whether a field called {@code name} exists on {@code instance}, without reporting a missing field with
+	 * an exception.
+	 * <p>
+	 * Usage: {@code boolean exists = ReflectionFieldUtils.hasField(myInstance, "value") }
+	 */
+	public static boolean hasField(Object instance, String name) {
+		return probeField(UserClasses.of(instance.getClass()), name, null) != null;
+	}
+
+	static <R> R read(DeclaredField field, Object instance, CatadioptreEvents.FieldAccess event) {
+		final long start = CatadioptreMetrics.start();
 		try {
-			//noinspection unchecked
-			return (R) findField(instance.getClass(), name).get(instance);
+			@SuppressWarnings("unchecked")
+			final R value = (R) AccessorSpinning.CONFIGURED.get(field.field, field.inflation, instance);
+			return value;
 		} catch (IllegalAccessException e) {
+			event.failed(e);
 			throw new CatadioptreException(e);
+		} catch (RuntimeException e) {
+			event.failed(e);
+			throw e;
+		} finally {
+			CatadioptreMetrics.recordInvocation(field.field, start);
+			event.complete();
 		}
 	}
 
@@ -77,19 +184,254 @@ public class ReflectionFieldUtils {
 	}
 
 	/**
-	 * Searches the declared field with the provided name on the class or one of its ancestors.
+	 * Takes a snapshot of the values of the fields called {@code names} on {@code instance}, or of all its instance
+	 * fields when no name is provided.
+	 * <p>
+	 * The fields are accessed with a layout of the class computed once, which makes the snapshots of long-lived objects
+	 * cheaper than reading their fields one by one. The snapshot is shallow. The fields inherited from classes in
+	 * packages that are not open to Catadioptre are skipped, see {@link Catadioptre#missingOpens()}.
+	 * <p>
+	 * Usage: {@code FieldSnapshot snapshot = ReflectionFieldUtils.snapshot(myInstance) }
+	 *
+	 * @param instance the instance owning the fields
+	 * @param names the names of the fields to capture, all the instance fields when empty
+	 * @return the immutable snapshot of the values of the fields
+	 */
+	public static FieldSnapshot snapshot(Object instance, String... names) {
+		return FieldLayout.of(UserClasses.of(instance.getClass()), names).snapshot(instance);
+	}
+
+	/**
+	 * Writes the values captured in {@code snapshot} into the fields of {@code instance}, including the final ones.
+	 * <p>
+	 * Usage: {@code ReflectionFieldUtils.restore(myInstance, snapshot) }
+	 *
+	 * @param instance the instance owning the fields, of the class of the snapshot or one of its subclasses
+	 * @param snapshot the snapshot to restore
+	 * @param <T> the type of the instance
+	 * @return the instance in order to chain the calls
+	 */
+	public static <T> T restore(T instance, FieldSnapshot snapshot) {
+		snapshot.restore(instance);
+		return instance;
+	}
+
+	/**
+	 * Copies the values of the fields called {@code names}, or of all the instance fields when no name is provided,
+	 * from {@code source} to {@code target}, without taking a snapshot.
+	 * <p>
+	 * Usage: {@code ReflectionFieldUtils.copyFields(mySource, myTarget) }
+	 *
+	 * @param source the instance to read the fields from
+	 * @param target the instance to write the fields to, of the class of {@code source} or one of its subclasses
+	 * @param names the names of the fields to copy, all the instance fields when empty
+	 * @param <T> the type of the target
+	 * @return the target in order to chain the calls
+	 */
+	public static <T> T copyFields(Object source, T target, String... names) {
+		FieldLayout.of(UserClasses.of(source.getClass()), names).copy(source, target);
+		return target;
+	}
+
+	/**
+	 * Returns the field with the provided name on the class or one of its ancestors, from the cache when it was already
+	 * resolved.
+	 */
+	private static DeclaredField findField(Class<?> instanceClass, String name,
+			CatadioptreEvents.MemberEvent accessEvent) {
+		final DeclaredField field = probeField(instanceClass, name, accessEvent);
+		if (field == null) {
+			throw fieldNotFound(name);
+		}
+		return field;
+	}
+
+	/**
+	 * Returns the field with the provided name on the class or one of its ancestors, from the caches when it was
+	 * already searched, or null when there is none.
+	 *
+	 * @param accessEvent the event of the access to the field, or null when the field is not accessed
+	 */
+	private static DeclaredField probeField(Class<?> instanceClass, String name,
+			CatadioptreEvents.MemberEvent accessEvent) {
+		final long start = CatadioptreMetrics.start();
+		final CatadioptreEvents.Lookup lookupEvent = CatadioptreEvents.Lookup.start("field");
+		DeclaredField field = FIELDS.get(instanceClass, name);
+		if (field != null) {
+			recordLookup(field.field, true, start, lookupEvent, accessEvent);
+			return field;
+		}
+		final boolean knownAsMissing = MISSING_FIELDS.get(instanceClass, name) != null;
+		if (!knownAsMissing) {
+			try {
+				field = searchSharedField(instanceClass, name);
+			} catch (CatadioptreException e) {
+				CatadioptreMetrics.recordFailedLookup(Field.class, start);
+				lookupEvent.notFound(instanceClass, name, false);
+				throw e;
+			}
+		}
+		if (field == null) {
+			if (!knownAsMissing) {
+				MISSING_FIELDS.put(instanceClass, name, Boolean.TRUE);
+			}
+			CatadioptreMetrics.recordFailedLookup(Field.class, start);
+			lookupEvent.notFound(instanceClass, name, knownAsMissing);
+			return null;
+		}
+		FIELDS.put(instanceClass, name, field);
+		recordLookup(field.field, false, start, lookupEvent, accessEvent);
+		return field;
+	}
+
+	/**
+	 * Returns the field with the provided name declared by the class, from the cache when it was already resolved.
+	 */
+	private static DeclaredField findDeclaredField(Class<?> declaringClass, String name,
+			CatadioptreEvents.MemberEvent accessEvent) {
+		final long start = CatadioptreMetrics.start();
+		final CatadioptreEvents.Lookup lookupEvent = CatadioptreEvents.Lookup.start("field");
+		DeclaredField field = DECLARED_FIELDS.get(declaringClass, name);
+		if (field != null) {
+			recordLookup(field.field, true, start, lookupEvent, accessEvent);
+			return field;
+		}
+		try {
+			field = new DeclaredField(searchDeclaredField(declaringClass, name));
+		} catch (CatadioptreException e) {
+			CatadioptreMetrics.recordFailedLookup(Field.class, start);
+			lookupEvent.notFound(declaringClass, name, false);
+			throw e;
+		}
+		DECLARED_FIELDS.put(declaringClass, name, field);
+		recordLookup(field.field, false, start, lookupEvent, accessEvent);
+		return field;
+	}
+
+	private static Field searchDeclaredField(Class<?> declaringClass, String name) {
+		try {
+			return ModuleAccess.verifyAccess(declaringClass.getDeclaredField(name));
+		} catch (NoSuchFieldException e) {
+			throw new CatadioptreException(e);
+		}
+	}
+
+	/**
+	 * Verifies that {@code instance} can own {@code field}, when it is not static.
+	 */
+	private static void verifyInstance(Field field, Object instance) {
+		if (!Modifier.isStatic(field.getModifiers()) && !field.getDeclaringClass().isInstance(instance)) {
+			throw new IllegalArgumentException(
+					"The field " + field.getName() + " requires an instance of " + field.getDeclaringClass().getName());
+		}
+	}
+
+	/**
+	 * Resolves the field called {@code name} on the class or one of its ancestors and caches it, without recording
+	 * metrics nor events.
+	 */
+	static void preloadField(Class<?> instanceClass, String name) {
+		resolveField(instanceClass, name);
+	}
+
+	/**
+	 * Returns the field called {@code name} on the class or one of its ancestors, from the cache or resolved and
+	 * cached, without recording metrics nor events.
 	 */
-	private static Field findField(Class<?> instanceClass, String name) {
-		final Optional<Field> field = Arrays.stream(instanceClass.getDeclaredFields())
-				.filter(f -> f.getName().equals(name))
-				.findFirst();
+	static DeclaredField resolveField(Class<?> instanceClass, String name) {
+		DeclaredField field = FIELDS.get(instanceClass, name);
+		if (field == null) {
+			field = searchSharedField(instanceClass, name);
+			if (field == null) {
+				throw fieldNotFound(name);
+			}
+			FIELDS.put(instanceClass, name, field);
+		}
+		return field;
+	}
+
+	/**
+	 * Searches the field with the provided name on the class or one of its ancestors, or returns null when there is
+	 * none. The field already resolved for its declaring class is shared.
+	 */
+	private static DeclaredField searchSharedField(Class<?> instanceClass, String name) {
+		final Class<?> declaringClass = DeclaredNames.ofField(instanceClass, name);
+		if (declaringClass == instanceClass) {
+			return declaredFieldOf(searchField(instanceClass, name));
+		}
+		DeclaredField field = FIELDS.get(declaringClass, name);
+		if (field == null) {
+			field = declaredFieldOf(searchField(declaringClass, name));
+			if (field != null) {
+				FIELDS.put(declaringClass, name, field);
+			}
+		}
+		return field;
+	}
+
+	private static DeclaredField declaredFieldOf(Field field) {
+		return field != null ? new DeclaredField(field) : null;
+	}
+
+	private static void recordLookup(Field field, boolean cacheHit, long start, CatadioptreEvents.Lookup lookupEvent,
+			CatadioptreEvents.MemberEvent accessEvent) {
+		CatadioptreMetrics.recordLookup(field, cacheHit, start);
+		lookupEvent.found(field, cacheHit);
+		if (accessEvent != null) {
+			accessEvent.resolved(field, cacheHit);
+		}
+	}
+
+	private static CatadioptreException fieldNotFound(String name) {
+		return new CatadioptreException(new NoSuchFieldException("Field " + name + " was not found"));
+	}
+
+	/**
+	 * Searches the declared field with the provided name on the class or one of its ancestors, using their generated
+	 * {@link MemberIndex} when they have one, or returns null when there is none.
+	 */
+	private static Field searchField(Class<?> instanceClass, String name) {
+		final Optional<Field> field = Optional.ofNullable(indexedField(instanceClass, name))
+				.or(() -> Arrays.stream(instanceClass.getDeclaredFields())
+						.filter(f -> f.getName().equals(name))
+						.findFirst());
 		if (field.isPresent()) {
-			field.get().setAccessible(true);
-			return field.get();
+			return ModuleAccess.verifyAccess(field.get());
 		}
 		if (!instanceClass.getSuperclass().equals(Object.class)) {
-			return findField(instanceClass.getSuperclass(), name);
+			return searchField(instanceClass.getSuperclass(), name);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the field called {@code name} from the {@link MemberIndex} generated for the class, or null when it is
+	 * not indexed.
+	 */
+	private static Field indexedField(Class<?> instanceClass, String name) {
+		final MemberIndex index = MemberIndexes.of(instanceClass);
+		if (index != null) {
+			try {
+				return index.getField(name);
+			} catch (NoSuchFieldException e) {
+				// The index is outdated, the declared fields are scanned.
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Resolved field, with the accesses counted to spin its accessors.
+	 */
+	static final class DeclaredField {
+
+		final Field field;
+
+		private final AccessorSpinning.Inflation inflation;
+
+		DeclaredField(final Field field) {
+			this.field = field;
+			this.inflation = AccessorSpinning.CONFIGURED.inflationOf(field);
 		}
-		throw new CatadioptreException(new NoSuchFieldException("Field " + name + " was not found"));
 	}
 }
@@ -14,12 +14,16 @@
  */
 package io.aerisconsulting.catadioptre;
 
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.lang.reflect.Modifier;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -32,6 +36,21 @@ public class ReflectionMethodUtils {
 
 	private static final Map<Class<?>, Class<?>> PRIMITIVE_MAPPING = new HashMap<>();
 
+	/**
+	 * Methods already resolved for each class, by name and then by the types of the arguments of the calls.
+	 */
+	private static final LookupCache<String, ResolvedCalls> METHODS = new LookupCache<>();
+
+	/**
+	 * Signatures of the calls already searched in vain for each class.
+	 */
+	private static final LookupCache<CallSignature, Boolean> MISSING_METHODS = new LookupCache<>();
+
+	/**
+	 * Methods already resolved in the classes declaring them, by name and descriptor or parameter types.
+	 */
+	private static final LookupCache<DeclaredSignature, DeclaredMethod> DECLARED_METHODS = new LookupCache<>();
+
 	static {
 		PRIMITIVE_MAPPING.put(Byte.TYPE, Byte.class);
 		PRIMITIVE_MAPPING.put(Short.TYPE, Short.class);
@@ -59,54 +78,456 @@ public class ReflectionMethodUtils {
 	 * @return the result of the execution of the method {@code name} on {@code instance}
 	 */
 	public static <T> T executeInvisible(Object instance, String name, Object... value) {
-		final Argument[] argumentsDefinitions = new Argument[value.length];
-		final ArrayList<Object> argumentsValues = new ArrayList<>();
 		for (int i = 0; i < value.length; i++) {
-			Object arg = value[i];
-			if (arg instanceof Argument) {
-				final Argument argument = (Argument) arg;
-				argumentsDefinitions[i] = argument;
-				argumentsValues.add(argument.getValue());
-			} else if (arg != null) {
-				argumentsDefinitions[i] = Argument.ofNotNull(arg);
-				argumentsValues.add(arg);
-			} else {
+			if (value[i] == null) {
 				throw new IllegalArgumentException("The argument " + i
 						+ " is null and its type cannot be detected. Use Argument.ofNull() instead.");
 			}
 		}
-		final Method method = findMethod(instance.getClass(), name, argumentsDefinitions);
+		final CatadioptreEvents.MethodInvoke event = CatadioptreEvents.MethodInvoke.start();
+		final DeclaredMethod method = findMethod(UserClasses.of(instance.getClass()), name, value, event);
+		return invoke(method, instance, valuesOf(value), event);
+	}
+
+	/**
+	 * Returns the values to pass to the method for {@code arguments}, which are the arguments themselves when none of
+	 * them is an {@link Argument}.
+	 */
+	private static Object[] valuesOf(Object[] arguments) {
+		Object[] values = arguments;
+		for (int i = 0; i < arguments.length; i++) {
+			if (arguments[i] instanceof Argument) {
+				if (values == arguments) {
+					// The arguments might be passed as an array of Argument, which cannot hold the values.
+					values = Arrays.copyOf(arguments, arguments.length, Object[].class);
+				}
+				values[i] = ((Argument) arguments[i]).getValue();
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * Returns the definitions of {@code arguments}, which are either instances of {@link Argument} or values that are
+	 * not null.
+	 */
+	private static Argument[] definitionsOf(Object[] arguments) {
+		if (arguments instanceof Argument[]) {
+			return (Argument[]) arguments;
+		}
+		final Argument[] argumentDefinitions = new Argument[arguments.length];
+		for (int i = 0; i < arguments.length; i++) {
+			argumentDefinitions[i] = arguments[i] instanceof Argument ? (Argument) arguments[i]
+					: Argument.ofNotNull(arguments[i]);
+		}
+		return argumentDefinitions;
+	}
+
+	/**
+	 * Executes the method called {@code name} declared by {@code declaringClass} with the JVM descriptor
+	 * {@code descriptor}, which cannot be accessible in the caller scope.
+	 * <p>
+	 * The method is resolved without considering the types of the arguments, which can be null. The instance is
+	 * ignored for a static method and can be null.
+	 * <p>
+	 * Usage: {@code String result = ReflectionMethodUtils.executeInvisible(myInstance, MyClass.class, "compute",
+	 * "(IJ)Ljava/lang/String;", 12, 34L) }
+	 *
+	 * @param instance       the instance for the "this" of the executed method
+	 * @param declaringClass the class declaring the method
+	 * @param name           the name of the method to execute
+	 * @param descriptor     the JVM descriptor of the method, with the types of its parameters and of its result
+	 * @param arguments      the arguments to pass to the method
+	 * @param <T>            the type of the result
+	 * @return the result of the execution of the method {@code name} on {@code instance}
+	 */
+	public static <T> T executeInvisible(Object instance, Class<?> declaringClass, String name, String descriptor,
+			Object... arguments) {
+		final CatadioptreEvents.MethodInvoke event = CatadioptreEvents.MethodInvoke.start();
+		final DeclaredMethod method = findDeclaredMethod(declaringClass, new DeclaredSignature(name, descriptor, null),
+				event);
+		return invoke(method, instance, method.verify(instance, arguments), event);
+	}
+
+	/**
+	 * Executes the method called {@code name} declared by {@code declaringClass} with the parameters of the types
+	 * {@code parameterTypes}, which cannot be accessible in the caller scope.
+	 * <p>
+	 * The method is resolved without considering the types of the arguments, which can be null. The instance is
+	 * ignored for a static method and can be null.
+	 * <p>
+	 * Usage: {@code String result = ReflectionMethodUtils.executeInvisible(myInstance, MyClass.class, "compute",
+	 * new Class<?>[]{int.class, long.class}, 12, 34L) }
+	 *
+	 * @param instance       the instance for the "this" of the executed method
+	 * @param declaringClass the class declaring the method
+	 * @param name           the name of the method to execute
+	 * @param parameterTypes the types of the parameters of the method
+	 * @param arguments      the arguments to pass to the method
+	 * @param <T>            the type of the result
+	 * @return the result of the execution of the method {@code name} on {@code instance}
+	 */
+	public static <T> T executeInvisible(Object instance, Class<?> declaringClass, String name,
+			Class<?>[] parameterTypes, Object... arguments) {
+		final CatadioptreEvents.MethodInvoke event = CatadioptreEvents.MethodInvoke.start();
+		final DeclaredMethod method = findDeclaredMethod(declaringClass,
+				new DeclaredSignature(name, null, parameterTypes), event);
+		return invoke(method, instance, method.verify(instance, arguments), event);
+	}
+
+	/**
+	 * Returns the method called {@code name} on {@code instance} that accepts arguments of {@code parameterTypes}, made
+	 * accessible, when it exists.
+	 * <p>
+	 * The method is selected as {@link #executeInvisible(Object, String, Object...)} does for arguments of these
+	 * types. Unlike the execution, a missing method is not reported with an exception, which makes the probes of
+	 * optional methods cheap, the missing methods being cached.
+	 * <p>
+	 * Usage:
+	 * {@code Optional<Method> method = ReflectionMethodUtils.findInvisibleMethod(myInstance, "divide", Number.class, int.class) }
+	 *
+	 * @param instance the instance for the "this" of the method
+	 * @param name the name of the method
+	 * @param parameterTypes the types of the arguments to pass to the method
+	 * @return the method, or an empty optional when there is none
+	 */
+	public static Optional<Method> findInvisibleMethod(Object instance, String name, Class<?>... parameterTypes) {
+		final Argument[] argumentDefinitions = Arrays.stream(parameterTypes).map(Argument::ofNull)
+				.toArray(Argument[]::new);
+		final DeclaredMethod method = probeMethod(UserClasses.of(instance.getClass()), name, argumentDefinitions, null);
+		return method == null ? Optional.empty() : Optional.of(ModuleAccess.makeAccessible(method.method));
+	}
+
+	/**
+	 * Verifies whether a method called {@code name} that accepts arguments of {@code parameterTypes} exists on
+	 * {@code instance}, without reporting a missing method with an exception.
+	 * <p>
+	 * Usage: {@code boolean exists = ReflectionMethodUtils.hasMethod(myInstance, "divide", Number.class, int.class) }
+	 */
+	public static boolean hasMethod(Object instance, String name, Class<?>... parameterTypes) {
+		return findInvisibleMethod(instance, name, parameterTypes).isPresent();
+	}
+
+	static <T> T invoke(DeclaredMethod method, Object instance, Object[] argumentsValues,
+			CatadioptreEvents.MethodInvoke event) {
+		final long start = CatadioptreMetrics.start();
 		try {
-			//noinspection unchecked
-			return (T) method.invoke(instance, argumentsValues.toArray());
+			@SuppressWarnings("unchecked")
+			final T result = (T) AccessorSpinning.CONFIGURED.invoke(method.method, method.inflation, instance,
+					argumentsValues);
+			return result;
 		} catch (InvocationTargetException e) {
-			throw new CatadioptreOriginalCauseException(e.getCause());
+			event.failed(e.getCause());
+			throw CatadioptreOriginalCauseException.rethrow(e.getCause());
 		} catch (Exception e) {
+			event.failed(e);
 			throw new CatadioptreException(e);
+		} finally {
+			// The failed invocations cost as much as the other ones.
+			CatadioptreMetrics.recordInvocation(method.method, start);
+			event.complete();
 		}
 	}
 
 	/**
-	 * Searches the declared method with the provided signature on the class or one of its ancestors.
+	 * Returns the method matching the provided arguments on the class or one of its ancestors, from the cache when it
+	 * was already resolved.
+	 *
+	 * @param arguments the instances of {@link Argument} or the values that are not null
 	 */
-	private static Method findMethod(Class<?> instanceClass, String name, Argument[] argumentDefinitions) {
-		final Optional<Method> method = Arrays.stream(instanceClass.getDeclaredMethods())
-				.filter(m -> m.getName().equals(name)
-						&& areArgumentsAssignable(m.getParameterTypes(), argumentDefinitions)
-				)
-				.findFirst();
-		if (method.isPresent()) {
-			method.get().setAccessible(true);
-			return method.get();
+	private static DeclaredMethod findMethod(Class<?> instanceClass, String name, Object[] arguments,
+			CatadioptreEvents.MemberEvent accessEvent) {
+		final DeclaredMethod method = probeMethod(instanceClass, name, arguments, accessEvent);
+		if (method == null) {
+			throw methodNotFound(name, definitionsOf(arguments));
 		}
-		if (!instanceClass.getSuperclass().equals(Object.class)) {
-			return findMethod(instanceClass.getSuperclass(), name, argumentDefinitions);
+		return method;
+	}
+
+	/**
+	 * Returns the method matching the provided arguments on the class or one of its ancestors, from the caches when it
+	 * was already searched, or null when there is none. The cached methods are found without allocating.
+	 *
+	 * @param arguments the instances of {@link Argument} or the values that are not null
+	 * @param accessEvent the event of the invocation of the method, or null when the method is not invoked
+	 */
+	private static DeclaredMethod probeMethod(Class<?> instanceClass, String name, Object[] arguments,
+			CatadioptreEvents.MemberEvent accessEvent) {
+		final long start = CatadioptreMetrics.start();
+		final CatadioptreEvents.Lookup lookupEvent = CatadioptreEvents.Lookup.start("method");
+		final ResolvedCalls calls = METHODS.get(instanceClass, name);
+		DeclaredMethod method = calls != null ? calls.get(arguments) : null;
+		if (method != null) {
+			recordLookup(method.method, true, start, lookupEvent, accessEvent);
+			return method;
+		}
+		final Argument[] argumentDefinitions = definitionsOf(arguments);
+		final CallSignature signature = new CallSignature(name, argumentDefinitions);
+		final boolean knownAsMissing = MISSING_METHODS.get(instanceClass, signature) != null;
+		if (!knownAsMissing) {
+			try {
+				method = searchSharedMethod(instanceClass, name, argumentDefinitions);
+			} catch (CatadioptreException e) {
+				CatadioptreMetrics.recordFailedLookup(Method.class, start);
+				lookupEvent.notFound(instanceClass, name, false);
+				throw e;
+			}
+		}
+		// A signature referencing classes of a child class loader would retain this class loader.
+		final boolean cacheable = signature.isVisibleFrom(instanceClass);
+		if (method == null) {
+			if (!knownAsMissing && cacheable) {
+				MISSING_METHODS.put(instanceClass, signature, Boolean.TRUE);
+			}
+			CatadioptreMetrics.recordFailedLookup(Method.class, start);
+			lookupEvent.notFound(instanceClass, name, knownAsMissing);
+			return null;
+		}
+		if (cacheable) {
+			cacheMethod(instanceClass, signature, method);
+		}
+		recordLookup(method.method, false, start, lookupEvent, accessEvent);
+		return method;
+	}
+
+	/**
+	 * Returns the method with the provided signature declared by the class, from the cache when it was already
+	 * resolved.
+	 */
+	private static DeclaredMethod findDeclaredMethod(Class<?> declaringClass, DeclaredSignature signature,
+			CatadioptreEvents.MemberEvent accessEvent) {
+		final long start = CatadioptreMetrics.start();
+		final CatadioptreEvents.Lookup lookupEvent = CatadioptreEvents.Lookup.start("method");
+		DeclaredMethod method = DECLARED_METHODS.get(declaringClass, signature);
+		if (method != null) {
+			recordLookup(method.method, true, start, lookupEvent, accessEvent);
+			return method;
+		}
+		try {
+			method = new DeclaredMethod(ModuleAccess.verifyAccess(searchDeclaredMethod(declaringClass, signature)));
+		} catch (CatadioptreException e) {
+			CatadioptreMetrics.recordFailedLookup(Method.class, start);
+			lookupEvent.notFound(declaringClass, signature.name, false);
+			throw e;
 		}
-		throw new CatadioptreException(new NoSuchMethodException("Method " + name + " with arguments "
+		// The types of the parameters are all visible from the declaring class, since it declares the method.
+		DECLARED_METHODS.put(declaringClass, signature, method);
+		recordLookup(method.method, false, start, lookupEvent, accessEvent);
+		return method;
+	}
+
+	private static Method searchDeclaredMethod(Class<?> declaringClass, DeclaredSignature signature) {
+		final Class<?>[] parameterTypes;
+		final Class<?> returnType;
+		if (signature.descriptor != null) {
+			try {
+				final MethodType methodType = MethodType.fromMethodDescriptorString(signature.descriptor,
+						declaringClass.getClassLoader());
+				parameterTypes = methodType.parameterArray();
+				returnType = methodType.returnType();
+			} catch (IllegalArgumentException | TypeNotPresentException e) {
+				throw new CatadioptreException(e);
+			}
+		} else {
+			parameterTypes = signature.parameterTypes;
+			returnType = null;
+		}
+		return Arrays.stream(declaringClass.getDeclaredMethods())
+				.filter(m -> m.getName().equals(signature.name)
+						&& Arrays.equals(m.getParameterTypes(), parameterTypes)
+						&& (returnType == null || m.getReturnType().equals(returnType)))
+				// Prefers the original methods to the bridges with a more generic result.
+				.min(Comparator.comparing(Method::isBridge))
+				.orElseThrow(() -> new CatadioptreException(new NoSuchMethodException(
+						"Method " + signature + " was not found in " + declaringClass.getName())));
+	}
+
+	/**
+	 * Resolves the method called with arguments of the parameter types of {@code declaredMethod} on the class or one of
+	 * its ancestors and caches it, without recording metrics nor events.
+	 * <p>
+	 * The primitive parameters are considered boxed, as the values passed to {@link #executeInvisible(Object, String,
+	 * Object...)}.
+	 */
+	static void preloadMethod(Class<?> instanceClass, Method declaredMethod) {
+		final Class<?>[] parameterTypes = declaredMethod.getParameterTypes();
+		final Argument[] argumentDefinitions = new Argument[parameterTypes.length];
+		for (int i = 0; i < parameterTypes.length; i++) {
+			argumentDefinitions[i] = Argument.ofNull(
+					parameterTypes[i].isPrimitive() ? PRIMITIVE_MAPPING.get(parameterTypes[i]) : parameterTypes[i]);
+		}
+		resolveMethod(instanceClass, declaredMethod.getName(), argumentDefinitions);
+	}
+
+	/**
+	 * Returns the method matching the provided signature on the class or one of its ancestors, from the cache or
+	 * resolved and cached, without recording metrics nor events.
+	 */
+	static DeclaredMethod resolveMethod(Class<?> instanceClass, String name, Argument[] argumentDefinitions) {
+		final ResolvedCalls calls = METHODS.get(instanceClass, name);
+		DeclaredMethod method = calls != null ? calls.get(argumentDefinitions) : null;
+		if (method == null) {
+			method = searchSharedMethod(instanceClass, name, argumentDefinitions);
+			if (method == null) {
+				throw methodNotFound(name, argumentDefinitions);
+			}
+			final CallSignature signature = new CallSignature(name, argumentDefinitions);
+			if (signature.isVisibleFrom(instanceClass)) {
+				cacheMethod(instanceClass, signature, method);
+			}
+		}
+		return method;
+	}
+
+	/**
+	 * Searches the method matching the provided signature on the class or one of its ancestors, or returns null when
+	 * there is none. The search starts at the first class declaring a method called {@code name}, whose method is
+	 * shared when it was already resolved.
+	 */
+	private static DeclaredMethod searchSharedMethod(Class<?> instanceClass, String name,
+			Argument[] argumentDefinitions) {
+		final Class<?> declaringClass = DeclaredNames.ofMethod(instanceClass, name);
+		if (declaringClass == instanceClass) {
+			return declaredMethodOf(searchMethod(instanceClass, name, argumentDefinitions));
+		}
+		final ResolvedCalls calls = METHODS.get(declaringClass, name);
+		DeclaredMethod method = calls != null ? calls.get(argumentDefinitions) : null;
+		if (method == null) {
+			method = declaredMethodOf(searchMethod(declaringClass, name, argumentDefinitions));
+			final CallSignature signature = new CallSignature(name, argumentDefinitions);
+			if (method != null && signature.isVisibleFrom(declaringClass)) {
+				cacheMethod(declaringClass, signature, method);
+			}
+		}
+		return method;
+	}
+
+	private static void cacheMethod(Class<?> instanceClass, CallSignature signature, DeclaredMethod method) {
+		METHODS.computeIfAbsent(instanceClass, signature.name, name -> new ResolvedCalls()).add(signature, method);
+	}
+
+	private static DeclaredMethod declaredMethodOf(Method method) {
+		return method != null ? new DeclaredMethod(method) : null;
+	}
+
+	private static void recordLookup(Method method, boolean cacheHit, long start, CatadioptreEvents.Lookup lookupEvent,
+			CatadioptreEvents.MemberEvent accessEvent) {
+		CatadioptreMetrics.recordLookup(method, cacheHit, start);
+		lookupEvent.found(method, cacheHit);
+		if (accessEvent != null) {
+			accessEvent.resolved(method, cacheHit);
+		}
+	}
+
+	private static CatadioptreException methodNotFound(String name, Argument[] argumentDefinitions) {
+		return new CatadioptreException(new NoSuchMethodException("Method " + name + " with arguments "
 				+ Arrays.stream(argumentDefinitions).map(Argument::toString).collect(Collectors.joining(","))
 				+ " was not found"));
 	}
 
+	/**
+	 * Searches the declared method with the provided signature on the class or one of its ancestors, using their
+	 * generated {@link MemberIndex} when they have one, or returns null when there is none.
+	 */
+	private static Method searchMethod(Class<?> instanceClass, String name, Argument[] argumentDefinitions) {
+		final Method indexedMethod = indexedMethod(instanceClass, name);
+		final Optional<Method> method;
+		if (indexedMethod != null) {
+			// No other method of the class has the same name, the declared methods do not need to be scanned.
+			method = Optional.of(indexedMethod)
+					.filter(m -> areArgumentsAssignable(m.getParameterTypes(), argumentDefinitions));
+		} else {
+			method = mostSpecific(Arrays.stream(instanceClass.getDeclaredMethods())
+					.filter(m -> m.getName().equals(name)
+							&& areArgumentsAssignable(m.getParameterTypes(), argumentDefinitions)
+					)
+					.collect(Collectors.toList()), argumentDefinitions);
+		}
+		if (method.isPresent()) {
+			return ModuleAccess.verifyAccess(method.get());
+		}
+		if (!instanceClass.getSuperclass().equals(Object.class)) {
+			return searchMethod(instanceClass.getSuperclass(), name, argumentDefinitions);
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the method called {@code name} from the {@link MemberIndex} generated for the class, or null when it is
+	 * not indexed.
+	 */
+	private static Method indexedMethod(Class<?> instanceClass, String name) {
+		final MemberIndex index = MemberIndexes.of(instanceClass);
+		if (index != null) {
+			try {
+				return index.getMethod(name);
+			} catch (NoSuchMethodException e) {
+				// The index is outdated, the declared methods are scanned.
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Selects the most specific of the methods applicable to the arguments, as the Java compiler does: the methods
+	 * applicable by subtyping are preferred to the ones requiring an unboxing, themselves preferred to the methods with
+	 * variable arguments. Among the remaining ones, the method with parameters assignable to the parameters of all the
+	 * others is selected.
+	 * <p>
+	 * The ties are broken by the signature of the methods, so that the result does not depend on the order of
+	 * {@link Class#getDeclaredMethods()}.
+	 */
+	private static Optional<Method> mostSpecific(List<Method> applicableMethods, Argument[] argumentDefinitions) {
+		if (applicableMethods.size() <= 1) {
+			return applicableMethods.stream().findFirst();
+		}
+		final int phase = applicableMethods.stream()
+				.mapToInt(m -> phaseOf(m, argumentDefinitions))
+				.min()
+				.getAsInt();
+		final List<Method> candidates = applicableMethods.stream()
+				.filter(m -> phaseOf(m, argumentDefinitions) == phase)
+				.collect(Collectors.toList());
+		final Comparator<Method> tieBreaker = Comparator.comparing(Method::isBridge)
+				.thenComparing(Method::toString);
+		final Optional<Method> mostSpecific = candidates.stream()
+				.filter(m -> candidates.stream().allMatch(other -> isAtLeastAsSpecific(m, other)))
+				.min(tieBreaker);
+		return mostSpecific.isPresent() ? mostSpecific : candidates.stream().min(tieBreaker);
+	}
+
+	/**
+	 * Returns the phase of the resolution of the Java compiler where {@code method} becomes applicable: 1 by
+	 * subtyping, 2 with unboxing, 3 with variable arguments.
+	 */
+	private static int phaseOf(Method method, Argument[] argumentDefinitions) {
+		if (method.isVarArgs()) {
+			return 3;
+		}
+		final Class<?>[] parameterTypes = method.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (parameterTypes[i].isPrimitive() && !argumentDefinitions[i].getType().isPrimitive()) {
+				return 2;
+			}
+		}
+		return 1;
+	}
+
+	/**
+	 * Verifies whether each parameter of {@code method} is assignable to the parameter of {@code other} with the same
+	 * index.
+	 */
+	private static boolean isAtLeastAsSpecific(Method method, Method other) {
+		final Class<?>[] parameterTypes = method.getParameterTypes();
+		final Class<?>[] otherParameterTypes = other.getParameterTypes();
+		for (int i = 0; i < parameterTypes.length; i++) {
+			if (!otherParameterTypes[i].isAssignableFrom(parameterTypes[i])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Determines if each parameter type of a method, is either the class or a superclass or superinterface of the type of the argument with the same index.
 	 */
@@ -133,4 +554,238 @@ public class ReflectionMethodUtils {
 
 		return actualParameterType.isAssignableFrom(actualArgumentType);
 	}
+
+	/**
+	 * Resolved method, with the types to verify the arguments of the calls and the calls counted to spin its accessor.
+	 */
+	static final class DeclaredMethod {
+
+		final Method method;
+
+		private final AccessorSpinning.Inflation inflation;
+
+		private final boolean isStatic;
+
+		/**
+		 * Types of the parameters, the primitive ones being boxed.
+		 */
+		private final Class<?>[] parameterTypes;
+
+		private final boolean[] primitiveParameters;
+
+		DeclaredMethod(final Method method) {
+			this.method = method;
+			this.inflation = AccessorSpinning.CONFIGURED.inflationOf(method);
+			this.isStatic = Modifier.isStatic(method.getModifiers());
+			final Class<?>[] types = method.getParameterTypes();
+			this.parameterTypes = new Class<?>[types.length];
+			this.primitiveParameters = new boolean[types.length];
+			for (int i = 0; i < types.length; i++) {
+				primitiveParameters[i] = types[i].isPrimitive();
+				parameterTypes[i] = types[i].isPrimitive() ? PRIMITIVE_MAPPING.get(types[i]) : types[i];
+			}
+		}
+
+		/**
+		 * Verifies that the method can be called on {@code instance} with {@code arguments} and returns the values
+		 * of the arguments, unwrapped when they are {@link Argument}s.
+		 * <p>
+		 * A null array of arguments is the null value of the unique parameter, as passed to a method with variable
+		 * arguments.
+		 */
+		Object[] verify(final Object instance, final Object[] arguments) {
+			if (!isStatic && !method.getDeclaringClass().isInstance(instance)) {
+				throw new IllegalArgumentException("The method " + method.getName() + " requires an instance of "
+						+ method.getDeclaringClass().getName());
+			}
+			final int argumentsCount = arguments != null ? arguments.length : 1;
+			if (argumentsCount != parameterTypes.length) {
+				throw new IllegalArgumentException("The method " + method.getName() + " requires "
+						+ parameterTypes.length + " arguments, but " + argumentsCount + " were passed");
+			}
+			Object[] values = arguments != null ? arguments : new Object[]{null};
+			for (int i = 0; i < argumentsCount; i++) {
+				if (values[i] instanceof Argument) {
+					if (values == arguments) {
+						values = arguments.clone();
+					}
+					values[i] = ((Argument) values[i]).getValue();
+				}
+				final Object value = values[i];
+				if (value == null ? primitiveParameters[i] : !parameterTypes[i].isInstance(value)) {
+					throw new IllegalArgumentException("The argument " + i + " of the method " + method.getName()
+							+ " cannot be converted to " + method.getParameterTypes()[i].getName());
+				}
+			}
+			return values;
+		}
+	}
+
+	/**
+	 * Name and descriptor or types of the parameters of a method, used as key to cache the methods resolved in their
+	 * declaring class.
+	 */
+	private static final class DeclaredSignature {
+
+		private final String name;
+
+		private final String descriptor;
+
+		private final Class<?>[] parameterTypes;
+
+		private final int hashCode;
+
+		private DeclaredSignature(final String name, final String descriptor, final Class<?>[] parameterTypes) {
+			this.name = name;
+			this.descriptor = descriptor;
+			this.parameterTypes = parameterTypes != null ? parameterTypes.clone() : null;
+			this.hashCode = 31 * name.hashCode() + (descriptor != null ? descriptor.hashCode()
+					: Arrays.hashCode(parameterTypes));
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof DeclaredSignature)) {
+				return false;
+			}
+			final DeclaredSignature that = (DeclaredSignature) o;
+			return name.equals(that.name) && Objects.equals(descriptor, that.descriptor)
+					&& Arrays.equals(parameterTypes, that.parameterTypes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public String toString() {
+			return name + (descriptor != null ? descriptor : Arrays.stream(parameterTypes).map(Class::getName)
+					.collect(Collectors.joining(",", "(", ")")));
+		}
+	}
+
+	/**
+	 * Name and types of the arguments of a call, used as key to cache the resolved methods.
+	 */
+	private static final class CallSignature {
+
+		private final String name;
+
+		private final Class<?>[] argumentTypes;
+
+		private final int hashCode;
+
+		private CallSignature(final String name, final Argument[] argumentDefinitions) {
+			this.name = name;
+			this.argumentTypes = new Class<?>[argumentDefinitions.length];
+			for (int i = 0; i < argumentDefinitions.length; i++) {
+				argumentTypes[i] = argumentDefinitions[i].getType();
+			}
+			this.hashCode = 31 * name.hashCode() + Arrays.hashCode(argumentTypes);
+		}
+
+		/**
+		 * Verifies whether {@code arguments}, either instances of {@link Argument} or values that are not null, have
+		 * the types of the arguments of the signature, ignoring its name.
+		 */
+		private boolean matches(final Object[] arguments) {
+			if (arguments.length != argumentTypes.length) {
+				return false;
+			}
+			for (int i = 0; i < arguments.length; i++) {
+				final Class<?> argumentType = arguments[i] instanceof Argument ? ((Argument) arguments[i]).getType()
+						: UserClasses.of(arguments[i].getClass());
+				if (argumentType != argumentTypes[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Verifies whether all the types of the arguments are loaded by the class loader of {@code type} or one of its
+		 * parents.
+		 */
+		private boolean isVisibleFrom(final Class<?> type) {
+			for (final Class<?> argumentType : argumentTypes) {
+				final ClassLoader argumentClassLoader = argumentType.getClassLoader();
+				if (argumentClassLoader != null) {
+					ClassLoader classLoader = type.getClassLoader();
+					while (classLoader != null && classLoader != argumentClassLoader) {
+						classLoader = classLoader.getParent();
+					}
+					if (classLoader == null) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof CallSignature)) {
+				return false;
+			}
+			final CallSignature that = (CallSignature) o;
+			return name.equals(that.name) && Arrays.equals(argumentTypes, that.argumentTypes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	/**
+	 * Methods resolved for the calls of a same name on a class, the most recent first, compared with the arguments of
+	 * the next calls without allocating.
+	 */
+	private static final class ResolvedCalls {
+
+		/**
+		 * Maximal number of calls kept for a same name, the oldest ones being evicted first.
+		 */
+		private static final int MAX_CALLS = 16;
+
+		private volatile ResolvedCall[] calls = new ResolvedCall[0];
+
+		private DeclaredMethod get(final Object[] arguments) {
+			for (final ResolvedCall call : calls) {
+				if (call.signature.matches(arguments)) {
+					return call.method;
+				}
+			}
+			return null;
+		}
+
+		private void add(final CallSignature signature, final DeclaredMethod method) {
+			// A call added concurrently might be lost, its method is then resolved again.
+			final ResolvedCall[] current = calls;
+			final int kept = Math.min(current.length, MAX_CALLS - 1);
+			final ResolvedCall[] updated = new ResolvedCall[kept + 1];
+			updated[0] = new ResolvedCall(signature, method);
+			System.arraycopy(current, 0, updated, 1, kept);
+			calls = updated;
+		}
+	}
+
+	private static final class ResolvedCall {
+
+		private final CallSignature signature;
+
+		private final DeclaredMethod method;
+
+		private ResolvedCall(final CallSignature signature, final DeclaredMethod method) {
+			this.signature = signature;
+			this.method = method;
+		}
+	}
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Writer of the static final fields, which neither the core reflection nor the method handles can write, with
+ * {@code sun.misc.Unsafe} when the JVM provides it.
+ * <p>
+ * Only the references are supported: the static final primitive fields and strings are constants that the compiler
+ * can inline into the code using them, writing them would not affect this code. The JIT compiler can also fold the
+ * static final references into the code it compiled, which then keeps using the previous values.
+ *
+ * @author Eric Jessé
+ */
+final class StaticFinalFields {
+
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class);
+
+	/**
+	 * Handles to {@code staticFieldBase}, {@code staticFieldOffset} and {@code putObjectVolatile}, bound to the
+	 * instance of {@code sun.misc.Unsafe}, or null when it is not available.
+	 */
+	private static final MethodHandle STATIC_FIELD_BASE;
+
+	private static final MethodHandle STATIC_FIELD_OFFSET;
+
+	private static final MethodHandle PUT_OBJECT_VOLATILE;
+
+	static {
+		MethodHandle staticFieldBase = null;
+		MethodHandle staticFieldOffset = null;
+		MethodHandle putObjectVolatile = null;
+		try {
+			final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+			final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+			theUnsafe.setAccessible(true);
+			final Object unsafe = theUnsafe.get(null);
+			final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			staticFieldBase = lookup.unreflect(unsafeClass.getMethod("staticFieldBase", Field.class)).bindTo(unsafe);
+			staticFieldOffset = lookup.unreflect(unsafeClass.getMethod("staticFieldOffset", Field.class))
+					.bindTo(unsafe);
+			final Method putObject = unsafeClass.getMethod("putObjectVolatile", Object.class, long.class, Object.class);
+			putObjectVolatile = lookup.unreflect(putObject).bindTo(unsafe);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			// The static final fields cannot be written in this JVM.
+		}
+		STATIC_FIELD_BASE = staticFieldBase;
+		STATIC_FIELD_OFFSET = staticFieldOffset;
+		PUT_OBJECT_VOLATILE = putObjectVolatile;
+	}
+
+	/**
+	 * This class only contains static methods.
+	 */
+	private StaticFinalFields() {
+	}
+
+	/**
+	 * Returns the handle writing the value of the static final reference {@code field}, of type {@code (Object)void}.
+	 *
+	 * @throws UnsupportedOperationException when the field cannot be written
+	 */
+	static MethodHandle setterOf(final Field field) {
+		if (PUT_OBJECT_VOLATILE == null) {
+			throw new UnsupportedOperationException("sun.misc.Unsafe is not available to write the static final fields");
+		}
+		if (field.getType().isPrimitive() || field.getType() == String.class) {
+			throw new UnsupportedOperationException("The constant " + field.getName() + " cannot be written");
+		}
+		try {
+			final Object base = STATIC_FIELD_BASE.invoke(field);
+			final long offset = (long) STATIC_FIELD_OFFSET.invoke(field);
+			return MethodHandles.insertArguments(PUT_OBJECT_VOLATILE, 0, base, offset).asType(SETTER_TYPE);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new UnsupportedOperationException(t);
+		}
+	}
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.jar.JarFile;
+
+/**
+ * Registry of classes whose static state is captured and restored between tests, to isolate the tests sharing a JVM
+ * without forking a new JVM for each test class.
+ * <p>
+ * The registry captures the private and non-private static fields declared by the registered classes, except the
+ * synthetic fields and the constants, which are the static final primitives and strings that the compiler can inline.
+ * The changed static final references are reported as not restored, unless their writing with {@code sun.misc.Unsafe}
+ * is enabled with {@link #writeFinalFields(boolean)} and the JVM provides it. Only the fields whose values changed since the snapshot are written, and the
+ * classes that could not be captured and the fields that could not be restored are reported rather than failing the
+ * capture or the restoration of the others.
+ * <p>
+ * The JIT compiler can fold the values of the static final fields into the compiled code as constants, so that the
+ * code compiled before the restoration of such a field can keep using the previous value.
+ * <p>
+ * As for {@link FieldSnapshot}, the snapshots are shallow: a mutable object referenced by a static field is restored
+ * as the same instance, with its current content.
+ *
+ * @author Eric Jessé
+ */
+public final class StaticStateRegistry {
+
+	private static final String CLASS_SUFFIX = ".class";
+
+	private final Set<Class<?>> classes = new CopyOnWriteArraySet<>();
+
+	/**
+	 * Snapshots of the classes captured by the last {@link #snapshot()}, or null before the first one.
+	 */
+	private volatile Map<Class<?>, FieldSnapshot> snapshots;
+
+	private volatile boolean finalFieldsWritten;
+
+	/**
+	 * Registers the classes whose static state has to be captured by the next {@link #snapshot()}.
+	 *
+	 * @param types the classes to register
+	 * @return this registry
+	 */
+	public StaticStateRegistry register(final Class<?>... types) {
+		for (final Class<?> type : types) {
+			if (type.isPrimitive() || type.isArray()) {
+				throw new IllegalArgumentException("The type " + type.getName() + " has no static state");
+			}
+			classes.add(type);
+		}
+		return this;
+	}
+
+	/**
+	 * Registers all the classes of the package {@code packageName} and its sub-packages, found in the directories and
+	 * JAR files of the context class loader of the current thread.
+	 *
+	 * @param packageName the name of the package to register, such as {@code com.acme.cache}
+	 * @return this registry
+	 */
+	public StaticStateRegistry registerPackage(final String packageName) {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		if (classLoader == null) {
+			classLoader = StaticStateRegistry.class.getClassLoader();
+		}
+		return registerPackage(packageName, classLoader);
+	}
+
+	/**
+	 * Registers all the classes of the package {@code packageName} and its sub-packages, found in the directories and
+	 * JAR files of {@code classLoader}. The classes are loaded without being initialized.
+	 *
+	 * @param packageName the name of the package to register, such as {@code com.acme.cache}
+	 * @param classLoader the class loader to search and load the classes
+	 * @return this registry
+	 */
+	public StaticStateRegistry registerPackage(final String packageName, final ClassLoader classLoader) {
+		final String path = packageName.replace('.', '/');
+		final List<String> classNames = new ArrayList<>();
+		try {
+			final Enumeration<URL> resources = classLoader.getResources(path);
+			while (resources.hasMoreElements()) {
+				final URL resource = resources.nextElement();
+				if ("file".equals(resource.getProtocol())) {
+					scanDirectory(Paths.get(resource.toURI()).toFile(), packageName, classNames);
+				} else if ("jar".equals(resource.getProtocol())) {
+					scanJar(resource, path, classNames);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (URISyntaxException e) {
+			throw new CatadioptreException(e);
+		}
+		for (final String className : classNames) {
+			try {
+				classes.add(Class.forName(className, false, classLoader));
+			} catch (ClassNotFoundException | LinkageError e) {
+				// The classes that cannot be loaded have no state to isolate.
+			}
+		}
+		return this;
+	}
+
+	private static void scanDirectory(final File directory, final String packageName, final List<String> classNames) {
+		final File[] files = directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (final File file : files) {
+			final String name = file.getName();
+			if (file.isDirectory()) {
+				scanDirectory(file, packageName + "." + name, classNames);
+			} else if (isClassFile(name)) {
+				classNames.add(packageName + "." + name.substring(0, name.length() - CLASS_SUFFIX.length()));
+			}
+		}
+	}
+
+	private static void scanJar(final URL resource, final String path, final List<String> classNames)
+			throws IOException {
+		final URLConnection connection = resource.openConnection();
+		if (!(connection instanceof JarURLConnection)) {
+			return;
+		}
+		connection.setUseCaches(false);
+		try (JarFile jarFile = ((JarURLConnection) connection).getJarFile()) {
+			final Enumeration<JarEntry> entries = jarFile.entries();
+			while (entries.hasMoreElements()) {
+				final String name = entries.nextElement().getName();
+				if (name.startsWith(path + "/") && isClassFile(name.substring(name.lastIndexOf('/') + 1))) {
+					classNames.add(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+				}
+			}
+		}
+	}
+
+	private static boolean isClassFile(final String fileName) {
+		return fileName.endsWith(CLASS_SUFFIX) && !fileName.equals("package-info.class")
+				&& !fileName.equals("module-info.class");
+	}
+
+	/**
+	 * Returns the registered classes.
+	 */
+	public Set<Class<?>> getClasses() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(classes));
+	}
+
+	/**
+	 * Configures whether the changed static final references are written with {@code sun.misc.Unsafe}. When disabled,
+	 * which is the default, they are reported as not restored by {@link #restore()}.
+	 *
+	 * @param enabled whether the static final references are written
+	 * @return this registry
+	 */
+	public StaticStateRegistry writeFinalFields(final boolean enabled) {
+		this.finalFieldsWritten = enabled;
+		return this;
+	}
+
+	/**
+	 * Captures the values of the static fields of all the registered classes, replacing the previous snapshot. The
+	 * classes not yet initialized are initialized first.
+	 *
+	 * @return the classes that could not be captured, with the cause, such as an error of their static initializer
+	 * or a package not open to Catadioptre, or an empty map when all the classes were captured
+	 */
+	public Map<Class<?>, Throwable> snapshot() {
+		final Map<Class<?>, FieldSnapshot> captured = new LinkedHashMap<>();
+		final Map<Class<?>, Throwable> failures = new LinkedHashMap<>();
+		for (final Class<?> type : classes) {
+			try {
+				final FieldLayout layout = FieldLayout.ofStatics(type);
+				if (!layout.isEmpty()) {
+					Class.forName(type.getName(), true, type.getClassLoader());
+					captured.put(type, layout.snapshot(null));
+				}
+			} catch (ClassNotFoundException | RuntimeException | LinkageError e) {
+				failures.put(type, e);
+			}
+		}
+		snapshots = captured;
+		return Collections.unmodifiableMap(failures);
+	}
+
+	/**
+	 * Writes back the values captured by the last {@link #snapshot()} into the static fields that changed since.
+	 *
+	 * @return the fields that could not be restored, with the cause, or an empty map when all the fields were
+	 * restored
+	 */
+	public Map<Field, Throwable> restore() {
+		final Map<Class<?>, FieldSnapshot> captured = snapshots;
+		if (captured == null) {
+			throw new IllegalStateException("No snapshot was taken of the registered classes");
+		}
+		final Map<Field, Throwable> failures = new LinkedHashMap<>();
+		for (final FieldSnapshot snapshot : captured.values()) {
+			failures.putAll(snapshot.restoreChangedStatics(finalFieldsWritten));
+		}
+		return Collections.unmodifiableMap(failures);
+	}
+}
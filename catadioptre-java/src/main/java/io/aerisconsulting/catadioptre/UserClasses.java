@@ -0,0 +1,89 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+/**
+ * Canonicalization of the classes generated at runtime by the mocking and proxying libraries to the classes written by
+ * the users, which declare the accessed members.
+ * <p>
+ * Resolving the members of a mock or a spy in its user class shares the cached members with the plain instances,
+ * instead of caching them again for each generated class.
+ *
+ * @author Eric Jessé
+ */
+final class UserClasses {
+
+	/**
+	 * Markers in the names of the subclasses generated by Mockito, ByteBuddy, CGLIB and Javassist.
+	 */
+	private static final String[] GENERATED_CLASS_MARKERS = {"$MockitoMock$", "$ByteBuddy$", "$$EnhancerBy",
+			"$$SpringCGLIB$$", "$$_javassist", "$HibernateProxy$"};
+
+	/**
+	 * Suffix of the subclasses generated by MockK, followed by a sequence number.
+	 */
+	private static final String MOCKK_SUBCLASS_SUFFIX = "$Subclass";
+
+	private static final ClassValue<Class<?>> USER_CLASSES = new ClassValue<Class<?>>() {
+		@Override
+		protected Class<?> computeValue(final Class<?> type) {
+			Class<?> userClass = type;
+			while (isGenerated(userClass) && userClass.getSuperclass() != null
+					&& userClass.getSuperclass() != Object.class) {
+				userClass = userClass.getSuperclass();
+			}
+			return userClass;
+		}
+	};
+
+	/**
+	 * This class only contains static methods.
+	 */
+	private UserClasses() {
+	}
+
+	/**
+	 * Returns the first class of the hierarchy of {@code type} that was not generated at runtime.
+	 */
+	static Class<?> of(final Class<?> type) {
+		return USER_CLASSES.get(type);
+	}
+
+	/**
+	 * Verifies whether {@code type} is a subclass generated at runtime.
+	 */
+	static boolean isGenerated(final Class<?> type) {
+		final String name = type.getName();
+		for (final String marker : GENERATED_CLASS_MARKERS) {
+			if (name.contains(marker)) {
+				return true;
+			}
+		}
+		return isMockKSubclass(name);
+	}
+
+	private static boolean isMockKSubclass(final String name) {
+		final int suffix = name.lastIndexOf(MOCKK_SUBCLASS_SUFFIX);
+		if (suffix < 0 || suffix + MOCKK_SUBCLASS_SUFFIX.length() == name.length()) {
+			return false;
+		}
+		for (int i = suffix + MOCKK_SUBCLASS_SUFFIX.length(); i < name.length(); i++) {
+			if (!Character.isDigit(name.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,209 @@
+package io.aerisconsulting.catadioptre;
+
+import io.aerisconsulting.catadioptre.statics.StaticStateObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class AccessorSpinningTest {
+
+	private final AccessorSpinning spinning = new AccessorSpinning(true, 2);
+
+	@Test
+	void shouldAccessTheFieldWithTheSpunAccessorsAfterTheThreshold() throws Exception {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		final Field field = ReflectionUtilsObject.class.getDeclaredField("value");
+		field.setAccessible(true);
+
+		// when
+		for (int i = 0; i < 2; i++) {
+			Assertions.assertEquals(123, spinning.get(field, object));
+		}
+		final boolean inflatedAtThreshold = spinning.isInflated(field);
+		final Object result = spinning.get(field, object);
+		for (int i = 0; i < 3; i++) {
+			spinning.set(field, object, 456 + i);
+		}
+
+		//then
+		Assertions.assertFalse(inflatedAtThreshold);
+		Assertions.assertTrue(spinning.isInflated(field));
+		Assertions.assertEquals(123, result);
+		Assertions.assertEquals(458, object.getValue());
+	}
+
+	@Test
+	void shouldInvokeTheMethodWithTheSpunAccessorAfterTheThreshold() throws Exception {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		final Method method = ReflectionUtilsObject.class.getDeclaredMethod("divide", Number.class, int.class);
+		method.setAccessible(true);
+
+		// when
+		for (int i = 0; i < 3; i++) {
+			Assertions.assertEquals(5.0, spinning.invoke(method, object, new Object[]{10, 2}));
+		}
+
+		//then
+		Assertions.assertTrue(spinning.isInflated(method));
+		Assertions.assertEquals(4.0, spinning.invoke(method, object, new Object[]{12L, 3}));
+	}
+
+	@Test
+	void shouldInvokeTheMethodWithVariableArgumentsWithTheSpunAccessor() throws Exception {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		final Method method = ReflectionUtilsObject.class.getDeclaredMethod("divideSum", int.class, Integer[].class);
+		method.setAccessible(true);
+
+		// when
+		for (int i = 0; i < 3; i++) {
+			Assertions.assertEquals(5.0, spinning.invoke(method, object, new Object[]{2, new Integer[]{1, 3, 6}}));
+		}
+
+		//then
+		Assertions.assertTrue(spinning.isInflated(method));
+	}
+
+	@Test
+	void shouldWrapTheExceptionsOfTheMethodLikeTheCoreReflection() throws Exception {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		final Method method = ReflectionUtilsObject.class.getDeclaredMethod("throwException");
+		method.setAccessible(true);
+
+		for (int i = 0; i < 4; i++) {
+			// when
+			final InvocationTargetException exception = Assertions.assertThrows(InvocationTargetException.class,
+					() -> spinning.invoke(method, object, new Object[0]));
+
+			//then
+			Assertions.assertTrue(exception.getCause() instanceof IllegalArgumentException);
+			Assertions.assertEquals("This is the exception", exception.getCause().getMessage());
+		}
+		Assertions.assertTrue(spinning.isInflated(method));
+	}
+
+	@Test
+	void shouldVerifyTheArgumentsLikeTheCoreReflection() throws Exception {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		final Method method = ReflectionUtilsObject.class.getDeclaredMethod("divide", Number.class, int.class);
+		method.setAccessible(true);
+		for (int i = 0; i < 3; i++) {
+			spinning.invoke(method, object, new Object[]{10, 2});
+		}
+
+		// when
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> spinning.invoke(method, object, new Object[]{10, null}));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> spinning.invoke(method, object, new Object[]{10, 2.5}));
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> spinning.invoke(method, object, new Object[]{10}));
+		Assertions.assertThrows(NullPointerException.class,
+				() -> spinning.invoke(method, null, new Object[]{10, 2}));
+
+		//then
+		Assertions.assertTrue(spinning.isInflated(method));
+		Assertions.assertEquals(5.0, spinning.invoke(method, object, new Object[]{10, (char) 2}));
+	}
+
+	@Test
+	void shouldSpinTheGetterWhenTheSetterCannotBeSpun() throws Exception {
+		// given
+		final Field field = StaticStateObject.class.getDeclaredField("CACHE");
+		field.setAccessible(true);
+		for (int i = 0; i < 3; i++) {
+			Assertions.assertThrows(IllegalAccessException.class, () -> spinning.set(field, null, null));
+		}
+
+		// when
+		final Object result = spinning.get(field, null);
+
+		//then
+		Assertions.assertSame(StaticStateObject.getCache(), result);
+		Assertions.assertTrue(spinning.isInflated(field));
+	}
+
+	@Test
+	void shouldNotSpinTheAccessorsWhenDisabled() throws Exception {
+		// given
+		final AccessorSpinning disabledSpinning = new AccessorSpinning(false, 0);
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		final Field field = ReflectionUtilsObject.class.getDeclaredField("value");
+		field.setAccessible(true);
+
+		// when
+		final Object result = disabledSpinning.get(field, object);
+
+		//then
+		Assertions.assertEquals(123, result);
+		Assertions.assertFalse(disabledSpinning.isInflated(field));
+	}
+
+	@Test
+	void shouldAccessTheMembersWithoutMakingThemAccessible() throws Exception {
+		// given
+		final AccessorSpinning disabledSpinning = new AccessorSpinning(false, 0);
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		final Field field = ReflectionUtilsObject.class.getDeclaredField("value");
+		final Method method = ReflectionUtilsObject.class.getDeclaredMethod("divide", Number.class, int.class);
+
+		// when
+		final Object value = disabledSpinning.get(field, object);
+		final Object result = disabledSpinning.invoke(method, object, new Object[]{12, 3});
+
+		//then
+		Assertions.assertEquals(123, value);
+		Assertions.assertEquals(4.0, result);
+		Assertions.assertFalse(field.canAccess(object));
+		Assertions.assertFalse(method.canAccess(object));
+	}
+
+	@Test
+	void shouldAccessTheMembersWithTheBridgesOfTheAgentAsOfTheFirstCall() throws Exception {
+		// given
+		final AccessorSpinning bridgedSpinning = new AccessorSpinning(false, 15, true);
+		final BridgedObject object = new BridgedObject();
+		final Field name = BridgedObject.class.getDeclaredField("name");
+		final Field value = BridgedObject.class.getDeclaredField("value");
+		final Method multiply = BridgedObject.class.getDeclaredMethod("multiply", int.class);
+		name.setAccessible(true);
+		value.setAccessible(true);
+		multiply.setAccessible(true);
+		BridgedObject.BRIDGE_CALLS.set(0);
+
+		// when
+		bridgedSpinning.set(value, object, 456);
+		final Object nameValue = bridgedSpinning.get(name, object);
+		final Object multiplied = bridgedSpinning.invoke(multiply, object, new Object[]{2});
+
+		//then
+		Assertions.assertEquals(456, object.getValue());
+		Assertions.assertEquals("bridged", nameValue);
+		Assertions.assertEquals(912, multiplied);
+		Assertions.assertEquals(3, BridgedObject.BRIDGE_CALLS.get());
+		Assertions.assertTrue(bridgedSpinning.isInflated(name));
+		Assertions.assertTrue(bridgedSpinning.isInflated(multiply));
+	}
+
+	@Test
+	void shouldNotSpinTheAccessorsOfTheClassesWithoutBridges() throws Exception {
+		// given
+		final AccessorSpinning bridgedSpinning = new AccessorSpinning(false, 0, true);
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		final Field field = ReflectionUtilsObject.class.getDeclaredField("value");
+		field.setAccessible(true);
+
+		// when
+		final Object result = bridgedSpinning.get(field, object);
+
+		//then
+		Assertions.assertEquals(123, result);
+		Assertions.assertFalse(bridgedSpinning.isInflated(field));
+	}
+}
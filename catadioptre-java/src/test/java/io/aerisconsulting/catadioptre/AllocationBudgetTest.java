@@ -0,0 +1,91 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import static io.aerisconsulting.catadioptre.AllocationMeter.assertAllocatesAtMost;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Guards the bytes allocated by each call of the hot paths, once warmed up.
+ * <p>
+ * The budgets are about 1.5 times the current allocations, with 16 bytes for the paths that do not allocate, and
+ * should be lowered when a path allocates less.
+ *
+ * @author Eric Jessé
+ */
+class AllocationBudgetTest {
+
+	private final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+	@Test
+	void shouldGetAFieldWithinTheBudget() {
+		assertAllocatesAtMost(16, () -> ReflectionFieldUtils.getField(object, "value"));
+	}
+
+	@Test
+	void shouldGetAnInheritedFieldWithinTheBudget() {
+		assertAllocatesAtMost(16, () -> ReflectionFieldUtils.getField(object, "inheritedValue"));
+	}
+
+	@Test
+	void shouldSetAFieldWithinTheBudget() {
+		assertAllocatesAtMost(16, () -> ReflectionFieldUtils.setField(object, "value", 123));
+	}
+
+	@Test
+	void shouldClearAFieldWithinTheBudget() {
+		assertAllocatesAtMost(16, () -> ReflectionFieldUtils.clearField(object, "value"));
+	}
+
+	@Test
+	void shouldExecuteAMethodWithoutArgumentWithinTheBudget() {
+		assertAllocatesAtMost(24, () -> ReflectionMethodUtils.executeInvisible(object, "returnValue"));
+	}
+
+	@Test
+	void shouldExecuteAMethodWithArgumentsWithinTheBudget() {
+		assertAllocatesAtMost(72, () -> ReflectionMethodUtils.executeInvisible(object, "divide", 10, 2));
+	}
+
+	@Test
+	void shouldExecuteAnInheritedMethodWithinTheBudget() {
+		assertAllocatesAtMost(24, () -> ReflectionMethodUtils.executeInvisible(object, "returnInheritedValue"));
+	}
+
+	@Test
+	void shouldExecuteAMethodWithVariableArgumentsWithinTheBudget() {
+		assertAllocatesAtMost(712, () -> ReflectionMethodUtils.executeInvisible(object, "divideSum", 2,
+				Argument.ofVarargs(Integer.class, 1, 3, 6)));
+	}
+
+	@Test
+	void shouldExecuteAMethodOfAMegamorphicCallSiteWithinTheBudget() {
+		final MethodCallSite callSite = MethodCallSite.of("returnInheritedValue");
+		final List<ParentReflectionUtilsObject> receivers = Arrays.asList(new ParentReflectionUtilsObject(1),
+				new ParentReflectionUtilsObject(2) {
+				}, new ParentReflectionUtilsObject(3) {
+				}, new ParentReflectionUtilsObject(4) {
+				}, new ParentReflectionUtilsObject(5) {
+				});
+		receivers.forEach(callSite::execute);
+		Assertions.assertTrue(callSite.isMegamorphic());
+
+		assertAllocatesAtMost(24, () -> callSite.execute(receivers.get(PolymorphicInlineCache.SIZE)));
+	}
+}
@@ -0,0 +1,46 @@
+package io.aerisconsulting.catadioptre;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Class with the bridges that the agent of Catadioptre adds, written by hand and counting their calls.
+ */
+@SuppressWarnings("unused")
+public class BridgedObject {
+
+	static final AtomicInteger BRIDGE_CALLS = new AtomicInteger();
+
+	public static final boolean catadioptre$bridged = true;
+
+	private final String name = "bridged";
+
+	private int value = 123;
+
+	private int multiply(int factor) {
+		return value * factor;
+	}
+
+	public static String catadioptre$get$name(BridgedObject instance) {
+		BRIDGE_CALLS.incrementAndGet();
+		return instance.name;
+	}
+
+	public static int catadioptre$get$value(BridgedObject instance) {
+		BRIDGE_CALLS.incrementAndGet();
+		return instance.value;
+	}
+
+	public static void catadioptre$set$value(BridgedObject instance, int value) {
+		BRIDGE_CALLS.incrementAndGet();
+		instance.value = value;
+	}
+
+	public static int catadioptre$invoke$multiply(BridgedObject instance, int factor) {
+		BRIDGE_CALLS.incrementAndGet();
+		return instance.multiply(factor);
+	}
+
+	int getValue() {
+		return value;
+	}
+}
@@ -0,0 +1,182 @@
+package io.aerisconsulting.catadioptre;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class CallSiteTest {
+
+	@Test
+	void shouldGetAndSetAFieldOnDifferentClasses() {
+		// given
+		final FieldCallSite callSite = FieldCallSite.of("inheritedValue");
+		final ParentReflectionUtilsObject parent = new ParentReflectionUtilsObject(456);
+		final ReflectionUtilsObject child = new ReflectionUtilsObject();
+
+		// when
+		callSite.set(child, 789);
+		final Integer parentValue = callSite.get(parent);
+		final Integer childValue = callSite.get(child);
+
+		//then
+		Assertions.assertEquals(456, parentValue);
+		Assertions.assertEquals(789, childValue);
+		Assertions.assertFalse(callSite.isMegamorphic());
+	}
+
+	@Test
+	void shouldBecomeMegamorphicWhenMoreClassesThanTheInlineCacheAreSeen() {
+		// given
+		final FieldCallSite callSite = FieldCallSite.of("inheritedValue");
+		final List<ParentReflectionUtilsObject> receivers = Arrays.asList(new ParentReflectionUtilsObject(456),
+				new ReflectionUtilsObject(), new ParentReflectionUtilsObject(456) {
+				}, new ParentReflectionUtilsObject(456) {
+				}, new ParentReflectionUtilsObject(456) {
+				});
+
+		// when
+		for (final ParentReflectionUtilsObject receiver : receivers.subList(0, PolymorphicInlineCache.SIZE)) {
+			callSite.get(receiver);
+		}
+		final boolean megamorphicBeforeTheLastClass = callSite.isMegamorphic();
+		final Integer lastValue = callSite.get(receivers.get(PolymorphicInlineCache.SIZE));
+
+		//then
+		Assertions.assertFalse(megamorphicBeforeTheLastClass);
+		Assertions.assertTrue(callSite.isMegamorphic());
+		Assertions.assertEquals(456, lastValue);
+	}
+
+	@Test
+	void shouldExecuteAMethodWithTheTypesOfTheCallSite() {
+		// given
+		final MethodCallSite callSite = MethodCallSite.of("divide", Number.class, int.class);
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		final double result = callSite.execute(object, 10L, 5);
+
+		//then
+		Assertions.assertEquals(2.0, result);
+	}
+
+	@Test
+	void shouldExecuteAMethodWithANullArrayOfArguments() {
+		// given
+		final MethodCallSite callSite = MethodCallSite.of("describe", String.class);
+		final ShadowingObject object = new ShadowingObject();
+
+		// when
+		final String result = callSite.execute(object, (Object[]) null);
+
+		//then
+		Assertions.assertEquals("Value null", result);
+	}
+
+	@Test
+	void shouldResolveTheMembersOfASpyInItsUserClass() {
+		// given
+		final FieldCallSite fieldCallSite = FieldCallSite.of("value");
+		final MethodCallSite methodCallSite = MethodCallSite.of("returnValue");
+		final ReflectionUtilsObject spy = Mockito.spy(new ReflectionUtilsObject());
+		Assertions.assertTrue(UserClasses.isGenerated(spy.getClass()));
+
+		// when
+		final Integer value = fieldCallSite.get(spy);
+		final Integer returnedValue = methodCallSite.execute(spy);
+
+		//then
+		Assertions.assertEquals(ReflectionUtilsObject.class, UserClasses.of(spy.getClass()));
+		Assertions.assertEquals(123, value);
+		Assertions.assertEquals(123, returnedValue);
+	}
+
+	@Test
+	void shouldShareTheInlineEntryOfTheUserClassWithItsSpies() {
+		// given
+		final FieldCallSite fieldCallSite = FieldCallSite.of("inheritedValue");
+		final MethodCallSite methodCallSite = MethodCallSite.of("returnInheritedValue");
+		final List<ParentReflectionUtilsObject> receivers = Arrays.asList(new ParentReflectionUtilsObject(456),
+				new ReflectionUtilsObject(), new ParentReflectionUtilsObject(456) {
+				}, new ParentReflectionUtilsObject(456) {
+				});
+		final ReflectionUtilsObject spy = Mockito.spy(new ReflectionUtilsObject());
+
+		// when
+		for (final ParentReflectionUtilsObject receiver : receivers) {
+			fieldCallSite.get(receiver);
+			methodCallSite.execute(receiver);
+		}
+		final Integer value = fieldCallSite.get(spy);
+		final Integer returnedValue = methodCallSite.execute(spy);
+
+		//then
+		Assertions.assertEquals(PolymorphicInlineCache.SIZE, receivers.size());
+		Assertions.assertFalse(fieldCallSite.isMegamorphic());
+		Assertions.assertFalse(methodCallSite.isMegamorphic());
+		Assertions.assertEquals(789, value);
+		Assertions.assertEquals(789, returnedValue);
+	}
+
+	@Test
+	void shouldShareTheMembersOfTheAncestorsWithTheNewSubclasses() {
+		// given
+		final ParentReflectionUtilsObject subclassInstance = new ParentReflectionUtilsObject(456) {
+		};
+		final Class<?> subclass = subclassInstance.getClass();
+		final Argument[] noArgument = new Argument[0];
+
+		// when
+		final ReflectionFieldUtils.DeclaredField field = ReflectionFieldUtils.resolveField(subclass, "inheritedValue");
+		final ReflectionMethodUtils.DeclaredMethod method = ReflectionMethodUtils.resolveMethod(subclass,
+				"returnInheritedValue", noArgument);
+
+		//then
+		Assertions.assertSame(ReflectionFieldUtils.resolveField(ParentReflectionUtilsObject.class, "inheritedValue"),
+				field);
+		Assertions.assertSame(ReflectionMethodUtils.resolveMethod(ParentReflectionUtilsObject.class,
+				"returnInheritedValue", noArgument), method);
+		Assertions.assertEquals(456, (Integer) FieldCallSite.of("inheritedValue").get(subclassInstance));
+	}
+
+	@Test
+	void shouldExecuteAMethodOnMoreClassesThanTheInlineCache() {
+		// given
+		final MethodCallSite callSite = MethodCallSite.of("returnInheritedValue");
+		final List<ParentReflectionUtilsObject> receivers = Arrays.asList(new ParentReflectionUtilsObject(1),
+				new ParentReflectionUtilsObject(2) {
+				}, new ParentReflectionUtilsObject(3) {
+				}, new ParentReflectionUtilsObject(4) {
+				}, new ParentReflectionUtilsObject(5) {
+				}, new ParentReflectionUtilsObject(6) {
+				});
+
+		// when
+		int sum = 0;
+		for (int i = 0; i < 2; i++) {
+			for (final ParentReflectionUtilsObject receiver : receivers) {
+				sum += callSite.<Integer>execute(receiver);
+			}
+		}
+
+		//then
+		Assertions.assertTrue(callSite.isMegamorphic());
+		Assertions.assertEquals(42, sum);
+	}
+
+	@Test
+	void shouldNotExecuteAMethodWithArgumentsOfOtherTypes() {
+		// given
+		final MethodCallSite callSite = MethodCallSite.of("divide", Number.class, int.class);
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		final IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+				() -> callSite.execute(object, 10L, "4"));
+
+		//then
+		Assertions.assertTrue(exception.getMessage().contains("argument 1"));
+	}
+}
@@ -0,0 +1,115 @@
+package io.aerisconsulting.catadioptre;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CatadioptreEventsTest {
+
+	@Test
+	void shouldRecordTheFieldAccessesAndLookups() throws Exception {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		final List<RecordedEvent> events = record(() -> {
+			ReflectionFieldUtils.setField(object, "inheritedValue", 456);
+			ReflectionFieldUtils.getField(object, "inheritedValue");
+		});
+
+		//then
+		final List<RecordedEvent> accesses = ofType(events, "catadioptre.FieldAccess");
+		Assertions.assertEquals(2, accesses.size());
+		Assertions.assertTrue(accesses.get(0).getBoolean("write"));
+		Assertions.assertFalse(accesses.get(1).getBoolean("write"));
+		for (final RecordedEvent access : accesses) {
+			Assertions.assertEquals(ParentReflectionUtilsObject.class.getName(),
+					access.getClass("declaringClass").getName());
+			Assertions.assertEquals("inheritedValue", access.getString("memberName"));
+		}
+		Assertions.assertTrue(accesses.get(1).getBoolean("cacheHit"));
+
+		final List<RecordedEvent> lookups = ofType(events, "catadioptre.Lookup");
+		Assertions.assertEquals(2, lookups.size());
+		Assertions.assertEquals("field", lookups.get(0).getString("memberKind"));
+		Assertions.assertTrue(lookups.get(0).getBoolean("found"));
+	}
+
+	@Test
+	void shouldRecordTheMethodInvocationsAndFailedLookups() throws Exception {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		final List<RecordedEvent> events = record(() -> {
+			ReflectionMethodUtils.executeInvisible(object, "divide", 10, 2);
+			Assertions.assertThrows(CatadioptreException.class,
+					() -> ReflectionMethodUtils.executeInvisible(object, "unknown"));
+		});
+
+		//then
+		final List<RecordedEvent> invocations = ofType(events, "catadioptre.MethodInvoke");
+		Assertions.assertEquals(1, invocations.size());
+		Assertions.assertEquals(ReflectionUtilsObject.class.getName(),
+				invocations.get(0).getClass("declaringClass").getName());
+		Assertions.assertEquals("divide", invocations.get(0).getString("memberName"));
+
+		final List<RecordedEvent> lookups = ofType(events, "catadioptre.Lookup");
+		Assertions.assertEquals(2, lookups.size());
+		Assertions.assertTrue(lookups.get(0).getBoolean("found"));
+		Assertions.assertFalse(lookups.get(1).getBoolean("found"));
+		Assertions.assertEquals("unknown", lookups.get(1).getString("memberName"));
+	}
+
+	@Test
+	void shouldRecordTheFailedInvocations() throws Exception {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		final List<RecordedEvent> events = record(() -> {
+			ReflectionMethodUtils.executeInvisible(object, "divide", 10, 2);
+			Assertions.assertThrows(CatadioptreOriginalCauseException.class,
+					() -> ReflectionMethodUtils.executeInvisible(object, "throwException"));
+		});
+
+		//then
+		final List<RecordedEvent> invocations = ofType(events, "catadioptre.MethodInvoke");
+		Assertions.assertEquals(2, invocations.size());
+		Assertions.assertTrue(invocations.get(0).getBoolean("succeeded"));
+		Assertions.assertNull(invocations.get(0).getClass("exceptionClass"));
+		Assertions.assertEquals("throwException", invocations.get(1).getString("memberName"));
+		Assertions.assertFalse(invocations.get(1).getBoolean("succeeded"));
+		Assertions.assertEquals(IllegalArgumentException.class.getName(),
+				invocations.get(1).getClass("exceptionClass").getName());
+	}
+
+	private static List<RecordedEvent> record(final Runnable operations) throws Exception {
+		final Path file = Files.createTempFile("catadioptre-", ".jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable("catadioptre.FieldAccess").withoutThreshold();
+			recording.enable("catadioptre.MethodInvoke").withoutThreshold();
+			recording.enable("catadioptre.Lookup").withoutThreshold();
+			recording.start();
+			operations.run();
+			recording.stop();
+			recording.dump(file);
+			return RecordingFile.readAllEvents(file);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static List<RecordedEvent> ofType(final List<RecordedEvent> events, final String type) {
+		return events.stream()
+				.filter(e -> e.getEventType().getName().equals(type))
+				.sorted((e1, e2) -> e1.getStartTime().compareTo(e2.getStartTime()))
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,185 @@
+package io.aerisconsulting.catadioptre;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class CatadioptreMetricsTest {
+
+	@BeforeEach
+	void enableMetrics() {
+		CatadioptreMetrics.reset();
+		CatadioptreMetrics.enable();
+	}
+
+	@AfterEach
+	void disableMetrics() {
+		CatadioptreMetrics.disable();
+		CatadioptreMetrics.reset();
+	}
+
+	@Test
+	void shouldCountTheFieldLookupsAndInvocations() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		ReflectionFieldUtils.setField(object, "inheritedValue", 456);
+		ReflectionFieldUtils.getField(object, "inheritedValue");
+		ReflectionFieldUtils.getField(object, "inheritedValue");
+
+		//then
+		Assertions.assertEquals(3, CatadioptreMetrics.getFieldLookups());
+		Assertions.assertEquals(0, CatadioptreMetrics.getMethodLookups());
+		Assertions.assertEquals(0, CatadioptreMetrics.getFailedLookups());
+		Assertions.assertTrue(CatadioptreMetrics.getCacheHits() >= 2);
+		Assertions.assertEquals(3, CatadioptreMetrics.getCacheHits() + CatadioptreMetrics.getCacheMisses());
+		final List<CatadioptreMetrics.MemberMetrics> members = CatadioptreMetrics.getMembers();
+		Assertions.assertEquals(1, members.size());
+		Assertions.assertEquals(ParentReflectionUtilsObject.class.getName() + "#inheritedValue",
+				members.get(0).getMember());
+		Assertions.assertEquals(3, members.get(0).getLookups());
+		Assertions.assertEquals(3, members.get(0).getInvocations());
+	}
+
+	@Test
+	void shouldCountTheMethodLookupsAndInvocations() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		ReflectionMethodUtils.executeInvisible(object, "divide", 10, 2);
+		ReflectionMethodUtils.executeInvisible(object, "divide", 12, 3);
+
+		//then
+		Assertions.assertEquals(0, CatadioptreMetrics.getFieldLookups());
+		Assertions.assertEquals(2, CatadioptreMetrics.getMethodLookups());
+		Assertions.assertTrue(CatadioptreMetrics.getCacheHits() >= 1);
+		final List<CatadioptreMetrics.MemberMetrics> members = CatadioptreMetrics.getMostExpensiveMembers(10);
+		Assertions.assertEquals(1, members.size());
+		Assertions.assertEquals(ReflectionUtilsObject.class.getName() + "#divide(java.lang.Number, int)",
+				members.get(0).getMember());
+		Assertions.assertEquals(2, members.get(0).getInvocations());
+	}
+
+	@Test
+	void shouldCountTheInvocationsThatFail() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		Assertions.assertThrows(CatadioptreOriginalCauseException.class,
+				() -> ReflectionMethodUtils.executeInvisible(object, "throwException"));
+
+		//then
+		Assertions.assertEquals(1, CatadioptreMetrics.getMethodLookups());
+		final List<CatadioptreMetrics.MemberMetrics> members = CatadioptreMetrics.getMembers();
+		Assertions.assertEquals(1, members.size());
+		Assertions.assertEquals(ReflectionUtilsObject.class.getName() + "#throwException()",
+				members.get(0).getMember());
+		Assertions.assertEquals(1, members.get(0).getInvocations());
+	}
+
+	@Test
+	void shouldHitTheCachesOfTheUserClassForASpy() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		final ReflectionUtilsObject spy = Mockito.spy(object);
+		ReflectionFieldUtils.getField(object, "value");
+		ReflectionMethodUtils.executeInvisible(object, "divide", 10, 2);
+		CatadioptreMetrics.reset();
+
+		// when
+		final Integer value = ReflectionFieldUtils.getField(spy, "value");
+		final double result = ReflectionMethodUtils.executeInvisible(spy, "divide", 10, 2);
+
+		//then
+		Assertions.assertEquals(123, value);
+		Assertions.assertEquals(5.0, result);
+		Assertions.assertEquals(2, CatadioptreMetrics.getCacheHits());
+		Assertions.assertEquals(0, CatadioptreMetrics.getCacheMisses());
+	}
+
+	@Test
+	void shouldCountTheFailedLookups() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		Assertions.assertThrows(CatadioptreException.class, () -> ReflectionFieldUtils.getField(object, "unknown"));
+		Assertions.assertThrows(CatadioptreException.class,
+				() -> ReflectionMethodUtils.executeInvisible(object, "unknown"));
+
+		//then
+		Assertions.assertEquals(1, CatadioptreMetrics.getFieldLookups());
+		Assertions.assertEquals(1, CatadioptreMetrics.getMethodLookups());
+		Assertions.assertEquals(2, CatadioptreMetrics.getFailedLookups());
+		Assertions.assertEquals(2, CatadioptreMetrics.getCacheMisses());
+		Assertions.assertTrue(CatadioptreMetrics.getMembers().isEmpty());
+	}
+
+	@Test
+	void shouldNotRecordWhenDisabled() {
+		// given
+		CatadioptreMetrics.disable();
+
+		// when
+		ReflectionFieldUtils.getField(new ReflectionUtilsObject(), "value");
+
+		//then
+		Assertions.assertEquals(0, CatadioptreMetrics.getFieldLookups());
+		Assertions.assertTrue(CatadioptreMetrics.getMembers().isEmpty());
+	}
+
+	@Test
+	void shouldSummarizeTheMostExpensiveMembers() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		ReflectionFieldUtils.getField(object, "value");
+		ReflectionMethodUtils.executeInvisible(object, "returnValue");
+
+		// when
+		final String summary = CatadioptreMetrics.summary(1);
+
+		//then
+		Assertions.assertTrue(summary.startsWith("Catadioptre Java: 1 field lookups, 1 method lookups"), summary);
+		Assertions.assertEquals(3, summary.split(System.lineSeparator()).length, summary);
+	}
+
+	@Test
+	void shouldMergeTheMetricsOfTheClassLoadersWithoutRetainingThem() throws Exception {
+		// given
+		final URL classes = ReflectionUtilsObject.class.getProtectionDomain().getCodeSource().getLocation();
+		final List<WeakReference<ClassLoader>> classLoaders = new ArrayList<>();
+
+		// when
+		for (int i = 0; i < 10; i++) {
+			final URLClassLoader classLoader = new URLClassLoader(new URL[]{classes},
+					ClassLoader.getPlatformClassLoader());
+			final Object object = classLoader.loadClass(ReflectionUtilsObject.class.getName())
+					.getDeclaredConstructor().newInstance();
+			ReflectionFieldUtils.getField(object, "value");
+			classLoaders.add(new WeakReference<>(classLoader));
+			classLoader.close();
+		}
+
+		//then
+		final List<CatadioptreMetrics.MemberMetrics> members = CatadioptreMetrics.getMembers();
+		Assertions.assertEquals(1, members.size());
+		Assertions.assertEquals(ReflectionUtilsObject.class.getName() + "#value", members.get(0).getMember());
+		Assertions.assertEquals(10, members.get(0).getLookups());
+		Assertions.assertEquals(10, members.get(0).getInvocations());
+		for (int i = 0; i < 20 && classLoaders.stream().anyMatch(r -> r.get() != null); i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		Assertions.assertEquals(0, classLoaders.stream().filter(r -> r.get() != null).count());
+	}
+}
@@ -0,0 +1,94 @@
+package io.aerisconsulting.catadioptre;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class CatadioptreTest {
+
+	@Test
+	void shouldClearTheCaches() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		ReflectionFieldUtils.getField(object, "value");
+		ReflectionMethodUtils.executeInvisible(object, "returnValue");
+		CatadioptreMetrics.reset();
+		CatadioptreMetrics.enable();
+
+		try {
+			// when
+			Catadioptre.clearCaches();
+			ReflectionFieldUtils.getField(object, "value");
+			ReflectionMethodUtils.executeInvisible(object, "returnValue");
+
+			//then
+			Assertions.assertEquals(0, CatadioptreMetrics.getCacheHits());
+			Assertions.assertEquals(2, CatadioptreMetrics.getCacheMisses());
+		} finally {
+			CatadioptreMetrics.disable();
+			CatadioptreMetrics.reset();
+		}
+	}
+
+	@Test
+	void shouldPreloadTheMembers() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		Catadioptre.clearCaches();
+		CatadioptreMetrics.reset();
+		CatadioptreMetrics.enable();
+
+		try {
+			// when
+			Catadioptre.preload(ReflectionUtilsObject.class);
+			final Integer value = ReflectionFieldUtils.getField(object, "value");
+			final Integer inheritedValue = ReflectionFieldUtils.getField(object, "inheritedValue");
+			final Integer returnedValue = ReflectionMethodUtils.executeInvisible(object, "returnInheritedValue");
+			final Double result = ReflectionMethodUtils.executeInvisible(object, "divideSum", 2,
+					Argument.ofVarargs(Integer.class, 1, 3, 6));
+
+			//then
+			Assertions.assertEquals(123, value);
+			Assertions.assertEquals(789, inheritedValue);
+			Assertions.assertEquals(789, returnedValue);
+			Assertions.assertEquals(5.0, result);
+			Assertions.assertEquals(4, CatadioptreMetrics.getCacheHits());
+			Assertions.assertEquals(0, CatadioptreMetrics.getCacheMisses());
+		} finally {
+			CatadioptreMetrics.disable();
+			CatadioptreMetrics.reset();
+		}
+	}
+
+	@Test
+	void shouldReleaseTheClassLoaders() throws Exception {
+		// given
+		final URL classes = ReflectionUtilsObject.class.getProtectionDomain().getCodeSource().getLocation();
+		final List<WeakReference<ClassLoader>> classLoaders = new ArrayList<>();
+
+		// when
+		for (int i = 0; i < 50; i++) {
+			final URLClassLoader classLoader = new URLClassLoader(new URL[]{classes},
+					ClassLoader.getPlatformClassLoader());
+			final Object object = classLoader.loadClass(ReflectionUtilsObject.class.getName())
+					.getDeclaredConstructor().newInstance();
+			ReflectionFieldUtils.getField(object, "inheritedValue");
+			ReflectionMethodUtils.executeInvisible(object, "divide", 10, 2);
+			// Caches a method of a class of the bootstrap class loader, with an argument of the child class loader.
+			ReflectionMethodUtils.executeInvisible(new ArrayList<>(), "add", Argument.ofNotNull(object));
+			classLoaders.add(new WeakReference<>(classLoader));
+			classLoader.close();
+		}
+
+		//then
+		for (int i = 0; i < 20 && classLoaders.stream().anyMatch(r -> r.get() != null); i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		Assertions.assertEquals(0, classLoaders.stream().filter(r -> r.get() != null).count());
+	}
+}
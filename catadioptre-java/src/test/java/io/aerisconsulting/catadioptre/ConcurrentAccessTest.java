@@ -0,0 +1,72 @@
+package io.aerisconsulting.catadioptre;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ConcurrentAccessTest {
+
+	private static final int TASKS = 10_000;
+
+	@Test
+	void shouldAccessTheSameMembersFromManyThreads() throws Exception {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		final Argument sharedArgument = Argument.ofNotNull(2);
+		final CountDownLatch startLatch = new CountDownLatch(1);
+		final List<Callable<Void>> tasks = new ArrayList<>();
+		for (int i = 0; i < TASKS; i++) {
+			final int value = i;
+			tasks.add(() -> {
+				startLatch.await();
+				if (value % 1_000 == 0) {
+					// Forces concurrent resolutions of the members.
+					Catadioptre.clearCaches();
+				}
+				Assertions.assertEquals(value / 2, (double) ReflectionMethodUtils.executeInvisible(object, "divide",
+						value, sharedArgument));
+				Assertions.assertEquals(value / 2,
+						(double) ReflectionMethodUtils.executeInvisible(object, "divideSum", sharedArgument,
+								Argument.ofVarargs(Integer.class, value)));
+				Assertions.assertEquals(123, (int) ReflectionFieldUtils.getField(object, "value"));
+				Assertions.assertEquals(789, (int) ReflectionFieldUtils.getField(object, "inheritedValue"));
+				return null;
+			});
+		}
+
+		// when
+		final ExecutorService executor = newExecutor();
+		final List<Future<Void>> futures = new ArrayList<>();
+		try {
+			for (final Callable<Void> task : tasks) {
+				futures.add(executor.submit(task));
+			}
+			startLatch.countDown();
+
+			//then
+			for (final Future<Void> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Creates an executor running each task in a virtual thread, when the JVM supports them.
+	 */
+	private static ExecutorService newExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(64);
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package io.aerisconsulting.catadioptre;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class FieldSnapshotTest {
+
+	@Test
+	void shouldRestoreAllTheFields() {
+		// given
+		final StatefulObject object = new StatefulObject(456, 1L);
+		object.update("initial");
+		final String initialDescription = object.describe();
+		final FieldSnapshot snapshot = ReflectionFieldUtils.snapshot(object);
+		object.update("updated");
+		ReflectionFieldUtils.setField(object, "inheritedValue", 789);
+		ReflectionFieldUtils.setField(object, "createdAt", 2L);
+		ReflectionFieldUtils.setField(object, "history", Collections.emptyList());
+
+		// when
+		final StatefulObject result = ReflectionFieldUtils.restore(object, snapshot);
+
+		//then
+		Assertions.assertSame(object, result);
+		Assertions.assertEquals(initialDescription, object.describe());
+		Assertions.assertEquals(1L, object.getCreatedAt());
+		Assertions.assertEquals(Arrays.asList("initial", "updated"), object.getHistory());
+	}
+
+	@Test
+	void shouldCaptureTheSelectedFields() {
+		// given
+		final StatefulObject object = new StatefulObject(456, 1L);
+		object.update("initial");
+
+		// when
+		final FieldSnapshot snapshot = ReflectionFieldUtils.snapshot(object, "state", "count", "ratio",
+				"inheritedValue");
+		object.update("updated");
+
+		//then
+		Assertions.assertEquals(StatefulObject.class, snapshot.getType());
+		Assertions.assertEquals(Arrays.asList("state", "count", "ratio", "inheritedValue"), snapshot.getFieldNames());
+		Assertions.assertEquals("initial", snapshot.get("state"));
+		Assertions.assertEquals(Integer.valueOf(1), snapshot.get("count"));
+		Assertions.assertEquals(Float.valueOf(0.5f), snapshot.get("ratio"));
+		Assertions.assertEquals(Integer.valueOf(456), snapshot.get("inheritedValue"));
+
+		// when
+		ReflectionFieldUtils.restore(object, snapshot);
+
+		//then
+		Assertions.assertEquals("initial,false,2,\u0002,2,1,2000000000000,0.5,0.5,456", object.describe());
+	}
+
+	@Test
+	void shouldCopyAllTheFields() {
+		// given
+		final StatefulObject source = new StatefulObject(456, 1L);
+		source.update("initial");
+		source.update("updated");
+		final StatefulObject target = new StatefulObject(789, 2L);
+
+		// when
+		final StatefulObject result = ReflectionFieldUtils.copyFields(source, target);
+
+		//then
+		Assertions.assertSame(target, result);
+		Assertions.assertEquals(source.describe(), target.describe());
+		Assertions.assertEquals(1L, target.getCreatedAt());
+		Assertions.assertSame(source.getHistory(), target.getHistory());
+	}
+
+	@Test
+	void shouldNotRestoreASnapshotOnAnotherClass() {
+		// given
+		final FieldSnapshot snapshot = ReflectionFieldUtils.snapshot(new StatefulObject(456, 1L));
+		final ParentReflectionUtilsObject other = new ParentReflectionUtilsObject(123);
+
+		// when
+		final IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+				() -> ReflectionFieldUtils.restore(other, snapshot));
+
+		//then
+		Assertions.assertEquals(
+				"The fields of " + StatefulObject.class.getName() + " require an instance of this class",
+				exception.getMessage());
+	}
+
+	@Test
+	void shouldFailWhenASelectedFieldDoesNotExist() {
+		// when
+		final CatadioptreException exception = Assertions.assertThrows(CatadioptreException.class,
+				() -> ReflectionFieldUtils.snapshot(new StatefulObject(456, 1L), "unknown"));
+
+		//then
+		Assertions.assertTrue(exception.getCause() instanceof NoSuchFieldException);
+	}
+
+	@Test
+	void shouldSkipTheInheritedFieldsOfPackagesNotOpen() {
+		// given
+		final CountingMap map = new CountingMap();
+		map.count = 1;
+		final FieldSnapshot snapshot = ReflectionFieldUtils.snapshot(map);
+		map.count = 2;
+
+		// when
+		ReflectionFieldUtils.restore(map, snapshot);
+
+		//then
+		Assertions.assertEquals(Collections.singletonList("count"), snapshot.getFieldNames());
+		Assertions.assertEquals(1, map.count);
+		Assertions.assertTrue(Catadioptre.missingOpens().contains("--add-opens java.base/java.util=ALL-UNNAMED"),
+				Catadioptre.missingOpens().toString());
+	}
+
+	private static class CountingMap extends AbstractMap<String, Integer> {
+
+		private int count;
+
+		@Override
+		public Set<Map.Entry<String, Integer>> entrySet() {
+			return Collections.emptySet();
+		}
+	}
+}
@@ -0,0 +1,16 @@
+package io.aerisconsulting.catadioptre;
+
+public class IndexedObject extends ReflectionUtilsObject {
+
+	private final String indexedValue = "indexed";
+
+	private final String scannedValue = "scanned";
+
+	private String describe(Number value) {
+		return "Value " + value;
+	}
+
+	private String divide(String value) {
+		return value;
+	}
+}
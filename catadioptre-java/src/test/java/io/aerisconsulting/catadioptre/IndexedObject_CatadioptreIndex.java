@@ -0,0 +1,37 @@
+package io.aerisconsulting.catadioptre;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Index as generated by the annotation processor, counting its resolutions.
+ */
+public final class IndexedObject_CatadioptreIndex implements MemberIndex {
+
+	static final AtomicInteger RESOLUTIONS = new AtomicInteger();
+
+	@Override
+	public Field getField(final String name) throws NoSuchFieldException {
+		RESOLUTIONS.incrementAndGet();
+		switch (name) {
+			case "indexedValue":
+				return IndexedObject.class.getDeclaredField("indexedValue");
+			default:
+				return null;
+		}
+	}
+
+	@Override
+	public Method getMethod(final String name) throws NoSuchMethodException {
+		RESOLUTIONS.incrementAndGet();
+		switch (name) {
+			case "describe":
+				return IndexedObject.class.getDeclaredMethod("describe", Number.class);
+			case "divide":
+				return IndexedObject.class.getDeclaredMethod("divide", String.class);
+			default:
+				return null;
+		}
+	}
+}
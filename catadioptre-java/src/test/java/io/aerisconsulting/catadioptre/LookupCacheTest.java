@@ -0,0 +1,59 @@
+package io.aerisconsulting.catadioptre;
+
+import java.lang.ref.WeakReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class LookupCacheTest {
+
+	@Test
+	void shouldEvictTheOldestEntries() {
+		// given
+		final LookupCache<Integer, String> cache = new LookupCache<>();
+		final int maxEntries = Integer.getInteger(LookupCache.MAX_ENTRIES_PROPERTY, 1024);
+
+		// when
+		for (int i = 0; i <= maxEntries; i++) {
+			cache.put(StatefulObject.class, i, "value-" + i);
+		}
+
+		//then
+		Assertions.assertNull(cache.get(StatefulObject.class, 0));
+		Assertions.assertEquals("value-1", cache.get(StatefulObject.class, 1));
+		Assertions.assertEquals("value-" + maxEntries, cache.get(StatefulObject.class, maxEntries));
+	}
+
+	@Test
+	void shouldCreateTheMissingValueOnce() {
+		// given
+		final LookupCache<String, Object> cache = new LookupCache<>();
+
+		// when
+		final Object created = cache.computeIfAbsent(StatefulObject.class, "value", key -> new Object());
+		final Object cached = cache.computeIfAbsent(StatefulObject.class, "value", key -> new Object());
+
+		//then
+		Assertions.assertSame(created, cached);
+		Assertions.assertSame(created, cache.get(StatefulObject.class, "value"));
+	}
+
+	@Test
+	void shouldEagerlyReleaseTheEntriesOfTheClassesNotAccessedAnymore() throws Exception {
+		// given
+		final LookupCache<String, Object> cache = new LookupCache<>();
+		Object value = new Object();
+		final WeakReference<Object> reference = new WeakReference<>(value);
+		cache.put(ShadowingObject.class, "value", value);
+		value = null;
+
+		// when
+		LookupCache.clearAll();
+
+		//then
+		for (int i = 0; i < 20 && reference.get() != null; i++) {
+			System.gc();
+			Thread.sleep(50);
+		}
+		Assertions.assertNull(reference.get());
+	}
+}
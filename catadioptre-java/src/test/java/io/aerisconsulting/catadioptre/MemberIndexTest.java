@@ -0,0 +1,95 @@
+package io.aerisconsulting.catadioptre;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MemberIndexTest {
+
+	@BeforeEach
+	void clearCaches() {
+		Catadioptre.clearCaches();
+		IndexedObject_CatadioptreIndex.RESOLUTIONS.set(0);
+	}
+
+	@Test
+	void shouldFindTheIndexOfTheClass() {
+		// when
+		final MemberIndex index = MemberIndexes.of(IndexedObject.class);
+
+		//then
+		Assertions.assertTrue(index instanceof IndexedObject_CatadioptreIndex);
+		Assertions.assertNull(MemberIndexes.of(ReflectionUtilsObject.class));
+		Assertions.assertEquals("io.aerisconsulting.catadioptre.MemberIndexTest_Nested_CatadioptreIndex",
+				MemberIndexes.indexClassName(Nested.class));
+	}
+
+	@Test
+	void shouldGetTheFieldFromTheIndex() {
+		// given
+		final IndexedObject object = new IndexedObject();
+
+		// when
+		final String result = ReflectionFieldUtils.getField(object, "indexedValue");
+
+		//then
+		Assertions.assertEquals("indexed", result);
+		Assertions.assertEquals(1, IndexedObject_CatadioptreIndex.RESOLUTIONS.get());
+	}
+
+	@Test
+	void shouldScanTheFieldsNotIndexed() {
+		// given
+		final IndexedObject object = new IndexedObject();
+
+		// when
+		final String result = ReflectionFieldUtils.getField(object, "scannedValue");
+
+		//then
+		Assertions.assertEquals("scanned", result);
+		Assertions.assertEquals(1, IndexedObject_CatadioptreIndex.RESOLUTIONS.get());
+	}
+
+	@Test
+	void shouldNotConsultTheIndexOfTheClassesNotDeclaringTheField() {
+		// given
+		final IndexedObject object = new IndexedObject();
+
+		// when
+		final Integer result = ReflectionFieldUtils.getField(object, "value");
+
+		//then
+		Assertions.assertEquals(123, result);
+		Assertions.assertEquals(0, IndexedObject_CatadioptreIndex.RESOLUTIONS.get());
+	}
+
+	@Test
+	void shouldExecuteTheMethodFromTheIndex() {
+		// given
+		final IndexedObject object = new IndexedObject();
+
+		// when
+		final String result = ReflectionMethodUtils.executeInvisible(object, "describe", 12L);
+
+		//then
+		Assertions.assertEquals("Value 12", result);
+		Assertions.assertEquals(1, IndexedObject_CatadioptreIndex.RESOLUTIONS.get());
+	}
+
+	@Test
+	void shouldSearchTheAncestorsWhenTheIndexedMethodDoesNotMatch() {
+		// given
+		final IndexedObject object = new IndexedObject();
+
+		// when
+		final double result = ReflectionMethodUtils.executeInvisible(object, "divide", 10, 2);
+		final String indexedResult = ReflectionMethodUtils.executeInvisible(object, "divide", "value");
+
+		//then
+		Assertions.assertEquals(5.0, result);
+		Assertions.assertEquals("value", indexedResult);
+	}
+
+	private static class Nested {
+	}
+}
@@ -0,0 +1,66 @@
+package io.aerisconsulting.catadioptre;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ModuleAccessTest {
+
+	private static final String MISSING_OPENS = "--add-opens java.base/jdk.internal.misc=ALL-UNNAMED";
+
+	@Test
+	void shouldProvideThePrivateLookupOfTheClassesOfOpenPackages() {
+		// when
+		final MethodHandles.Lookup lookup = ModuleAccess.lookupIn(ReflectionUtilsObject.class);
+
+		//then
+		Assertions.assertSame(ReflectionUtilsObject.class, lookup.lookupClass());
+		Assertions.assertNotEquals(0, lookup.lookupModes() & MethodHandles.Lookup.PRIVATE);
+		Assertions.assertSame(lookup, ModuleAccess.lookupIn(ReflectionUtilsObject.class));
+	}
+
+	@Test
+	void shouldReportTheMissingOpensOfTheClassesOfClosedPackages() throws Exception {
+		// given
+		final Class<?> closedClass = Class.forName("jdk.internal.misc.VM");
+
+		// when
+		final CatadioptreException exception = Assertions.assertThrows(CatadioptreException.class,
+				() -> ModuleAccess.lookupIn(closedClass));
+
+		//then
+		Assertions.assertTrue(exception.getCause() instanceof IllegalAccessException);
+		Assertions.assertTrue(exception.getCause().getMessage().endsWith(MISSING_OPENS));
+		Assertions.assertTrue(Catadioptre.missingOpens().contains(MISSING_OPENS));
+	}
+
+	@Test
+	void shouldNotMakeTheMembersOfClosedPackagesAccessible() throws Exception {
+		// given
+		final Field field = Class.forName("jdk.internal.misc.VM").getDeclaredFields()[0];
+
+		// when
+		final CatadioptreException exception = Assertions.assertThrows(CatadioptreException.class,
+				() -> ModuleAccess.makeAccessible(field));
+
+		//then
+		Assertions.assertTrue(exception.getCause().getMessage().endsWith(MISSING_OPENS));
+		Assertions.assertFalse(field.canAccess(null));
+	}
+
+	@Test
+	void shouldAccessThePublicMembersOfExportedPackagesWithoutOpens() throws Exception {
+		// given
+		final Method method = ArrayList.class.getDeclaredMethod("size");
+
+		// when
+		ModuleAccess.makeAccessible(method);
+
+		//then
+		Assertions.assertEquals(0, method.invoke(new ArrayList<>()));
+		Assertions.assertNotNull(ModuleAccess.lookupFor(method).unreflect(method));
+	}
+}
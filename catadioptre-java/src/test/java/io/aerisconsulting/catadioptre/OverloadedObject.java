@@ -0,0 +1,36 @@
+package io.aerisconsulting.catadioptre;
+
+public class OverloadedObject {
+
+	private String describe(Object value) {
+		return "object";
+	}
+
+	private String describe(int value) {
+		return "int";
+	}
+
+	private String describe(Number value) {
+		return "number";
+	}
+
+	private String describe(Integer value) {
+		return "integer";
+	}
+
+	private String describe(Number... values) {
+		return "numbers";
+	}
+
+	private String describe(Integer[] values) {
+		return "integers";
+	}
+
+	private String convert(long value) {
+		return "long";
+	}
+
+	private String convert(Object value) {
+		return "object";
+	}
+}
@@ -1,5 +1,6 @@
 package io.aerisconsulting.catadioptre;
 
+import java.util.Optional;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -83,4 +84,82 @@ class ReflectionFieldUtilsTest {
 		Assertions.assertNull(object.getInheritedValue());
 	}
 
+
+	@Test
+	void shouldGetAndSetTheFieldShadowedByASubclass() {
+		// given
+		final ShadowingObject object = new ShadowingObject();
+
+		// when
+		int shadowedValue = ReflectionFieldUtils.getField(object, ReflectionUtilsObject.class, "value");
+		ReflectionFieldUtils.setField(object, ReflectionUtilsObject.class, "value", 999);
+
+		//then
+		Assertions.assertEquals(123, shadowedValue);
+		Assertions.assertEquals(999, object.getValue());
+		Assertions.assertEquals(456, object.getShadowingValue());
+		Assertions.assertEquals(456, (int) ReflectionFieldUtils.getField(object, "value"));
+	}
+
+	@Test
+	void shouldGetAStaticFieldOfTheDeclaringClassWithoutInstance() {
+		// when
+		String result = ReflectionFieldUtils.getField(null, ShadowingObject.class, "name");
+
+		//then
+		Assertions.assertEquals("shadowing", result);
+	}
+
+	@Test
+	void shouldNotAccessAFieldOfTheDeclaringClassOnAnotherInstance() {
+		// given
+		final ParentReflectionUtilsObject object = new ParentReflectionUtilsObject(123);
+
+		// when
+		final IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+				() -> ReflectionFieldUtils.getField(object, ReflectionUtilsObject.class, "value"));
+
+		//then
+		Assertions.assertEquals("The field value requires an instance of " + ReflectionUtilsObject.class.getName(),
+				exception.getMessage());
+	}
+
+	@Test
+	void shouldFailWhenTheFieldIsNotDeclaredByTheClass() {
+		// when
+		final CatadioptreException exception = Assertions.assertThrows(CatadioptreException.class,
+				() -> ReflectionFieldUtils.getField(new ShadowingObject(), ShadowingObject.class, "inheritedValue"));
+
+		//then
+		Assertions.assertTrue(exception.getCause() instanceof NoSuchFieldException);
+	}
+
+	@Test
+	void shouldTryToGetAnExistingField() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		final Optional<Integer> value = ReflectionFieldUtils.tryGetField(object, "inheritedValue");
+
+		//then
+		Assertions.assertEquals(Optional.of(789), value);
+		Assertions.assertTrue(ReflectionFieldUtils.hasField(object, "inheritedValue"));
+	}
+
+	@Test
+	void shouldProbeAMissingFieldWithoutException() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		final Optional<Object> value = ReflectionFieldUtils.tryGetField(object, "unknownField");
+		final boolean exists = ReflectionFieldUtils.hasField(object, "unknownField");
+
+		//then
+		Assertions.assertFalse(value.isPresent());
+		Assertions.assertFalse(exists);
+		Assertions.assertThrows(CatadioptreException.class,
+				() -> ReflectionFieldUtils.getField(object, "unknownField"));
+	}
 }
@@ -1,8 +1,10 @@
 package io.aerisconsulting.catadioptre;
 
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -35,6 +37,20 @@ class ReflectionMethodUtilsTest {
 		Assertions.assertEquals(5.0, result);
 	}
 
+	@Test
+	void shouldExecuteAPrivateMethodWithAnArrayOfArgumentDefinitions() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		final Argument[] arguments = {Argument.ofNotNull(10), Argument.ofNotNull(2)};
+
+		// when
+		double result = ReflectionMethodUtils.executeInvisible(object, "divide", (Object[]) arguments);
+
+		// then
+		Assertions.assertEquals(5.0, result);
+		Assertions.assertEquals(10, arguments[0].getValue());
+	}
+
 	@Test
 	void shouldExecuteAPrivateMethodWithVariableArguments()
 			throws InvocationTargetException, NoSuchMethodException, IllegalAccessException {
@@ -135,6 +151,46 @@ class ReflectionMethodUtilsTest {
 		Assertions.assertEquals("This is the exception", cause.getCause().getMessage());
 	}
 
+	@Test
+	void shouldThrowTheOriginalCauseWrappedWithoutStackTrace() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		CatadioptreOriginalCauseException.setRethrowMode(CatadioptreOriginalCauseException.RethrowMode.STACKLESS);
+
+		try {
+			// when
+			Throwable exception = Assertions.assertThrows(CatadioptreOriginalCauseException.class, () ->
+					ReflectionMethodUtils.executeInvisible(object, "throwException")
+			);
+
+			//then
+			Assertions.assertEquals(0, exception.getStackTrace().length);
+			Assertions.assertEquals(IllegalArgumentException.class, exception.getCause().getClass());
+			Assertions.assertTrue(exception.getCause().getStackTrace().length > 0);
+		} finally {
+			CatadioptreOriginalCauseException.setRethrowMode(CatadioptreOriginalCauseException.RethrowMode.WRAPPED);
+		}
+	}
+
+	@Test
+	void shouldThrowTheOriginalCauseUnwrapped() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		CatadioptreOriginalCauseException.setRethrowMode(CatadioptreOriginalCauseException.RethrowMode.UNWRAPPED);
+
+		try {
+			// when
+			Throwable exception = Assertions.assertThrows(IllegalArgumentException.class, () ->
+					ReflectionMethodUtils.executeInvisible(object, "throwException")
+			);
+
+			//then
+			Assertions.assertEquals("This is the exception", exception.getMessage());
+		} finally {
+			CatadioptreOriginalCauseException.setRethrowMode(CatadioptreOriginalCauseException.RethrowMode.WRAPPED);
+		}
+	}
+
 	@Test
 	void shouldExecuteMethodWhenTheArgumentIsAMockOfAnAbstractClassAndTwoCandidateMethods() {
 		// given
@@ -148,4 +204,173 @@ class ReflectionMethodUtilsTest {
 		// then
 		Assertions.assertEquals("the value", result);
 	}
+
+	@Test
+	void shouldExecuteAPrivateMethodWithADescriptor() {
+		// given
+		final ShadowingObject object = new ShadowingObject();
+
+		// when
+		double result = ReflectionMethodUtils.executeInvisible(object, ReflectionUtilsObject.class, "divide",
+				"(Ljava/lang/Number;I)D", 10L, 2);
+
+		// then
+		Assertions.assertEquals(5.0, result);
+	}
+
+	@Test
+	void shouldExecuteAPrivateMethodWithTheTypesOfTheParameters() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+		final List<Integer> values = new ArrayList<>();
+		values.add(1);
+		values.add(3);
+		values.add(6);
+
+		// when
+		double result = ReflectionMethodUtils.executeInvisible(object, ReflectionUtilsObject.class, "divideSum",
+				new Class<?>[]{int.class, List.class}, 2, values);
+
+		// then
+		Assertions.assertEquals(5.0, result);
+	}
+
+	@Test
+	void shouldExecuteAPrivateMethodWithADescriptorAndNullArguments() {
+		// given
+		final ShadowingObject object = new ShadowingObject();
+
+		// when
+		String result = ReflectionMethodUtils.executeInvisible(object, ShadowingObject.class, "describe",
+				"(Ljava/lang/String;)Ljava/lang/String;", (Object) null);
+		String resultWithArgument = ReflectionMethodUtils.executeInvisible(object, ShadowingObject.class, "describe",
+				"(Ljava/lang/String;)Ljava/lang/String;", Argument.ofNull(String.class));
+
+		// then
+		Assertions.assertEquals("Value null", result);
+		Assertions.assertEquals("Value null", resultWithArgument);
+	}
+
+	@Test
+	void shouldExecuteAPrivateMethodWithADescriptorAndANullArrayOfArguments() {
+		// given
+		final ShadowingObject object = new ShadowingObject();
+
+		// when
+		String result = ReflectionMethodUtils.executeInvisible(object, ShadowingObject.class, "describe",
+				"(Ljava/lang/String;)Ljava/lang/String;", (Object[]) null);
+
+		// then
+		Assertions.assertEquals("Value null", result);
+		Assertions.assertThrows(IllegalArgumentException.class,
+				() -> ReflectionMethodUtils.executeInvisible(object, ReflectionUtilsObject.class, "divide",
+						"(Ljava/lang/Number;I)D", (Object[]) null));
+	}
+
+	@Test
+	void shouldExecuteAStaticMethodWithADescriptorWithoutInstance() {
+		// when
+		String result = ReflectionMethodUtils.executeInvisible(null, ShadowingObject.class, "describeName",
+				"(Ljava/lang/String;)Ljava/lang/String;", "Name ");
+
+		// then
+		Assertions.assertEquals("Name shadowing", result);
+	}
+
+	@Test
+	void shouldFailWhenNoMethodMatchesTheDescriptor() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		final CatadioptreException exception = Assertions.assertThrows(CatadioptreException.class,
+				() -> ReflectionMethodUtils.executeInvisible(object, ReflectionUtilsObject.class, "divide",
+						"(Ljava/lang/Number;I)I", 10, 2));
+
+		// then
+		Assertions.assertTrue(exception.getCause() instanceof NoSuchMethodException);
+	}
+
+	@Test
+	void shouldFailWhenTheArgumentsDoNotMatchTheDescriptor() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		final IllegalArgumentException exception = Assertions.assertThrows(IllegalArgumentException.class,
+				() -> ReflectionMethodUtils.executeInvisible(object, ReflectionUtilsObject.class, "divide",
+						"(Ljava/lang/Number;I)D", 10, null));
+
+		// then
+		Assertions.assertEquals("The argument 1 of the method divide cannot be converted to int",
+				exception.getMessage());
+	}
+
+	@Test
+	void shouldExecuteTheMostSpecificOverloadedMethod() {
+		// given
+		final OverloadedObject object = new OverloadedObject();
+
+		// when
+		String integerResult = ReflectionMethodUtils.executeInvisible(object, "describe", 12);
+		String numberResult = ReflectionMethodUtils.executeInvisible(object, "describe", 12L);
+		String objectResult = ReflectionMethodUtils.executeInvisible(object, "describe", "text");
+		String arrayResult = ReflectionMethodUtils.executeInvisible(object, "describe",
+				Argument.ofVarargs(Integer.class, 1, 2));
+		String varargsResult = ReflectionMethodUtils.executeInvisible(object, "describe",
+				Argument.ofVarargs(Long.class, 1L, 2L));
+
+		// then
+		Assertions.assertEquals("integer", integerResult);
+		Assertions.assertEquals("number", numberResult);
+		Assertions.assertEquals("object", objectResult);
+		Assertions.assertEquals("integers", arrayResult);
+		// The methods with variable arguments are only applicable when no other is.
+		Assertions.assertEquals("object", varargsResult);
+	}
+
+	@Test
+	void shouldPreferTheOverloadedMethodsApplicableWithoutUnboxing() {
+		// given
+		final OverloadedObject object = new OverloadedObject();
+
+		// when
+		String result = ReflectionMethodUtils.executeInvisible(object, "convert", 12L);
+
+		// then
+		Assertions.assertEquals("object", result);
+	}
+
+	@Test
+	void shouldFindAnInvisibleMethodForTheTypesOfTheArguments() throws Exception {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		final Optional<Method> method = ReflectionMethodUtils.findInvisibleMethod(object, "divide", Long.class,
+				int.class);
+
+		//then
+		Assertions.assertTrue(method.isPresent());
+		Assertions.assertEquals(ReflectionUtilsObject.class.getDeclaredMethod("divide", Number.class, int.class),
+				method.get());
+		Assertions.assertEquals(5.0, method.get().invoke(object, 10L, 2));
+		Assertions.assertTrue(ReflectionMethodUtils.hasMethod(object, "returnInheritedValue"));
+	}
+
+	@Test
+	void shouldProbeAMissingMethodWithoutException() {
+		// given
+		final ReflectionUtilsObject object = new ReflectionUtilsObject();
+
+		// when
+		final Optional<Method> method = ReflectionMethodUtils.findInvisibleMethod(object, "divide", String.class);
+		final boolean exists = ReflectionMethodUtils.hasMethod(object, "divide", String.class);
+
+		//then
+		Assertions.assertFalse(method.isPresent());
+		Assertions.assertFalse(exists);
+		Assertions.assertThrows(CatadioptreException.class,
+				() -> ReflectionMethodUtils.executeInvisible(object, "divide", "10"));
+	}
 }
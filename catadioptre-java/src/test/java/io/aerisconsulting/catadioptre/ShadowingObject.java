@@ -0,0 +1,20 @@
+package io.aerisconsulting.catadioptre;
+
+public class ShadowingObject extends ReflectionUtilsObject {
+
+	private static String name = "shadowing";
+
+	private final Integer value = 456;
+
+	public Integer getShadowingValue() {
+		return value;
+	}
+
+	private String describe(String value) {
+		return "Value " + value;
+	}
+
+	private static String describeName(String prefix) {
+		return prefix + name;
+	}
+}
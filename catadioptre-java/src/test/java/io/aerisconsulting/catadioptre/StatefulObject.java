@@ -0,0 +1,60 @@
+package io.aerisconsulting.catadioptre;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StatefulObject extends ParentReflectionUtilsObject {
+
+	private final long createdAt;
+
+	private final List<String> history = new ArrayList<>();
+
+	private boolean enabled;
+
+	private byte flags;
+
+	private char grade;
+
+	private short level;
+
+	private int count;
+
+	private long total;
+
+	private float ratio;
+
+	private double average;
+
+	private String state;
+
+	public StatefulObject(final int inheritedValue, final long createdAt) {
+		super(inheritedValue);
+		this.createdAt = createdAt;
+	}
+
+	public void update(final String state) {
+		history.add(state);
+		this.state = state;
+		enabled = !enabled;
+		flags++;
+		grade++;
+		level++;
+		count++;
+		total += 1_000_000_000_000L;
+		ratio += 0.5f;
+		average += 0.25;
+	}
+
+	public long getCreatedAt() {
+		return createdAt;
+	}
+
+	public List<String> getHistory() {
+		return history;
+	}
+
+	public String describe() {
+		return state + "," + enabled + "," + flags + "," + grade + "," + level + "," + count + "," + total + ","
+				+ ratio + "," + average + "," + getInheritedValue();
+	}
+}
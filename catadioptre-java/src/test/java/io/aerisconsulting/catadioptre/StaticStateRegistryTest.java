@@ -0,0 +1,139 @@
+package io.aerisconsulting.catadioptre;
+
+import io.aerisconsulting.catadioptre.statics.FailingStaticStateObject;
+import io.aerisconsulting.catadioptre.statics.OtherStaticStateObject;
+import io.aerisconsulting.catadioptre.statics.StaticStateObject;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+class StaticStateRegistryTest {
+
+	@Test
+	void shouldRestoreTheStaticFieldsOfTheRegisteredClasses() {
+		// given
+		final StaticStateRegistry registry = new StaticStateRegistry().register(StaticStateObject.class);
+		final Map<Class<?>, Throwable> notCaptured = registry.snapshot();
+		final String initialDescription = StaticStateObject.describe();
+		StaticStateObject.update("updated");
+
+		// when
+		final Map<Field, Throwable> failures = registry.restore();
+
+		//then
+		Assertions.assertTrue(notCaptured.isEmpty());
+		Assertions.assertTrue(failures.isEmpty());
+		Assertions.assertEquals(initialDescription, StaticStateObject.describe());
+	}
+
+	@Test
+	void shouldRestoreTheStaticFinalReferencesWhenEnabled() throws Throwable {
+		// given
+		final StaticStateRegistry registry = new StaticStateRegistry().register(StaticStateObject.class)
+				.writeFinalFields(true);
+		registry.snapshot();
+		final Map<String, Integer> initialCache = StaticStateObject.getCache();
+		replaceCache();
+
+		// when
+		final Map<Field, Throwable> failures = registry.restore();
+
+		//then
+		Assertions.assertTrue(failures.isEmpty());
+		Assertions.assertSame(initialCache, StaticStateObject.getCache());
+	}
+
+	@Test
+	void shouldReportTheStaticFinalReferencesByDefault() throws Throwable {
+		// given
+		final StaticStateRegistry registry = new StaticStateRegistry().register(StaticStateObject.class);
+		registry.snapshot();
+		final String initialDescription = StaticStateObject.describe();
+		StaticStateObject.update("updated");
+		replaceCache();
+
+		// when
+		final Map<Field, Throwable> failures = registry.restore();
+
+		//then
+		Assertions.assertEquals(1, failures.size());
+		final Map.Entry<Field, Throwable> failure = failures.entrySet().iterator().next();
+		Assertions.assertEquals(StaticStateObject.class.getDeclaredField("CACHE"), failure.getKey());
+		Assertions.assertTrue(failure.getValue() instanceof UnsupportedOperationException);
+		Assertions.assertEquals(initialDescription, StaticStateObject.describe());
+	}
+
+	@Test
+	void shouldReportTheClassesThatCannotBeCaptured() {
+		// given
+		final StaticStateRegistry registry = new StaticStateRegistry()
+				.register(Collections.class, FailingStaticStateObject.class, StaticStateObject.class);
+
+		// when
+		final Map<Class<?>, Throwable> notCaptured = registry.snapshot();
+		final String initialDescription = StaticStateObject.describe();
+		StaticStateObject.update("updated");
+		final Map<Field, Throwable> failures = registry.restore();
+
+		//then
+		Assertions.assertEquals(Arrays.asList(Collections.class, FailingStaticStateObject.class),
+				new ArrayList<>(notCaptured.keySet()));
+		Assertions.assertTrue(notCaptured.get(Collections.class) instanceof CatadioptreException);
+		Assertions.assertTrue(notCaptured.get(FailingStaticStateObject.class) instanceof LinkageError);
+		Assertions.assertTrue(failures.isEmpty());
+		Assertions.assertEquals(initialDescription, StaticStateObject.describe());
+	}
+
+	@Test
+	void shouldRegisterAllTheClassesOfAPackage() {
+		// given
+		final StaticStateRegistry registry = new StaticStateRegistry()
+				.registerPackage("io.aerisconsulting.catadioptre.statics");
+		final Map<Class<?>, Throwable> notCaptured = registry.snapshot();
+		final long initialTotal = OtherStaticStateObject.getTotal();
+		final String initialDescription = StaticStateObject.describe();
+		OtherStaticStateObject.add(12L);
+		StaticStateObject.update("updated");
+
+		// when
+		registry.restore();
+
+		//then
+		Assertions.assertEquals(new HashSet<>(Arrays.asList(StaticStateObject.class, OtherStaticStateObject.class,
+				FailingStaticStateObject.class)), registry.getClasses());
+		Assertions.assertEquals(Collections.singleton(FailingStaticStateObject.class), notCaptured.keySet());
+		Assertions.assertEquals(initialTotal, OtherStaticStateObject.getTotal());
+		Assertions.assertEquals(initialDescription, StaticStateObject.describe());
+	}
+
+	@Test
+	void shouldNotRestoreWithoutSnapshot() {
+		// given
+		final StaticStateRegistry registry = new StaticStateRegistry().register(StaticStateObject.class);
+
+		// when
+		Assertions.assertThrows(IllegalStateException.class, registry::restore);
+	}
+
+	/**
+	 * Replaces the value of the static final field {@code CACHE} of {@link StaticStateObject}.
+	 */
+	private static void replaceCache() throws Throwable {
+		final MethodHandle cacheSetter;
+		try {
+			cacheSetter = StaticFinalFields.setterOf(StaticStateObject.class.getDeclaredField("CACHE"));
+		} catch (UnsupportedOperationException e) {
+			Assumptions.abort("The static final fields cannot be written in this JVM");
+			return;
+		}
+		cacheSetter.invoke(new HashMap<>());
+	}
+}
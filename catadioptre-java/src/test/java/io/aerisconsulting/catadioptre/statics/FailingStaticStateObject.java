@@ -0,0 +1,14 @@
+package io.aerisconsulting.catadioptre.statics;
+
+public class FailingStaticStateObject {
+
+	private static int value = initialValue();
+
+	private static int initialValue() {
+		throw new IllegalStateException("This is the exception");
+	}
+
+	public static int getValue() {
+		return value;
+	}
+}
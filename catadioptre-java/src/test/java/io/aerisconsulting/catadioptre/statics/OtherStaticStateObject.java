@@ -0,0 +1,14 @@
+package io.aerisconsulting.catadioptre.statics;
+
+public class OtherStaticStateObject {
+
+	private static long total;
+
+	public static void add(final long value) {
+		total += value;
+	}
+
+	public static long getTotal() {
+		return total;
+	}
+}
@@ -0,0 +1,31 @@
+package io.aerisconsulting.catadioptre.statics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class StaticStateObject {
+
+	public static final int LIMIT = 10;
+
+	private static final Map<String, Integer> CACHE = new HashMap<>();
+
+	private static int counter;
+
+	private static double ratio = 0.5;
+
+	private static String name = "initial";
+
+	public static void update(final String newName) {
+		CACHE.put(newName, ++counter);
+		ratio *= 2;
+		name = newName;
+	}
+
+	public static String describe() {
+		return name + "," + counter + "," + ratio + "," + LIMIT;
+	}
+
+	public static Map<String, Integer> getCache() {
+		return CACHE;
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+
+/**
+ * Measures the bytes allocated by the current thread for each call of an operation, once the operation is warmed
+ * up.
+ * <p>
+ * The meter is shared as a test fixture with the tests of the other modules.
+ *
+ * @author Eric Jessé
+ */
+public final class AllocationMeter {
+
+	private static final int WARMUP_CALLS = 20_000;
+
+	private static final int MEASURED_CALLS = 10_000;
+
+	private static final java.lang.management.ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+	/**
+	 * Keeps the results of the operations, so that the calls cannot be eliminated by the JIT.
+	 */
+	@SuppressWarnings("unused")
+	private static volatile Object sink;
+
+	private AllocationMeter() {
+	}
+
+	/**
+	 * Verifies that each call of {@code operation} allocates at most {@code budget} bytes.
+	 * <p>
+	 * The test is skipped when the JVM cannot measure the allocations of a thread.
+	 */
+	public static void assertAllocatesAtMost(final long budget, final Supplier<?> operation) {
+		Assumptions.assumeTrue(THREAD_MX_BEAN instanceof ThreadMXBean
+				&& ((ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemorySupported()
+				&& ((ThreadMXBean) THREAD_MX_BEAN).isThreadAllocatedMemoryEnabled(),
+				"The allocated memory of the threads cannot be measured");
+
+		final long allocated = bytesPerCall(operation);
+		Assertions.assertTrue(allocated <= budget,
+				() -> "Each call allocates " + allocated + " bytes, when the budget is " + budget + " bytes");
+	}
+
+	private static long bytesPerCall(final Supplier<?> operation) {
+		final ThreadMXBean threadMXBean = (ThreadMXBean) THREAD_MX_BEAN;
+		for (int i = 0; i < WARMUP_CALLS; i++) {
+			sink = operation.get();
+		}
+		final long threadId = Thread.currentThread().getId();
+		final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < MEASURED_CALLS; i++) {
+			sink = operation.get();
+		}
+		return (threadMXBean.getThreadAllocatedBytes(threadId) - before) / MEASURED_CALLS;
+	}
+}
@@ -30,6 +30,10 @@ dependencies {
     compileOnly(kotlin("stdlib"))
     implementation(kotlin("reflect"))
 
+    // Only the fixtures are used, the Java runtime declares classes with the same names as the Kotlin one.
+    testImplementation(project(":catadioptre-java", "testFixturesRuntimeElements")) {
+        isTransitive = false
+    }
     testImplementation("com.willowtreeapps.assertk:assertk:$assertkVersion")
     testImplementation("com.willowtreeapps.assertk:assertk-jvm:$assertkVersion")
     testImplementation("io.mockk:mockk:$mockkVersion")
@@ -28,11 +28,6 @@ data class Argument constructor(
     internal val isOmitted: Boolean? = null
 ) {
     internal fun matches(parameter: KParameter): Boolean {
-        val result = type.matches(parameter)
-                || (parameter.type.classifier as? KClass<*>)?.isInstance(value) == true
-        if (result) {
-            this.type.actualParameter = parameter
-        }
-        return result
+        return type.matches(parameter) || (parameter.type.classifier as? KClass<*>)?.isInstance(value) == true
     }
 }
@@ -20,7 +20,7 @@ import kotlin.reflect.KFunction
 import kotlin.reflect.KParameter
 import kotlin.reflect.full.callSuspendBy
 import kotlin.reflect.full.instanceParameter
-import kotlin.reflect.jvm.isAccessible
+import kotlin.reflect.full.valueParameters
 import kotlin.reflect.safeCast
 
 /**
@@ -35,39 +35,71 @@ internal class DynamicCall<T>(
 
     private var arguments: List<Argument> = emptyList()
 
-    @Suppress("UNCHECKED_CAST")
     internal fun execute(): T {
-        val function = findFunction(instance::class, functionName, arguments)
+        val event = KFunctionInvokeEvent(false).apply { beginResolution() }
+        val function = findFunction(UserClasses.of(instance::class), functionName, arguments, event)
         return if (function != null) {
-            val allArguments = prepareFunction(function)
-            try {
-                function.callBy(allArguments) as T
-            } catch (targetException: InvocationTargetException) {
-                throw targetException.cause!!
-            }
+            call(function, event)
         } else {
             throw IllegalArgumentException("The function $functionName could not be found for the arguments $arguments")
         }
     }
 
+    /**
+     * Executes the function as [execute] does, but returns null instead of failing when there is no such function or
+     * when the arguments do not match its parameters.
+     */
+    internal fun executeOrNull(): T? {
+        val event = KFunctionInvokeEvent(false).apply { beginResolution() }
+        val function = findFunction(UserClasses.of(instance::class), functionName, arguments, event, true)
+        return function?.let { call(it, event) }
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun call(function: KFunction<*>, event: KFunctionInvokeEvent): T {
+        val allArguments = prepareFunction(function)
+        val start = KCatadioptreMetrics.start()
+        try {
+            return function.callBy(allArguments) as T
+        } catch (targetException: InvocationTargetException) {
+            throw event.failed(targetException.cause!!)
+        } catch (e: Throwable) {
+            throw event.failed(e)
+        } finally {
+            KCatadioptreMetrics.recordInvocation(instance.javaClass, function, start)
+            event.commit()
+        }
+    }
+
     private fun prepareFunction(function: KFunction<*>): MutableMap<KParameter, Any?> {
-        function.isAccessible = true
         val allArguments = mutableMapOf<KParameter, Any?>()
         function.instanceParameter?.let { param -> allArguments[param] = instance }
-        allArguments += arguments.filterNot { it.isOmitted == true }
-            .associate { getArgument(it.type.actualParameter!!, it.value) }
+        // The arguments are passed to the parameters with the same position.
+        val valueParameters = function.valueParameters
+        arguments.forEachIndexed { index, argument ->
+            if (argument.isOmitted != true) {
+                allArguments += getArgument(valueParameters[index], argument.value)
+            }
+        }
         return allArguments
     }
 
     @Suppress("UNCHECKED_CAST")
     internal suspend fun coExecute(): T {
-        val function = findFunction(instance::class, functionName, arguments)
+        val event = KFunctionInvokeEvent(true).apply { beginResolution() }
+        val function = findFunction(UserClasses.of(instance::class), functionName, arguments, event)
         return if (function != null) {
             val allArguments = prepareFunction(function)
+            val start = KCatadioptreMetrics.start()
             try {
                 function.callSuspendBy(allArguments) as T
             } catch (targetException: InvocationTargetException) {
-                throw targetException.cause!!
+                throw event.failed(targetException.cause!!)
+            } catch (e: Throwable) {
+                throw event.failed(e)
+            } finally {
+                KCatadioptreMetrics.recordInvocation(instance.javaClass, function, start)
+                event.commit()
             }
         } else {
             throw IllegalArgumentException("The function $functionName could not be found for the arguments $arguments")
@@ -105,15 +137,15 @@ internal class DynamicCall<T>(
             } else if (it == null) {
                 Argument(value = null, Parameter(Any::class))
             } else {
-                Argument(it, Parameter(it::class))
+                Argument(it, Parameter(UserClasses.of(it::class)))
             }
         }
     }
 
     fun named(name: String, value: Any?): Argument {
         return if (value is Argument) {
-            value.type.name = name
-            return value
+            // The argument is copied, since it might be shared with other calls.
+            value.copy(type = value.type.copy(name = name))
         } else {
             Argument(value, Parameter(null, name))
         }
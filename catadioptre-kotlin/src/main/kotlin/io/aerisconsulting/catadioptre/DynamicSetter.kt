@@ -33,15 +33,23 @@ class DynamicSetter<T>(
         set(value)
     }
 
-    private fun set(value: Any?) {
-        if (property is KMutableProperty<*>) {
+    init {
+        // The properties resolved by Catadioptre are already accessible, only the others are modified.
+        if (!property.isAccessible) {
             property.isAccessible = true
-            property.setter.call(instance, value)
-        } else {
-            property.javaField!!.also {
-                it.isAccessible = true
-                it.set(instance, value)
+        }
+    }
+
+    private fun set(value: Any?) {
+        val start = KCatadioptreMetrics.start()
+        try {
+            if (property is KMutableProperty<*>) {
+                property.setter.call(instance, value)
+            } else {
+                property.javaField!!.set(instance, value)
             }
+        } finally {
+            KCatadioptreMetrics.recordInvocation(instance.javaClass, property, start)
         }
     }
 
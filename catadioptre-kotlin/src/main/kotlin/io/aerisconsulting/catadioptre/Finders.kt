@@ -17,28 +17,93 @@ package io.aerisconsulting.catadioptre
 import kotlin.reflect.KClass
 import kotlin.reflect.KFunction
 import kotlin.reflect.KParameter
+import kotlin.reflect.KProperty
 import kotlin.reflect.KProperty1
+import kotlin.reflect.full.declaredMemberExtensionFunctions
+import kotlin.reflect.full.declaredMemberFunctions
+import kotlin.reflect.full.declaredMemberProperties
 import kotlin.reflect.full.instanceParameter
+import kotlin.reflect.full.isSuperclassOf
 import kotlin.reflect.full.memberExtensionFunctions
 import kotlin.reflect.full.memberFunctions
 import kotlin.reflect.full.memberProperties
 import kotlin.reflect.full.superclasses
 import kotlin.reflect.full.valueParameters
+import kotlin.reflect.jvm.isAccessible
 
 /**
- * Searches a property in the class or any of its parents.
+ * Properties already resolved for each class, by name.
+ */
+private val resolvedProperties = LookupCache<String, KProperty1<*, *>>()
+
+/**
+ * Names of the properties already searched in vain for each class.
+ */
+private val missingProperties = LookupCache<String, Boolean>()
+
+/**
+ * Functions of each class and its parents, by name.
+ */
+private val candidateFunctions = LookupCache<String, List<KFunction<*>>>()
+
+/**
+ * Functions already selected among several candidates for each class, by name and types of the arguments.
+ */
+private val selectedFunctions = LookupCache<FunctionCall, KFunction<*>>()
+
+/**
+ * Searches a property in the class or any of its parents, from the cache when it was already resolved.
  *
  * @author Eric Jessé
  */
 @Suppress("UNCHECKED_CAST")
 internal fun <T> findProperty(instanceClass: KClass<*>, propertyName: String): KProperty1<T, *>? {
-    return (instanceClass.takeIf { it.memberProperties.firstOrNull { it.name == propertyName } != null }
-        ?: instanceClass.superclasses.firstOrNull { it.memberProperties.find { it.name == propertyName } != null })
-        ?.memberProperties?.firstOrNull { it.name == propertyName } as KProperty1<T, *>?
+    val start = KCatadioptreMetrics.start()
+    val lookupEvent = KLookupEvent("property").apply { beginResolution() }
+    resolvedProperties[instanceClass.java, propertyName]?.let { property ->
+        KCatadioptreMetrics.recordLookup(instanceClass.java, property, true, start)
+        lookupEvent.found(property, true)
+        return property as KProperty1<T, *>
+    }
+    val knownAsMissing = missingProperties[instanceClass.java, propertyName] != null
+    val property = if (knownAsMissing) null else searchProperty(instanceClass, propertyName)
+    if (property != null) {
+        resolvedProperties.put(instanceClass.java, propertyName, property)
+        KCatadioptreMetrics.recordLookup(instanceClass.java, property, false, start)
+        lookupEvent.found(property, false)
+    } else {
+        if (!knownAsMissing) {
+            missingProperties.put(instanceClass.java, propertyName, true)
+        }
+        KCatadioptreMetrics.recordFailedLookup(KProperty::class, knownAsMissing, start)
+        lookupEvent.notFound(instanceClass.java, propertyName, knownAsMissing)
+    }
+    return property as KProperty1<T, *>?
 }
 
 /**
- * Searches a function in the class or any of its parents.
+ * Searches a property in the class or any of its parents, and makes it accessible before it is shared.
+ */
+private fun searchProperty(instanceClass: KClass<*>, propertyName: String): KProperty1<*, *>? {
+    return (indexedProperty(instanceClass, propertyName)
+        ?: (instanceClass.takeIf { it.memberProperties.firstOrNull { it.name == propertyName } != null }
+            ?: instanceClass.superclasses.firstOrNull { it.memberProperties.find { it.name == propertyName } != null })
+            ?.memberProperties?.firstOrNull { it.name == propertyName })
+        ?.also { it.isAccessible = true }
+}
+
+/**
+ * Returns the property called [propertyName] declared by [instanceClass], when its [KMemberIndex] contains it.
+ */
+private fun indexedProperty(instanceClass: KClass<*>, propertyName: String): KProperty1<*, *>? {
+    return KMemberIndexes.of(instanceClass.java)?.takeIf { propertyName in it.properties }
+        ?.let { instanceClass.declaredMemberProperties.firstOrNull { it.name == propertyName } }
+}
+
+/**
+ * Searches a function in the class or any of its parents, among the candidates already cached by name.
+ *
+ * A unique candidate is returned without verifying the [arguments], unless [verifyArguments] is true.
  *
  * @author Eric Jessé
  */
@@ -46,25 +111,92 @@ internal fun <T> findProperty(instanceClass: KClass<*>, propertyName: String): K
 internal fun findFunction(
     instanceClass: KClass<*>,
     functionName: String,
-    arguments: List<Argument>
+    arguments: List<Argument>,
+    accessEvent: KMemberEvent,
+    verifyArguments: Boolean = false
 ): KFunction<*>? {
-    val functions =
-        instanceClass.memberFunctions + instanceClass.memberExtensionFunctions + instanceClass.superclasses.flatMap {
-            it.memberFunctions + it.memberExtensionFunctions
+    val start = KCatadioptreMetrics.start()
+    val lookupEvent = KLookupEvent("function").apply { beginResolution() }
+    var cacheHit = true
+    val functionsWithName = candidateFunctions[instanceClass.java, functionName]
+        ?: searchFunctions(instanceClass, functionName).also {
+            cacheHit = false
+            candidateFunctions.put(instanceClass.java, functionName, it)
         }
-    val functionsWithName = functions.filter { it.name == functionName }
-    return if (functionsWithName.size == 1) {
-        functionsWithName.first().apply {
-            areParametersMatching(arguments)
-            // If some arguments were not resolved, the one with the same index is applied.
-            arguments.map(Argument::type).forEachIndexed { index, argumentType ->
-                if (argumentType.actualParameter == null) {
-                    argumentType.actualParameter = this.valueParameters[index]
+    val function = if (functionsWithName.size == 1 && !verifyArguments) {
+        // A unique candidate is used without verifying the arguments, which are then passed by position.
+        functionsWithName.first()
+    } else {
+        val call = FunctionCall(functionName, arguments.map { argument ->
+            argument.type to argument.value?.let { UserClasses.of(it::class).java }
+        })
+        selectedFunctions[instanceClass.java, call]
+            ?: functionsWithName.filter { it.areParametersMatching(arguments) }.mostSpecific()?.also {
+                // A call with arguments of a child class loader would retain this class loader.
+                if (call.isVisibleFrom(instanceClass.java)) {
+                    selectedFunctions.put(instanceClass.java, call, it)
                 }
             }
-        }
+    }
+    if (function != null) {
+        KCatadioptreMetrics.recordLookup(instanceClass.java, function, cacheHit, start)
+        lookupEvent.found(function, cacheHit)
+        accessEvent.resolved(function, cacheHit)
     } else {
-        functionsWithName.firstOrNull { it.areParametersMatching(arguments) }
+        KCatadioptreMetrics.recordFailedLookup(KFunction::class, cacheHit, start)
+        lookupEvent.notFound(instanceClass.java, functionName, cacheHit)
+    }
+    return function
+}
+
+/**
+ * Searches the functions with the provided name in the class or any of its parents, and makes them accessible before
+ * they are shared.
+ */
+private fun searchFunctions(instanceClass: KClass<*>, functionName: String): List<KFunction<*>> {
+    val functions = indexedFunctions(instanceClass, functionName).ifEmpty {
+        instanceClass.memberFunctions + instanceClass.memberExtensionFunctions + instanceClass.superclasses.flatMap {
+            it.memberFunctions + it.memberExtensionFunctions
+        }
+    }
+    return functions.filter { it.name == functionName }.onEach { it.isAccessible = true }
+}
+
+/**
+ * Returns the functions called [functionName] declared by [instanceClass], when its [KMemberIndex] contains it.
+ *
+ * The indexed functions are declared neither by the supertypes of the class nor several times by the class, so that
+ * they are the only candidates.
+ */
+private fun indexedFunctions(instanceClass: KClass<*>, functionName: String): List<KFunction<*>> {
+    return KMemberIndexes.of(instanceClass.java)?.takeIf { functionName in it.functions }
+        ?.let { instanceClass.declaredMemberFunctions + instanceClass.declaredMemberExtensionFunctions }
+        .orEmpty()
+}
+
+/**
+ * Returns the resolutions of all the properties and functions of [instanceClass] and its superclasses, which cache
+ * them as [findProperty] and [findFunction] do, without recording metrics nor events.
+ */
+internal fun resolutionsOf(instanceClass: KClass<*>): List<() -> Unit> {
+    val classes = listOf(instanceClass) + instanceClass.superclasses
+    val propertyNames = classes.flatMap { it.memberProperties }.map { it.name }.distinct()
+    val functionNames = classes.flatMap { it.memberFunctions + it.memberExtensionFunctions }.map { it.name }.distinct()
+    return propertyNames.map { name -> { preloadProperty(instanceClass, name) } } +
+            functionNames.map { name -> { preloadFunctions(instanceClass, name) } }
+}
+
+private fun preloadProperty(instanceClass: KClass<*>, propertyName: String) {
+    if (resolvedProperties[instanceClass.java, propertyName] == null) {
+        searchProperty(instanceClass, propertyName)?.let {
+            resolvedProperties.put(instanceClass.java, propertyName, it)
+        }
+    }
+}
+
+private fun preloadFunctions(instanceClass: KClass<*>, functionName: String) {
+    if (candidateFunctions[instanceClass.java, functionName] == null) {
+        candidateFunctions.put(instanceClass.java, functionName, searchFunctions(instanceClass, functionName))
     }
 }
 
@@ -84,3 +216,54 @@ private fun KFunction<*>.areParametersMatching(searchedArguments: List<Argument>
     }
 }
 
+/**
+ * Selects the most specific of the applicable functions, as the Kotlin compiler does: the functions without vararg are
+ * preferred to the others, then the function with parameters of subtypes of the parameters of all the others is
+ * selected.
+ *
+ * The ties are broken by the signature of the functions, so that the result does not depend on the order of the
+ * reflection.
+ */
+private fun List<KFunction<*>>.mostSpecific(): KFunction<*>? {
+    if (size <= 1) {
+        return firstOrNull()
+    }
+    val candidates = filter { function -> function.valueParameters.none { it.isVararg } }.ifEmpty { this }
+    val tieBreaker = compareBy<KFunction<*>> { it.toString() }
+    return candidates.filter { function -> candidates.all { function.isAtLeastAsSpecificAs(it) } }
+        .minWithOrNull(tieBreaker) ?: candidates.minWithOrNull(tieBreaker)
+}
+
+/**
+ * Verifies whether the type of each value parameter of [this] function is a subtype of the type of the parameter of
+ * [other] with the same index.
+ */
+private fun KFunction<*>.isAtLeastAsSpecificAs(other: KFunction<*>): Boolean {
+    val parameters = valueParameters
+    val otherParameters = other.valueParameters
+    return parameters.size == otherParameters.size && parameters.indices.all { index ->
+        val classifier = parameters[index].type.classifier as? KClass<*> ?: Any::class
+        val otherClassifier = otherParameters[index].type.classifier as? KClass<*> ?: Any::class
+        otherClassifier.isSuperclassOf(classifier)
+    }
+}
+
+/**
+ * Name of a function and types of the arguments of a call, used as key to cache the selected functions.
+ */
+private data class FunctionCall(val name: String, val arguments: List<Pair<Parameter, Class<*>?>>) {
+
+    /**
+     * Verifies whether all the types of the arguments are loaded by the class loader of [type] or one of its parents.
+     */
+    fun isVisibleFrom(type: Class<*>): Boolean {
+        return arguments.all { (parameter, valueType) ->
+            isVisibleFrom(parameter.classifier?.java, type) && isVisibleFrom(valueType, type)
+        }
+    }
+
+    private fun isVisibleFrom(argumentType: Class<*>?, type: Class<*>): Boolean {
+        val argumentClassLoader = argumentType?.classLoader ?: return true
+        return generateSequence(type.classLoader) { it.parent }.any { it === argumentClassLoader }
+    }
+}
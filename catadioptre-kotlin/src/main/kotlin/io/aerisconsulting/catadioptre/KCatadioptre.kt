@@ -0,0 +1,59 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre
+
+import java.util.stream.Collectors
+import kotlin.reflect.KClass
+
+/**
+ * General operations on the Kotlin runtime of Catadioptre.
+ *
+ * @author Eric Jessé
+ */
+object KCatadioptre {
+
+    /**
+     * Discards all the properties and functions resolved by the Kotlin runtime.
+     *
+     * The caches are released with the class loaders of the classes, this function is only required to reclaim memory
+     * in a long-lived class loader. The entries of all the classes are discarded eagerly, including the ones of classes
+     * that are never accessed again.
+     */
+    fun clearCaches() {
+        LookupCache.clearAll()
+    }
+
+    /**
+     * Resolves and makes accessible all the properties and functions of [types] and their superclasses, in parallel on
+     * the common [java.util.concurrent.ForkJoinPool], and caches them for the Kotlin runtime.
+     *
+     * Calling this function before a phase of parallel tests avoids that all the workers resolve the same members at
+     * once. The members that cannot be made accessible are ignored, the errors are reported when they are used.
+     *
+     * @param types the classes of the instances that will be accessed
+     */
+    fun preload(vararg types: KClass<*>) {
+        val resolutions = types.asList().parallelStream()
+            .flatMap { resolutionsOf(it).stream() }
+            .collect(Collectors.toList())
+        resolutions.parallelStream().forEach { resolution ->
+            try {
+                resolution()
+            } catch (e: Exception) {
+                // The member is resolved again and the error reported when it is used.
+            }
+        }
+    }
+}
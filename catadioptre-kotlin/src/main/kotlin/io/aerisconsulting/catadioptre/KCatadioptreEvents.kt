@@ -0,0 +1,169 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre
+
+import jdk.jfr.Category
+import jdk.jfr.Description
+import jdk.jfr.Enabled
+import jdk.jfr.Event
+import jdk.jfr.Label
+import jdk.jfr.Name
+import jdk.jfr.Timespan
+import kotlin.reflect.KCallable
+import kotlin.reflect.KFunction
+import kotlin.reflect.KProperty
+import kotlin.reflect.jvm.javaField
+import kotlin.reflect.jvm.javaGetter
+import kotlin.reflect.jvm.javaMethod
+
+/**
+ * Base of the events of the JDK Flight Recorder emitted by the Kotlin runtime, describing the accessed member and its
+ * resolution.
+ *
+ * The events are disabled by default and have to be enabled in the recording settings, for example with
+ * `-XX:StartFlightRecording:settings=profile,+catadioptre.kotlin.FunctionInvoke#enabled=true` or in JDK Mission
+ * Control.
+ *
+ * @author Eric Jessé
+ */
+@Category("Catadioptre", "Kotlin")
+@Enabled(false)
+internal abstract class KMemberEvent : Event() {
+
+    @Label("Declaring Class")
+    @JvmField
+    var declaringClass: Class<*>? = null
+
+    @Label("Member Name")
+    @JvmField
+    var memberName: String? = null
+
+    @Label("Resolution Time")
+    @Timespan(Timespan.NANOSECONDS)
+    @JvmField
+    var resolutionTime: Long = 0
+
+    @Label("Cache Hit")
+    @Description("Whether the member was found in the cache of the resolved members")
+    @JvmField
+    var cacheHit: Boolean = false
+
+    @Transient
+    @JvmField
+    var startNanos: Long = 0
+
+    /**
+     * Begins the timing of the event and of the resolution of the member.
+     */
+    fun beginResolution() {
+        begin()
+        if (isEnabled) {
+            startNanos = System.nanoTime()
+        }
+    }
+
+    /**
+     * Describes the member once resolved.
+     */
+    fun resolved(member: KCallable<*>, cacheHit: Boolean) {
+        if (isEnabled) {
+            resolutionTime = System.nanoTime() - startNanos
+            declaringClass = when (member) {
+                is KFunction<*> -> member.javaMethod?.declaringClass
+                is KProperty<*> -> member.javaField?.declaringClass ?: member.javaGetter?.declaringClass
+                else -> null
+            }
+            memberName = member.name
+            this.cacheHit = cacheHit
+        }
+    }
+}
+
+/**
+ * Invocation of a function with [invokeInvisible] or [coInvokeInvisible].
+ *
+ * @author Eric Jessé
+ */
+@Name("catadioptre.kotlin.FunctionInvoke")
+@Label("Function Invocation")
+@Description("Invocation of a function with invokeInvisible or coInvokeInvisible")
+internal class KFunctionInvokeEvent(
+    @Label("Suspend")
+    @JvmField
+    val suspend: Boolean
+) : KMemberEvent() {
+
+    @Label("Succeeded")
+    @Description("Whether the invocation completed without throwing an exception")
+    @JvmField
+    var succeeded: Boolean = true
+
+    @Label("Exception Class")
+    @Description("Class of the exception thrown by the invocation, when it failed")
+    @JvmField
+    var exceptionClass: Class<*>? = null
+
+    /**
+     * Describes the exception thrown by the invocation, before the event is committed, and returns it.
+     */
+    fun failed(failure: Throwable): Throwable {
+        if (isEnabled) {
+            succeeded = false
+            exceptionClass = failure.javaClass
+        }
+        return failure
+    }
+}
+
+/**
+ * Resolution of a property or a function.
+ *
+ * @author Eric Jessé
+ */
+@Name("catadioptre.kotlin.Lookup")
+@Label("Member Lookup")
+@Description("Resolution of a property or a function, from the cache or by scanning the class hierarchy")
+internal class KLookupEvent(
+    @Label("Member Kind")
+    @JvmField
+    val memberKind: String
+) : KMemberEvent() {
+
+    @Label("Found")
+    @JvmField
+    var found: Boolean = false
+
+    /**
+     * Commits the event for a member that was found.
+     */
+    fun found(member: KCallable<*>, cacheHit: Boolean) {
+        resolved(member, cacheHit)
+        found = true
+        commit()
+    }
+
+    /**
+     * Commits the event for a member that could not be found.
+     */
+    fun notFound(instanceClass: Class<*>, name: String, cacheHit: Boolean) {
+        if (isEnabled) {
+            resolutionTime = System.nanoTime() - startNanos
+            declaringClass = instanceClass
+            memberName = name
+            this.cacheHit = cacheHit
+        }
+        commit()
+    }
+}
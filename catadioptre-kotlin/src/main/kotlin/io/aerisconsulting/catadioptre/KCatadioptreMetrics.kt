@@ -0,0 +1,290 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre
+
+import java.util.Locale
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.LongAdder
+import kotlin.reflect.KCallable
+import kotlin.reflect.KClass
+import kotlin.reflect.KProperty
+
+/**
+ * Counters of the lookups and invocations of the properties and functions accessed with the Kotlin runtime of
+ * Catadioptre, to identify the reflective accesses that cost the most.
+ *
+ * The metrics are disabled by default and then only cost a volatile read per call. They are enabled either with
+ * [enable] or the system property `catadioptre.metrics=true`. The system property `catadioptre.metrics.summary=N`
+ * enables them as well and prints the N most expensive members when the JVM shuts down.
+ *
+ * The metrics of the members are kept by description, so that they do not retain the classes and their class loaders:
+ * the metrics of a class loaded by several class loaders are merged.
+ *
+ * @author Eric Jessé
+ */
+object KCatadioptreMetrics {
+
+    /**
+     * System property to enable the metrics.
+     */
+    const val ENABLED_PROPERTY = "catadioptre.metrics"
+
+    /**
+     * System property with the number of members to list in the summary printed when the JVM shuts down.
+     */
+    const val SUMMARY_PROPERTY = "catadioptre.metrics.summary"
+
+    /**
+     * Value returned by [start] when the metrics are disabled.
+     */
+    internal const val NOT_MEASURED = Long.MIN_VALUE
+
+    private val propertyLookupsCounter = LongAdder()
+
+    private val functionLookupsCounter = LongAdder()
+
+    private val cacheHitsCounter = LongAdder()
+
+    private val cacheMissesCounter = LongAdder()
+
+    private val failedLookupsCounter = LongAdder()
+
+    private val resolutionNanosCounter = LongAdder()
+
+    /**
+     * Metrics of the members, by description.
+     */
+    private val membersMetrics = ConcurrentHashMap<String, MemberMetrics>()
+
+    /**
+     * Descriptions of the members, attached to the classes they were resolved for so that they are released with their
+     * class loader.
+     */
+    private val descriptions = object : ClassValue<ConcurrentHashMap<KCallable<*>, String>>() {
+        override fun computeValue(type: Class<*>) = ConcurrentHashMap<KCallable<*>, String>()
+    }
+
+    private val summaryOnShutdown = AtomicBoolean()
+
+    @Volatile
+    var isEnabled: Boolean = java.lang.Boolean.getBoolean(ENABLED_PROPERTY)
+        private set
+
+    init {
+        val summarySize = Integer.getInteger(SUMMARY_PROPERTY, 0)
+        if (summarySize > 0) {
+            isEnabled = true
+            printSummaryOnShutdown(summarySize)
+        }
+    }
+
+    val propertyLookups: Long
+        get() = propertyLookupsCounter.sum()
+
+    val functionLookups: Long
+        get() = functionLookupsCounter.sum()
+
+    val cacheHits: Long
+        get() = cacheHitsCounter.sum()
+
+    val cacheMisses: Long
+        get() = cacheMissesCounter.sum()
+
+    /**
+     * Number of lookups of properties or functions that could not be found.
+     */
+    val failedLookups: Long
+        get() = failedLookupsCounter.sum()
+
+    /**
+     * Total time spent resolving properties and functions, in nanoseconds.
+     */
+    val resolutionNanos: Long
+        get() = resolutionNanosCounter.sum()
+
+    /**
+     * Metrics of all the members resolved since the last reset.
+     */
+    val members: List<MemberMetrics>
+        get() = membersMetrics.values.toList()
+
+    /**
+     * Starts recording the metrics.
+     */
+    fun enable() {
+        isEnabled = true
+    }
+
+    /**
+     * Stops recording the metrics, the values already recorded are kept.
+     */
+    fun disable() {
+        isEnabled = false
+    }
+
+    /**
+     * Discards all the recorded values.
+     */
+    fun reset() {
+        propertyLookupsCounter.reset()
+        functionLookupsCounter.reset()
+        cacheHitsCounter.reset()
+        cacheMissesCounter.reset()
+        failedLookupsCounter.reset()
+        resolutionNanosCounter.reset()
+        membersMetrics.clear()
+    }
+
+    /**
+     * Returns the [count] members with the highest time spent in their resolution and invocations.
+     */
+    fun mostExpensiveMembers(count: Int): List<MemberMetrics> {
+        return membersMetrics.values.sortedByDescending(MemberMetrics::totalNanos).take(count)
+    }
+
+    /**
+     * Builds a human-readable summary of the metrics, listing the [count] most expensive members.
+     */
+    fun summary(count: Int): String {
+        return buildString {
+            append(
+                String.format(
+                    Locale.ROOT,
+                    "Catadioptre Kotlin: %d property lookups, %d function lookups, %d cache hits, %d cache misses, "
+                            + "%d failed lookups, %.3f ms of resolution",
+                    propertyLookups, functionLookups, cacheHits, cacheMisses, failedLookups,
+                    resolutionNanos / 1_000_000.0
+                )
+            )
+            val mostExpensiveMembers = mostExpensiveMembers(count)
+            if (mostExpensiveMembers.isNotEmpty()) {
+                append(
+                    String.format(Locale.ROOT, "%n%12s %12s %12s  %s", "Total (ms)", "Lookups", "Invocations", "Member")
+                )
+                mostExpensiveMembers.forEach {
+                    append(
+                        String.format(
+                            Locale.ROOT, "%n%12.3f %12d %12d  %s", it.totalNanos / 1_000_000.0, it.lookups,
+                            it.invocations, it.member
+                        )
+                    )
+                }
+            }
+        }
+    }
+
+    /**
+     * Prints the [summary] on the standard output when the JVM shuts down. Only the first call registers the hook.
+     */
+    fun printSummaryOnShutdown(count: Int) {
+        if (summaryOnShutdown.compareAndSet(false, true)) {
+            Runtime.getRuntime()
+                .addShutdownHook(Thread({ println(summary(count)) }, "catadioptre-kotlin-metrics-summary"))
+        }
+    }
+
+    /**
+     * Returns the time at the beginning of a measured operation, or [NOT_MEASURED] when the metrics are disabled.
+     */
+    internal fun start() = if (isEnabled) System.nanoTime() else NOT_MEASURED
+
+    internal fun recordLookup(type: Class<*>, member: KCallable<*>, cacheHit: Boolean, start: Long) {
+        if (start != NOT_MEASURED) {
+            val elapsed = System.nanoTime() - start
+            (if (member is KProperty<*>) propertyLookupsCounter else functionLookupsCounter).increment()
+            (if (cacheHit) cacheHitsCounter else cacheMissesCounter).increment()
+            resolutionNanosCounter.add(elapsed)
+            metricsOf(type, member).recordLookup(elapsed)
+        }
+    }
+
+    internal fun recordFailedLookup(memberType: KClass<out KCallable<*>>, cacheHit: Boolean, start: Long) {
+        if (start != NOT_MEASURED) {
+            (if (memberType == KProperty::class) propertyLookupsCounter else functionLookupsCounter).increment()
+            (if (cacheHit) cacheHitsCounter else cacheMissesCounter).increment()
+            failedLookupsCounter.increment()
+            resolutionNanosCounter.add(System.nanoTime() - start)
+        }
+    }
+
+    internal fun recordInvocation(type: Class<*>, member: KCallable<*>, start: Long) {
+        if (start != NOT_MEASURED) {
+            val elapsed = System.nanoTime() - start
+            metricsOf(type, member).recordInvocation(elapsed)
+        }
+    }
+
+    /**
+     * Returns the metrics of [member] resolved for [type], only locking the maps when they do not exist yet.
+     */
+    private fun metricsOf(type: Class<*>, member: KCallable<*>): MemberMetrics {
+        val descriptionsOfType = descriptions.get(type)
+        val description = descriptionsOfType[member]
+            ?: descriptionsOfType.computeIfAbsent(member, KCallable<*>::toString)
+        return membersMetrics[description] ?: membersMetrics.computeIfAbsent(description, ::MemberMetrics)
+    }
+
+    /**
+     * Metrics of a single property or function.
+     *
+     * The invocations of suspend functions include the time spent suspended.
+     */
+    class MemberMetrics internal constructor(
+        /**
+         * Description of the member, as its signature.
+         */
+        val member: String
+    ) {
+
+        private val lookupsCounter = LongAdder()
+
+        private val resolutionNanosCounter = LongAdder()
+
+        private val invocationsCounter = LongAdder()
+
+        private val invocationNanosCounter = LongAdder()
+
+        val lookups: Long
+            get() = lookupsCounter.sum()
+
+        val resolutionNanos: Long
+            get() = resolutionNanosCounter.sum()
+
+        val invocations: Long
+            get() = invocationsCounter.sum()
+
+        val invocationNanos: Long
+            get() = invocationNanosCounter.sum()
+
+        /**
+         * Total time spent resolving and invoking the member, in nanoseconds.
+         */
+        val totalNanos: Long
+            get() = resolutionNanos + invocationNanos
+
+        internal fun recordLookup(nanos: Long) {
+            lookupsCounter.increment()
+            resolutionNanosCounter.add(nanos)
+        }
+
+        internal fun recordInvocation(nanos: Long) {
+            invocationsCounter.increment()
+            invocationNanosCounter.add(nanos)
+        }
+
+        override fun toString() = member
+    }
+}
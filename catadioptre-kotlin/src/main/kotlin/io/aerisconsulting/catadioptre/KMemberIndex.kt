@@ -0,0 +1,93 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre
+
+import java.util.Optional
+
+/**
+ * Index of the annotated members of a class, generated by the annotation processor to resolve them from the members
+ * declared by the class, without computing all the members of its hierarchy.
+ *
+ * The index of the class `my.package.Outer.MyClass` is the object `my.package.Outer_MyClass_KCatadioptreIndex`,
+ * loaded by the same class loader.
+ *
+ * @author Eric Jessé
+ */
+interface KMemberIndex {
+
+    /**
+     * Names of the indexed properties declared by the class.
+     */
+    val properties: Set<String>
+
+    /**
+     * Names of the indexed functions declared by the class, which are neither overloaded in the class nor declared
+     * by its supertypes.
+     */
+    val functions: Set<String>
+
+    companion object {
+
+        /**
+         * Suffix of the names of the generated indices.
+         */
+        const val CLASS_NAME_SUFFIX = "_KCatadioptreIndex"
+    }
+}
+
+/**
+ * Finds the [KMemberIndex] generated for the classes.
+ *
+ * The index of each class is probed once and attached to the class with a [ClassValue], so that it is released with
+ * its class loader.
+ *
+ * @author Eric Jessé
+ */
+internal object KMemberIndexes {
+
+    private val indices = object : ClassValue<Optional<KMemberIndex>>() {
+        override fun computeValue(type: Class<*>) = Optional.ofNullable(load(type))
+    }
+
+    /**
+     * Returns the index generated for [type], or null when there is none.
+     */
+    fun of(type: Class<*>): KMemberIndex? = indices.get(type).orElse(null)
+
+    /**
+     * Returns the name of the index of [type], in the same package.
+     */
+    fun indexClassName(type: Class<*>): String {
+        val packageName = type.packageName
+        val binaryName = if (packageName.isEmpty()) type.name else type.name.substring(packageName.length + 1)
+        val prefix = if (packageName.isEmpty()) "" else "$packageName."
+        return prefix + binaryName.replace('$', '_') + KMemberIndex.CLASS_NAME_SUFFIX
+    }
+
+    private fun load(type: Class<*>): KMemberIndex? {
+        val classLoader = type.classLoader
+        if (classLoader == null || type.isArray) {
+            return null
+        }
+        return try {
+            Class.forName(indexClassName(type), false, classLoader).kotlin.objectInstance as? KMemberIndex
+        } catch (e: ReflectiveOperationException) {
+            // Without a usable index, the members of the class are computed.
+            null
+        } catch (e: LinkageError) {
+            null
+        }
+    }
+}
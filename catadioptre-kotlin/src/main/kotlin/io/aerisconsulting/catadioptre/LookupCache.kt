@@ -0,0 +1,123 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre
+
+import java.lang.ref.Reference
+import java.lang.ref.ReferenceQueue
+import java.lang.ref.WeakReference
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ConcurrentLinkedQueue
+
+/**
+ * Cache of the members resolved for each class.
+ *
+ * The entries are attached to the classes with a [ClassValue], so that they are released with their class loader.
+ * The values and keys must only reference classes visible from the class they are cached for.
+ *
+ * The number of entries for each class is bounded by the system property `catadioptre.cache.max-entries-per-class`
+ * (1024 by default): when the bound is exceeded, the oldest entries of the class are evicted first. The bound is
+ * approximate under concurrent updates, it can be briefly exceeded by the number of threads caching entries for the
+ * same class. A bound of 0 disables the caching.
+ *
+ * @author Eric Jessé
+ */
+internal class LookupCache<K : Any, V : Any> {
+
+    private val entries = object : ClassValue<Entries<K, V>>() {
+        override fun computeValue(type: Class<*>): Entries<K, V> {
+            expungeReleasedEntries()
+            return Entries<K, V>().also { liveEntries += WeakReference(it, releasedEntries) }
+        }
+    }
+
+    /**
+     * Returns the value cached for [type] and [key], or null when there is none.
+     */
+    operator fun get(type: Class<*>, key: K): V? = entries.get(type).values[key]
+
+    /**
+     * Caches [value] for [type] and [key], evicting the oldest entries of [type] when the bound is exceeded.
+     */
+    fun put(type: Class<*>, key: K, value: V) {
+        if (maxEntries <= 0) {
+            return
+        }
+        entries.get(type).put(key, value)
+    }
+
+    /**
+     * Entries cached for a single class, evicted in their insertion order.
+     */
+    private class Entries<K : Any, V : Any> {
+
+        val values = ConcurrentHashMap<K, V>()
+
+        private val insertionOrder = ConcurrentLinkedQueue<K>()
+
+        fun put(key: K, value: V) {
+            if (values.putIfAbsent(key, value) == null) {
+                insertionOrder.add(key)
+                while (values.size > maxEntries) {
+                    val oldest = insertionOrder.poll() ?: break
+                    values.remove(oldest)
+                }
+            }
+        }
+
+        fun clear() {
+            insertionOrder.clear()
+            values.clear()
+        }
+    }
+
+    companion object {
+
+        /**
+         * System property to configure the maximal number of entries cached for each class.
+         */
+        const val MAX_ENTRIES_PROPERTY = "catadioptre.cache.max-entries-per-class"
+
+        private val maxEntries = Integer.getInteger(MAX_ENTRIES_PROPERTY, 1024)
+
+        /**
+         * Entries of all the caches, weakly referenced so that they do not retain their class loaders.
+         */
+        private val liveEntries: MutableSet<Reference<out Entries<*, *>>> = ConcurrentHashMap.newKeySet()
+
+        /**
+         * Queue of the entries released with their class loaders, to remove from [liveEntries].
+         */
+        private val releasedEntries = ReferenceQueue<Entries<*, *>>()
+
+        /**
+         * Eagerly discards the entries of all the caches, including the ones of classes that are not accessed anymore.
+         *
+         * A value resolved concurrently with this call might still be cached after it.
+         */
+        fun clearAll() {
+            expungeReleasedEntries()
+            liveEntries.forEach { it.get()?.clear() }
+        }
+
+        /**
+         * Removes the references to the entries already released with their class loaders.
+         */
+        private fun expungeReleasedEntries() {
+            while (true) {
+                liveEntries.remove(releasedEntries.poll() ?: return)
+            }
+        }
+    }
+}
@@ -24,14 +24,12 @@ import kotlin.reflect.full.isSuperclassOf
  * @author Eric Jessé
  */
 data class Parameter(
-    private val classifier: KClass<*>?,
-    internal var name: String? = null,
-    internal var isVararg: Boolean? = null,
-    internal var isOptional: Boolean? = null
+    internal val classifier: KClass<*>?,
+    internal val name: String? = null,
+    internal val isVararg: Boolean? = null,
+    internal val isOptional: Boolean? = null
 ) {
 
-    internal var actualParameter: KParameter? = null
-
     fun matches(parameter: KParameter): Boolean {
         return ((name == null || name == parameter.name)
                 && (isVararg == null || parameter.isVararg == isVararg)
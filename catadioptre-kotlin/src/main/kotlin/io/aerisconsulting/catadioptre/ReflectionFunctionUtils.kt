@@ -60,6 +60,22 @@ fun <T> Any.invokeInvisible(methodName: String, vararg arguments: Any?): T {
     return DynamicCall<T>(this, methodName).apply { withArgs(*arguments) }.execute()
 }
 
+/**
+ * Executes the method [methodName] on this instance with the provided arguments as [invokeInvisible] does, but returns
+ * null instead of failing when there is no such method for the arguments.
+ *
+ * This is convenient to probe optional methods, the missing methods being cached. The result is also null when the
+ * method returns null.
+ *
+ * Usage:
+ * ```
+ * val value: Int? = instance.invokeInvisibleOrNull("divide", 12, 6)
+ * ```
+ */
+fun <T> Any.invokeInvisibleOrNull(methodName: String, vararg arguments: Any?): T? {
+    return DynamicCall<T>(this, methodName).apply { withArgs(*arguments) }.executeOrNull()
+}
+
 
 /**
  * Executes the monadic or polyadic method [methodName] on this instance with the provided arguments
@@ -85,8 +101,8 @@ suspend fun <T> Any.coInvokeInvisible(methodName: String, vararg arguments: Any?
  */
 fun named(name: String, value: Any?): Argument {
     return if (value is Argument) {
-        value.type.name = name
-        return value
+        // The argument is copied, since it might be shared with other calls.
+        value.copy(type = value.type.copy(name = name))
     } else {
         Argument(value, Parameter(null, name))
     }
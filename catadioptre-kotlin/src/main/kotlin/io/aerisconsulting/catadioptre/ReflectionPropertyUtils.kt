@@ -15,7 +15,6 @@
 package io.aerisconsulting.catadioptre
 
 import kotlin.reflect.KProperty
-import kotlin.reflect.jvm.isAccessible
 
 /**
  * Sets [value] in the property or field called [propertyName] of the instance.
@@ -39,7 +38,7 @@ fun <T : Any> T.setProperty(propertyName: String, value: Any?): T {
  * ```
  */
 infix fun Any.withProperty(propertyName: String): DynamicSetter<Any> {
-    val property = findProperty<Any>(this::class, propertyName)
+    val property = findProperty<Any>(UserClasses.of(this::class), propertyName)
         ?: throw IllegalArgumentException("The property $propertyName could not be found")
     return DynamicSetter(this, property)
 }
@@ -68,11 +67,38 @@ infix fun <T : Any> T.clearProperty(propertyName: String): T {
  */
 @Suppress("UNCHECKED_CAST")
 infix fun <T> Any.getProperty(propertyName: String): T {
-    val property = findProperty<T>(this::class, propertyName)
+    val property = findProperty<T>(UserClasses.of(this::class), propertyName)
     return if (property is KProperty<*>) {
-        property.isAccessible = true
-        property.getter.call(this) as T
+        val start = KCatadioptreMetrics.start()
+        try {
+            property.getter.call(this) as T
+        } finally {
+            KCatadioptreMetrics.recordInvocation(javaClass, property, start)
+        }
     } else {
         throw IllegalArgumentException("The property $propertyName could not be found")
     }
 }
+
+/**
+ * Returns the value of the property or field called [propertyName] of the instance as [getProperty] does, but returns
+ * null instead of failing when there is no such property.
+ *
+ * This is convenient to probe optional properties, the missing properties being cached. The result is also null when
+ * the value of the property is null.
+ *
+ * Usage:
+ * ```
+ * val value: Int? = instance getPropertyOrNull "value"
+ * ```
+ */
+@Suppress("UNCHECKED_CAST")
+infix fun <T> Any.getPropertyOrNull(propertyName: String): T? {
+    val property = findProperty<T>(UserClasses.of(this::class), propertyName) ?: return null
+    val start = KCatadioptreMetrics.start()
+    try {
+        return property.getter.call(this) as T
+    } finally {
+        KCatadioptreMetrics.recordInvocation(javaClass, property, start)
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre
+
+import kotlin.reflect.KClass
+
+/**
+ * Canonicalization of the classes generated at runtime by the mocking and proxying libraries to the classes written by
+ * the users, which declare the accessed members.
+ *
+ * Resolving the members of a mock or a spy in its user class shares the cached members with the plain instances,
+ * instead of caching them again for each generated class.
+ *
+ * @author Eric Jessé
+ */
+internal object UserClasses {
+
+    /**
+     * Markers in the names of the subclasses generated by Mockito, ByteBuddy, CGLIB and Javassist.
+     */
+    private val generatedClassMarkers = listOf(
+        "\$MockitoMock\$", "\$ByteBuddy\$", "\$\$EnhancerBy", "\$\$SpringCGLIB\$\$", "\$\$_javassist",
+        "\$HibernateProxy\$"
+    )
+
+    /**
+     * Suffix of the subclasses generated by MockK, followed by a sequence number.
+     */
+    private val mockkSubclassSuffix = Regex("""\${'$'}Subclass\d+$""")
+
+    private val userClasses = object : ClassValue<KClass<*>>() {
+        override fun computeValue(type: Class<*>): KClass<*> {
+            var userClass = type
+            while (isGenerated(userClass) && userClass.superclass != null && userClass.superclass != Any::class.java) {
+                userClass = userClass.superclass
+            }
+            return userClass.kotlin
+        }
+    }
+
+    /**
+     * Returns the first class of the hierarchy of [type] that was not generated at runtime.
+     */
+    fun of(type: KClass<*>): KClass<*> = userClasses.get(type.java)
+
+    /**
+     * Verifies whether [type] is a subclass generated at runtime.
+     */
+    fun isGenerated(type: Class<*>): Boolean {
+        val name = type.name
+        return generatedClassMarkers.any { it in name } || mockkSubclassSuffix.containsMatchIn(name)
+    }
+}
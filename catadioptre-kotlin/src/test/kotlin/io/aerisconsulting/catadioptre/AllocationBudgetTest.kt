@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre
+
+import io.aerisconsulting.catadioptre.AllocationMeter.assertAllocatesAtMost
+import kotlinx.coroutines.runBlocking
+import org.junit.jupiter.api.Test
+
+/**
+ * Guards the bytes allocated by each call of the hot paths, once warmed up.
+ *
+ * The budgets are about 1.5 times the current allocations and should be lowered when a path allocates less.
+ *
+ * @author Eric Jessé
+ */
+internal class AllocationBudgetTest {
+
+    private val instance = ReflectionUtilsObject()
+
+    private val suspendedInstance = SuspendedReflectionUtilsObject()
+
+    @Test
+    internal fun `should get the property within the budget`() {
+        assertAllocatesAtMost(136) { instance.getProperty<Int?>("value") }
+    }
+
+    @Test
+    internal fun `should set the property within the budget`() {
+        assertAllocatesAtMost(160) { instance.setProperty("value", 456) }
+    }
+
+    @Test
+    internal fun `should set the property with infix function within the budget`() {
+        assertAllocatesAtMost(160) { instance withProperty "value" being 456 }
+    }
+
+    @Test
+    internal fun `should clear the property within the budget`() {
+        assertAllocatesAtMost(136) { instance clearProperty "value" }
+    }
+
+    @Test
+    internal fun `should call the function without argument within the budget`() {
+        assertAllocatesAtMost(672) { instance.invokeInvisible<Int?>("returnValue") }
+    }
+
+    @Test
+    internal fun `should call the function with arguments within the budget`() {
+        assertAllocatesAtMost(1248) { instance.invokeInvisible<Int>("divide", 12, 3) }
+    }
+
+    @Test
+    internal fun `should call the function with named and omitted arguments within the budget`() {
+        assertAllocatesAtMost(1664) {
+            instance.invokeInvisible<Int>("divide", omitted<Number>(), named("divider", 2))
+        }
+    }
+
+    @Test
+    internal fun `should call the inherited function within the budget`() {
+        assertAllocatesAtMost(1248) { instance.invokeInvisible<Int>("inheritedDivide", 12, 3) }
+    }
+
+    @Test
+    internal fun `should call the function with variable arguments within the budget`() {
+        assertAllocatesAtMost(3584) { instance.invokeInvisible<Int>("divideSum", 2, vararg(1, 3, 6)) }
+    }
+
+    @Test
+    internal fun `should call the suspend function within the budget`() {
+        assertAllocatesAtMost(2176) {
+            runBlocking { suspendedInstance.coInvokeInvisible<Int>("divide", 12, 3) }
+        }
+    }
+}
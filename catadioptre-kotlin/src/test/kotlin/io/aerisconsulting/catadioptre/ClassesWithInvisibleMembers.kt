@@ -85,3 +85,16 @@ class SuspendedReflectionUtilsObject(
     }
 
 }
+
+@Suppress("UNUSED_PARAMETER")
+class OverloadedObject {
+
+    private fun describe(value: Any) = "any"
+
+    private fun describe(value: Number) = "number"
+
+    private fun describe(value: Int) = "int"
+
+    private fun describe(vararg values: Int) = "ints"
+
+}
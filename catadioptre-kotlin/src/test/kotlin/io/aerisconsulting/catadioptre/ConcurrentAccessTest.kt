@@ -0,0 +1,84 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre
+
+import assertk.assertThat
+import assertk.assertions.isEqualTo
+import kotlinx.coroutines.runBlocking
+import org.junit.jupiter.api.Test
+import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+internal class ConcurrentAccessTest {
+
+    @Test
+    internal fun `should access the same members from many threads`() {
+        // given
+        val instance = ReflectionUtilsObject()
+        val suspendedInstance = SuspendedReflectionUtilsObject()
+        // The same arguments are shared by all the calls, of different functions.
+        val divider = named("divider", 2)
+        val omittedValue = omitted<Number>()
+        val startLatch = CountDownLatch(1)
+        val tasks = (0 until TASKS).map { value ->
+            Callable {
+                startLatch.await()
+                if (value % 1_000 == 0) {
+                    // Forces concurrent resolutions of the members.
+                    KCatadioptre.clearCaches()
+                }
+                assertThat(instance.invokeInvisible<Int>("divide", value, divider)).isEqualTo(value / 2)
+                assertThat(instance.invokeInvisible<Int>("inheritedDivide", value, divider)).isEqualTo(value / 2)
+                assertThat(instance.invokeInvisible<Int>("divide", omittedValue, divider)).isEqualTo(5)
+                assertThat(instance.invokeInvisible<Int>("divideSum", 2, vararg(value, value))).isEqualTo(value)
+                assertThat(runBlocking { suspendedInstance.coInvokeInvisible<Int>("divide", value, divider) })
+                    .isEqualTo(value / 2)
+                assertThat(instance.getProperty<Int>("value")).isEqualTo(123)
+                assertThat(instance.getProperty<Int>("inheritedValue")).isEqualTo(789)
+            }
+        }
+
+        // when
+        val executor = newExecutor()
+        try {
+            val futures = tasks.map(executor::submit)
+            startLatch.countDown()
+
+            // then
+            futures.forEach { it.get(30, TimeUnit.SECONDS) }
+        } finally {
+            executor.shutdownNow()
+        }
+    }
+
+    /**
+     * Creates an executor running each task in a virtual thread, when the JVM supports them.
+     */
+    private fun newExecutor(): ExecutorService {
+        return try {
+            Executors::class.java.getMethod("newVirtualThreadPerTaskExecutor").invoke(null) as ExecutorService
+        } catch (e: ReflectiveOperationException) {
+            Executors.newFixedThreadPool(64)
+        }
+    }
+
+    private companion object {
+
+        const val TASKS = 10_000
+    }
+}
@@ -0,0 +1,24 @@
+package io.aerisconsulting.catadioptre
+
+import java.util.concurrent.atomic.AtomicInteger
+
+class IndexedObject : ParentReflectionUtilsObject(456) {
+
+    private val indexedValue = "indexed"
+
+    private fun describe(value: Number) = "Value $value"
+}
+
+/**
+ * Index as generated by the annotation processor, counting its resolutions.
+ */
+object IndexedObject_KCatadioptreIndex : KMemberIndex {
+
+    val resolutions = AtomicInteger()
+
+    override val properties: Set<String>
+        get() = setOf("indexedValue").also { resolutions.incrementAndGet() }
+
+    override val functions: Set<String>
+        get() = setOf("describe").also { resolutions.incrementAndGet() }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre
+
+import assertk.assertThat
+import assertk.assertions.hasSize
+import assertk.assertions.isEqualTo
+import assertk.assertions.isFalse
+import assertk.assertions.isNull
+import assertk.assertions.isTrue
+import jdk.jfr.Recording
+import jdk.jfr.consumer.RecordedEvent
+import jdk.jfr.consumer.RecordingFile
+import kotlinx.coroutines.runBlocking
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+import java.nio.file.Files
+
+internal class KCatadioptreEventsTest {
+
+    @Test
+    internal fun `should record the function invocations and lookups`() {
+        // given
+        val instance = ReflectionUtilsObject()
+        val suspendedInstance = SuspendedReflectionUtilsObject()
+
+        // when
+        val events = record {
+            instance.invokeInvisible<Int>("divide", 12, 3)
+            runBlocking { suspendedInstance.coInvokeInvisible<Int>("divide", 12, 3) }
+        }
+
+        // then
+        val invocations = events.ofType("catadioptre.kotlin.FunctionInvoke")
+        assertThat(invocations).hasSize(2)
+        assertThat(invocations[0].getClass("declaringClass").name).isEqualTo(ReflectionUtilsObject::class.java.name)
+        assertThat(invocations[0].getString("memberName")).isEqualTo("divide")
+        assertThat(invocations[0].getBoolean("suspend")).isFalse()
+        assertThat(invocations[1].getBoolean("suspend")).isTrue()
+
+        val lookups = events.ofType("catadioptre.kotlin.Lookup")
+        assertThat(lookups).hasSize(2)
+        assertThat(lookups[0].getString("memberKind")).isEqualTo("function")
+        assertThat(lookups[0].getBoolean("found")).isTrue()
+    }
+
+    @Test
+    internal fun `should record the property lookups and the failed lookups`() {
+        // given
+        val instance = ReflectionUtilsObject()
+
+        // when
+        val events = record {
+            instance.getProperty<Int>("value")
+            assertThrows<IllegalArgumentException> { instance.getProperty<Int>("unknown") }
+        }
+
+        // then
+        val lookups = events.ofType("catadioptre.kotlin.Lookup")
+        assertThat(lookups).hasSize(2)
+        assertThat(lookups[0].getString("memberKind")).isEqualTo("property")
+        assertThat(lookups[0].getString("memberName")).isEqualTo("value")
+        assertThat(lookups[0].getBoolean("found")).isTrue()
+        assertThat(lookups[1].getString("memberName")).isEqualTo("unknown")
+        assertThat(lookups[1].getBoolean("found")).isFalse()
+    }
+
+    @Test
+    internal fun `should record the failed function invocations`() {
+        // given
+        val instance = ReflectionUtilsObject()
+
+        // when
+        val events = record {
+            instance.invokeInvisible<Int>("divide", 12, 3)
+            assertThrows<IllegalArgumentException> { instance.invokeInvisible<Unit>("throwException") }
+        }
+
+        // then
+        val invocations = events.ofType("catadioptre.kotlin.FunctionInvoke")
+        assertThat(invocations).hasSize(2)
+        assertThat(invocations[0].getBoolean("succeeded")).isTrue()
+        assertThat(invocations[0].getClass("exceptionClass")).isNull()
+        assertThat(invocations[1].getString("memberName")).isEqualTo("throwException")
+        assertThat(invocations[1].getBoolean("succeeded")).isFalse()
+        assertThat(invocations[1].getClass("exceptionClass").name).isEqualTo(IllegalArgumentException::class.java.name)
+    }
+
+    private fun record(operations: () -> Unit): List<RecordedEvent> {
+        val file = Files.createTempFile("catadioptre-", ".jfr")
+        try {
+            Recording().use { recording ->
+                recording.enable("catadioptre.kotlin.FunctionInvoke").withoutThreshold()
+                recording.enable("catadioptre.kotlin.Lookup").withoutThreshold()
+                recording.start()
+                operations()
+                recording.stop()
+                recording.dump(file)
+            }
+            return RecordingFile.readAllEvents(file)
+        } finally {
+            Files.deleteIfExists(file)
+        }
+    }
+
+    private fun List<RecordedEvent>.ofType(type: String) = filter { it.eventType.name == type }.sortedBy { it.startTime }
+}
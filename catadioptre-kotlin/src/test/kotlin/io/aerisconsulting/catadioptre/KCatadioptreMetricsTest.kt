@@ -0,0 +1,166 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre
+
+import assertk.assertThat
+import assertk.assertions.hasSize
+import assertk.assertions.isEqualTo
+import assertk.assertions.isGreaterThanOrEqualTo
+import assertk.assertions.isTrue
+import assertk.assertions.startsWith
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.jupiter.api.AfterEach
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+internal class KCatadioptreMetricsTest {
+
+    @BeforeEach
+    internal fun enableMetrics() {
+        KCatadioptreMetrics.reset()
+        KCatadioptreMetrics.enable()
+    }
+
+    @AfterEach
+    internal fun disableMetrics() {
+        KCatadioptreMetrics.disable()
+        KCatadioptreMetrics.reset()
+    }
+
+    @Test
+    internal fun `should count the property lookups and invocations`() {
+        // given
+        val instance = ReflectionUtilsObject()
+
+        // when
+        instance.setProperty("value", 456)
+        instance.getProperty<Int>("value")
+        instance.getProperty<Int>("value")
+
+        // then
+        assertThat(KCatadioptreMetrics.propertyLookups).isEqualTo(3L)
+        assertThat(KCatadioptreMetrics.functionLookups).isEqualTo(0L)
+        assertThat(KCatadioptreMetrics.failedLookups).isEqualTo(0L)
+        assertThat(KCatadioptreMetrics.cacheHits).isGreaterThanOrEqualTo(2L)
+        assertThat(KCatadioptreMetrics.cacheHits + KCatadioptreMetrics.cacheMisses).isEqualTo(3L)
+        val members = KCatadioptreMetrics.members
+        assertThat(members).hasSize(1)
+        assertThat(members.first().lookups).isEqualTo(3L)
+        assertThat(members.first().invocations).isEqualTo(3L)
+    }
+
+    @Test
+    internal fun `should count the function lookups and invocations`() {
+        // given
+        val instance = ReflectionUtilsObject()
+
+        // when
+        instance.invokeInvisible<Int>("divide", 12, 3)
+        instance.invokeInvisible<Int>("divide", 12, 6)
+
+        // then
+        assertThat(KCatadioptreMetrics.propertyLookups).isEqualTo(0L)
+        assertThat(KCatadioptreMetrics.functionLookups).isEqualTo(2L)
+        assertThat(KCatadioptreMetrics.cacheHits).isGreaterThanOrEqualTo(1L)
+        val members = KCatadioptreMetrics.mostExpensiveMembers(10)
+        assertThat(members).hasSize(1)
+        assertThat(members.first().member)
+            .isEqualTo("fun io.aerisconsulting.catadioptre.ReflectionUtilsObject.divide(kotlin.Number, kotlin.Int): kotlin.Int")
+        assertThat(members.first().invocations).isEqualTo(2L)
+    }
+
+    @Test
+    internal fun `should hit the caches of the user class for a mock`() {
+        // given
+        val instance = ReflectionUtilsObject()
+        val wrapper = mockk<AbstractWrapper> { every { value } returns "the value" }
+        val otherWrapper = mockk<AbstractWrapper> { every { value } returns "the other value" }
+        instance.invokeInvisible<String>("extractValue", wrapper)
+        wrapper.getProperty<String>("value")
+        KCatadioptreMetrics.reset()
+
+        // when
+        val extractedValue = instance.invokeInvisible<String>("extractValue", otherWrapper)
+        val value = otherWrapper.getProperty<String>("value")
+
+        // then
+        assertThat(UserClasses.isGenerated(wrapper.javaClass)).isTrue()
+        assertThat(extractedValue).isEqualTo("the other value")
+        assertThat(value).isEqualTo("the other value")
+        assertThat(KCatadioptreMetrics.cacheHits).isEqualTo(2L)
+        assertThat(KCatadioptreMetrics.cacheMisses).isEqualTo(0L)
+    }
+
+    @Test
+    internal fun `should count the invocations that fail`() {
+        // given
+        val instance = ReflectionUtilsObject()
+
+        // when
+        assertThrows<IllegalArgumentException> { instance.invokeInvisible<Unit>("throwException") }
+
+        // then
+        assertThat(KCatadioptreMetrics.functionLookups).isEqualTo(1L)
+        val members = KCatadioptreMetrics.members
+        assertThat(members).hasSize(1)
+        assertThat(members.first().invocations).isEqualTo(1L)
+    }
+
+    @Test
+    internal fun `should count the failed lookups`() {
+        // given
+        val instance = ReflectionUtilsObject()
+
+        // when
+        assertThrows<IllegalArgumentException> { instance.getProperty<Int>("unknown") }
+        assertThrows<IllegalArgumentException> { instance.invokeInvisible<Int>("unknown") }
+
+        // then
+        assertThat(KCatadioptreMetrics.propertyLookups).isEqualTo(1L)
+        assertThat(KCatadioptreMetrics.functionLookups).isEqualTo(1L)
+        assertThat(KCatadioptreMetrics.failedLookups).isEqualTo(2L)
+        assertThat(KCatadioptreMetrics.members.isEmpty()).isTrue()
+    }
+
+    @Test
+    internal fun `should not record when disabled`() {
+        // given
+        KCatadioptreMetrics.disable()
+
+        // when
+        ReflectionUtilsObject().getProperty<Int>("value")
+
+        // then
+        assertThat(KCatadioptreMetrics.propertyLookups).isEqualTo(0L)
+        assertThat(KCatadioptreMetrics.members.isEmpty()).isTrue()
+    }
+
+    @Test
+    internal fun `should summarize the most expensive members`() {
+        // given
+        val instance = ReflectionUtilsObject()
+        instance.getProperty<Int>("value")
+        instance.invokeInvisible<Int>("returnValue")
+
+        // when
+        val summary = KCatadioptreMetrics.summary(1)
+
+        // then
+        assertThat(summary).startsWith("Catadioptre Kotlin: 1 property lookups, 1 function lookups")
+        assertThat(summary.lines()).hasSize(3)
+    }
+}
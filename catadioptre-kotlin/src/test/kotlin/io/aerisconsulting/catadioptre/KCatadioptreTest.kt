@@ -0,0 +1,164 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre
+
+import assertk.assertThat
+import assertk.assertions.isEqualTo
+import assertk.assertions.isSameAs
+import org.junit.jupiter.api.Test
+import java.lang.ref.WeakReference
+import java.net.URL
+import java.net.URLClassLoader
+
+internal class KCatadioptreTest {
+
+    @Test
+    internal fun `should clear the caches`() {
+        // given
+        val instance = ReflectionUtilsObject()
+        instance.getProperty<Int>("value")
+        instance.invokeInvisible<Int>("returnValue")
+        KCatadioptreMetrics.reset()
+        KCatadioptreMetrics.enable()
+
+        try {
+            // when
+            KCatadioptre.clearCaches()
+            instance.getProperty<Int>("value")
+            instance.invokeInvisible<Int>("returnValue")
+
+            // then
+            assertThat(KCatadioptreMetrics.cacheHits).isEqualTo(0L)
+            assertThat(KCatadioptreMetrics.cacheMisses).isEqualTo(2L)
+        } finally {
+            KCatadioptreMetrics.disable()
+            KCatadioptreMetrics.reset()
+        }
+    }
+
+    @Test
+    internal fun `should preload the members`() {
+        // given
+        val instance = ReflectionUtilsObject()
+        KCatadioptre.clearCaches()
+        KCatadioptreMetrics.reset()
+        KCatadioptreMetrics.enable()
+
+        try {
+            // when
+            KCatadioptre.preload(ReflectionUtilsObject::class)
+            val value = instance.getProperty<Int>("value")
+            val inheritedValue = instance.getProperty<Int>("inheritedValue")
+            val result = instance.invokeInvisible<Int>("inheritedDivide", 12, 3)
+
+            // then
+            assertThat(value).isEqualTo(123)
+            assertThat(inheritedValue).isEqualTo(789)
+            assertThat(result).isEqualTo(4)
+            assertThat(KCatadioptreMetrics.cacheHits).isEqualTo(3L)
+            assertThat(KCatadioptreMetrics.cacheMisses).isEqualTo(0L)
+        } finally {
+            KCatadioptreMetrics.disable()
+            KCatadioptreMetrics.reset()
+        }
+    }
+
+    @Test
+    internal fun `should release the class loaders`() {
+        // given
+        val classes = ReflectionUtilsObject::class.java.protectionDomain.codeSource.location
+        val classLoaders = mutableListOf<WeakReference<ClassLoader>>()
+
+        // when
+        repeat(50) {
+            val classLoader = IsolatingClassLoader(classes, javaClass.classLoader)
+            val instance = classLoader.loadClass(ReflectionUtilsObject::class.java.name)
+                .getDeclaredConstructor(Int::class.javaObjectType, Int::class.java).newInstance(123, 789)
+            assertThat(instance.javaClass.classLoader).isSameAs(classLoader)
+            instance.getProperty<Int>("value")
+            instance.invokeInvisible<Int>("divide", 12, 3)
+            instance.invokeInvisible<Int>("inheritedDivide", 12, 3)
+            classLoaders += WeakReference(classLoader)
+            classLoader.close()
+        }
+
+        // then
+        repeat(20) {
+            if (classLoaders.any { it.get() != null }) {
+                System.gc()
+                Thread.sleep(50)
+            }
+        }
+        assertThat(classLoaders.count { it.get() != null }).isEqualTo(0)
+    }
+
+    @Test
+    internal fun `should merge the metrics of the class loaders without retaining them`() {
+        // given
+        val classes = ReflectionUtilsObject::class.java.protectionDomain.codeSource.location
+        val classLoaders = mutableListOf<WeakReference<ClassLoader>>()
+        KCatadioptreMetrics.reset()
+        KCatadioptreMetrics.enable()
+
+        try {
+            // when
+            repeat(10) {
+                val classLoader = IsolatingClassLoader(classes, javaClass.classLoader)
+                val instance = classLoader.loadClass(ReflectionUtilsObject::class.java.name)
+                    .getDeclaredConstructor(Int::class.javaObjectType, Int::class.java).newInstance(123, 789)
+                instance.getProperty<Int>("value")
+                classLoaders += WeakReference(classLoader)
+                classLoader.close()
+            }
+
+            // then
+            val members = KCatadioptreMetrics.members
+            assertThat(members.size).isEqualTo(1)
+            assertThat(members.first().lookups).isEqualTo(10L)
+            assertThat(members.first().invocations).isEqualTo(10L)
+            repeat(20) {
+                if (classLoaders.any { it.get() != null }) {
+                    System.gc()
+                    Thread.sleep(50)
+                }
+            }
+            assertThat(classLoaders.count { it.get() != null }).isEqualTo(0)
+        } finally {
+            KCatadioptreMetrics.disable()
+            KCatadioptreMetrics.reset()
+        }
+    }
+
+    /**
+     * Class loader loading the fixtures by itself, and delegating all the other classes to its parent.
+     */
+    private class IsolatingClassLoader(classes: URL, parent: ClassLoader) : URLClassLoader(arrayOf(classes), parent) {
+
+        override fun loadClass(name: String, resolve: Boolean): Class<*> {
+            if (name !in FIXTURES) {
+                return super.loadClass(name, resolve)
+            }
+            return synchronized(getClassLoadingLock(name)) { findLoadedClass(name) ?: findClass(name) }
+        }
+
+        private companion object {
+
+            val FIXTURES = setOf(
+                ReflectionUtilsObject::class.java.name,
+                ParentReflectionUtilsObject::class.java.name
+            )
+        }
+    }
+}
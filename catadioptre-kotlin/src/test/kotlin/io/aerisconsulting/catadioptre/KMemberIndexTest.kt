@@ -0,0 +1,75 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre
+
+import assertk.assertThat
+import assertk.assertions.isEqualTo
+import assertk.assertions.isNull
+import assertk.assertions.isSameAs
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+
+internal class KMemberIndexTest {
+
+    @BeforeEach
+    internal fun clearCaches() {
+        KCatadioptre.clearCaches()
+        IndexedObject_KCatadioptreIndex.resolutions.set(0)
+    }
+
+    @Test
+    internal fun `should find the index of the class`() {
+        // when
+        val index = KMemberIndexes.of(IndexedObject::class.java)
+
+        // then
+        assertThat(index).isSameAs(IndexedObject_KCatadioptreIndex)
+        assertThat(KMemberIndexes.of(ReflectionUtilsObject::class.java)).isNull()
+        assertThat(KMemberIndexes.indexClassName(Nested::class.java))
+            .isEqualTo("io.aerisconsulting.catadioptre.KMemberIndexTest_Nested_KCatadioptreIndex")
+    }
+
+    @Test
+    internal fun `should get the property from the index`() {
+        // when
+        val result = IndexedObject().getProperty<String>("indexedValue")
+
+        // then
+        assertThat(result).isEqualTo("indexed")
+        assertThat(IndexedObject_KCatadioptreIndex.resolutions.get()).isEqualTo(1)
+    }
+
+    @Test
+    internal fun `should compute the properties not indexed`() {
+        // when
+        val result = IndexedObject().getProperty<Int>("inheritedValue")
+
+        // then
+        assertThat(result).isEqualTo(456)
+        assertThat(IndexedObject_KCatadioptreIndex.resolutions.get()).isEqualTo(1)
+    }
+
+    @Test
+    internal fun `should invoke the function from the index`() {
+        // when
+        val result = IndexedObject().invokeInvisible<String>("describe", 12L)
+
+        // then
+        assertThat(result).isEqualTo("Value 12")
+        assertThat(IndexedObject_KCatadioptreIndex.resolutions.get()).isEqualTo(1)
+    }
+
+    private class Nested
+}
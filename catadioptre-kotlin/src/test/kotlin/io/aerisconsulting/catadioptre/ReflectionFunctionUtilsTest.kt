@@ -202,6 +202,22 @@ internal class ReflectionFunctionUtilsTest {
             assertThat(value).isEqualTo("the value")
         }
 
+    @Test
+    internal fun `should execute the most specific overloaded function`() {
+        // given
+        val instance = OverloadedObject()
+
+        // when
+        val intResult: String = instance.invokeInvisible("describe", 12)
+        val numberResult: String = instance.invokeInvisible("describe", 12L)
+        val anyResult: String = instance.invokeInvisible("describe", "text")
+
+        // then
+        assertThat(intResult).isEqualTo("int")
+        assertThat(numberResult).isEqualTo("number")
+        assertThat(anyResult).isEqualTo("any")
+    }
+
     @Test
     internal fun `should execute a private suspended function without argument`() = runBlocking {
         // given
@@ -361,4 +377,44 @@ internal class ReflectionFunctionUtilsTest {
         assertThat(exception).isInstanceOf(IllegalArgumentException::class)
             .prop(IllegalArgumentException::message).isEqualTo("This is the exception")
     }
+
+    @Test
+    internal fun `should execute an existing function or return null`() {
+        // given
+        val instance = ReflectionUtilsObject()
+
+        // when
+        val value: Int? = instance.invokeInvisibleOrNull("divide", 12, 6)
+
+        // then
+        assertThat(value).isEqualTo(2)
+    }
+
+    @Test
+    internal fun `should return null for a missing function`() {
+        // given
+        val instance = ReflectionUtilsObject()
+
+        // when
+        val value: Int? = instance.invokeInvisibleOrNull("unknownFunction", 12)
+        val valueOnSecondProbe: Int? = instance.invokeInvisibleOrNull("unknownFunction", 12)
+
+        // then
+        assertThat(value).isNull()
+        assertThat(valueOnSecondProbe).isNull()
+    }
+
+    @Test
+    internal fun `should return null for a unique function when the arguments do not match`() {
+        // given
+        val instance = ReflectionUtilsObject()
+
+        // when
+        val valueWithWrongType: Int? = instance.invokeInvisibleOrNull("divide", "twelve", 6)
+        val valueWithWrongCount: Int? = instance.invokeInvisibleOrNull("divide", 12, 6, 3)
+
+        // then
+        assertThat(valueWithWrongType).isNull()
+        assertThat(valueWithWrongCount).isNull()
+    }
 }
@@ -105,6 +105,30 @@ internal class ReflectionPropertyUtilsTest {
         assertThat(value).isEqualTo(789)
     }
 
-}
 
+    @Test
+    internal fun `should get an existing property or null`() {
+        // given
+        val instance = ReflectionUtilsObject()
+
+        // when
+        val value: Int? = instance getPropertyOrNull "inheritedValue"
+
+        // then
+        assertThat(value).isEqualTo(789)
+    }
 
+    @Test
+    internal fun `should return null for a missing property`() {
+        // given
+        val instance = ReflectionUtilsObject()
+
+        // when
+        val value: Int? = instance getPropertyOrNull "unknownProperty"
+        val valueOnSecondProbe: Int? = instance getPropertyOrNull "unknownProperty"
+
+        // then
+        assertThat(value).isNull()
+        assertThat(valueOnSecondProbe).isNull()
+    }
+}
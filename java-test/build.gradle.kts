@@ -30,6 +30,10 @@ dependencies {
     annotationProcessor(project(":catadioptre-annotations"))
 
     testImplementation(project(":catadioptre-java"))
+    testImplementation(testFixtures(project(":catadioptre-java")))
+    // Required to run the processor in the tests of reproducibility.
+    testImplementation(project(":catadioptre-annotations"))
+    testImplementation("jakarta.transaction:jakarta.transaction-api:2.+")
     testImplementation("org.assertj:assertj-core:3.20.2")
     testImplementation("org.mockito:mockito-junit-jupiter:4.0.0")
     testImplementation("org.junit.jupiter:junit-jupiter:$junitVersion")
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.test;
+
+import static io.aerisconsulting.catadioptre.AllocationMeter.assertAllocatesAtMost;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Guards the bytes allocated by each call of the generated proxies, once warmed up.
+ * <p>
+ * The budgets are about 1.5 times the current allocations, with 16 bytes for the proxies that do not allocate, and
+ * should be lowered when a proxy allocates less.
+ *
+ * @author Eric Jessé
+ */
+class AllocationBudgetTest {
+
+	private final Map<String, Double> markers = new HashMap<>();
+
+	private final PublicType instance = new PublicType(markers, 1.0, Optional.empty());
+
+	@Test
+	@DisplayName("should read the value of a property within the budget")
+	void shouldReadTheValueOfAPropertyWithinTheBudget() {
+		assertAllocatesAtMost(16, () -> TestablePublicType.markers(instance));
+	}
+
+	@Test
+	@DisplayName("should write the value of a property within the budget")
+	void shouldWriteTheValueOfAPropertyWithinTheBudget() {
+		assertAllocatesAtMost(16, () -> TestablePublicType.markers(instance, markers));
+	}
+
+	@Test
+	@DisplayName("should clear the value of a property within the budget")
+	void shouldClearTheValueOfAPropertyWithinTheBudget() {
+		assertAllocatesAtMost(16, () -> TestablePublicType.clearMarkers(instance));
+	}
+
+	@Test
+	@DisplayName("should write the value of an inherited property within the budget")
+	void shouldWriteTheValueOfAnInheritedPropertyWithinTheBudget() {
+		assertAllocatesAtMost(40, () -> TestableAbstractCatadioptreExample.typedProperty(instance, 2.0));
+	}
+
+	@Test
+	@DisplayName("should call a method within the budget")
+	void shouldCallAMethodWithinTheBudget() {
+		final Double[] values = {1.0, 3.0, 6.0};
+		assertAllocatesAtMost(1024, () -> TestablePublicType.multiplySum(instance, 2.0, values));
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.test;
+
+import io.aerisconsulting.catadioptre.java.JavaTestableProcessor;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GenerationReproducibilityTest {
+
+	private static final Path FIXTURES = Paths.get("src", "main", "java");
+
+	@TempDir
+	Path workingDir;
+
+	@Test
+	@DisplayName("should generate the same sources byte for byte when processing the fixtures twice")
+	void shouldGenerateTheSameSourcesWhenProcessingTwice() throws IOException {
+		final List<File> sources = fixtures();
+		// The second run receives the sources in the reverse order, to detect any dependency on the input order.
+		final List<File> reversedSources = new ArrayList<>(sources);
+		Collections.reverse(reversedSources);
+
+		final Map<String, byte[]> firstGeneration = process(workingDir.resolve("first"), sources);
+		final Map<String, byte[]> secondGeneration = process(workingDir.resolve("second"), reversedSources);
+
+		Assertions.assertThat(firstGeneration).isNotEmpty();
+		Assertions.assertThat(secondGeneration.keySet()).containsExactlyElementsOf(firstGeneration.keySet());
+		firstGeneration.forEach((file, content) ->
+				Assertions.assertThat(secondGeneration.get(file)).as(file).isEqualTo(content)
+		);
+	}
+
+	@Test
+	@DisplayName("should not rewrite the unchanged sources when processing the fixtures again")
+	void shouldNotRewriteTheUnchangedSources() throws IOException {
+		final List<File> sources = fixtures();
+		final Path outputDir = workingDir.resolve("incremental");
+		final Map<String, byte[]> firstGeneration = process(outputDir, sources);
+		final Path generatedDir = outputDir.resolve("generated").resolve("catadioptre");
+		// The files are dated in the past, so that a rewrite is detected whatever the resolution of the timestamps.
+		final FileTime past = FileTime.from(Instant.parse("2021-01-01T00:00:00Z"));
+		for (final String file : firstGeneration.keySet()) {
+			Files.setLastModifiedTime(generatedDir.resolve(file), past);
+		}
+
+		final Map<String, byte[]> secondGeneration = process(outputDir, sources);
+
+		Assertions.assertThat(firstGeneration).isNotEmpty();
+		Assertions.assertThat(secondGeneration.keySet()).containsExactlyElementsOf(firstGeneration.keySet());
+		for (final String file : firstGeneration.keySet()) {
+			Assertions.assertThat(Files.getLastModifiedTime(generatedDir.resolve(file))).as(file).isEqualTo(past);
+		}
+	}
+
+	/**
+	 * Returns the sources of the fixtures, sorted by path.
+	 */
+	private List<File> fixtures() throws IOException {
+		try (Stream<Path> paths = Files.walk(FIXTURES)) {
+			return paths.filter(p -> p.toString().endsWith(".java")).map(Path::toFile).sorted()
+					.collect(Collectors.toList());
+		}
+	}
+
+	/**
+	 * Runs the {@link JavaTestableProcessor} on the sources and returns the content of the generated files by
+	 * relative path.
+	 */
+	private Map<String, byte[]> process(final Path outputDir, final List<File> sources) throws IOException {
+		final Path sourceOutput = Files.createDirectories(outputDir.resolve("generated").resolve("java"));
+		final Path classOutput = Files.createDirectories(outputDir.resolve("classes"));
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+			final Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(
+					sources);
+			final List<String> options = Arrays.asList(
+					"-proc:only",
+					"-classpath", System.getProperty("java.class.path"),
+					"-s", sourceOutput.toString(),
+					"-d", classOutput.toString()
+			);
+			final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null,
+					compilationUnits);
+			task.setProcessors(Collections.singletonList(new JavaTestableProcessor()));
+			Assertions.assertThat(task.call()).isTrue();
+		}
+
+		// The processor writes the proxies in a sibling folder of the standard generated sources.
+		final Path generatedDir = outputDir.resolve("generated").resolve("catadioptre");
+		final Map<String, byte[]> result = new TreeMap<>();
+		try (Stream<Path> paths = Files.walk(generatedDir)) {
+			for (final Path path : paths.filter(Files::isRegularFile).collect(Collectors.toList())) {
+				result.put(generatedDir.relativize(path).toString(), Files.readAllBytes(path));
+			}
+		}
+		return result;
+	}
+}
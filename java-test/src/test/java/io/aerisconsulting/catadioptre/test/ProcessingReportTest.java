@@ -0,0 +1,109 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.test;
+
+import io.aerisconsulting.catadioptre.java.JavaTestableProcessor;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProcessingReportTest {
+
+	private static final Path FIXTURES = Paths.get("src", "main", "java");
+
+	@TempDir
+	Path workingDir;
+
+	@Test
+	@DisplayName("should write the processing report into the directory of the option")
+	void shouldWriteTheProcessingReport() throws IOException {
+		final Path reportDir = workingDir.resolve("reports");
+
+		process("-Acatadioptre.report=" + reportDir);
+
+		final Path reportFile = reportDir.resolve("java-processor.json");
+		Assertions.assertThat(reportFile).isRegularFile();
+		final String report = new String(Files.readAllBytes(reportFile), StandardCharsets.UTF_8);
+		Assertions.assertThat(report)
+				.startsWith("{\n  \"processor\": \"java\",\n  \"rounds\": [")
+				.contains("\"round\": 1")
+				.contains("\"durationNanos\": ")
+				.contains("\"type\": \"" + PublicType.class.getName() + "\"");
+		final Matcher publicType = Pattern.compile("\"type\": \"" + Pattern.quote(PublicType.class.getName())
+				+ "\",\\s+\"processedElements\": (\\d+),\\s+\"generatedProxies\": (\\d+),").matcher(report);
+		Assertions.assertThat(publicType.find()).as(report).isTrue();
+		Assertions.assertThat(Integer.parseInt(publicType.group(1))).isPositive();
+		Assertions.assertThat(Integer.parseInt(publicType.group(2))).isPositive();
+		final Matcher bytes = Pattern.compile("\"generatedBytes\": (\\d+),\\s+\"writtenBytes\": (\\d+)")
+				.matcher(report);
+		Assertions.assertThat(bytes.find()).as(report).isTrue();
+		// All the files are new in the first processing, they are all written.
+		Assertions.assertThat(bytes.group(2)).isEqualTo(bytes.group(1));
+	}
+
+	@Test
+	@DisplayName("should not write the processing report when the option is not set")
+	void shouldNotWriteTheProcessingReportWithoutOption() throws IOException {
+		process();
+
+		try (Stream<Path> paths = Files.walk(workingDir)) {
+			Assertions.assertThat(paths.filter(p -> p.getFileName().toString().endsWith("-processor.json")))
+					.isEmpty();
+		}
+	}
+
+	/**
+	 * Runs the {@link JavaTestableProcessor} on the fixtures with the additional {@code processorOptions}.
+	 */
+	private void process(final String... processorOptions) throws IOException {
+		final List<File> sources;
+		try (Stream<Path> paths = Files.walk(FIXTURES)) {
+			sources = paths.filter(p -> p.toString().endsWith(".java")).map(Path::toFile).sorted()
+					.collect(Collectors.toList());
+		}
+		final Path sourceOutput = Files.createDirectories(workingDir.resolve("generated").resolve("java"));
+		final Path classOutput = Files.createDirectories(workingDir.resolve("classes"));
+		final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+			final List<String> options = Stream.concat(Stream.of(
+					"-proc:only",
+					"-classpath", System.getProperty("java.class.path"),
+					"-s", sourceOutput.toString(),
+					"-d", classOutput.toString()
+			), Arrays.stream(processorOptions)).collect(Collectors.toList());
+			final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null,
+					fileManager.getJavaFileObjectsFromFiles(sources));
+			task.setProcessors(Collections.singletonList(new JavaTestableProcessor()));
+			Assertions.assertThat(task.call()).isTrue();
+		}
+	}
+}
@@ -141,4 +141,16 @@ class PublicTypeTest {
 
 		Assertions.assertThat(result).hasSize(1);
 	}
+
+	@Test
+	@DisplayName("should generate the index of the proxied members")
+	void shouldGenerateTheIndexOfTheProxiedMembers() throws Exception {
+		PublicType_CatadioptreIndex index = new PublicType_CatadioptreIndex();
+
+		Assertions.assertThat(index.getField("markers")).isEqualTo(PublicType.class.getDeclaredField("markers"));
+		Assertions.assertThat(index.getMethod("multiplySum"))
+				.isEqualTo(PublicType.class.getDeclaredMethod("multiplySum", double.class, Double[].class));
+		Assertions.assertThat(index.getField("typedProperty")).isNull();
+		Assertions.assertThat(index.getMethod("toString")).isNull();
+	}
 }
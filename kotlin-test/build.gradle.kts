@@ -46,6 +46,17 @@ dependencies {
     kapt(project(":catadioptre-annotations"))
 
     testImplementation(project(":catadioptre-kotlin"))
+    // Required to run the processor in the tests of reproducibility.
+    testImplementation(project(":catadioptre-annotations")) {
+        // The Java runtime declares classes with the same names as the Kotlin one.
+        exclude(module = "catadioptre-java")
+    }
+    // Only the fixtures are used, the Java runtime declares classes with the same names as the Kotlin one.
+    testImplementation(project(":catadioptre-java", "testFixturesRuntimeElements")) {
+        isTransitive = false
+    }
+    testImplementation("jakarta.transaction:jakarta.transaction-api:2.+")
+    testImplementation("dev.zacsweers.kctfork:core:0.5.0")
     testImplementation("org.jetbrains.kotlinx:kotlinx-coroutines-test:${kotlinCoroutinesVersion}")
     testImplementation("com.willowtreeapps.assertk:assertk:$assertkVersion")
     testImplementation("com.willowtreeapps.assertk:assertk-jvm:$assertkVersion")
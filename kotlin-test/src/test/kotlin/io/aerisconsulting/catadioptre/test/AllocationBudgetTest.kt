@@ -0,0 +1,68 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.test
+
+import io.aerisconsulting.catadioptre.AllocationMeter.assertAllocatesAtMost
+import io.aerisconsulting.catadioptre.test.catadioptre.clearDefaultProperty
+import io.aerisconsulting.catadioptre.test.catadioptre.defaultProperty
+import io.aerisconsulting.catadioptre.test.catadioptre.divideSum
+import io.aerisconsulting.catadioptre.test.catadioptre.multiplySum
+import io.aerisconsulting.catadioptre.test.catadioptre.sumAsDouble
+import kotlinx.coroutines.runBlocking
+import org.junit.jupiter.api.Test
+
+/**
+ * Guards the bytes allocated by each call of the generated proxies, once warmed up.
+ *
+ * The budgets are about 1.5 times the current allocations and should be lowered when a proxy allocates less.
+ *
+ * @author Eric Jessé
+ */
+internal class AllocationBudgetTest {
+
+    private val instance = InternalType()
+
+    private val markers = mapOf("other" to 2.0)
+
+    @Test
+    internal fun `should read the value of a property within the budget`() {
+        assertAllocatesAtMost(136) { instance.defaultProperty() }
+    }
+
+    @Test
+    internal fun `should write the value of a property within the budget`() {
+        assertAllocatesAtMost(96) { instance.defaultProperty(markers) }
+    }
+
+    @Test
+    internal fun `should clear the value of a property within the budget`() {
+        assertAllocatesAtMost(96) { instance.clearDefaultProperty() }
+    }
+
+    @Test
+    internal fun `should call a function with variable arguments within the budget`() {
+        assertAllocatesAtMost(3584) { instance.multiplySum(2.0, 1.0, 3.0, 6.0) }
+    }
+
+    @Test
+    internal fun `should call an inherited function within the budget`() {
+        assertAllocatesAtMost(1600) { instance.sumAsDouble(2.546, 1534L) }
+    }
+
+    @Test
+    internal fun `should call a suspend function within the budget`() {
+        assertAllocatesAtMost(3904) { runBlocking { instance.divideSum(2.0, 1.0, 3.0, 6.0) } }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021 AERIS-Consulting e.U.
+ *
+ * AERIS-Consulting e.U. licenses this file to you under the Apache License, version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at:
+ *
+ * https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package io.aerisconsulting.catadioptre.test
+
+import assertk.assertThat
+import assertk.assertions.isEqualTo
+import assertk.assertions.isNotEmpty
+import com.tschuchort.compiletesting.KotlinCompilation
+import com.tschuchort.compiletesting.SourceFile
+import org.jetbrains.kotlin.compiler.plugin.ExperimentalCompilerApi
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+import javax.annotation.processing.Processor
+
+@OptIn(ExperimentalCompilerApi::class)
+internal class GenerationReproducibilityTest {
+
+    @TempDir
+    lateinit var workingDir: File
+
+    @Test
+    internal fun `should generate the same sources byte for byte when processing the fixtures twice`() {
+        val sources = File("src/main/kotlin").walkTopDown().filter { it.extension == "kt" }.sorted().toList()
+
+        val firstGeneration = process(File(workingDir, "first"), sources)
+        // The second run receives the sources in the reverse order, to detect any dependency on the input order.
+        val secondGeneration = process(File(workingDir, "second"), sources.reversed())
+
+        assertThat(firstGeneration.keys).isNotEmpty()
+        assertThat(secondGeneration.keys).isEqualTo(firstGeneration.keys)
+        firstGeneration.forEach { (file, content) ->
+            assertThat(secondGeneration.getValue(file).decodeToString(), file).isEqualTo(content.decodeToString())
+        }
+    }
+
+    /**
+     * Runs the Kotlin processor on the sources with kapt and returns the content of the generated files by
+     * relative path.
+     */
+    private fun process(outputDir: File, sources: List<File>): Map<String, ByteArray> {
+        val compilation = KotlinCompilation().apply {
+            workingDir = outputDir
+            this.sources = sources.map(SourceFile::fromPath)
+            annotationProcessors = listOf(createProcessor())
+            inheritClassPath = true
+        }
+        val result = compilation.compile()
+        assertThat(result.exitCode, result.messages).isEqualTo(KotlinCompilation.ExitCode.OK)
+
+        // The processor writes the proxies in a sibling folder of the Kotlin sources generated by kapt.
+        val generatedDir = File(compilation.kaptKotlinGeneratedDir.parentFile, "catadioptre")
+        return generatedDir.walkTopDown().filter { it.isFile }
+            .associate { it.relativeTo(generatedDir).path to it.readBytes() }
+            .toSortedMap()
+    }
+
+    /**
+     * The processor is internal to the annotations module and has to be created by reflection.
+     */
+    private fun createProcessor(): Processor {
+        return Class.forName("io.aerisconsulting.catadioptre.kotlin.KotlinTestableProcessor")
+            .getDeclaredConstructor()
+            .apply { isAccessible = true }
+            .newInstance() as Processor
+    }
+}
@@ -15,6 +15,8 @@
 package io.aerisconsulting.catadioptre.test
 
 import assertk.assertThat
+import assertk.assertions.contains
+import assertk.assertions.doesNotContain
 import assertk.assertions.isEqualTo
 import assertk.assertions.isNull
 import assertk.assertions.isSameAs
@@ -127,4 +129,14 @@ internal class InternalTypeTest {
         assertThat(result).isEqualTo(1536.546)
     }
 
+    @Test
+    internal fun `should generate the index of the proxied members`() {
+        val index = InternalType_KCatadioptreIndex
+
+        assertThat(index.properties).contains("defaultProperty")
+        assertThat(index.properties).doesNotContain("privateTypedProperty")
+        assertThat(index.functions).contains("multiplySum")
+        assertThat(index.functions).doesNotContain("createListOfPrivateClasses")
+    }
+
 }
@@ -17,10 +17,13 @@ rootProject.name = "catadioptre"
 include("catadioptre-java")
 include("catadioptre-kotlin")
 include("catadioptre-annotations")
+include("catadioptre-agent")
 
 include("kotlin-test")
 include("java-test")
 
+include("catadioptre-benchmarks")
+
 include("examples:catadioptre-kotlin-gradle-kotlin-dsl-example")
 include("examples:catadioptre-kotlin-gradle-groovy-dsl-example")
 